@@ -0,0 +1,850 @@
+/**
+ * Esta clase calcula la suma de dos abanicos complejos dados por sus extremos, con el mismo
+algoritmo y los mismos resultados bit a bit que ComplexFan.addition sin simplificación, pero
+sin crear objetos: las partes de QuadrantMask se recorren con sus extremos, los algoritmos de
+los casos de ComplexFan trabajan sobre un solo AdditionOperands y las uniones de los resultados
+parciales (unionOfMIs y unionOfAIs) se hacen sobre arreglos de trabajo que se reservan una sola
+vez, en el constructor. ComplexFanBatch la usa para sumar y restar lotes sobre sus columnas.
+
+Los lı́mites se manejan empaquetados como en ImmutableInterval.bounds y el resultado queda en
+los atributos mfe, mse, afe, ase y flags, este último empaquetado como en ComplexFanBatch. Un
+objeto guarda su espacio de trabajo, ası́ que no se debe usar desde varios hilos a la vez.
+ * @author Manuel Cipriano
+ */
+
+final class AdditionKernel {
+	private static final int PARTS = 5;					// el máximo de partes de un operando
+	private static final int PAIRS = PARTS*PARTS;		// el máximo de pares de partes
+
+	double mfe, mse;						// los extremos de magnitud del resultado
+	double afe, ase;						// los extremos de ángulo del resultado
+	int flags;								// los lı́mites del resultado, empaquetados como en ComplexFanBatch
+
+	private final AdditionOperands op = new AdditionOperands();	// los valores del par de partes actual
+	private final double []partFE = new double[PARTS];		// las partes del primer operando, rotadas a su primer extremo
+	private final double []partSE = new double[PARTS];
+	private final int []partBounds = new int[PARTS];
+	private final double []partRotation = new double[PARTS];	// el primer extremo de cada parte antes de rotarla
+	private final double []resMFE = new double[PAIRS];		// los resultados de cada par de partes
+	private final double []resMSE = new double[PAIRS];
+	private final int []resMBounds = new int[PAIRS];
+	private final double []resAFE = new double[PAIRS];
+	private final double []resASE = new double[PAIRS];
+	private final int []resABounds = new int[PAIRS];
+	private final double []unionFE = new double[2*PAIRS];	// los intervalos que une unionAll
+	private final double []unionSE = new double[2*PAIRS];
+	private final int []unionBounds = new int[2*PAIRS];
+	private final double []arcFE = new double[2*PAIRS];		// los arcos de circularUnion
+	private final double []arcSE = new double[2*PAIRS];
+	private final int []arcBounds = new int[2*PAIRS];
+	private int unionCount;									// el número de intervalos de unionAll
+	private double nc, nd, nfe, nse;						// el segundo operando negado, para subtract
+	private int nmBounds;
+
+	/**
+	 * Función para verificar que dos abanicos complejos se puedan sumar, es decir, que
+	ComplexFan.addition no los rechace como no válidos: si no son los dos casi puntuales, el
+	intervalo de ángulo de cada uno, ya rotado, debe tener al menos una parte.
+	 * @param a el primer extremo de magnitud del primer operando
+	 * @param b el segundo extremo de magnitud del primer operando
+	 * @param mb1 los lı́mites de magnitud del primer operando
+	 * @param fe1 el primer extremo de ángulo del primer operando
+	 * @param se1 el segundo extremo de ángulo del primer operando
+	 * @param ab1 los lı́mites de ángulo del primer operando
+	 * @param c el primer extremo de magnitud del segundo operando
+	 * @param d el segundo extremo de magnitud del segundo operando
+	 * @param mb2 los lı́mites de magnitud del segundo operando
+	 * @param fe2 el primer extremo de ángulo del segundo operando
+	 * @param se2 el segundo extremo de ángulo del segundo operando
+	 * @param ab2 los lı́mites de ángulo del segundo operando
+	 * @return si la suma es válida
+	 */
+	boolean addable(double a, double b, int mb1, double fe1, double se1, int ab1, double c, double d, int mb2, double fe2, double se2, int ab2){
+		if (isNearPoint(a, b, mb1, fe1, se1, ab1) && isNearPoint(c, d, mb2, fe2, se2, ab2)){
+			return true;
+		}
+		return code(fe1, se1, ab1, fe1)!=QuadrantMask.EMPTY && code(fe2, se2, ab2, fe1)!=QuadrantMask.EMPTY;
+	}
+
+	/**
+	 * Función para verificar que se pueda restar el segundo abanico complejo del primero,
+	como en ComplexFan.subtraction.
+	 * @param a el primer extremo de magnitud del primer operando
+	 * @param b el segundo extremo de magnitud del primer operando
+	 * @param mb1 los lı́mites de magnitud del primer operando
+	 * @param fe1 el primer extremo de ángulo del primer operando
+	 * @param se1 el segundo extremo de ángulo del primer operando
+	 * @param ab1 los lı́mites de ángulo del primer operando
+	 * @param c el primer extremo de magnitud del segundo operando
+	 * @param d el segundo extremo de magnitud del segundo operando
+	 * @param mb2 los lı́mites de magnitud del segundo operando
+	 * @param fe2 el primer extremo de ángulo del segundo operando
+	 * @param se2 el segundo extremo de ángulo del segundo operando
+	 * @param ab2 los lı́mites de ángulo del segundo operando
+	 * @return si la resta es válida
+	 */
+	boolean subtractable(double a, double b, int mb1, double fe1, double se1, int ab1, double c, double d, int mb2, double fe2, double se2, int ab2){
+		negate(c, d, mb2, fe2, se2);
+		return addable(a, b, mb1, fe1, se1, ab1, nc, nd, nmBounds, nfe, nse, ab2);
+	}
+
+	/**
+	 * Función para restar el segundo abanico complejo del primero, como en
+	ComplexFan.subtraction: se suma el primero con la negación del segundo.
+	 * @param a el primer extremo de magnitud del primer operando
+	 * @param b el segundo extremo de magnitud del primer operando
+	 * @param mb1 los lı́mites de magnitud del primer operando
+	 * @param fe1 el primer extremo de ángulo del primer operando
+	 * @param se1 el segundo extremo de ángulo del primer operando
+	 * @param ab1 los lı́mites de ángulo del primer operando
+	 * @param c el primer extremo de magnitud del segundo operando
+	 * @param d el segundo extremo de magnitud del segundo operando
+	 * @param mb2 los lı́mites de magnitud del segundo operando
+	 * @param fe2 el primer extremo de ángulo del segundo operando
+	 * @param se2 el segundo extremo de ángulo del segundo operando
+	 * @param ab2 los lı́mites de ángulo del segundo operando
+	 * @return si la resta es válida; si no lo es el resultado no se modifica
+	 */
+	boolean subtract(double a, double b, int mb1, double fe1, double se1, int ab1, double c, double d, int mb2, double fe2, double se2, int ab2){
+		negate(c, d, mb2, fe2, se2);
+		return add(a, b, mb1, fe1, se1, ab1, nc, nd, nmBounds, nfe, nse, ab2);
+	}
+
+	/**
+	 * Función para sumar dos abanicos complejos, como en ComplexFan.addition(cf1, cf2). Si
+	los dos son casi puntuales se suman como en pointAddition; si no, se recorren los pares de
+	partes igual que en ComplexFan.addition, con el atajo del cı́rculo completo, y se unen los
+	resultados. Los contadores de ComplexFanStats, salvo el de sumas, se incrementan igual que
+	en ComplexFan.addition.
+	 * @param a el primer extremo de magnitud del primer operando
+	 * @param b el segundo extremo de magnitud del primer operando
+	 * @param mb1 los lı́mites de magnitud del primer operando
+	 * @param fe1 el primer extremo de ángulo del primer operando
+	 * @param se1 el segundo extremo de ángulo del primer operando
+	 * @param ab1 los lı́mites de ángulo del primer operando
+	 * @param c el primer extremo de magnitud del segundo operando
+	 * @param d el segundo extremo de magnitud del segundo operando
+	 * @param mb2 los lı́mites de magnitud del segundo operando
+	 * @param fe2 el primer extremo de ángulo del segundo operando
+	 * @param se2 el segundo extremo de ángulo del segundo operando
+	 * @param ab2 los lı́mites de ángulo del segundo operando
+	 * @return si la suma es válida; si no lo es el resultado no se modifica
+	 */
+	boolean add(double a, double b, int mb1, double fe1, double se1, int ab1, double c, double d, int mb2, double fe2, double se2, int ab2){
+		if (isNearPoint(a, b, mb1, fe1, se1, ab1) && isNearPoint(c, d, mb2, fe2, se2, ab2)){
+			pointAddition(a, b, fe1, se1, c, d, fe2, se2);
+			if (ComplexFanStats.ENABLED && isFullCircle(afe, ase, flags>>2)){
+				ComplexFanStats.fullCircleResults.increment();
+			}
+			return true;
+		}
+		// el primer operando se rota por su primer extremo y el segundo por el mismo ángulo
+		double rotation = fe1;
+		int code1 = code(fe1, se1, ab1, rotation);
+		int code2 = code(fe2, se2, ab2, rotation);
+		if (code1==QuadrantMask.EMPTY || code2==QuadrantMask.EMPTY){
+			return false;
+		}
+		double rfe1 = fe1, rse1 = se1;
+		if (rotation!=0.0){
+			rfe1 = normalizedFE(fe1-rotation, se1-rotation);
+			rse1 = normalizedSE(fe1-rotation, se1-rotation);
+		}
+		double rfe2 = fe2, rse2 = se2;
+		if (rotation!=0.0){
+			rfe2 = normalizedFE(fe2-rotation, se2-rotation);
+			rse2 = normalizedSE(fe2-rotation, se2-rotation);
+		}
+		int n1 = QuadrantMask.count(code1);
+		int n2 = QuadrantMask.count(code2);
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.fragments[n1].increment();
+			ComplexFanStats.fragments[n2].increment();
+		}
+		char fei1 = fei(ab1), sei1 = sei(ab1);
+		for (int i=0; i<n1; i++){
+			double pfe = QuadrantMask.firstExtreme(code1, i, rfe1);
+			double pse = QuadrantMask.secondExtreme(code1, i, rse1);
+			double rot = pfe;
+			if (rot!=0.0){
+				double fe = pfe-rot;
+				double se = pse-rot;
+				pfe = normalizedFE(fe, se);
+				pse = normalizedSE(fe, se);
+			}
+			// la parte se normaliza otra vez al crear el abanico complejo de la parte
+			partFE[i] = normalizedFE(pfe, pse);
+			partSE[i] = normalizedSE(pfe, pse);
+			partBounds[i] = ImmutableInterval.bounds(QuadrantMask.feIncluded(code1, i, fei1), QuadrantMask.seIncluded(code1, i, sei1));
+			partRotation[i] = rot;
+		}
+		// las magnitudes de las partes, normalizadas como en el constructor de ComplexFan
+		boolean origin1 = isOrigin(a, b, mb1);
+		boolean origin2 = isOrigin(c, d, mb2);
+		int nmb1 = a>b ? ImmutableInterval.swap(mb1) : mb1;
+		int nmb2 = c>d ? ImmutableInterval.swap(mb2) : mb2;
+		double na, nb, ncc, ndd;
+		if (a>b){
+			na = b;
+			nb = a;
+		}else{
+			na = a;
+			nb = b;
+		}
+		if (c>d){
+			ncc = d;
+			ndd = c;
+		}else{
+			ncc = c;
+			ndd = d;
+		}
+		char fei2 = fei(ab2), sei2 = sei(ab2);
+		int pairs = n1*n2;
+		int k = 0;
+		int covered = 0;
+		int skipped = 0;
+		boolean full = false;
+		for (int i=0; i<n1; i++){
+			double v1fe = partFE[i];
+			double v1se = partSE[i];
+			int v1b = partBounds[i];
+			double rot1 = partRotation[i];
+			for (int j=0; j<n2; j++){
+				double qfe = QuadrantMask.firstExtreme(code2, j, rfe2);
+				double qse = QuadrantMask.secondExtreme(code2, j, rse2);
+				if (rot1!=0.0){
+					qfe -= rot1;
+					qse -= rot1;
+				}
+				double v2fe = normalizedFE(qfe, qse);
+				double v2se = normalizedSE(qfe, qse);
+				int v2b = ImmutableInterval.bounds(QuadrantMask.feIncluded(code2, j, fei2), QuadrantMask.seIncluded(code2, j, sei2));
+				int caso = origin1||origin2 ? 0 : ComplexFan.caseOf(v2fe, v2se);
+				if (full){
+					magnitudeOfCase(caso, k, na, nb, nmb1, v1fe, v1se, v1b, ncc, ndd, nmb2, v2fe, v2se, v2b);
+					k++;
+					skipped++;
+					continue;
+				}
+				double rfe, rse;
+				int rab;
+				switch (caso) {
+					case 0:
+						if (isOrigin(a, b, mb1)){
+							setMagnitude(k, ncc, ndd, nmb2);
+							rfe = v2fe;
+							rse = v2se;
+							rab = v2b;
+						}else{
+							setMagnitude(k, na, nb, nmb1);
+							rfe = v1fe;
+							rse = v1se;
+							rab = v1b;
+						}
+						break;
+					case 1:
+					case 2:
+					case 3:
+						op.set(na, nb, nmb1, v1fe, v1se, v1b, ncc, ndd, nmb2, v2fe, v2se, v2b);
+						if (caso==1){
+							ComplexFan.magnitudeCase1(op);
+							ComplexFan.angleCase1(op);
+						}else if (caso==2){
+							ComplexFan.magnitudeCase2(op);
+							ComplexFan.angleCase2(op);
+						}else{
+							ComplexFan.magnitudeCase3(op);
+							ComplexFan.angleCase3(op);
+						}
+						setMagnitude(k, op.e, op.f, ImmutableInterval.CLOSED);
+						rfe = normalizedFE(op.alfa5, op.alfa6);
+						rse = normalizedSE(op.alfa5, op.alfa6);
+						rab = ImmutableInterval.CLOSED;
+						break;
+					default:
+						// se rota por el primer extremo del segundo operando y se usa el caso 2 con los operandos al revés
+						double rot2 = v2fe;
+						double w1fe = normalizedFE(v1fe-rot2, v1se-rot2);
+						double w1se = normalizedSE(v1fe-rot2, v1se-rot2);
+						double w2fe = normalizedFE(v2fe-rot2, v2se-rot2);
+						double w2se = normalizedSE(v2fe-rot2, v2se-rot2);
+						op.set(ncc, ndd, nmb2, w2fe, w2se, v2b, na, nb, nmb1, w1fe, w1se, v1b);
+						ComplexFan.magnitudeCase2(op);
+						ComplexFan.angleCase2(op);
+						setMagnitude(k, op.e, op.f, ImmutableInterval.CLOSED);
+						rfe = normalizedFE(op.alfa5, op.alfa6);
+						rse = normalizedSE(op.alfa5, op.alfa6);
+						rab = ImmutableInterval.CLOSED;
+						if (!isFullCircle(rfe, rse, rab)){
+							double fe = rfe+rot2;
+							double se = rse+rot2;
+							rfe = normalizedFE(fe, se);
+							rse = normalizedSE(fe, se);
+						}
+						break;
+				}
+				if (Double.isNaN(rfe) || Double.isNaN(rse)){
+					// un operando que toca al origen puede dejar sin ángulo a los casos; [0, 360] siempre encierra
+					rfe = 0.0d;
+					rse = 360.0d;
+					rab = ImmutableInterval.CLOSED;
+				}
+				if (rot1!=0 && !isFullCircle(rfe, rse, rab)){
+					double fe = rfe+rot1;
+					double se = rse+rot1;
+					rfe = normalizedFE(fe, se);
+					rse = normalizedSE(fe, se);
+				}
+				resAFE[k] = rfe;
+				resASE[k] = rse;
+				resABounds[k] = rab;
+				k++;
+				if (pairs>1){
+					covered |= QuadrantMask.coverage(rfe, rse, fei(rab), sei(rab));
+					full = covered==QuadrantMask.FULL;
+				}
+			}
+		}
+		int tab;
+		if (full){
+			if (ComplexFanStats.ENABLED && skipped>0){
+				ComplexFanStats.fullCircleAdditions.increment();
+				ComplexFanStats.fullCircleSkippedPairs.add(skipped);
+			}
+			unionOfMIs(k);
+			afe = 0.0d;
+			ase = 360.0d;
+			tab = ImmutableInterval.CLOSED;
+		}else{
+			unionOfMIs(k);
+			tab = unionOfAIs(k);
+			double fe = afe;
+			afe = normalizedFE(fe, ase);
+			ase = normalizedSE(fe, ase);
+		}
+		if (rotation!=0 && !isFullCircle(afe, ase, tab)){
+			double fe = afe+rotation;
+			double se = ase+rotation;
+			afe = normalizedFE(fe, se);
+			ase = normalizedSE(fe, se);
+		}
+		flags |= tab<<2;
+		if (ComplexFanStats.ENABLED && isFullCircle(afe, ase, tab)){
+			ComplexFanStats.fullCircleResults.increment();
+		}
+		return true;
+	}
+
+	/**
+	 * Función para calcular sólo la magnitud de un par de partes, como magnitudeOfCase de
+	ComplexFan, y guardarla en la posición k de los resultados.
+	 * @param caso el caso de la suma, o 0 si una parte es el origen
+	 * @param k la posición del resultado
+	 * @param a el primer extremo de magnitud de la primera parte
+	 * @param b el segundo extremo de magnitud de la primera parte
+	 * @param mb1 los lı́mites de magnitud de la primera parte
+	 * @param fe1 el primer extremo de ángulo de la primera parte
+	 * @param se1 el segundo extremo de ángulo de la primera parte
+	 * @param ab1 los lı́mites de ángulo de la primera parte
+	 * @param c el primer extremo de magnitud de la segunda parte
+	 * @param d el segundo extremo de magnitud de la segunda parte
+	 * @param mb2 los lı́mites de magnitud de la segunda parte
+	 * @param fe2 el primer extremo de ángulo de la segunda parte
+	 * @param se2 el segundo extremo de ángulo de la segunda parte
+	 * @param ab2 los lı́mites de ángulo de la segunda parte
+	 */
+	private void magnitudeOfCase(int caso, int k, double a, double b, int mb1, double fe1, double se1, int ab1, double c, double d, int mb2, double fe2, double se2, int ab2){
+		switch (caso) {
+			case 0:
+				if (isOrigin(a, b, mb1)){
+					setMagnitude(k, c, d, mb2);
+				}else{
+					setMagnitude(k, a, b, mb1);
+				}
+				return;
+			case 1:
+				op.set(a, b, mb1, fe1, se1, ab1, c, d, mb2, fe2, se2, ab2);
+				ComplexFan.magnitudeCase1(op);
+				break;
+			case 2:
+				op.set(a, b, mb1, fe1, se1, ab1, c, d, mb2, fe2, se2, ab2);
+				ComplexFan.magnitudeCase2(op);
+				break;
+			case 3:
+				op.set(a, b, mb1, fe1, se1, ab1, c, d, mb2, fe2, se2, ab2);
+				ComplexFan.magnitudeCase3(op);
+				break;
+			default:
+				double rot2 = fe2;
+				op.set(c, d, mb2, normalizedFE(fe2-rot2, se2-rot2), normalizedSE(fe2-rot2, se2-rot2), ab2, a, b, mb1, normalizedFE(fe1-rot2, se1-rot2), normalizedSE(fe1-rot2, se1-rot2), ab1);
+				ComplexFan.magnitudeCase2(op);
+				break;
+		}
+		setMagnitude(k, op.e, op.f, ImmutableInterval.CLOSED);
+	}
+
+	/**
+	 * Función para guardar la magnitud de un par de partes en la posición k de los
+	resultados, tal cual.
+	 * @param k la posición del resultado
+	 * @param fe el primer extremo
+	 * @param se el segundo extremo
+	 * @param bounds los lı́mites
+	 */
+	private void setMagnitude(int k, double fe, double se, int bounds){
+		resMFE[k] = fe;
+		resMSE[k] = se;
+		resMBounds[k] = bounds;
+	}
+
+	/**
+	 * Función para unir las magnitudes de los n resultados como ComplexFan.unionOfMIs y
+	dejar el resultado, normalizado, en mfe, mse y en los bits de magnitud de flags.
+	 * @param n el número de resultados
+	 */
+	private void unionOfMIs(int n){
+		double fe, se;
+		int bounds;
+		if (n==1){
+			fe = resMFE[0];
+			se = resMSE[0];
+			bounds = resMBounds[0];
+		}else{
+			unionAll(resMFE, resMSE, resMBounds, n);
+			if (ComplexFanStats.ENABLED){
+				ComplexFanStats.unionOfMIsCalls.increment();
+				ComplexFanStats.unionOfMIsMerges.add(n-unionCount);
+			}
+			if (unionCount==0){
+				fe = 0.0d;
+				se = 0.0d;
+				bounds = ImmutableInterval.OPEN;
+			}else{
+				int last = unionCount-1;
+				fe = unionFE[0];
+				se = unionSE[last];
+				bounds = (unionBounds[0]&ImmutableInterval.FE_CLOSED)|(unionBounds[last]&ImmutableInterval.SE_CLOSED);
+			}
+		}
+		if (fe>se){
+			mfe = se;
+			mse = fe;
+			flags = ImmutableInterval.swap(bounds);
+		}else{
+			mfe = fe;
+			mse = se;
+			flags = bounds;
+		}
+	}
+
+	/**
+	 * Función para unir los ángulos de los n resultados como ComplexFan.unionOfAIs, con
+	AngleInterval.circularUnion y AngleInterval.coverOfArcs, y dejar el resultado, sin
+	normalizar, en afe y ase.
+	 * @param n el número de resultados
+	 * @return los lı́mites del resultado
+	 */
+	private int unionOfAIs(int n){
+		if (n==1){
+			afe = resAFE[0];
+			ase = resASE[0];
+			return resABounds[0];
+		}
+		int arcs = circularUnion(n);
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.unionOfAIsCalls.increment();
+			ComplexFanStats.unionOfAIsMerges.add(n-arcs);
+		}
+		if (arcs==0){
+			afe = 0.0d;
+			ase = 0.0d;
+			return ImmutableInterval.OPEN;
+		}
+		if (arcs==1){
+			afe = arcFE[0];
+			ase = arcSE[0];
+			return arcBounds[0];
+		}
+		int g = 0;
+		double maxGap = -1;
+		for (int i=0; i<arcs; i++){
+			int next = (i+1)%arcs;
+			double gap = arcFE[next]-arcSE[i];
+			if (gap<0){
+				gap += 360.0d;
+			}
+			if (gap>maxGap){
+				maxGap = gap;
+				g = i;
+			}
+		}
+		int next = (g+1)%arcs;
+		afe = arcFE[next];
+		ase = arcSE[g];
+		return (arcBounds[next]&ImmutableInterval.FE_CLOSED)|(arcBounds[g]&ImmutableInterval.SE_CLOSED);
+	}
+
+	/**
+	 * Función para unir los ángulos de los n resultados sobre el cı́rculo, como
+	AngleInterval.circularUnion, y dejar los arcos en arcFE, arcSE y arcBounds.
+	 * @param n el número de resultados
+	 * @return el número de arcos
+	 */
+	private int circularUnion(int n){
+		int m = 0;
+		int covered = 0;
+		for (int i=0; i<n; i++){
+			double fe = resAFE[i];
+			double se = resASE[i];
+			int bounds = resABounds[i];
+			if (Double.isNaN(fe) || Double.isNaN(se)){
+				return fullCircleArc();
+			}
+			if (ImmutableInterval.isEmpty(fe, se, bounds)){
+				continue;
+			}
+			if (fe>360.0||fe<0.0||se>360.0||se<0.0){
+				double x = normalizedFE(fe, se);
+				se = normalizedSE(fe, se);
+				fe = x;
+			}
+			covered |= QuadrantMask.coverage(fe, se, fei(bounds), sei(bounds));
+			if (fe<=se){
+				arcFE[m] = fe;
+				arcSE[m] = se;
+				arcBounds[m++] = bounds;
+			}else{
+				arcFE[m] = fe;
+				arcSE[m] = 360.0d;
+				arcBounds[m++] = (bounds&ImmutableInterval.FE_CLOSED)|ImmutableInterval.SE_CLOSED;
+				arcFE[m] = 0.0d;
+				arcSE[m] = se;
+				arcBounds[m++] = ImmutableInterval.FE_CLOSED|(bounds&ImmutableInterval.SE_CLOSED);
+			}
+		}
+		if (covered==QuadrantMask.FULL){
+			return fullCircleArc();
+		}
+		unionAll(arcFE, arcSE, arcBounds, m);
+		int k = unionCount;
+		if (k==0){
+			return 0;
+		}
+		int last = k-1;
+		boolean seam = unionFE[0]==0.0 && unionSE[last]==360.0 && ((unionBounds[0]&ImmutableInterval.FE_CLOSED)!=0 || (unionBounds[last]&ImmutableInterval.SE_CLOSED)!=0);
+		if (seam && k==1){
+			return fullCircleArc();
+		}
+		if (seam){
+			arcFE[0] = unionFE[last];
+			arcSE[0] = unionSE[0];
+			arcBounds[0] = (unionBounds[last]&ImmutableInterval.FE_CLOSED)|(unionBounds[0]&ImmutableInterval.SE_CLOSED);
+			for (int i=1; i<last; i++){
+				arcFE[i] = unionFE[i];
+				arcSE[i] = unionSE[i];
+				arcBounds[i] = unionBounds[i];
+			}
+			return last;
+		}
+		System.arraycopy(unionFE, 0, arcFE, 0, k);
+		System.arraycopy(unionSE, 0, arcSE, 0, k);
+		System.arraycopy(unionBounds, 0, arcBounds, 0, k);
+		return k;
+	}
+
+	/**
+	 * Función para dejar como único arco a [0, 360].
+	 * @return el número de arcos, 1
+	 */
+	private int fullCircleArc(){
+		arcFE[0] = 0.0d;
+		arcSE[0] = 360.0d;
+		arcBounds[0] = ImmutableInterval.CLOSED;
+		return 1;
+	}
+
+	/**
+	 * Función para unir n intervalos como Interval.unionAll y dejar los intervalos disjuntos,
+	ordenados, en unionFE, unionSE y unionBounds, y su número en unionCount. Los intervalos
+	vacı́os se ignoran, los que tienen el primer extremo mayor se normalizan y el orden es el
+	mismo que el de unionAll, por primer extremo y en empate primero el extremo incluido; se
+	ordena por inserción, porque son a lo más 2*PAIRS intervalos.
+	 * @param fes los primeros extremos
+	 * @param ses los segundos extremos
+	 * @param bounds los lı́mites
+	 * @param n el número de intervalos
+	 */
+	private void unionAll(double []fes, double []ses, int []bounds, int n){
+		int m = 0;
+		for (int i=0; i<n; i++){
+			double fe = fes[i];
+			double se = ses[i];
+			int b = bounds[i];
+			if (ImmutableInterval.isEmpty(fe, se, b)){
+				continue;
+			}
+			if (fe>se){
+				double aux = fe;
+				fe = se;
+				se = aux;
+				b = ImmutableInterval.swap(b);
+			}
+			int j = m++;
+			while (j>0 && before(fe, b, unionFE[j-1], unionBounds[j-1])){
+				unionFE[j] = unionFE[j-1];
+				unionSE[j] = unionSE[j-1];
+				unionBounds[j] = unionBounds[j-1];
+				j--;
+			}
+			unionFE[j] = fe;
+			unionSE[j] = se;
+			unionBounds[j] = b;
+		}
+		int k = 0;
+		int i = 0;
+		while (i<m){
+			double fe = unionFE[i];
+			double se = unionSE[i];
+			int fb = unionBounds[i]&ImmutableInterval.FE_CLOSED;
+			int sb = unionBounds[i]&ImmutableInterval.SE_CLOSED;
+			for (i++; i<m; i++){
+				double next = unionFE[i];
+				if (next>se || (next==se && sb==0 && (unionBounds[i]&ImmutableInterval.FE_CLOSED)==0)){
+					break;
+				}
+				if (unionSE[i]>se){
+					se = unionSE[i];
+					sb = unionBounds[i]&ImmutableInterval.SE_CLOSED;
+				}
+				else if (unionSE[i]==se && (unionBounds[i]&ImmutableInterval.SE_CLOSED)!=0){
+					sb = ImmutableInterval.SE_CLOSED;
+				}
+			}
+			unionFE[k] = fe;
+			unionSE[k] = se;
+			unionBounds[k++] = fb|sb;
+		}
+		unionCount = k;
+	}
+
+	/**
+	 * Función para comparar dos intervalos con el orden de Interval.unionAll.
+	 * @param fe1 el primer extremo del primer intervalo
+	 * @param b1 los lı́mites del primer intervalo
+	 * @param fe2 el primer extremo del segundo intervalo
+	 * @param b2 los lı́mites del segundo intervalo
+	 * @return si el primer intervalo va estrictamente antes que el segundo
+	 */
+	private static boolean before(double fe1, int b1, double fe2, int b2){
+		int c = Double.compare(fe1, fe2);
+		if (c!=0){
+			return c<0;
+		}
+		return (b1&ImmutableInterval.FE_CLOSED)!=0 && (b2&ImmutableInterval.FE_CLOSED)==0;
+	}
+
+	/**
+	 * Función para sumar dos abanicos complejos casi puntuales como ComplexFan.pointAddition
+	y dejar el resultado, normalizado, en los atributos.
+	 * @param a el primer extremo de magnitud del primer operando
+	 * @param b el segundo extremo de magnitud del primer operando
+	 * @param fe1 el primer extremo de ángulo del primer operando
+	 * @param se1 el segundo extremo de ángulo del primer operando
+	 * @param c el primer extremo de magnitud del segundo operando
+	 * @param d el segundo extremo de magnitud del segundo operando
+	 * @param fe2 el primer extremo de ángulo del segundo operando
+	 * @param se2 el segundo extremo de ángulo del segundo operando
+	 */
+	private void pointAddition(double a, double b, double fe1, double se1, double c, double d, double fe2, double se2){
+		double m1 = (a+b)/2;
+		double m2 = (c+d)/2;
+		double phi1 = Math.toRadians(fe1+angleWidth(fe1, se1)/2);
+		double phi2 = Math.toRadians(fe2+angleWidth(fe2, se2)/2);
+		double x = m1*Math.cos(phi1)+m2*Math.cos(phi2);
+		double y = m1*Math.sin(phi1)+m2*Math.sin(phi2);
+		double r = pointRadius(a, b, fe1, se1)+pointRadius(c, d, fe2, se2)+ComplexFan.POINT_ROUNDING*(b+d);
+		double mod = Math.sqrt(x*x+y*y);
+		int closed = ImmutableInterval.CLOSED|ImmutableInterval.CLOSED<<2;
+		if (r>=mod){
+			mfe = 0.0d;
+			mse = Math.nextUp(mod+r);
+			afe = 0.0d;
+			ase = 360.0d;
+			flags = closed;
+			return;
+		}
+		double theta = Math.toDegrees(Math.atan2(y, x));
+		double hw = Math.toDegrees(Math.asin(r/mod))+ComplexFan.ANGLE_ROUNDING;
+		mfe = Math.nextDown(mod-r);
+		mse = Math.nextUp(mod+r);
+		if (mfe>mse){
+			double aux = mfe;
+			mfe = mse;
+			mse = aux;
+		}
+		afe = normalizedFE(theta-hw, theta+hw);
+		ase = normalizedSE(theta-hw, theta+hw);
+		flags = closed;
+	}
+
+	/**
+	 * Función para dejar en nc, nd, nmBounds, nfe y nse la negación de un abanico complejo,
+	como ComplexFan.negation: el ángulo más 180 grados y los dos intervalos normalizados.
+	 * @param c el primer extremo de magnitud
+	 * @param d el segundo extremo de magnitud
+	 * @param mb los lı́mites de magnitud
+	 * @param fe el primer extremo de ángulo
+	 * @param se el segundo extremo de ángulo
+	 */
+	private void negate(double c, double d, int mb, double fe, double se){
+		if (c>d){
+			nc = d;
+			nd = c;
+			nmBounds = ImmutableInterval.swap(mb);
+		}else{
+			nc = c;
+			nd = d;
+			nmBounds = mb;
+		}
+		nfe = normalizedFE(fe+180.0d, se+180.0d);
+		nse = normalizedSE(fe+180.0d, se+180.0d);
+	}
+
+	/**
+	 * Función para calcular el código de QuadrantMask del intervalo de ángulo de un operando
+	rotado, como en AdditionPart: sólo se normaliza si la rotación no es cero.
+	 * @param fe el primer extremo
+	 * @param se el segundo extremo
+	 * @param bounds los lı́mites
+	 * @param rotation la rotación que se resta
+	 * @return el código de las partes, QuadrantMask.EMPTY si el intervalo no tiene partes
+	 */
+	private static int code(double fe, double se, int bounds, double rotation){
+		if (rotation!=0.0){
+			double x = normalizedFE(fe-rotation, se-rotation);
+			se = normalizedSE(fe-rotation, se-rotation);
+			fe = x;
+		}
+		return QuadrantMask.encode(fe, se, fei(bounds), sei(bounds));
+	}
+
+	/**
+	 * Función para verificar si un abanico complejo es casi puntual, como
+	ComplexFan.isNearPoint.
+	 * @param a el primer extremo de magnitud
+	 * @param b el segundo extremo de magnitud
+	 * @param mb los lı́mites de magnitud
+	 * @param fe el primer extremo de ángulo
+	 * @param se el segundo extremo de ángulo
+	 * @param ab los lı́mites de ángulo
+	 * @return si el abanico complejo es puntual o casi puntual
+	 */
+	private static boolean isNearPoint(double a, double b, int mb, double fe, double se, int ab){
+		if (ImmutableInterval.isEmpty(a, b, mb) || ImmutableInterval.isEmpty(fe, se, ab)){
+			return false;
+		}
+		return pointRadius(a, b, fe, se)<=ComplexFan.NEAR_POINT_TOLERANCE*b;
+	}
+
+	/**
+	 * Función para calcular el radio del cı́rculo que contiene a un abanico complejo, como
+	ComplexFan.pointRadius.
+	 * @param a el primer extremo de magnitud
+	 * @param b el segundo extremo de magnitud
+	 * @param fe el primer extremo de ángulo
+	 * @param se el segundo extremo de ángulo
+	 * @return el radio del cı́rculo
+	 */
+	private static double pointRadius(double a, double b, double fe, double se){
+		return (b-a)/2+b*Math.toRadians(angleWidth(fe, se)/2);
+	}
+
+	/**
+	 * Función para calcular el ancho de un intervalo de ángulo normalizado, como
+	ComplexFan.angleWidth.
+	 * @param fe el primer extremo
+	 * @param se el segundo extremo
+	 * @return el ancho en grados
+	 */
+	private static double angleWidth(double fe, double se){
+		double w = se-fe;
+		return w<0 ? w+360.0d : w;
+	}
+
+	/**
+	 * Función para verificar si un intervalo de magnitud es el punto [0, 0], como
+	ComplexFan.isOrigin.
+	 * @param a el primer extremo
+	 * @param b el segundo extremo
+	 * @param bounds los lı́mites
+	 * @return si el intervalo es [0, 0]
+	 */
+	private static boolean isOrigin(double a, double b, int bounds){
+		return a==0.0 && b==0.0 && !ImmutableInterval.isEmpty(a, b, bounds);
+	}
+
+	/**
+	 * Función para verificar si un intervalo de ángulo es [0, 360], como
+	AngleInterval.VerifyCase0to360.
+	 * @param fe el primer extremo
+	 * @param se el segundo extremo
+	 * @param bounds los lı́mites
+	 * @return si el intervalo es [0, 360]
+	 */
+	private static boolean isFullCircle(double fe, double se, int bounds){
+		return fe==0.0 && se==360.0 && bounds==ImmutableInterval.CLOSED;
+	}
+
+	/**
+	 * Función para obtener el primer extremo de un intervalo de ángulo normalizado con
+	AngleInterval.normalize.
+	 * @param fe el primer extremo
+	 * @param se el segundo extremo
+	 * @return el primer extremo normalizado
+	 */
+	static double normalizedFE(double fe, double se){
+		if (fe>360.0||fe<0.0){
+			fe = AngleInterval.modulo360(fe);
+		}
+		if (se>360.0||se<0.0){
+			se = AngleInterval.modulo360(se);
+		}
+		return fe==360.0&&se!=360.0 ? 0.0d : fe;
+	}
+
+	/**
+	 * Función para obtener el segundo extremo de un intervalo de ángulo normalizado con
+	AngleInterval.normalize, que lo compara con el primer extremo antes de pasar 360 a 0; por
+	ejemplo [360, 0] queda [0, 360].
+	 * @param fe el primer extremo
+	 * @param se el segundo extremo
+	 * @return el segundo extremo normalizado
+	 */
+	static double normalizedSE(double fe, double se){
+		if (fe>360.0||fe<0.0){
+			fe = AngleInterval.modulo360(fe);
+		}
+		if (se>360.0||se<0.0){
+			se = AngleInterval.modulo360(se);
+		}
+		return se==0.0&&fe!=0.0 ? 360.0d : se;
+	}
+
+	/**
+	 * Función para obtener el lı́mite del primer extremo a partir de los lı́mites empaquetados.
+	 * @param bounds los lı́mites
+	 * @return ‘[’ o ‘(’
+	 */
+	private static char fei(int bounds){
+		return (bounds&ImmutableInterval.FE_CLOSED)!=0 ? '[' : '(';
+	}
+
+	/**
+	 * Función para obtener el lı́mite del segundo extremo a partir de los lı́mites empaquetados.
+	 * @param bounds los lı́mites
+	 * @return ‘]’ o ‘)’
+	 */
+	private static char sei(int bounds){
+		return (bounds&ImmutableInterval.SE_CLOSED)!=0 ? ']' : ')';
+	}
+}
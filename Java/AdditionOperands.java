@@ -0,0 +1,121 @@
+/**
+ * Esta clase guarda los valores que comparten los algoritmos de los casos de la suma de dos
+abanicos complejos (partes ya rotadas), para no calcularlos varias veces: los extremos de los
+intervalos, los extremos de ángulo en radianes, el seno y el coseno de cada extremo de ángulo,
+los cuadrados de los extremos de magnitud y las coordenadas cartesianas de las esquinas de cada
+abanico complejo. Se calcula una sola vez por cada par de partes. Los algoritmos de los casos
+dejan aquı́ mismo los extremos del resultado, ası́ que AdditionKernel usa un solo objeto para
+todos los pares, con set, sin crear objetos.
+ * @author Manuel Cipriano
+ */
+
+final class AdditionOperands {
+	double a, b, c, d;								// los extremos de magnitud
+	double alfa1, alfa2, alfa3, alfa4;				// los extremos de ángulo en grados
+	double rad1, rad2, rad3, rad4;					// los extremos de ángulo en radianes
+	int mBounds1, mBounds2;							// los lı́mites empaquetados de magnitud
+	int aBounds1, aBounds2;							// los lı́mites empaquetados de ángulo
+	double cos1, cos2, cos3, cos4;					// el coseno de cada extremo de ángulo
+	double sin1, sin2, sin3, sin4;					// el seno de cada extremo de ángulo
+	double aa, bb, cc, dd;							// los cuadrados de los extremos de magnitud
+	// las esquinas del primer abanico complejo, por ejemplo xb2 = b*cos(alfa2)
+	double xa1, ya1, xa2, ya2, xb1, yb1, xb2, yb2;
+	// las esquinas del segundo abanico complejo, por ejemplo xc3 = c*cos(alfa3)
+	double xc3, yc3, xc4, yc4, xd3, yd3, xd4, yd4;
+	double e, f;									// los extremos de magnitud del resultado
+	double alfa5, alfa6;							// los extremos de ángulo del resultado
+
+	/**
+	 * Constructor que inicializa los valores en 0, para asignarlos con set.
+	 */
+	AdditionOperands(){
+	}
+
+	/**
+	 * Constructor que calcula los valores compartidos a partir de dos abanicos complejos.
+	 * @param cf1 el primer operando de la suma
+	 * @param cf2 el segundo operando de la suma
+	 */
+	AdditionOperands(ComplexFan cf1, ComplexFan cf2){
+		Interval mi1 = cf1.getMagnitudeInterval();
+		Interval mi2 = cf2.getMagnitudeInterval();
+		AngleInterval ai1 = cf1.getAngleInterval();
+		AngleInterval ai2 = cf2.getAngleInterval();
+		set(mi1.getFirstExtreme(), mi1.getSecondExtreme(), ImmutableInterval.bounds(mi1), ai1.getFirstExtreme(), ai1.getSecondExtreme(), ImmutableInterval.bounds(ai1),
+			mi2.getFirstExtreme(), mi2.getSecondExtreme(), ImmutableInterval.bounds(mi2), ai2.getFirstExtreme(), ai2.getSecondExtreme(), ImmutableInterval.bounds(ai2));
+	}
+
+	/**
+	 * Función para calcular los valores compartidos a partir de los extremos de dos abanicos
+	complejos. Los radianes son los de AngleInterval.getFirstExtremeRadians y
+	getSecondExtremeRadians.
+	 * @param a el primer extremo de magnitud del primer operando
+	 * @param b el segundo extremo de magnitud del primer operando
+	 * @param mBounds1 los lı́mites empaquetados de magnitud del primer operando
+	 * @param alfa1 el primer extremo de ángulo del primer operando
+	 * @param alfa2 el segundo extremo de ángulo del primer operando
+	 * @param aBounds1 los lı́mites empaquetados de ángulo del primer operando
+	 * @param c el primer extremo de magnitud del segundo operando
+	 * @param d el segundo extremo de magnitud del segundo operando
+	 * @param mBounds2 los lı́mites empaquetados de magnitud del segundo operando
+	 * @param alfa3 el primer extremo de ángulo del segundo operando
+	 * @param alfa4 el segundo extremo de ángulo del segundo operando
+	 * @param aBounds2 los lı́mites empaquetados de ángulo del segundo operando
+	 */
+	void set(double a, double b, int mBounds1, double alfa1, double alfa2, int aBounds1, double c, double d, int mBounds2, double alfa3, double alfa4, int aBounds2){
+		this.a = a;
+		this.b = b;
+		this.c = c;
+		this.d = d;
+		this.alfa1 = alfa1;
+		this.alfa2 = alfa2;
+		this.alfa3 = alfa3;
+		this.alfa4 = alfa4;
+		this.mBounds1 = mBounds1;
+		this.mBounds2 = mBounds2;
+		this.aBounds1 = aBounds1;
+		this.aBounds2 = aBounds2;
+		rad1 = Math.toRadians(alfa1);
+		rad2 = Math.toRadians(alfa2);
+		rad3 = Math.toRadians(alfa3);
+		rad4 = Math.toRadians(alfa4);
+		cos1 = Math.cos(rad1);
+		cos2 = Math.cos(rad2);
+		cos3 = Math.cos(rad3);
+		cos4 = Math.cos(rad4);
+		sin1 = Math.sin(rad1);
+		sin2 = Math.sin(rad2);
+		sin3 = Math.sin(rad3);
+		sin4 = Math.sin(rad4);
+		aa = a*a;
+		bb = b*b;
+		cc = c*c;
+		dd = d*d;
+		xa1 = a*cos1;
+		ya1 = a*sin1;
+		xa2 = a*cos2;
+		ya2 = a*sin2;
+		xb1 = b*cos1;
+		yb1 = b*sin1;
+		xb2 = b*cos2;
+		yb2 = b*sin2;
+		xc3 = c*cos3;
+		yc3 = c*sin3;
+		xc4 = c*cos4;
+		yc4 = c*sin4;
+		xd3 = d*cos3;
+		yd3 = d*sin3;
+		xd4 = d*cos4;
+		yd4 = d*sin4;
+	}
+
+	/**
+	 * Función para calcular la magnitud de un vector.
+	 * @param x la componente en x del vector
+	 * @param y la componente en y del vector
+	 * @return la magnitud del vector
+	 */
+	static double norm(double x, double y){
+		return Math.sqrt(x*x+y*y);
+	}
+}
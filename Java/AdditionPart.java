@@ -0,0 +1,121 @@
+/**
+ * Esta clase guarda un operando de la suma de abanicos complejos ya preparado para el ciclo
+de pares de partes de ComplexFan.addition: el intervalo de ángulo simplificado (si la
+tolerancia de la suma es positiva), rotado por el primer extremo del primer
+operando y sin las partes angostas de snapSlivers, y su código de partes de QuadrantMask. Para
+el primer operando también guarda cada parte ya rotada a su propio primer extremo, que es la
+misma para todos los pares en los que participa. ComplexFanAccumulator guarda la suma acumulada
+en esta forma entre una suma y la siguiente.
+ * @author Manuel Cipriano
+ */
+
+final class AdditionPart {
+	final Interval mi;				// el intervalo de magnitud
+	final AngleInterval ai;			// el intervalo de ángulo preparado
+	final double rotation;			// la rotación que se restó al ángulo
+	final double tolerance;			// la tolerancia de simplificación con la que se preparó
+	final double snapped;			// los grados que snapSlivers movió los extremos
+	final int code;					// el código de las partes
+	final int count;				// el número de partes
+	final AngleInterval []parts;	// cada parte rotada a su primer extremo, sólo para el primer operando
+	final double []rotations;		// el primer extremo de cada parte antes de rotarla, sólo para el primer operando
+
+	/**
+	 * Constructor que prepara un operando.
+	 * @param cf el operando, sólo para el mensaje de error
+	 * @param mi el intervalo de magnitud del operando, ya copiado
+	 * @param ai el intervalo de ángulo del operando, ya copiado y simplificado
+	 * @param rotation la rotación que se resta al ángulo
+	 * @param tolerance la tolerancia de simplificación en grados
+	 * @param first si es el primer operando
+	 */
+	private AdditionPart(ComplexFan cf, Interval mi, AngleInterval ai, double rotation, double tolerance, boolean first){
+		this.mi = mi;
+		if (rotation!=0.0){
+			ai.setFirstExtreme(ai.getFirstExtreme()-rotation);
+			ai.setSecondExtreme(ai.getSecondExtreme()-rotation);
+			ai.normalize();
+		}
+		this.ai = ai;
+		this.rotation = rotation;
+		this.tolerance = tolerance;
+		snapped = tolerance>0 ? ComplexFan.snapSlivers(ai, tolerance) : 0.0;
+		code = QuadrantMask.encode(ai);
+		if (code==QuadrantMask.EMPTY){
+			System.out.println("No se puede realizar la suma, ComplexFan no valido!: "+cf.toString());
+			System.exit(1);
+		}
+		count = QuadrantMask.count(code);
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.fragments[count].increment();
+		}
+		if (first){
+			parts = new AngleInterval[count];
+			rotations = new double[count];
+			for (int i=0; i<count; i++){
+				AngleInterval p = QuadrantMask.part(code, i, ai);
+				double rot = p.getFirstExtreme();
+				if (rot!=0.0){
+					p.setFirstExtreme(p.getFirstExtreme()-rot);
+					p.setSecondExtreme(p.getSecondExtreme()-rot);
+					p.normalize();
+				}
+				parts[i] = p;
+				rotations[i] = rot;
+			}
+		}else{
+			parts = null;
+			rotations = null;
+		}
+	}
+
+	/**
+	 * Función para preparar el primer operando de una suma, rotado por su propio primer
+	extremo.
+	 * @param cf el operando
+	 * @param tolerance la tolerancia de simplificación en grados, 0 para no simplificar
+	 * @return el operando preparado
+	 */
+	static AdditionPart first(ComplexFan cf, double tolerance){
+		AngleInterval ai = simplified(cf, tolerance);
+		return new AdditionPart(cf, new Interval(cf.getMagnitudeInterval()), ai, ai.getFirstExtreme(), tolerance, true);
+	}
+
+	/**
+	 * Función para preparar como primer operando una suma que calculó ComplexFan.addition con
+	la misma tolerancia. El intervalo de ángulo de la suma ya está simplificado, ası́ que sólo se
+	copia; el intervalo de magnitud no se copia y la suma no se debe modificar después.
+	 * @param sum la suma
+	 * @param tolerance la tolerancia de simplificación con la que se calculó la suma
+	 * @return la suma preparada
+	 */
+	static AdditionPart running(ComplexFan sum, double tolerance){
+		AngleInterval ai = new AngleInterval(sum.getAngleInterval());
+		return new AdditionPart(sum, sum.getMagnitudeInterval(), ai, ai.getFirstExtreme(), tolerance, true);
+	}
+
+	/**
+	 * Función para preparar el segundo operando de una suma, con la misma tolerancia que el
+	primero.
+	 * @param cf el operando
+	 * @param first el primer operando ya preparado
+	 * @return el operando preparado, rotado igual que el primero
+	 */
+	static AdditionPart second(ComplexFan cf, AdditionPart first){
+		return new AdditionPart(cf, new Interval(cf.getMagnitudeInterval()), simplified(cf, first.tolerance), first.rotation, first.tolerance, false);
+	}
+
+	/**
+	 * Función para copiar el intervalo de ángulo de un operando, simplificado con
+	AngleInterval.simplify si la tolerancia es positiva.
+	 * @param cf el operando
+	 * @param tolerance la tolerancia de simplificación en grados
+	 * @return la copia del intervalo de ángulo
+	 */
+	private static AngleInterval simplified(ComplexFan cf, double tolerance){
+		if (tolerance>0){
+			return AngleInterval.simplify(cf.getAngleInterval(), tolerance);
+		}
+		return new AngleInterval(cf.getAngleInterval());
+	}
+}
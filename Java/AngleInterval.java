@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 /**
  * Clase para modelar un intervalo de ángulo, implementa los métodos y las funciones para
 su manejo, hereda de la clase Interval.
@@ -80,33 +82,66 @@ dos, en otro orden.
 	}
     
 	/**
-	 * Función para sacar módulo base 360 al valor que recibe.
+	 * Función para sacar módulo base 360 al valor que recibe. Un valor mayor que 360 queda
+en (0, 360] y uno menor que 0 en [0, 360). No usa ciclos: cuando el valor está a una vuelta
+del intervalo basta una resta o una suma, y si no se usa el residuo de la división, que es
+exacto; el resultado es el mismo que restar o sumar 360 una vuelta a la vez, porque cada una
+de esas restas también es exacta.
 	 * @param opd el valor al cual se va a sacar módulo base 360
 	 * @return el módulo base 360 del valor recibido
 	 */
 	public static double modulo360(double opd){
-		double res;
 		if (opd>360.0d){
-			res = opd-360.0d;
-			while (res>360.0d){
-				res=res-360.0d;
-			}
-			return res;
-		}
-		else if (opd<-360.0d){
-			res = opd+360.0d;
-			while (res<-360.0d){
-				res=res+360.0d;
+			if (opd<=720.0d){
+				return opd-360.0d;
 			}
-			return res+360.0d;
+			double res = opd%360.0d;
+			return res==0.0d ? 360.0d : res;
 		}
 		else if (opd<0.0d){
-			return opd+360.0d;
+			if (opd>=-720.0d){
+				return opd<-360.0d ? (opd+360.0d)+360.0d : opd+360.0d;
+			}
+			double res = opd%360.0d;
+			return res==0.0d ? 0.0d : res+360.0d;
 		}
 		else 
 			return opd;
 	}
 
+	/**
+	 * Función para crear un intervalo de ángulo a partir de extremos en radianes. Los
+extremos se guardan en grados, porque los ejes 90, 180 y 270 son exactos en grados y los
+algoritmos de la suma comparan contra ellos; esta función es el adaptador para quien trabaja
+en radianes.
+	 * @param firstExtreme el primer extremo en radianes
+	 * @param secondExtreme el segundo extremo en radianes
+	 * @param feIncluded el lı́mite para el primer extremo
+	 * @param seIncluded el lı́mite para el segundo extremo
+	 * @return el intervalo de ángulo normalizado
+	 */
+	public static AngleInterval ofRadians(double firstExtreme, double secondExtreme, char feIncluded, char seIncluded){
+		AngleInterval res = new AngleInterval(Math.toDegrees(firstExtreme), Math.toDegrees(secondExtreme), feIncluded, seIncluded);
+		res.normalize();
+		return res;
+	}
+
+	/**
+	 * Función para obtener el primer extremo en radianes.
+	 * @return el primer extremo en radianes
+	 */
+	public double getFirstExtremeRadians(){
+		return Math.toRadians(getFirstExtreme());
+	}
+
+	/**
+	 * Función para obtener el segundo extremo en radianes.
+	 * @return el segundo extremo en radianes
+	 */
+	public double getSecondExtremeRadians(){
+		return Math.toRadians(getSecondExtreme());
+	}
+
 	/**
 	 * Función para sumar dos intervalos de ángulo.
 	 * @param ai1 el primer operando de la suma
@@ -141,6 +176,27 @@ función addition.
 		return addition(ai,new AngleInterval(180.0d,180.0d,ai.getFEincluded(),ai.getSEincluded()));
 	}
 
+	/**
+	 * Función para simplificar un intervalo de ángulo normalizado con una tolerancia, sin
+	quitarle ningún ángulo: si entre sus dos extremos queda un hueco de a lo más eps grados, es
+	decir, si abarca al menos 360 - eps grados, el hueco se cierra y se regresa [0, 360].
+	 * @param ai el intervalo de ángulo a simplificar
+	 * @param eps la tolerancia en grados, 0 para no simplificar
+	 * @return el intervalo simplificado, que contiene al original
+	 */
+	public static AngleInterval simplify(AngleInterval ai, double eps){
+		if (eps<=0.0 || ai.isEmpty() || ai.VerifyCase0to360()){
+			return new AngleInterval(ai);
+		}
+		double fe = ai.getFirstExtreme();
+		double se = ai.getSecondExtreme();
+		double width = fe<=se ? se-fe : se-fe+360.0d;
+		if (width>=360.0d-eps){
+			return new AngleInterval(0.0d, 360.0d, '[', ']');
+		}
+		return new AngleInterval(ai);
+	}
+
 	/**
 	 * Esta función verifica si un intervalo de ángulo abarca los 4 cuadrantes, es decir, es
 igual a [0, 360].
@@ -149,45 +205,218 @@ igual a [0, 360].
 	public boolean VerifyCase0to360(){
 		return getFirstExtreme()==0.0&&getSecondExtreme()==360.0&&getFEincluded()=='['&&getSEincluded()==']';
 	}
+
+	/**
+	 * Función para verificar si un intervalo de ángulo normalizado, dado por sus extremos,
+	contiene a un ángulo, sin crear ningún objeto. Toma en cuenta que 0 y 360 son el mismo
+	ángulo y que un intervalo con el primer extremo mayor que el segundo pasa por los 0 grados.
+	 * @param fe el primer extremo del intervalo
+	 * @param se el segundo extremo del intervalo
+	 * @param bounds los lı́mites empaquetados del intervalo (ImmutableInterval.bounds)
+	 * @param theta el ángulo, en [0, 360]
+	 * @return si el intervalo contiene al ángulo
+	 */
+	public static boolean contains(double fe, double se, int bounds, double theta){
+		if (fe<=se){
+			return pieceContains(fe, se, bounds, theta)
+				|| (theta==0.0 && pieceContains(fe, se, bounds, 360.0d))
+				|| (theta==360.0 && pieceContains(fe, se, bounds, 0.0d));
+		}
+		return theta>fe || theta<se || theta==360.0 || theta==0.0
+			|| (theta==fe && (bounds&ImmutableInterval.FE_CLOSED)!=0)
+			|| (theta==se && (bounds&ImmutableInterval.SE_CLOSED)!=0);
+	}
+
+	/**
+	 * Función para verificar si un tramo sin vuelta contiene a un valor.
+	 * @param lo el inicio del tramo
+	 * @param hi el fin del tramo
+	 * @param bounds los lı́mites empaquetados del tramo
+	 * @param theta el valor
+	 * @return si el tramo contiene al valor
+	 */
+	private static boolean pieceContains(double lo, double hi, int bounds, double theta){
+		return !ImmutableInterval.intersectionIsEmpty(theta, theta, ImmutableInterval.CLOSED, lo, hi, bounds);
+	}
+
+	/**
+	 * Función para verificar si dos intervalos de ángulo normalizados y no vacı́os, dados por
+	sus extremos, tienen un ángulo en común, sin crear ningún objeto. Cada intervalo se ve como
+	a lo más dos tramos sin vuelta, [fe, 360] y [0, se] si pasa por los 0 grados, y los tramos
+	se comparan con ImmutableInterval.intersectionIsEmpty; 0 y 360 son el mismo ángulo.
+	 * @param fe1 el primer extremo del primer intervalo
+	 * @param se1 el segundo extremo del primer intervalo
+	 * @param f1 los lı́mites empaquetados del primer intervalo
+	 * @param fe2 el primer extremo del segundo intervalo
+	 * @param se2 el segundo extremo del segundo intervalo
+	 * @param f2 los lı́mites empaquetados del segundo intervalo
+	 * @return si los intervalos tienen un ángulo en común
+	 */
+	public static boolean intersects(double fe1, double se1, int f1, double fe2, double se2, int f2){
+		if (fe1<=se1){
+			return pieceIntersects(fe1, se1, f1, fe2, se2, f2);
+		}
+		return pieceIntersects(fe1, 360.0d, (f1&ImmutableInterval.FE_CLOSED)|ImmutableInterval.SE_CLOSED, fe2, se2, f2)
+			|| pieceIntersects(0.0d, se1, ImmutableInterval.FE_CLOSED|(f1&ImmutableInterval.SE_CLOSED), fe2, se2, f2);
+	}
+
+	/**
+	 * Función para verificar si un tramo sin vuelta de [0, 360] tiene un ángulo en común con
+	un intervalo de ángulo normalizado.
+	 * @param lo el inicio del tramo
+	 * @param hi el fin del tramo
+	 * @param f los lı́mites empaquetados del tramo
+	 * @param fe el primer extremo del intervalo
+	 * @param se el segundo extremo del intervalo
+	 * @param f2 los lı́mites empaquetados del intervalo
+	 * @return si tienen un ángulo en común
+	 */
+	private static boolean pieceIntersects(double lo, double hi, int f, double fe, double se, int f2){
+		if (fe<=se){
+			return !ImmutableInterval.intersectionIsEmpty(lo, hi, f, fe, se, f2)
+				|| (lo==0.0 && (f&ImmutableInterval.FE_CLOSED)!=0 && se==360.0 && (f2&ImmutableInterval.SE_CLOSED)!=0)
+				|| (hi==360.0 && (f&ImmutableInterval.SE_CLOSED)!=0 && fe==0.0 && (f2&ImmutableInterval.FE_CLOSED)!=0);
+		}
+		return !ImmutableInterval.intersectionIsEmpty(lo, hi, f, fe, 360.0d, (f2&ImmutableInterval.FE_CLOSED)|ImmutableInterval.SE_CLOSED)
+			|| !ImmutableInterval.intersectionIsEmpty(lo, hi, f, 0.0d, se, ImmutableInterval.FE_CLOSED|(f2&ImmutableInterval.SE_CLOSED));
+	}
+
+	/**
+	 * Función para verificar si un intervalo de ángulo normalizado y no vacı́o contiene a
+	otro, dados por sus extremos, sin crear ningún objeto. El contenido se parte en a lo más
+	dos tramos sin vuelta; el interior de cada tramo debe caber en un tramo del contenedor y
+	cada extremo cerrado debe estar en el contenedor (con contains, ası́ 360 cuenta como 0).
+	 * @param fe1 el primer extremo del contenedor
+	 * @param se1 el segundo extremo del contenedor
+	 * @param f1 los lı́mites empaquetados del contenedor
+	 * @param fe2 el primer extremo del contenido
+	 * @param se2 el segundo extremo del contenido
+	 * @param f2 los lı́mites empaquetados del contenido
+	 * @return si el primer intervalo contiene al segundo
+	 */
+	public static boolean contains(double fe1, double se1, int f1, double fe2, double se2, int f2){
+		if (fe2<=se2){
+			return pieceInside(fe2, se2, f2, fe1, se1, f1);
+		}
+		return pieceInside(fe2, 360.0d, (f2&ImmutableInterval.FE_CLOSED)|ImmutableInterval.SE_CLOSED, fe1, se1, f1)
+			&& pieceInside(0.0d, se2, ImmutableInterval.FE_CLOSED|(f2&ImmutableInterval.SE_CLOSED), fe1, se1, f1);
+	}
+
+	/**
+	 * Función para verificar si un tramo sin vuelta de [0, 360] está dentro de un intervalo
+	de ángulo normalizado.
+	 * @param lo el inicio del tramo
+	 * @param hi el fin del tramo
+	 * @param f los lı́mites empaquetados del tramo
+	 * @param fe el primer extremo del intervalo
+	 * @param se el segundo extremo del intervalo
+	 * @param f2 los lı́mites empaquetados del intervalo
+	 * @return si el intervalo contiene al tramo
+	 */
+	private static boolean pieceInside(double lo, double hi, int f, double fe, double se, int f2){
+		if ((f&ImmutableInterval.FE_CLOSED)!=0 && !contains(fe, se, f2, lo)){
+			return false;
+		}
+		if ((f&ImmutableInterval.SE_CLOSED)!=0 && !contains(fe, se, f2, hi)){
+			return false;
+		}
+		if (lo==hi){
+			return true;
+		}
+		if (fe<=se){
+			return fe<=lo && hi<=se;
+		}
+		return fe<=lo || hi<=se;
+	}
     
 	/**
 	 * Función para verificar si un arreglo de intervalos de ángulo en conjunto abarcan
-los 360 grados.
+los 360 grados, es decir, si entre todos cubren por completo los cuatro cuadrantes. Depende
+de la función QuadrantMask.coverage.
 	 * @param lais el arreglo de intervalos de ángulo
 	 * @return si el arreglo de intervalos, en conjunto abarcan los 360 grados
 	 */
 	public static boolean verifyCase0to360ofList(AngleInterval []lais){
-		AngleInterval []ais = lais;
-		int c=0;
-		for (AngleInterval ai : ais) {
-			if (ai.getFirstExtreme() == 0.0 && ai.getSecondExtreme() == 90.0 && ai.getFEincluded() == '[' && ai.getSEincluded() == ')') {
-				c++;
-				break;
-			}
+		int covered = 0;
+		for (AngleInterval ai : lais) {
+			covered |= QuadrantMask.coverage(ai);
 		}
-		for (AngleInterval ai : ais) {
-			if (ai.getFirstExtreme() == 90.0 && ai.getSecondExtreme() == 180.0 && ai.getFEincluded() == '[' && ai.getSEincluded() == ')') {
-				c++;
-				break;
+		return covered==QuadrantMask.FULL;
+	}
+    
+	/**
+	 * Función para calcular la unión de un arreglo de intervalos de ángulo sobre el cı́rculo
+	de 0 a 360 grados. Los intervalos que cruzan los 0 grados se parten en dos, las partes se
+	unen con Interval.unionAll y, si la primera parte empieza en 0 y la última termina en 360,
+	se juntan en un solo arco que cruza los 0 grados. Si entre todos los intervalos cubren los
+	cuatro cuadrantes (QuadrantMask.coverage) se regresa [0, 360] sin ordenar las partes. Los
+	intervalos vacı́os se ignoran; un intervalo con un extremo NaN no dice qué ángulos cubre, ası́
+	que con él la unión es [0, 360].
+	 * @param lais el arreglo de intervalos de ángulo a unir
+	 * @return los arcos disjuntos que forman la unión, en orden sobre el cı́rculo; [0, 360] si
+	la unión abarca los 360 grados y un arreglo vacı́o si todos los intervalos son vacı́os
+	 */
+	public static AngleInterval[] circularUnion(AngleInterval []lais){
+		Interval []pieces = new Interval[2*lais.length];
+		int n = 0;
+		int covered = 0;
+		for (AngleInterval ai : lais){
+			double fe = ai.getFirstExtreme();
+			double se = ai.getSecondExtreme();
+			if (Double.isNaN(fe) || Double.isNaN(se)){
+				return new AngleInterval[]{new AngleInterval(0.0d, 360.0d, '[', ']')};
 			}
-		}
-		for (AngleInterval ai : ais) {
-			if (ai.getFirstExtreme() == 180.0 && ai.getSecondExtreme() == 270.0 && ai.getFEincluded() == '[' && ai.getSEincluded() == ')') {
-				c++;
-				break;
+			if (ai.isEmpty()){
+				continue;
+			}
+			if (fe>360.0||fe<0.0||se>360.0||se<0.0){
+				ai = new AngleInterval(ai);
+				ai.normalize();
+				fe = ai.getFirstExtreme();
+				se = ai.getSecondExtreme();
 			}
+			covered |= QuadrantMask.coverage(fe, se, ai.getFEincluded(), ai.getSEincluded());
+			if (fe<=se){
+				pieces[n++] = ai;
+			}else{
+				pieces[n++] = new Interval(fe, 360.0d, ai.getFEincluded(), ']');
+				pieces[n++] = new Interval(0.0d, se, '[', ai.getSEincluded());
+			}
+		}
+		if (covered==QuadrantMask.FULL){
+			return new AngleInterval[]{new AngleInterval(0.0d, 360.0d, '[', ']')};
+		}
+		Interval []comps = Interval.unionAll(n==pieces.length?pieces:Arrays.copyOf(pieces, n));
+		int k = comps.length;
+		if (k==0){
+			return new AngleInterval[0];
 		}
-		for (AngleInterval ai : ais) {
-			if (ai.getFirstExtreme() == 270.0 && ai.getSecondExtreme() == 360.0 && ai.getFEincluded() == '[' && ai.getSEincluded() == ']') {
-				c++;
-				break;
+		Interval first = comps[0];
+		Interval last = comps[k-1];
+		boolean seam = first.getFirstExtreme()==0.0 && last.getSecondExtreme()==360.0 && (first.getFEincluded()=='[' || last.getSEincluded()==']');
+		if (seam && k==1){
+			return new AngleInterval[]{new AngleInterval(0.0d, 360.0d, '[', ']')};
+		}
+		AngleInterval []arcs;
+		if (seam){
+			arcs = new AngleInterval[k-1];
+			arcs[0] = new AngleInterval(last.getFirstExtreme(), first.getSecondExtreme(), last.getFEincluded(), first.getSEincluded());
+			for (int i=1; i<k-1; i++){
+				arcs[i] = new AngleInterval(comps[i]);
+			}
+		}else{
+			arcs = new AngleInterval[k];
+			for (int i=0; i<k; i++){
+				arcs[i] = new AngleInterval(comps[i]);
 			}
 		}
-		return c==4;
+		return arcs;
 	}
-    
+
 	/**
-	 * Función para unir un arreglo de intervalos de ángulo.
+	 * Función para unir un arreglo de intervalos de ángulo. Depende de la función
+	circularUnion; si la unión no es un solo arco, regresa el menor arco que cubre a todos,
+	es decir, el complemento del mayor hueco entre los arcos.
 	 * @param res el arreglo de intervalos de ángulo a unir
 	 * @return el resultado de la unión
 	 */
@@ -195,54 +424,37 @@ los 360 grados.
 		if (res.length==1){
 			return res[0];
 		}
-		if(verifyCase0to360ofList(res)){
-	    	return new AngleInterval(0, 360, '[', ']');
-		}
-		AngleInterval tres = res[0];
-		AngleInterval []rest = new AngleInterval[res.length-1];
-		System.arraycopy(res, 1, rest, 0, rest.length);
-		AngleInterval ai1, ai2;
-		while(true){
-			for(int i=0; i<rest.length; i++){
-				ai1 = tres;
-				ai2 = rest[i];
-				if ((ai1.getSecondExtreme()==ai2.getFirstExtreme() && ai1.getSEincluded()==')' && ai2.getFEincluded()=='[') || (ai1.getSecondExtreme()==360 && ai2.getFirstExtreme()==0 && ai1.getSEincluded()==']' && ai2.getFEincluded()=='[')){
-					ai1.setSecondExtreme(ai2.getSecondExtreme());
-					ai1.setSEincluded(ai2.getSEincluded());
-					tres = ai1;
-					AngleInterval []auxrest = new AngleInterval[rest.length-1];
-					System.arraycopy(rest, 0, auxrest, 0, i);
-					System.arraycopy(rest, i+1, auxrest, i, rest.length-i-1);
-					rest = auxrest;
-					break;
-				}
-			}
-			for(int j=0; j<rest.length; j++){
-				ai1 = tres;
-				ai2 = rest[j];
-				if ((ai1.getFirstExtreme()==ai2.getSecondExtreme() && ai2.getSEincluded()==')' && ai1.getFEincluded()=='[') || (ai1.getFirstExtreme()==0 && ai2.getSecondExtreme()==360 && ai2.getSEincluded()==']' && ai1.getFEincluded()=='[')){
-					ai1.setFirstExtreme(ai2.getFirstExtreme());
-					ai1.setFEincluded(ai2.getFEincluded());
-					tres = ai1;
-					AngleInterval []auxrest = new AngleInterval[rest.length-1];
-					System.arraycopy(rest, 0, auxrest, 0, j);
-					System.arraycopy(rest, j+1, auxrest, j, rest.length-j-1);
-					rest = auxrest;
-					break;
-				}
-			}
-			if (rest.length>0){
-				AngleInterval aux = tres;
-				tres = rest[0];
-				AngleInterval []auxrest = new AngleInterval[rest.length-1];
-				System.arraycopy(rest, 1, auxrest, 0, auxrest.length);
-				System.arraycopy(auxrest, 0, rest, 0, auxrest.length);
-				rest[rest.length-1] = aux;
+		return coverOfArcs(circularUnion(res));
+	}
+
+	/**
+	 * Función para calcular el menor arco que cubre a un arreglo de arcos disjuntos en orden
+	sobre el cı́rculo, como los que regresa circularUnion, es decir, el complemento del mayor
+	hueco entre ellos.
+	 * @param arcs los arcos
+	 * @return el menor arco que los cubre, vacı́o si no hay arcos
+	 */
+	static AngleInterval coverOfArcs(AngleInterval []arcs){
+		if (arcs.length==0){
+			return new AngleInterval();
+		}
+		if (arcs.length==1){
+			return arcs[0];
+		}
+		int g = 0;
+		double maxGap = -1;
+		for (int i=0; i<arcs.length; i++){
+			AngleInterval next = arcs[(i+1)%arcs.length];
+			double gap = next.getFirstExtreme()-arcs[i].getSecondExtreme();
+			if (gap<0){
+				gap += 360.0d;
 			}
-			else{
-				break;
+			if (gap>maxGap){
+				maxGap = gap;
+				g = i;
 			}
 		}
-		return tres;
+		AngleInterval next = arcs[(g+1)%arcs.length];
+		return new AngleInterval(next.getFirstExtreme(), arcs[g].getSecondExtreme(), next.getFEincluded(), arcs[g].getSEincluded());
 	}
 }
@@ -1,3 +1,7 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collector;
+
 /**
  * Esta clase modela un abanico complejo, implementa atributos, métodos y funciones para su
 manejo. En esta clase se implementan los algoritmos para la aritmética de abanicos complejos.
@@ -5,6 +9,13 @@ manejo. En esta clase se implementan los algoritmos para la aritmética de abani
  */
 
 public class ComplexFan {
+	public static final int DEFAULT_LEAF_SIZE = 1024;	// el tamaño de hoja por defecto para sum
+	public static final double NEAR_POINT_TOLERANCE = 1e-9;	// el radio relativo máximo de un abanico complejo casi puntual
+	static final double POINT_ROUNDING = 1e-14;	// la cota relativa del error de redondeo de la suma de puntos
+	static final double ANGLE_ROUNDING = 1e-12;	// la cota en grados del error de redondeo del ángulo de un punto
+	private static final int POINT = ComplexFanBatch.MAGNITUDE_FE_CLOSED|ComplexFanBatch.MAGNITUDE_SE_CLOSED|ComplexFanBatch.ANGLE_FE_CLOSED|ComplexFanBatch.ANGLE_SE_CLOSED;	// los lı́mites de un punto
+	static final boolean FULL_CIRCLE_SHORT_CIRCUIT = true;	// si addition deja de calcular ángulos al cubrir los 360 grados
+
 	private Interval magnitudeInterval;
 	private AngleInterval angleInterval;
 
@@ -80,6 +91,19 @@ atributos antes mencionados se les aplica la normalización de acuerdo a su tipo
 	 * @return el resultado de la negación
 	 */
 	public static ComplexFan negation(ComplexFan cf){
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.negations.increment();
+		}
+		return negated(cf);
+	}
+
+	/**
+	 * Función para calcular la negación de un abanico complejo sin contarla en
+	ComplexFanStats, para las operaciones que la usan por dentro.
+	 * @param cf el abanico complejo del cual se va a calcular la negación
+	 * @return el resultado de la negación
+	 */
+	private static ComplexFan negated(ComplexFan cf){
 		return new ComplexFan(cf.getMagnitudeInterval(),AngleInterval.add180toAI(cf.getAngleInterval()));
 	}
 
@@ -90,9 +114,39 @@ atributos antes mencionados se les aplica la normalización de acuerdo a su tipo
 	 * @return el resultado del producto
 	 */
 	public static ComplexFan product(ComplexFan cf1, ComplexFan cf2){
-		return new ComplexFan(Interval.product(cf1.getMagnitudeInterval(), cf2.getMagnitudeInterval()), AngleInterval.addition(cf1.getAngleInterval(), cf2.getAngleInterval()));        
-	} 
- 
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.products.increment();
+		}
+		return new ComplexFan(Interval.product(cf1.getMagnitudeInterval(), cf2.getMagnitudeInterval()), AngleInterval.addition(cf1.getAngleInterval(), cf2.getAngleInterval()));
+	}
+
+	/**
+	 * Función para calcular el producto entre dos abanicos complejos guardándolo en un
+	abanico complejo existente, sin crear objetos. Da el mismo resultado que product.
+	 * @param cf1 el primer operando para el producto
+	 * @param cf2 el segundo operando para el producto
+	 * @param res el abanico complejo donde se guarda el resultado, distinto de cf1 y cf2
+	 */
+	static void product(ComplexFan cf1, ComplexFan cf2, ComplexFan res){
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.products.increment();
+		}
+		Interval mi1 = cf1.magnitudeInterval, mi2 = cf2.magnitudeInterval;
+		AngleInterval ai1 = cf1.angleInterval, ai2 = cf2.angleInterval;
+		Interval mi = res.magnitudeInterval;
+		mi.setFirstExtreme(mi1.getFirstExtreme()*mi2.getFirstExtreme());
+		mi.setSecondExtreme(mi1.getSecondExtreme()*mi2.getSecondExtreme());
+		mi.setFEincluded(mi1.getFEincluded()==mi2.getFEincluded()?mi1.getFEincluded():'(');
+		mi.setSEincluded(mi1.getSEincluded()==mi2.getSEincluded()?mi1.getSEincluded():')');
+		mi.normalize();
+		AngleInterval ai = res.angleInterval;
+		ai.setFirstExtreme(ai1.getFirstExtreme()+ai2.getFirstExtreme());
+		ai.setSecondExtreme(ai1.getSecondExtreme()+ai2.getSecondExtreme());
+		ai.setFEincluded(ai1.getFEincluded()==ai2.getFEincluded()?ai1.getFEincluded():'(');
+		ai.setSEincluded(ai1.getSEincluded()==ai2.getSEincluded()?ai1.getSEincluded():')');
+		ai.normalize();
+	}
+
 	/**
 	 * Función para calcular la división entre dos abanicos complejos.
 	 * @param cf1 el primer operando de la división
@@ -100,79 +154,144 @@ atributos antes mencionados se les aplica la normalización de acuerdo a su tipo
 	 * @return el resultado de la division
 	 */
 	public static ComplexFan division(ComplexFan cf1, ComplexFan cf2){
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.divisions.increment();
+		}
 		return new ComplexFan(Interval.division(cf1.getMagnitudeInterval(), cf2.getMagnitudeInterval()), AngleInterval.subtraction(cf1.getAngleInterval(), cf2.getAngleInterval()));
 	}
 
 	/**
 	 * Función general para calcular la suma de dos abanicos complejos. Depende de fun-
-ciones como unionOfResults, verifyCase, part, additionCase1, additionCase2,
-additionCase3, etc.
+ciones como unionOfResults, verifyCase, QuadrantMask, additionCase1, additionCase2,
+additionCase3, etc. En cuanto los ángulos de los resultados parciales cubren los cuatro
+cuadrantes (QuadrantMask.coverage) el ángulo de la suma es [0, 360], ası́ que de los pares de
+partes restantes sólo se calcula la magnitud. Si un operando es el origen [0, 0] la suma es el
+otro operando. Si los dos operandos son puntuales o casi puntuales la suma se calcula
+con la función pointAddition. Los ángulos no se simplifican.
 	 * @param cf1 el primer operando de la suma
 	 * @param cf2 el segundo operando de la suma
 	 * @return el resultado de la suma
 	 */
 	public static ComplexFan addition(ComplexFan cf1, ComplexFan cf2){
-		AngleInterval ai1 = new AngleInterval(cf1.getAngleInterval());
-		AngleInterval ai2 = new AngleInterval(cf2.getAngleInterval());
-		ComplexFan acf1 = new ComplexFan(cf1);
-		ComplexFan acf2 = new ComplexFan(cf2);
-		double rotation = ai1.getFirstExtreme();
-		if (rotation!=0.0){
-			ai1.setFirstExtreme(ai1.getFirstExtreme()-rotation);
-			ai1.setSecondExtreme(ai1.getSecondExtreme()-rotation);
-			ai2.setFirstExtreme(ai2.getFirstExtreme()-rotation);
-			ai2.setSecondExtreme(ai2.getSecondExtreme()-rotation);
-			ai1.normalize();
-			ai2.normalize();
-			acf1.setAngleInterval(ai1);
-			acf2.setAngleInterval(ai2);
-		}
-		ComplexFan []pcf1 = acf1.part();
-		ComplexFan []pcf2 = acf2.part();
-		if (pcf1==null){
-			System.out.println("No se puede realizar la suma, ComplexFan no valido!: "+cf1.toString());
-			System.exit(1);
+		return addition(cf1, cf2, 0.0);
+	}
+
+	/**
+	 * Función para calcular la suma de dos abanicos complejos simplificando los ángulos con una
+	tolerancia, con el mismo algoritmo que addition. Si tolerance es positiva los intervalos de
+	ángulo de los operandos y del resultado se simplifican con AngleInterval.simplify, y las
+	partes de a lo más tolerance grados que los operandos (ya rotados) dejan al otro lado de un
+	eje se quitan con snapSlivers; el resultado se ensancha con widen para que contenga también
+	la suma de esas partes, ası́ que la simplificación nunca quita puntos de la suma.
+	 * @param cf1 el primer operando de la suma
+	 * @param cf2 el segundo operando de la suma
+	 * @param tolerance la tolerancia en grados, 0 para no simplificar
+	 * @return el resultado de la suma
+	 */
+	public static ComplexFan addition(ComplexFan cf1, ComplexFan cf2, double tolerance){
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.additions.increment();
 		}
-		if (pcf2==null){
-			System.out.println("No se puede realizar la suma, ComplexFan no valido!: "+cf2.toString());
-			System.exit(1);
+		return sumOf(cf1, cf2, tolerance);
+	}
+
+	/**
+	 * Función para calcular la suma de dos abanicos complejos sin contarla en
+	ComplexFanStats como una llamada a addition, para las operaciones públicas que suman por
+	dentro, como subtraction y sum; los contadores internos de la suma sı́ se incrementan.
+	 * @param cf1 el primer operando de la suma
+	 * @param cf2 el segundo operando de la suma
+	 * @param tolerance la tolerancia en grados, 0 para no simplificar
+	 * @return el resultado de la suma
+	 */
+	static ComplexFan sumOf(ComplexFan cf1, ComplexFan cf2, double tolerance){
+		if (isNearPoint(cf1) && isNearPoint(cf2)){
+			ComplexFan total = pointAddition(cf1, cf2);
+			if (tolerance>0){
+				total.setAngleInterval(AngleInterval.simplify(total.getAngleInterval(), tolerance));
+			}
+			if (ComplexFanStats.ENABLED && total.getAngleInterval().VerifyCase0to360()){
+				ComplexFanStats.fullCircleResults.increment();
+			}
+			return total;
 		}
-		ComplexFan res[] = new ComplexFan[pcf1.length*pcf2.length];
-		for(int i=0; i<pcf1.length*pcf2.length; i++){
-	    	res[i] = new ComplexFan();
+		AdditionPart p1 = AdditionPart.first(cf1, tolerance);
+		return addition(p1, AdditionPart.second(cf2, p1));
+	}
+
+	/**
+	 * Función para calcular la suma de dos operandos ya preparados con AdditionPart, con el
+	mismo algoritmo que addition y con la tolerancia con la que se prepararon.
+	ComplexFanAccumulator la usa para no preparar de nuevo la suma acumulada.
+	 * @param p1 el primer operando, preparado con AdditionPart.first
+	 * @param p2 el segundo operando, preparado con AdditionPart.second
+	 * @return el resultado de la suma
+	 */
+	static ComplexFan addition(AdditionPart p1, AdditionPart p2){
+		return addition(p1, p2, FULL_CIRCLE_SHORT_CIRCUIT);
+	}
+
+	/**
+	 * Función para calcular la suma de dos operandos ya preparados con AdditionPart, con o
+	sin el atajo del cı́rculo completo. Sin el atajo se calcula el ángulo de todos los pares de
+	partes; el resultado es el mismo. ComplexFanFullCircle la usa para comparar los dos modos.
+	 * @param p1 el primer operando, preparado con AdditionPart.first
+	 * @param p2 el segundo operando, preparado con AdditionPart.second
+	 * @param shortCircuit si se deja de calcular ángulos al cubrir los 360 grados
+	 * @return el resultado de la suma
+	 */
+	static ComplexFan addition(AdditionPart p1, AdditionPart p2, boolean shortCircuit){
+		double rotation = p1.rotation;
+		double tolerance = p1.tolerance;
+		double radius = 0.0;
+		if (tolerance>0){
+			radius = p1.mi.getSecondExtreme()*Math.toRadians(p1.snapped)+p2.mi.getSecondExtreme()*Math.toRadians(p2.snapped);
 		}
+		AngleInterval pai2 = p2.ai;
+		Interval mi1 = p1.mi;
+		Interval mi2 = p2.mi;
+		int code2 = p2.code;
+		int n1 = p1.count;
+		int n2 = p2.count;
+		AngleInterval ai1, ai2;
+		ComplexFan res[] = new ComplexFan[n1*n2];
+		Interval mis[] = new Interval[n1*n2];
 		int k=0;
+		int covered = 0;
+		int skipped = 0;
+		boolean full = false;
 		ComplexFan V1, V2;
-		for(int i=0;i<pcf1.length;i++){		
-			for(int j=0;j<pcf2.length;j++){
-				V1 = new ComplexFan(pcf1[i]);
-				V2 = new ComplexFan(pcf2[j]);
-				Interval mi1 = new Interval(V1.getMagnitudeInterval());
-				Interval mi2 = new Interval(V2.getMagnitudeInterval());
-				ai1 = new AngleInterval(V1.getAngleInterval());
-				ai2 = new AngleInterval(V2.getAngleInterval());
-				double rot1 = ai1.getFirstExtreme();
+		for(int i=0;i<n1;i++){		
+			for(int j=0;j<n2;j++){
+				ai2 = QuadrantMask.part(code2, j, pai2);
+				double rot1 = p1.rotations[i];
 				if (rot1!=0.0){
-					ai1.setFirstExtreme(ai1.getFirstExtreme()-rot1);
-					ai1.setSecondExtreme(ai1.getSecondExtreme()-rot1);
 					ai2.setFirstExtreme(ai2.getFirstExtreme()-rot1);
 					ai2.setSecondExtreme(ai2.getSecondExtreme()-rot1);
-					ai1.normalize();
 					ai2.normalize();
-					V1.setAngleInterval(ai1);
-					V2.setAngleInterval(ai2);
 				}
-				int caso = V1.verifyCase(V2.getAngleInterval().getFirstExtreme(),V2.getAngleInterval().getSecondExtreme());
-				ComplexFan aux = new ComplexFan();
+				V1 = new ComplexFan(mi1, p1.parts[i]);
+				V2 = new ComplexFan(mi2, ai2);
+				int caso = isOrigin(mi1)||isOrigin(mi2) ? 0 : V1.verifyCase(V2.getAngleInterval().getFirstExtreme(),V2.getAngleInterval().getSecondExtreme());
+				if (full){
+					mis[k] = magnitudeOfCase(caso, V1, V2);
+					k++;
+					skipped++;
+					continue;
+				}
+				ComplexFan aux;
 				switch (caso) {
+					case 0:
+						aux = isOrigin(mi1) ? V2 : V1;
+						break;
 					case 1:
-						aux = aux.additionCase1(V1, V2);
+						aux = additionCase1(new AdditionOperands(V1, V2));
 						break;
 					case 2:
-						aux = aux.additionCase2(V1, V2);
+						aux = additionCase2(new AdditionOperands(V1, V2));
 						break;
 					case 3:
-						aux = aux.additionCase3(V1, V2);
+						aux = additionCase3(new AdditionOperands(V1, V2));
 						break;
 					default:
 						ai1 = V1.getAngleInterval();
@@ -186,7 +305,7 @@ additionCase3, etc.
 						ai2.normalize();
 						V1.setAngleInterval(ai1);
 						V2.setAngleInterval(ai2);
-						aux = aux.additionCase2(V2, V1);
+						aux = additionCase2(new AdditionOperands(V2, V1));
 						AngleInterval auxai = aux.getAngleInterval();
 						if (!auxai.VerifyCase0to360()){
 							auxai.setFirstExtreme(auxai.getFirstExtreme()+rot2);
@@ -197,6 +316,11 @@ additionCase3, etc.
 						break;
 				}
 				AngleInterval auxai = aux.getAngleInterval();
+				if (Double.isNaN(auxai.getFirstExtreme()) || Double.isNaN(auxai.getSecondExtreme())){
+					// un operando que toca al origen puede dejar sin ángulo a los casos; [0, 360] siempre encierra
+					auxai = new AngleInterval(0.0d, 360.0d, '[', ']');
+					aux.setAngleInterval(auxai);
+				}
 				if (rot1!=0 && !auxai.VerifyCase0to360()){
 					auxai.setFirstExtreme(auxai.getFirstExtreme()+rot1);
 					auxai.setSecondExtreme(auxai.getSecondExtreme()+rot1);
@@ -204,10 +328,24 @@ additionCase3, etc.
 					aux.setAngleInterval(auxai);
 				}
 				res[k] = aux;
+				mis[k] = aux.getMagnitudeInterval();
 				k++;
+				if (shortCircuit && res.length>1){
+					covered |= QuadrantMask.coverage(auxai);
+					full = covered==QuadrantMask.FULL;
+				}
 			}
 		}
-		ComplexFan total = unionOfResults(res);
+		ComplexFan total;
+		if (full){
+			if (ComplexFanStats.ENABLED && skipped>0){
+				ComplexFanStats.fullCircleAdditions.increment();
+				ComplexFanStats.fullCircleSkippedPairs.add(skipped);
+			}
+			total = new ComplexFan(unionOfMIs(mis), new AngleInterval(0.0d, 360.0d, '[', ']'));
+		}else{
+			total = unionOfResults(res);
+		}
 		ai1 = total.getAngleInterval();
 		if (rotation!=0 && !ai1.VerifyCase0to360()){
 			ai1.setFirstExtreme(ai1.getFirstExtreme()+rotation);
@@ -215,9 +353,158 @@ additionCase3, etc.
 			ai1.normalize();
 			total.setAngleInterval(ai1);
 		}
+		if (tolerance>0){
+			if (radius>0){
+				total = widen(total, radius);
+			}
+			ai1 = AngleInterval.simplify(total.getAngleInterval(), tolerance);
+			total.setAngleInterval(ai1);
+		}
+		if (ComplexFanStats.ENABLED && ai1.VerifyCase0to360()){
+			ComplexFanStats.fullCircleResults.increment();
+		}
 		return total;
 	}
     
+	/**
+	 * Función para quitar de un intervalo de ángulo normalizado las partes angostas que deja
+	al otro lado de un eje: si el primer extremo está a lo más eps grados antes de un eje se
+	mueve hasta el eje (cerrado) y si el segundo extremo está a lo más eps grados después de un
+	eje se mueve hasta el eje (abierto, para no agregar una parte puntual), siempre que el
+	intervalo siga teniendo puntos. Cada punto quitado queda a lo más a la distancia angular
+	movida de un punto que se conserva.
+	 * @param ai el intervalo de ángulo, se modifica
+	 * @param eps la tolerancia en grados
+	 * @return los grados que se movieron los extremos en total
+	 */
+	static double snapSlivers(AngleInterval ai, double eps){
+		if (ai.isEmpty() || ai.VerifyCase0to360()){
+			return 0.0;
+		}
+		double fe = ai.getFirstExtreme();
+		double se = ai.getSecondExtreme();
+		double width = angleWidth(ai);
+		double moved = 0.0;
+		double axis = Math.ceil(fe/90.0d)*90.0d;
+		double d = axis-fe;
+		if (d>0 && d<=eps && d<width){
+			ai.setFirstExtreme(axis==360.0d ? 0.0d : axis);
+			ai.setFEincluded('[');
+			width -= d;
+			moved += d;
+		}
+		axis = Math.floor(se/90.0d)*90.0d;
+		d = se-axis;
+		if (d>0 && d<=eps && d<width){
+			ai.setSecondExtreme(axis==0.0d ? 360.0d : axis);
+			ai.setSEincluded(')');
+			moved += d;
+		}
+		return moved;
+	}
+
+	/**
+	 * Función para ensanchar un abanico complejo de modo que contenga a todos los puntos a
+	distancia a lo más r de él: la magnitud se ensancha r hacia cada lado y el ángulo el arco
+	que r subtiende a la magnitud mı́nima, redondeados hacia afuera; si r alcanza al origen el
+	ángulo es [0, 360].
+	 * @param cf el abanico complejo
+	 * @param r la distancia
+	 * @return el abanico complejo ensanchado, cerrado
+	 */
+	private static ComplexFan widen(ComplexFan cf, double r){
+		Interval mi = cf.getMagnitudeInterval();
+		AngleInterval ai = cf.getAngleInterval();
+		double a = mi.getFirstExtreme();
+		double b = Math.nextUp(mi.getSecondExtreme()+r);
+		if (r>=a){
+			return new ComplexFan(new Interval(0.0d, b, '[', ']'), new AngleInterval(0.0d, 360.0d, '[', ']'));
+		}
+		Interval wmi = new Interval(Math.nextDown(a-r), b, '[', ']');
+		if (ai.VerifyCase0to360()){
+			return new ComplexFan(wmi, ai);
+		}
+		double hw = Math.toDegrees(Math.asin(r/a))+ANGLE_ROUNDING;
+		if (angleWidth(ai)+2*hw>=360.0d){
+			return new ComplexFan(wmi, new AngleInterval(0.0d, 360.0d, '[', ']'));
+		}
+		AngleInterval wai = new AngleInterval(ai.getFirstExtreme()-hw, ai.getSecondExtreme()+hw, '[', ']');
+		wai.normalize();
+		return new ComplexFan(wmi, wai);
+	}
+
+	/**
+	 * Función para verificar si un abanico complejo es puntual o casi puntual, es decir,
+	si cabe en un cı́rculo de radio NEAR_POINT_TOLERANCE veces su magnitud máxima alrededor de
+	su centro.
+	 * @param cf el abanico complejo
+	 * @return si el abanico complejo es puntual o casi puntual
+	 */
+	static boolean isNearPoint(ComplexFan cf){
+		Interval mi = cf.getMagnitudeInterval();
+		AngleInterval ai = cf.getAngleInterval();
+		if (mi.isEmpty() || ai.isEmpty()){
+			return false;
+		}
+		return pointRadius(mi, ai)<=NEAR_POINT_TOLERANCE*mi.getSecondExtreme();
+	}
+
+	/**
+	 * Función para calcular el ancho de un intervalo de ángulo normalizado, tomando en
+	cuenta los intervalos que cruzan los 0 grados.
+	 * @param ai el intervalo de ángulo
+	 * @return el ancho en grados
+	 */
+	private static double angleWidth(AngleInterval ai){
+		double w = ai.getSecondExtreme()-ai.getFirstExtreme();
+		return w<0 ? w+360.0d : w;
+	}
+
+	/**
+	 * Función para calcular el radio de un cı́rculo, centrado en la magnitud media y el
+	ángulo medio, que contiene al abanico complejo: la mitad del ancho de magnitud más el arco
+	de la mitad del ancho de ángulo a la magnitud máxima.
+	 * @param mi el intervalo de magnitud
+	 * @param ai el intervalo de ángulo
+	 * @return el radio del cı́rculo
+	 */
+	private static double pointRadius(Interval mi, AngleInterval ai){
+		double a = mi.getFirstExtreme();
+		double b = mi.getSecondExtreme();
+		return (b-a)/2+b*Math.toRadians(angleWidth(ai)/2);
+	}
+
+	/**
+	 * Función para sumar dos abanicos complejos puntuales o casi puntuales como números
+	complejos en forma cartesiana. Cada operando se encierra en un cı́rculo alrededor de su
+	centro, los centros se suman y el radio del resultado es la suma de los radios más una
+	cota del error de redondeo; el resultado es el abanico complejo cerrado que contiene a ese
+	cı́rculo, redondeado hacia afuera. Si el cı́rculo contiene al origen el ángulo es [0, 360].
+	 * @param cf1 el primer operando de la suma
+	 * @param cf2 el segundo operando de la suma
+	 * @return el resultado de la suma
+	 */
+	private static ComplexFan pointAddition(ComplexFan cf1, ComplexFan cf2){
+		Interval mi1 = cf1.getMagnitudeInterval();
+		Interval mi2 = cf2.getMagnitudeInterval();
+		AngleInterval ai1 = cf1.getAngleInterval();
+		AngleInterval ai2 = cf2.getAngleInterval();
+		double m1 = (mi1.getFirstExtreme()+mi1.getSecondExtreme())/2;
+		double m2 = (mi2.getFirstExtreme()+mi2.getSecondExtreme())/2;
+		double phi1 = Math.toRadians(ai1.getFirstExtreme()+angleWidth(ai1)/2);
+		double phi2 = Math.toRadians(ai2.getFirstExtreme()+angleWidth(ai2)/2);
+		double x = m1*Math.cos(phi1)+m2*Math.cos(phi2);
+		double y = m1*Math.sin(phi1)+m2*Math.sin(phi2);
+		double r = pointRadius(mi1, ai1)+pointRadius(mi2, ai2)+POINT_ROUNDING*(mi1.getSecondExtreme()+mi2.getSecondExtreme());
+		double mod = Math.sqrt(x*x+y*y);
+		if (r>=mod){
+			return new ComplexFan(new Interval(0.0d, Math.nextUp(mod+r), '[', ']'), new AngleInterval(0.0d, 360.0d, '[', ']'));
+		}
+		double theta = Math.toDegrees(Math.atan2(y, x));
+		double hw = Math.toDegrees(Math.asin(r/mod))+ANGLE_ROUNDING;
+		return new ComplexFan(new Interval(Math.nextDown(mod-r), Math.nextUp(mod+r), '[', ']'), new AngleInterval(theta-hw, theta+hw, '[', ']'));
+	}
+
 	/**
 	 * Función para calcular la resta entre dos abanicos complejos, esta función depende
 de la función negation y la función addition, es decir, se realiza la negación del
@@ -227,8 +514,62 @@ segundo abanico complejo y el resultado se suma al primer abanico complejo.
 	 * @return el resultado de la resta
 	 */
 	public static ComplexFan subtraction(ComplexFan cf1, ComplexFan cf2){
-		ComplexFan negatedcf2 = ComplexFan.negation(cf2);
-		return ComplexFan.addition(cf1, negatedcf2);
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.subtractions.increment();
+		}
+		ComplexFan negatedcf2 = negated(cf2);
+		return sumOf(cf1, negatedcf2, 0.0);
+	}
+
+	/**
+	 * Función para calcular la suma de un arreglo de abanicos complejos en paralelo, con
+	una reducción en árbol sobre el ForkJoinPool común y hojas de DEFAULT_LEAF_SIZE abanicos
+	complejos.
+	 * @param acf el arreglo de abanicos complejos a sumar
+	 * @return el resultado de la suma
+	 */
+	public static ComplexFan sum(ComplexFan []acf){
+		return sum(acf, DEFAULT_LEAF_SIZE);
+	}
+
+	/**
+	 * Función para calcular la suma de un arreglo de abanicos complejos en paralelo, con
+	una reducción en árbol sobre el ForkJoinPool común. Cada hoja se suma de izquierda a
+	derecha, por lo que si el arreglo tiene a lo más leafSize abanicos complejos el resultado
+	es el mismo que el de sumar con addition uno por uno; en otro caso el resultado es otra
+	envolvente válida de la suma, que puede ser más ancha o más angosta que la de la suma
+	secuencial, ya que la suma de abanicos complejos no es asociativa.
+	 * @param acf el arreglo de abanicos complejos a sumar
+	 * @param leafSize el número máximo de abanicos complejos que se suman en una hoja
+	 * @return el resultado de la suma, el abanico complejo [0,0]∠ [0,0] si el arreglo está
+	vacı́o
+	 */
+	public static ComplexFan sum(ComplexFan []acf, int leafSize){
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.sums.increment();
+		}
+		if (acf.length==0){
+			return new ComplexFan(new Interval(0, 0, '[', ']'), new AngleInterval(0, 0, '[', ']'));
+		}
+		if (acf.length<=leafSize){
+			return ComplexFanSumTask.sequentialSum(acf, 0, acf.length);
+		}
+		return ForkJoinPool.commonPool().invoke(new ComplexFanSumTask(acf, 0, acf.length, leafSize));
+	}
+
+	/**
+	 * Función que regresa un Collector para sumar los abanicos complejos de un Stream con
+	la función sum.
+	 * @param leafSize el número máximo de abanicos complejos que se suman en una hoja
+	 * @return el Collector de la suma
+	 */
+	public static Collector<ComplexFan, ?, ComplexFan> summing(int leafSize){
+		return Collector.<ComplexFan, ArrayList<ComplexFan>, ComplexFan>of(
+			ArrayList::new,
+			ArrayList::add,
+			(l1, l2) -> { l1.addAll(l2); return l1; },
+			l -> sum(l.toArray(new ComplexFan[0]), leafSize)
+		);
 	}
 
 	/**
@@ -249,170 +590,133 @@ las funciones unionOfMIs y unionOfAIs.
 
 	/**
 	 * Función para realizar la unión de los intervalos de ángulo provenientes de un arreglo
-de abanicos complejos.
+de abanicos complejos. Depende de las funciones AngleInterval.circularUnion y
+AngleInterval.coverOfArcs.
 	 * @param acf el arreglo de abanicos complejos
 	 * @return el resultado de la unión de los intervalos de ángulo
 	 */
-	private static AngleInterval unionOfAIs(ComplexFan []acf){
+	static AngleInterval unionOfAIs(ComplexFan []acf){
 		if (acf.length==1){
 			return acf[0].getAngleInterval();
 		}
-		ComplexFan res[] = acf[0].part();
-		ComplexFan rest[] = new ComplexFan[acf.length-1];
-		for (int i=0; i<rest.length; i++){
-			rest[i] = acf[i+1];
-		}
-		ComplexFan []pcf1;
-		ComplexFan []pcf2;
-		boolean union = false;
-		while(true){
-			for(int k=0; k<rest.length; k++){
-				pcf1 = res;
-				pcf2 = rest[k].part();
-				AngleInterval c1 = new AngleInterval(0,90,'[',')');
-				AngleInterval c2 = new AngleInterval(90,180,'[',')');
-				AngleInterval c3 = new AngleInterval(180,270,'[',')');
-				AngleInterval c4 = new AngleInterval(270,360,'[',']');
-				boolean inters = false;
-				int i, j;
-				for(i=0; i<pcf1.length; i++){
-					for(j=0; j<pcf2.length; j++){
-						if (!Interval.intersection(pcf1[i].getAngleInterval(), pcf2[j].getAngleInterval()).isEmpty()){
-							inters = true;
-							break;
-						}
-					}
-					if (inters){
-						AngleInterval aux = new AngleInterval(Interval.union(pcf1[i].getAngleInterval(), pcf2[j].getAngleInterval()));
-						ComplexFan []auxpcf1 = new ComplexFan[pcf1.length-1];
-						System.arraycopy(pcf1, 0, auxpcf1, 0, i);
-						System.arraycopy(pcf1, i+1, auxpcf1, i, auxpcf1.length-i);		
-						ComplexFan []auxpcf2 = new ComplexFan[pcf2.length-1];
-						System.arraycopy(pcf2, 0, auxpcf2, 0, j);
-						System.arraycopy(pcf2, j+1, auxpcf2, j, auxpcf2.length-j);
-						i = -1;
-						union = true;
-						inters = false;
-						pcf1 = auxpcf1;
-						System.arraycopy(auxpcf2, 0, pcf2, 0, auxpcf2.length);
-						pcf2[pcf2.length-1] = new ComplexFan(new Interval(), aux);
-					}
-				}
-				if (union){
-					res = new ComplexFan[pcf1.length+pcf2.length];
-					System.arraycopy(pcf1, 0, res, 0, pcf1.length);
-					System.arraycopy(pcf2, 0, res, pcf1.length, pcf2.length);
-					ComplexFan []auxrest = rest;
-					rest = new ComplexFan[auxrest.length-1];
-					System.arraycopy(auxrest, 0, rest, 0, k);
-					System.arraycopy(auxrest, k+1, rest, k, auxrest.length-k-1);
-					k = -1; 
-					union = false;
-					AngleInterval []lais = new AngleInterval[res.length];
-					for(int r=0; r<lais.length; r++){
-						lais[r] = res[r].getAngleInterval();
-					}
-					if (AngleInterval.verifyCase0to360ofList(lais)){
-						return new AngleInterval(0.0, 360.0, '[', ']');
-					}
-				}
-				if (rest.length==0){
-					break;
-				}
-			}
-			if (rest.length>0){
-				ComplexFan aux2 = rest[0];
-				ComplexFan auxrest[] = new ComplexFan[rest.length-1];
-				System.arraycopy(rest, 1, auxrest, 0, auxrest.length);
-				AngleInterval []lais = new AngleInterval[res.length];
-				for(int r=0; r<lais.length; r++){
-					lais[r] = res[r].getAngleInterval();
-				}
-				AngleInterval auxai = AngleInterval.unionAIs(lais);
-				System.arraycopy(auxrest, 0, rest, 0, auxrest.length);
-				rest[rest.length-1] = new ComplexFan(new Interval(), auxai);
-				res=aux2.part();
-			}
-			if (rest.length==0){
-				break;
-			}
+		AngleInterval []lais = new AngleInterval[acf.length];
+		for (int i=0; i<acf.length; i++){
+			lais[i] = acf[i].getAngleInterval();
 		}
-		AngleInterval []lais = new AngleInterval[res.length];
-		for(int r=0; r<lais.length; r++){
-			lais[r] = res[r].getAngleInterval();
+		AngleInterval []arcs = AngleInterval.circularUnion(lais);
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.unionOfAIsCalls.increment();
+			ComplexFanStats.unionOfAIsMerges.add(acf.length-arcs.length);
 		}
-		return AngleInterval.unionAIs(lais);
+		return AngleInterval.coverOfArcs(arcs);
 	} 
     
 	/**
-	 * Función para unir un arreglo de intervalos de magnitud.
+	 * Función para unir un arreglo de intervalos de magnitud. Depende de Interval.unionAll;
+	si la unión no es un solo intervalo regresa el intervalo que cubre a todas sus partes.
 	 * @param mis el arreglo de intervalos de magnitud
 	 * @return el resultado de la unión de los intervalos de magnitud
 	 */
-	private static Interval unionOfMIs(Interval []mis){
+	static Interval unionOfMIs(Interval []mis){
 		if (mis.length==1){
 			return mis[0];
 		}
-		Interval res = mis[0];
-		Interval []rest = new Interval[mis.length-1];
-		Interval mi;
-		for(int i=0; i<rest.length; i++){
-			rest[i] = mis[i+1];
-		}
-		while(true){
-			for(int i=0; i<rest.length; i++){
-				mi = rest[i];
-				if (!Interval.intersection(res, mi).isEmpty()){
-					res = Interval.union(res, mi);
-					Interval intarray[] = new Interval[rest.length-1];
-					for (int j=0; j<intarray.length; j++){
-						if (j==i){
-							i++;
-						}
-						intarray[j] = rest[i];
-					}
-					rest = intarray;
-					i = 0;
-				}
-			}
-			if (rest.length>0){
-				Interval aux = res;
-				res = rest[0];
-				Interval auxarray[] = rest;
-				for(int i=1; i<=rest.length; i++){
-					if (i!=rest.length){
-						rest[i-1] = auxarray[i];
-					}else{
-						rest[i-1] = aux;
-					}
-				}
-			}else{
-				break;
-			}
+		Interval []union = Interval.unionAll(mis);
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.unionOfMIsCalls.increment();
+			ComplexFanStats.unionOfMIsMerges.add(mis.length-union.length);
+		}
+		if (union.length==0){
+			return new Interval();
+		}
+		Interval res = union[0];
+		if (union.length>1){
+			res.setSecondExtreme(union[union.length-1].getSecondExtreme());
+			res.setSEincluded(union[union.length-1].getSEincluded());
 		}
 		return res;
 	}
 
+	/**
+	 * Función para calcular sólo el intervalo de magnitud de la suma de dos partes ya
+rotadas, con el mismo algoritmo que addition usa para su caso.
+	 * @param caso el caso de la suma, de acuerdo a verifyCase, o 0 si una parte es el origen
+	 * @param V1 la parte del primer operando
+	 * @param V2 la parte del segundo operando
+	 * @return el intervalo de magnitud resultante
+	 */
+	private static Interval magnitudeOfCase(int caso, ComplexFan V1, ComplexFan V2){
+		AdditionOperands op;
+		switch (caso) {
+			case 0:
+				return isOrigin(V1.getMagnitudeInterval()) ? V2.getMagnitudeInterval() : V1.getMagnitudeInterval();
+			case 1:
+				op = new AdditionOperands(V1, V2);
+				magnitudeCase1(op);
+				break;
+			case 2:
+				op = new AdditionOperands(V1, V2);
+				magnitudeCase2(op);
+				break;
+			case 3:
+				op = new AdditionOperands(V1, V2);
+				magnitudeCase3(op);
+				break;
+			default:
+				AngleInterval ai1 = V1.getAngleInterval();
+				AngleInterval ai2 = V2.getAngleInterval();
+				double rot2 = ai2.getFirstExtreme();
+				ai1.setFirstExtreme(ai1.getFirstExtreme()-rot2);
+				ai1.setSecondExtreme(ai1.getSecondExtreme()-rot2);
+				ai2.setFirstExtreme(ai2.getFirstExtreme()-rot2);
+				ai2.setSecondExtreme(ai2.getSecondExtreme()-rot2);
+				ai1.normalize();
+				ai2.normalize();
+				op = new AdditionOperands(V2, V1);
+				magnitudeCase2(op);
+				break;
+		}
+		return new Interval(op.e, op.f, '[', ']');
+	}
+
+	/**
+	 * Función para verificar si un intervalo de magnitud es el punto [0, 0], es decir, si el
+	abanico complejo es el origen. La suma con el origen es el otro operando; los algoritmos de
+	los casos dividen entre las magnitudes y no sirven para él.
+	 * @param mi el intervalo de magnitud
+	 * @return si el intervalo es [0, 0]
+	 */
+	private static boolean isOrigin(Interval mi){
+		return mi.getFirstExtreme()==0.0 && mi.getSecondExtreme()==0.0 && !mi.isEmpty();
+	}
+
 	/**
 	 * Función que implementa el algoritmo para el caso 1 para la adición de dos abanicos
-complejos.
-	 * @param cf1 el primer operando para la suma
-	 * @param cf2 el segundo operando para la suma
+complejos. Depende de las funciones magnitudeCase1 y angleCase1.
+	 * @param op los valores precalculados de los operandos de la suma
 	 * @return el resultado de la suma
 	 */
-	private ComplexFan additionCase1(ComplexFan cf1, ComplexFan cf2){
-		Interval mi1 = cf1.getMagnitudeInterval();
-		Interval mi2 = cf2.getMagnitudeInterval();
-		AngleInterval ai1 = cf1.getAngleInterval();
-		AngleInterval ai2 = cf2.getAngleInterval();
-		double a = mi1.getFirstExtreme();
-		double b = mi1.getSecondExtreme();
-		double c = mi2.getFirstExtreme();
-		double d = mi2.getSecondExtreme();
-		double alfa1 = ai1.getFirstExtreme();
-		double alfa2 = ai1.getSecondExtreme();
-		double alfa3 = ai2.getFirstExtreme();
-		double alfa4 = ai2.getSecondExtreme();
+	private static ComplexFan additionCase1(AdditionOperands op){
+		magnitudeCase1(op);
+		angleCase1(op);
+		return new ComplexFan(new Interval(op.e, op.f, '[', ']'), new AngleInterval(op.alfa5, op.alfa6, '[', ']'));
+	}
+
+	/**
+	 * Función que implementa el algoritmo para calcular el intervalo de magnitud resul-
+tante en la suma de dos abanicos complejos caso 1.
+	 * @param op los valores precalculados de los operandos de la suma, donde se dejan los
+	extremos e y f del resultado, cerrados
+	 */
+	static void magnitudeCase1(AdditionOperands op){
+		double a = op.a;
+		double b = op.b;
+		double c = op.c;
+		double d = op.d;
+		double alfa1 = op.alfa1;
+		double alfa2 = op.alfa2;
+		double alfa3 = op.alfa3;
+		double alfa4 = op.alfa4;
 		double anguloMin;
 		if (alfa2>=alfa3){
 			anguloMin = 0;
@@ -420,235 +724,225 @@ complejos.
 			anguloMin = alfa2-alfa3;
 		}
 		double anguloMax = Math.max(alfa4-alfa1, alfa2-alfa3);
-		double e = Math.sqrt(Math.pow(a, 2)+Math.pow(c, 2)+2*a*c*Math.cos(Math.toRadians(anguloMax)));
-		double f = Math.sqrt(Math.pow(b, 2)+Math.pow(d, 2)+2*b*d*Math.cos(Math.toRadians(anguloMin)));
-		double alfa5 = Math.atan((b*Math.sin(Math.toRadians(alfa1))+c*Math.sin(Math.toRadians(alfa3)))/(b*Math.cos(Math.toRadians(alfa1))+c*Math.cos(Math.toRadians(alfa3))));
+		double e = Math.sqrt(op.aa+op.cc+2*a*c*Math.cos(Math.toRadians(anguloMax)));
+		double f = Math.sqrt(op.bb+op.dd+2*b*d*Math.cos(Math.toRadians(anguloMin)));
+		op.e = e;
+		op.f = f;
+	}
+
+	/**
+	 * Función que implementa el algoritmo para calcular el intervalo de ángulo resultante
+en la suma de dos abanicos complejos caso 1.
+	 * @param op los valores precalculados de los operandos de la suma, donde se dejan los
+	extremos alfa5 y alfa6 del resultado, cerrados y sin normalizar
+	 */
+	static void angleCase1(AdditionOperands op){
+		double alfa2 = op.alfa2;
+		double alfa4 = op.alfa4;
+		double alfa5 = Math.atan((op.yb1+op.yc3)/(op.xb1+op.xc3));
 		alfa5 = Math.toDegrees(alfa5);
 		double alfa6;
 		if (alfa2<alfa4){
-			alfa6 = Math.atan((a*Math.sin(Math.toRadians(alfa2))+d*Math.sin(Math.toRadians(alfa4)))/(a*Math.cos(Math.toRadians(alfa2))+d*Math.cos(Math.toRadians(alfa4))));
+			alfa6 = Math.atan((op.ya2+op.yd4)/(op.xa2+op.xd4));
 		}
 		else if (alfa2>alfa4){
-			alfa6 = Math.atan((b*Math.sin(Math.toRadians(alfa2))+c*Math.sin(Math.toRadians(alfa4)))/(b*Math.cos(Math.toRadians(alfa2))+c*Math.cos(Math.toRadians(alfa4))));
+			alfa6 = Math.atan((op.yb2+op.yc4)/(op.xb2+op.xc4));
 		}
 		else{
-			alfa6 = Math.toRadians(alfa2);
+			alfa6 = op.rad2;
 		}
 		alfa6 = Math.toDegrees(alfa6);
-		return new ComplexFan(new Interval(e, f, '[', ']'), new AngleInterval(alfa5, alfa6, '[', ']'));
+		op.alfa5 = alfa5;
+		op.alfa6 = alfa6;
 	}
 
+
 	/**
 	 * Función para la suma de dos abanicos complejos caso 2. Depende de las funciones
 magnitudeCase2 y angleCase2.
-	 * @param cf1 el primer operando para la suma
-	 * @param cf2 el segundo operando para la suma
+	 * @param op los valores precalculados de los operandos de la suma
 	 * @return el resultado de la suma
 	 */
-	private ComplexFan additionCase2(ComplexFan cf1, ComplexFan cf2){
-		Interval mi = magnitudeCase2(cf1, cf2);
-		AngleInterval ai = angleCase2(cf1, cf2);
-		return new ComplexFan(mi, ai);
+	private static ComplexFan additionCase2(AdditionOperands op){
+		magnitudeCase2(op);
+		angleCase2(op);
+		return new ComplexFan(new Interval(op.e, op.f, '[', ']'), new AngleInterval(op.alfa5, op.alfa6, '[', ']'));
 	}
 
 	/**
 	 * Función que implementa el algoritmo para calcular el intervalo de magnitud resul-
 tante en la suma de dos abanicos complejos caso 2.
-	 * @param cf1 el primer operando para la suma
-	 * @param cf2 el segundo operando para la suma
-	 * @return el intervalo de magnitud resultante
+	 * @param op los valores precalculados de los operandos de la suma, donde se dejan los
+	extremos e y f del resultado, cerrados
 	 */
-	private Interval magnitudeCase2(ComplexFan cf1, ComplexFan cf2){
-		Interval mi1 = cf1.getMagnitudeInterval();
-		Interval mi2 = cf2.getMagnitudeInterval();
-		AngleInterval ai1 = cf1.getAngleInterval();
-		AngleInterval ai2 = cf2.getAngleInterval();
-		double a = mi1.getFirstExtreme();
-		double b = mi1.getSecondExtreme();
-		double c = mi2.getFirstExtreme();
-		double d = mi2.getSecondExtreme();
-		double alfa1 = ai1.getFirstExtreme();
-		double alfa2 = ai1.getSecondExtreme();
-		double alfa3 = ai2.getFirstExtreme();
-		double alfa4 = ai2.getSecondExtreme();
+	static void magnitudeCase2(AdditionOperands op){
+		double a = op.a;
+		double b = op.b;
+		double c = op.c;
+		double d = op.d;
+		double alfa1 = op.alfa1;
+		double alfa2 = op.alfa2;
+		double alfa3 = op.alfa3;
+		double alfa4 = op.alfa4;
 		double anguloMin = alfa3-alfa2;
 		double anguloMax = alfa4-alfa1;
+		double cosMax = Math.cos(Math.toRadians(anguloMax));
 		double f;
 		if (anguloMin<=90){
-			f = Math.sqrt(Math.pow(b, 2)+Math.pow(d, 2)+2*b*d*Math.cos(Math.toRadians(anguloMin)));
+			f = Math.sqrt(op.bb+op.dd+2*b*d*Math.cos(Math.toRadians(anguloMin)));
 		}else{
 			f = Math.max(
 				Math.max(
-					Math.sqrt(Math.pow(c*Math.cos(Math.toRadians(alfa3))+a*Math.cos(Math.toRadians(alfa2)),2)+Math.pow(c*Math.sin(Math.toRadians(alfa3))+a*Math.sin(Math.toRadians(alfa2)),2)),
-					Math.sqrt(Math.pow(d*Math.cos(Math.toRadians(alfa3))+a*Math.cos(Math.toRadians(alfa2)),2)+Math.pow(d*Math.sin(Math.toRadians(alfa3))+a*Math.sin(Math.toRadians(alfa2)),2))
+					AdditionOperands.norm(op.xc3+op.xa2, op.yc3+op.ya2),
+					AdditionOperands.norm(op.xd3+op.xa2, op.yd3+op.ya2)
 				),
 				Math.max(
-					Math.sqrt(Math.pow(c*Math.cos(Math.toRadians(alfa3))+b*Math.cos(Math.toRadians(alfa2)),2)+Math.pow(c*Math.sin(Math.toRadians(alfa3))+b*Math.sin(Math.toRadians(alfa2)),2)),
-					Math.sqrt(Math.pow(d*Math.cos(Math.toRadians(alfa3))+b*Math.cos(Math.toRadians(alfa2)),2)+Math.pow(d*Math.sin(Math.toRadians(alfa3))+b*Math.sin(Math.toRadians(alfa2)),2))
+					AdditionOperands.norm(op.xc3+op.xb2, op.yc3+op.yb2),
+					AdditionOperands.norm(op.xd3+op.xb2, op.yd3+op.yb2)
 				)
 			);
 		}
-		Interval V1m = new Interval(mi1);
-		Interval V2m = new Interval(mi2);
-		V2m.byConstant(Math.cos(Math.toRadians(anguloMax)));
-		V2m = Interval.negation(V2m);
-		Interval interseccion = Interval.intersection(V1m,V2m);
+		// -cosMax*[c, d] y -cosMax*[a, b] como en ImmutableInterval.negation(byConstant(...));
+		// si la intersección no es vacı́a su primer extremo es el mayor de los primeros extremos
+		double nc = -(cosMax<0 ? cosMax*c : cosMax*d);
+		double nd = -(cosMax<0 ? cosMax*d : cosMax*c);
+		double na = -(cosMax<0 ? cosMax*a : cosMax*b);
+		double nb = -(cosMax<0 ? cosMax*b : cosMax*a);
 		double xm = 0.0d, ym = 0.0d;
-		if (!interseccion.isEmpty()){
-			xm = interseccion.getFirstExtreme();
+		if (!ImmutableInterval.intersectionIsEmpty(a, b, op.mBounds1, nc, nd, ImmutableInterval.swap(op.mBounds2))){
+			xm = a<nc ? nc : a;
 		}
-		else if (a>-d*Math.cos(Math.toRadians(anguloMax))){
+		else if (a>-d*cosMax){
 			xm = a;
 		}
-		else if (b<-c*Math.cos(Math.toRadians(anguloMax))){
+		else if (b<-c*cosMax){
 			xm = b;
 		}
-		V2m = new Interval(mi2);
-		V1m.byConstant(Math.cos(Math.toRadians(anguloMax)));
-		V1m = Interval.negation(V1m);
-		interseccion = Interval.intersection(V2m,V1m);
-		if (!interseccion.isEmpty()){
-			ym = interseccion.getFirstExtreme();
+		if (!ImmutableInterval.intersectionIsEmpty(c, d, op.mBounds2, na, nb, ImmutableInterval.swap(op.mBounds1))){
+			ym = c<na ? na : c;
 		}
-		else if (c>-b*Math.cos(Math.toRadians(anguloMax))){
+		else if (c>-b*cosMax){
 			ym = c;
 		}
-		else if (d<-a*Math.cos(Math.toRadians(anguloMax))){
+		else if (d<-a*cosMax){
 			ym = d;
 		}
-		double e = Math.sqrt(Math.pow(xm,2)+Math.pow(ym,2)+2*xm*ym*Math.cos(Math.toRadians(anguloMax)));
-		return new Interval(e,f,'[',']');
+		double e = Math.sqrt(xm*xm+ym*ym+2*xm*ym*cosMax);
+		op.e = e;
+		op.f = f;
 	}
 
 	/**
 	 * Función que implementa el algoritmo para calcular el intervalo de ángulo resultante
 en la suma de dos abanicos complejos caso 2.
-	 * @param cf1 el primer operando para la suma
-	 * @param cf2 el segundo operando para la suma
-	 * @return el intervalo de ángulo resultante
+	 * @param op los valores precalculados de los operandos de la suma, donde se dejan los
+	extremos alfa5 y alfa6 del resultado, cerrados y sin normalizar
 	 */
-	private AngleInterval angleCase2(ComplexFan cf1, ComplexFan cf2){
-		Interval mi1 = new Interval(cf1.getMagnitudeInterval());
-		AngleInterval ai1 = new AngleInterval(cf1.getAngleInterval());
-		Interval mi2 = new Interval(cf2.getMagnitudeInterval());
-		AngleInterval ai2 = new AngleInterval(cf2.getAngleInterval());
-		double a = mi1.getFirstExtreme();
-		double b = mi1.getSecondExtreme();
-		double alfa1 = ai1.getFirstExtreme();
-		double alfa2 = ai1.getSecondExtreme();
-		double c = mi2.getFirstExtreme();
-		double d = mi2.getSecondExtreme();
-		double alfa3 = ai2.getFirstExtreme();
-		double alfa4 = ai2.getSecondExtreme();
+	static void angleCase2(AdditionOperands op){
+		double a = op.a;
+		double b = op.b;
+		double alfa1 = op.alfa1;
+		double alfa2 = op.alfa2;
+		double c = op.c;
+		double d = op.d;
+		double alfa3 = op.alfa3;
+		double alfa4 = op.alfa4;
 		double alfa5, alfa6;
-		double aux1 = angleFixer(c*Math.cos(Math.toRadians(alfa3))+b*Math.cos(Math.toRadians(alfa1)),c*Math.sin(Math.toRadians(alfa3))+b*Math.sin(Math.toRadians(alfa1)));
-		double aux2 = angleFixer(c*Math.cos(Math.toRadians(alfa4))+b*Math.cos(Math.toRadians(alfa1)),c*Math.sin(Math.toRadians(alfa4))+b*Math.sin(Math.toRadians(alfa1)));
+		double aux1 = VectorAngle.lower(op.xc3+op.xb1,op.yc3+op.yb1);
+		double aux2 = VectorAngle.lower(op.xc4+op.xb1,op.yc4+op.yb1);
 		alfa5=Math.min(aux1,aux2);
-		aux1 = angleFixer(d*Math.cos(Math.toRadians(alfa4))+a*Math.cos(Math.toRadians(alfa1)),d*Math.sin(Math.toRadians(alfa4))+a*Math.sin(Math.toRadians(alfa1)));
-		aux2 = angleFixer(d*Math.cos(Math.toRadians(alfa4))+a*Math.cos(Math.toRadians(alfa2)),d*Math.sin(Math.toRadians(alfa4))+a*Math.sin(Math.toRadians(alfa2)));
+		aux1 = VectorAngle.upper(op.xd4+op.xa1,op.yd4+op.ya1);
+		aux2 = VectorAngle.upper(op.xd4+op.xa2,op.yd4+op.ya2);
 		alfa6=Math.max(aux1,aux2);
-		AngleInterval V1a = new AngleInterval(ai1);
-		AngleInterval V2a = new AngleInterval(ai2);
 		double anguloy, anguloo;
-		AngleInterval interseccion;
 		if (alfa6<90){
 			anguloy = alfa2+Math.toDegrees(Math.asin(d/a));
 			anguloo = anguloy+90;
-			interseccion = new AngleInterval(Interval.intersection(new AngleInterval(anguloo, anguloo, '[', ']'),V2a));
-			if (!interseccion.isEmpty()){
+			if (!ImmutableInterval.intersectionIsEmpty(anguloo, anguloo, ImmutableInterval.CLOSED, alfa3, alfa4, op.aBounds2)){
 				alfa6 = anguloy;
 			}
 			else if (anguloo<alfa3){
-				alfa6 = angleFixer(d*Math.cos(Math.toRadians(alfa3))+a*Math.cos(Math.toRadians(alfa2)),d*Math.sin(Math.toRadians(alfa3))+a*Math.sin(Math.toRadians(alfa2)));
+				alfa6 = VectorAngle.upper(op.xd3+op.xa2,op.yd3+op.ya2);
 			}
 			else if (anguloo>alfa4){
-				alfa6 = angleFixer(d*Math.cos(Math.toRadians(alfa4))+a*Math.cos(Math.toRadians(alfa2)),d*Math.sin(Math.toRadians(alfa4))+a*Math.sin(Math.toRadians(alfa2)));
+				alfa6 = VectorAngle.upper(op.xd4+op.xa2,op.yd4+op.ya2);
 			}
 		}
 		if (alfa5>90){
 			anguloy = alfa3-Math.toDegrees(Math.asin(b/c));
 			anguloo = anguloy-90;
-			interseccion = new AngleInterval(Interval.intersection(new AngleInterval(anguloo, anguloo, '[', ']'),V1a));
-			if (!interseccion.isEmpty()){
+			if (!ImmutableInterval.intersectionIsEmpty(anguloo, anguloo, ImmutableInterval.CLOSED, alfa1, alfa2, op.aBounds1)){
 				// correccion del algoritmo de alfa5=anguloo a alfa5=anguloy
 				alfa5 = anguloy;
 			}
 			else if (anguloo<alfa1){
-				alfa5 = angleFixer(c*Math.cos(Math.toRadians(alfa3))+b*Math.cos(Math.toRadians(alfa1)), c*Math.sin(Math.toRadians(alfa3))+b*Math.sin(Math.toRadians(alfa1)));
+				alfa5 = VectorAngle.lower(op.xc3+op.xb1, op.yc3+op.yb1);
 			}
 			else if (anguloo>alfa2){
-				alfa5 = angleFixer(c*Math.cos(Math.toRadians(alfa3))+b*Math.cos(Math.toRadians(alfa2)), c*Math.sin(Math.toRadians(alfa3))+b*Math.sin(Math.toRadians(alfa2)));
+				alfa5 = VectorAngle.lower(op.xc3+op.xb2, op.yc3+op.yb2);
 			}
 		}
-		return new AngleInterval(alfa5, alfa6, '[', ']');
+		op.alfa5 = alfa5;
+		op.alfa6 = alfa6;
 	} 
     
 	/**
 	 * Función para la suma de dos abanicos complejos para el caso 3. Depende de las
 	funciones magnitudeCase3 y angleCase3.
-	 * @param cf1 el primer operando para la suma
-	 * @param cf2 el segundo operando para la suma
+	 * @param op los valores precalculados de los operandos de la suma
 	 * @return el resultado de la suma
 	 */
-	private ComplexFan additionCase3(ComplexFan cf1, ComplexFan cf2){
-		Interval mi = magnitudeCase3(cf1, cf2);
-		AngleInterval ai = angleCase3(cf1, cf2);
-		return new ComplexFan(mi, ai);
+	private static ComplexFan additionCase3(AdditionOperands op){
+		magnitudeCase3(op);
+		angleCase3(op);
+		return new ComplexFan(new Interval(op.e, op.f, '[', ']'), new AngleInterval(op.alfa5, op.alfa6, '[', ']'));
 	}
 
 	/**
 	 * Función que implementa el algoritmo para calcular el intervalo de magnitud resul-
 tante en la suma de dos abanicos complejos para el caso 3.
-	 * @param cf1 el primer operando para la suma
-	 * @param cf2 el segundo operando para la suma
-	 * @return el intervalo de magnitud resultante
+	 * @param op los valores precalculados de los operandos de la suma, donde se dejan los
+	extremos e y f del resultado, cerrados
 	 */
-	private Interval magnitudeCase3(ComplexFan cf1, ComplexFan cf2){
-		Interval mi1 = new Interval(cf1.getMagnitudeInterval());
-		AngleInterval ai1 = new AngleInterval(cf1.getAngleInterval());
-		Interval mi2 = new Interval(cf2.getMagnitudeInterval());
-		AngleInterval ai2 = new AngleInterval(cf2.getAngleInterval());
-		double a = mi1.getFirstExtreme();
-		double b = mi1.getSecondExtreme();
-		double alfa1 = ai1.getFirstExtreme();
-		double alfa2 = ai1.getSecondExtreme();
-		double c = mi2.getFirstExtreme();
-		double d = mi2.getSecondExtreme();
-		double alfa3 = ai2.getFirstExtreme();
-		double alfa4 = ai2.getSecondExtreme();
+	static void magnitudeCase3(AdditionOperands op){
+		double a = op.a;
+		double b = op.b;
+		double alfa1 = op.alfa1;
+		double alfa2 = op.alfa2;
+		double c = op.c;
+		double d = op.d;
+		double alfa3 = op.alfa3;
+		double alfa4 = op.alfa4;
 		double angulo1 = alfa3-alfa2;
 		double angulo2 = 360 - (alfa4-alfa1);
 		double e, f;
 		if (angulo1<angulo2){
 			f = Math.max(
 				Math.max(
-					Math.sqrt(Math.pow(c*Math.cos(Math.toRadians(alfa3))+a*Math.cos(Math.toRadians(alfa2)),2)+Math.pow(c*Math.sin(Math.toRadians(alfa3))+a*Math.sin(Math.toRadians(alfa2)),2)),
-					Math.sqrt(Math.pow(d*Math.cos(Math.toRadians(alfa3))+a*Math.cos(Math.toRadians(alfa2)),2)+Math.pow(d*Math.sin(Math.toRadians(alfa3))+a*Math.sin(Math.toRadians(alfa2)),2))
+					AdditionOperands.norm(op.xc3+op.xa2, op.yc3+op.ya2),
+					AdditionOperands.norm(op.xd3+op.xa2, op.yd3+op.ya2)
 				),
 				Math.max(
-					Math.sqrt(Math.pow(c*Math.cos(Math.toRadians(alfa3))+b*Math.cos(Math.toRadians(alfa2)),2)+Math.pow(c*Math.sin(Math.toRadians(alfa3))+b*Math.sin(Math.toRadians(alfa2)),2)),
-					Math.sqrt(Math.pow(d*Math.cos(Math.toRadians(alfa3))+b*Math.cos(Math.toRadians(alfa2)),2)+Math.pow(d*Math.sin(Math.toRadians(alfa3))+b*Math.sin(Math.toRadians(alfa2)),2))
+					AdditionOperands.norm(op.xc3+op.xb2, op.yc3+op.yb2),
+					AdditionOperands.norm(op.xd3+op.xb2, op.yd3+op.yb2)
 				)
 			);
 		}
 		else{
 			f = Math.max(
 				Math.max(
-					Math.sqrt(Math.pow(c*Math.cos(Math.toRadians(alfa4))+a*Math.cos(Math.toRadians(alfa1)),2)+Math.pow(c*Math.sin(Math.toRadians(alfa4))+a*Math.sin(Math.toRadians(alfa1)),2)),
-					Math.sqrt(Math.pow(d*Math.cos(Math.toRadians(alfa4))+a*Math.cos(Math.toRadians(alfa1)),2)+Math.pow(d*Math.sin(Math.toRadians(alfa4))+a*Math.sin(Math.toRadians(alfa1)),2))
+					AdditionOperands.norm(op.xc4+op.xa1, op.yc4+op.ya1),
+					AdditionOperands.norm(op.xd4+op.xa1, op.yd4+op.ya1)
 				),
 				Math.max(
-					Math.sqrt(Math.pow(c*Math.cos(Math.toRadians(alfa4))+b*Math.cos(Math.toRadians(alfa1)),2)+Math.pow(c*Math.sin(Math.toRadians(alfa4))+b*Math.sin(Math.toRadians(alfa1)),2)),
-					Math.sqrt(Math.pow(d*Math.cos(Math.toRadians(alfa4))+b*Math.cos(Math.toRadians(alfa1)),2)+Math.pow(d*Math.sin(Math.toRadians(alfa4))+b*Math.sin(Math.toRadians(alfa1)),2))
+					AdditionOperands.norm(op.xc4+op.xb1, op.yc4+op.yb1),
+					AdditionOperands.norm(op.xd4+op.xb1, op.yd4+op.yb1)
 				)
 			);
 		}
-		Interval V1m = new Interval(mi1);
-		Interval V2m = new Interval(mi2);
-		Interval interseccion = Interval.intersection(V1m,V2m);
 		double xm = 0.0d, ym = 0.0d;
-		if (!interseccion.isEmpty()){
-			xm = interseccion.getFirstExtreme();
+		if (!ImmutableInterval.intersectionIsEmpty(a, b, op.mBounds1, c, d, op.mBounds2)){
+			xm = a<c ? c : a;
 			ym = xm;
 		}
 		else if (a>d){
@@ -659,154 +953,97 @@ tante en la suma de dos abanicos complejos para el caso 3.
 			xm = b;
 			ym = c;
 		}
-		e = Math.sqrt(Math.pow(xm,2)+Math.pow(ym,2)-2*xm*ym);
-		return new Interval(e, f, '[', ']');
+		e = Math.sqrt(xm*xm+ym*ym-2*xm*ym);
+		op.e = e;
+		op.f = f;
 	}
 
 	/**
 	 * Función que implementa el algoritmo para calcular el intervalo de ángulo resultante
 en la suma de dos abanicos complejos para el caso 3.
-	 * @param cf1 el primer operando para la suma
-	 * @param cf2 el segundo operando para la suma
-	 * @return el intervalo de ángulo resultante
+	 * @param op los valores precalculados de los operandos de la suma, donde se dejan los
+	extremos alfa5 y alfa6 del resultado, cerrados y sin normalizar
 	 */
-	private AngleInterval angleCase3(ComplexFan cf1, ComplexFan cf2){
-		Interval mi1 = new Interval(cf1.getMagnitudeInterval());
-		AngleInterval ai1 = new AngleInterval(cf1.getAngleInterval());
-		Interval mi2 = new Interval(cf2.getMagnitudeInterval());
-		AngleInterval ai2 = new AngleInterval(cf2.getAngleInterval());
-		double a = mi1.getFirstExtreme();
-		double b = mi1.getSecondExtreme();
-		double alfa1 = ai1.getFirstExtreme();
-		double alfa2 = ai1.getSecondExtreme();
-		double c = mi2.getFirstExtreme();
-		double d = mi2.getSecondExtreme();
-		double alfa3 = ai2.getFirstExtreme();
-		double alfa4 = ai2.getSecondExtreme();
+	static void angleCase3(AdditionOperands op){
+		double a = op.a;
+		double b = op.b;
+		double alfa1 = op.alfa1;
+		double alfa2 = op.alfa2;
+		double c = op.c;
+		double d = op.d;
+		double alfa3 = op.alfa3;
+		double alfa4 = op.alfa4;
 		double alfa5, alfa6;
-		double anguloMax = 180;
-		Interval V1m = new Interval(mi1);
-		Interval V2m = new Interval(mi2);
-		V2m.byConstant(Math.cos(Math.toRadians(anguloMax)));
-		Interval MagDiff = Interval.addition(V1m,V2m);
-		AngleInterval V1a = new AngleInterval(ai1);
-		AngleInterval V2a = new AngleInterval(ai2);
-		Interval in1 = Interval.intersection(new Interval(0, 0, '[', ']'),MagDiff);
+		// diferencia de magnitudes, [a, b] + cos(180)*[c, d]
+		double magDiffFE = a-d;
+		double magDiffSE = b-c;
 		double anguloy1, anguloo1;
-		if (!in1.isEmpty()){
+		if (!ImmutableInterval.intersectionIsEmpty(0, 0, ImmutableInterval.CLOSED, magDiffFE, magDiffSE, op.mBounds1&op.mBounds2)){
 			alfa5=0;
 			alfa6=360;
 		}
-		else if(MagDiff.getFirstExtreme()>0 && MagDiff.getSecondExtreme()>0){
-			alfa6 = angleFixer(d*Math.cos(Math.toRadians(alfa3))+a*Math.cos(Math.toRadians(alfa2)), d*Math.sin(Math.toRadians(alfa3))+a*Math.sin(Math.toRadians(alfa2)));
+		else if(magDiffFE>0 && magDiffSE>0){
+			alfa6 = VectorAngle.upper(op.xd3+op.xa2, op.yd3+op.ya2);
 			if (alfa6>90){
 				anguloy1 = Math.toDegrees(Math.asin(d/a))+alfa2;
 				anguloo1 = anguloy1 + 90;
-				AngleInterval in2 = new AngleInterval(Interval.intersection(new AngleInterval(anguloo1, anguloo1, '[', ']'),V2a));
-				if (!in2.isEmpty()){
+				if (!ImmutableInterval.intersectionIsEmpty(anguloo1, anguloo1, ImmutableInterval.CLOSED, alfa3, alfa4, op.aBounds2)){
 					alfa6 = anguloy1;
 				}
 				else if (anguloo1<alfa3){
-					alfa6 = angleFixer(d*Math.cos(Math.toRadians(alfa3))+a*Math.cos(Math.toRadians(alfa2)),d*Math.sin(Math.toRadians(alfa3))+a*Math.sin(Math.toRadians(alfa2)));
+					alfa6 = VectorAngle.upper(op.xd3+op.xa2,op.yd3+op.ya2);
 				}
 				else if (anguloo1>alfa4){
-					alfa6 = angleFixer(d*Math.cos(Math.toRadians(alfa4))+a*Math.cos(Math.toRadians(alfa2)),d*Math.sin(Math.toRadians(alfa4))+a*Math.sin(Math.toRadians(alfa2)));
+					alfa6 = VectorAngle.upper(op.xd4+op.xa2,op.yd4+op.ya2);
 				}
 			}
-			alfa5 = angleFixer(d*Math.cos(Math.toRadians(alfa4))+a*Math.cos(Math.toRadians(alfa1)), d*Math.sin(Math.toRadians(alfa4))+a*Math.sin(Math.toRadians(alfa1)));
+			alfa5 = VectorAngle.lower(op.xd4+op.xa1, op.yd4+op.ya1);
 			if (alfa5>270){
 				anguloy1 = 360 - Math.toDegrees(Math.asin(d/a));
 				anguloo1 = anguloy1 - 90;
-				AngleInterval in2 = new AngleInterval(Interval.intersection(new AngleInterval(anguloo1, anguloo1, '[', ']'),V2a));
-				if (!in2.isEmpty()){
+				if (!ImmutableInterval.intersectionIsEmpty(anguloo1, anguloo1, ImmutableInterval.CLOSED, alfa3, alfa4, op.aBounds2)){
 					alfa5 = anguloy1;
 				}
 				else if (anguloo1<alfa3){
-					alfa5 = angleFixer(d*Math.cos(Math.toRadians(alfa3))+a*Math.cos(Math.toRadians(alfa1)), d*Math.sin(Math.toRadians(alfa3))+a*Math.sin(Math.toRadians(alfa1)));
+					alfa5 = VectorAngle.lower(op.xd3+op.xa1, op.yd3+op.ya1);
 				}
 				else if (anguloo1>alfa4){
-					alfa5 = angleFixer(d*Math.cos(Math.toRadians(alfa4))+a*Math.cos(Math.toRadians(alfa1)), d*Math.sin(Math.toRadians(alfa4))+a*Math.sin(Math.toRadians(alfa1)));
+					alfa5 = VectorAngle.lower(op.xd4+op.xa1, op.yd4+op.ya1);
 				}
 			}
 		}
 		else{
-			alfa6 = angleFixer(c*Math.cos(Math.toRadians(alfa4))+b*Math.cos(Math.toRadians(alfa1)), c*Math.sin(Math.toRadians(alfa4))+b*Math.sin(Math.toRadians(alfa1)));
+			alfa6 = VectorAngle.upper(op.xc4+op.xb1, op.yc4+op.yb1);
 			if (alfa6>270){
 				anguloy1 = alfa4 + Math.toDegrees(Math.asin(b/c));
 				anguloo1 = AngleInterval.modulo360(anguloy1 + 90);
-				AngleInterval in2 = new AngleInterval(Interval.intersection(new AngleInterval(anguloo1, anguloo1, '[', ']'),V1a));
-				if (!in2.isEmpty()){
+				if (!ImmutableInterval.intersectionIsEmpty(anguloo1, anguloo1, ImmutableInterval.CLOSED, alfa1, alfa2, op.aBounds1)){
 					alfa6 = anguloy1;
 				}
 				else if (anguloo1<alfa1){
-					alfa6 = angleFixer(c*Math.cos(Math.toRadians(alfa4))+b*Math.cos(Math.toRadians(alfa1)), c*Math.sin(Math.toRadians(alfa4))+b*Math.sin(Math.toRadians(alfa1)));
+					alfa6 = VectorAngle.upper(op.xc4+op.xb1, op.yc4+op.yb1);
 				}
 				else if (anguloo1>alfa2){
-					alfa6 = angleFixer(c*Math.cos(Math.toRadians(alfa4))+b*Math.cos(Math.toRadians(alfa2)), c*Math.sin(Math.toRadians(alfa4))+b*Math.sin(Math.toRadians(alfa2)));
+					alfa6 = VectorAngle.upper(op.xc4+op.xb2, op.yc4+op.yb2);
 				}
 			}
-			alfa5 = angleFixer(c*Math.cos(Math.toRadians(alfa3))+b*Math.cos(Math.toRadians(alfa2)), c*Math.sin(Math.toRadians(alfa3))+b*Math.sin(Math.toRadians(alfa2)));
+			alfa5 = VectorAngle.lower(op.xc3+op.xb2, op.yc3+op.yb2);
 			if (alfa5<180){
 				anguloy1 = alfa3 - Math.toDegrees(Math.asin(b/c));
 				anguloo1 = anguloy1 - 90;
-				AngleInterval in2 = new AngleInterval(Interval.intersection(new AngleInterval(anguloo1, anguloo1, '[', ']'),V1a));
-				if (!in2.isEmpty()){
+				if (!ImmutableInterval.intersectionIsEmpty(anguloo1, anguloo1, ImmutableInterval.CLOSED, alfa1, alfa2, op.aBounds1)){
 					alfa5 = anguloy1;
 				}
 				else if (anguloo1<alfa1){
-					alfa5 = angleFixer(c*Math.cos(Math.toRadians(alfa3))+b*Math.cos(Math.toRadians(alfa1)), c*Math.sin(Math.toRadians(alfa3))+b*Math.sin(Math.toRadians(alfa1)));
+					alfa5 = VectorAngle.lower(op.xc3+op.xb1, op.yc3+op.yb1);
 				}
 				else if (anguloo1>alfa2){
-					alfa5 = angleFixer(c*Math.cos(Math.toRadians(alfa3))+b*Math.cos(Math.toRadians(alfa2)),c*Math.sin(Math.toRadians(alfa3))+b*Math.sin(Math.toRadians(alfa2)));
+					alfa5 = VectorAngle.lower(op.xc3+op.xb2,op.yc3+op.yb2);
 				}
 			}	
 		}
-		return new AngleInterval(alfa5, alfa6, '[', ']');
-	}
-    
-	/**
-	 * Función para corregir el ángulo resultante, al calcular el ángulo de un vector.
-	 * @param x la componente en x del vector
-	 * @param y la componente en y del vector
-	 * @return el ángulo resultante
-	 */
-	private double angleFixer(double x, double y){
-		double theta = 0.0d;
-		if (x>=0&&y>0){
-			if (x==0){
-				theta = 90;
-			}
-			else{
-				theta = Math.toDegrees(Math.atan(y/x));
-			}
-		}
-		else if (x>=0&&y==0){
-			//if (x==0){
-			//    System.out.println("Division por cero!");
-			//    System.exit(1);
-			//}
-			//else{
-				theta = 0;
-			//}
-		}
-		else if (x>=0&&y<0){
-			if (x==0){
-				theta = 270;
-			}
-			else{
-				theta = 360-Math.toDegrees(Math.atan(Math.abs(y)/x));
-			}
-		}
-		else if (x<0&&y>0){
-			theta = 180-Math.toDegrees(Math.atan(y/Math.abs(x)));
-		}
-		else if (x<0&&y==0){
-			theta = 180;
-		}
-		else if (x<0&&y<0){
-			theta = 180+Math.toDegrees(Math.atan(Math.abs(y)/Math.abs(x)));
-		}
-		return theta;
+		op.alfa5 = alfa5;
+		op.alfa6 = alfa6;
 	}
     
 	/**
@@ -818,269 +1055,165 @@ en la suma de dos abanicos complejos para el caso 3.
 	 * @return el número de caso al cual cae la suma
 	 */
 	public int verifyCase(double alfa3, double alfa4){
+		return caseOf(alfa3, alfa4);
+	}
+
+	/**
+	 * Función para verificar en que caso cae la suma de dos abanicos complejos, sin
+	necesitar un abanico complejo; verifyCase y AdditionKernel la usan.
+	 * @param alfa3 el primer extremo del intervalo de ángulo del segundo abanico complejo
+	 * @param alfa4 el segundo extremo del intervalo de ángulo del segundo abanico complejo
+	 * @return el número de caso al cual cae la suma
+	 */
+	static int caseOf(double alfa3, double alfa4){
+		int caso;
 		if (alfa3>=0 && alfa4<=90){
-			return 1;
+			caso = 1;
 		}
 		else if (alfa3>=90 && alfa4<=180){
-			return 2;
+			caso = 2;
 		}
 		else if (alfa3>=180 && alfa4<=270){
-			return 3;
+			caso = 3;
 		}
 		else{
-			return 4;
+			caso = 4;
 		}
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.verifyCases[caso-1].increment();
+		}
+		return caso;
 	}
-    
+
 	/**
-	 * Esta función parte un abanico complejo de acuerdo a su intersección con el plano
-cartesiano.
-	 * @return el arreglo de abanicos complejos (partes) que componen el abanico complejo
+	 * Función para verificar si el abanico complejo contiene a un punto, sin crear ningún
+	objeto. El ángulo del punto se calcula con VectorAngle.degrees y el origen está en el
+	abanico complejo si su magnitud incluye al 0, sin importar el ángulo. Un abanico complejo
+	con un intervalo vacı́o no contiene ningún punto.
+	 * @param re la parte real del punto
+	 * @param im la parte imaginaria del punto
+	 * @return si el abanico complejo contiene al punto
 	 */
-	public ComplexFan[] part(){
-		double alfa1 = angleInterval.getFirstExtreme();
-		double alfa2 = angleInterval.getSecondExtreme();
-		char p1 = angleInterval.getFEincluded();
-		char p2 = angleInterval.getSEincluded();
-		ComplexFan c1 = new ComplexFan(magnitudeInterval,new AngleInterval(0,90,'[',')'));
-		ComplexFan c2 = new ComplexFan(magnitudeInterval,new AngleInterval(90,180,'[',')'));
-		ComplexFan c3 = new ComplexFan(magnitudeInterval,new AngleInterval(180,270,'[',')'));
-		ComplexFan c4 = new ComplexFan(magnitudeInterval,new AngleInterval(270,360,'[',']'));
-		ComplexFan []res = new ComplexFan[5];
-		res[0] = new ComplexFan();
-		res[1] = new ComplexFan();
-		res[2] = new ComplexFan();
-		res[3] = new ComplexFan();
-		res[4] = new ComplexFan();
-		if (alfa1<=90 && alfa2<=90 && alfa1>=0 && alfa2>=0){
-			if (alfa2<alfa1){
-				if (alfa2==90){
-					res[0] = new ComplexFan(magnitudeInterval,new AngleInterval(90,180,p1,')'));
-					res[1] = new ComplexFan(c3);
-					res[2] = new ComplexFan(c4);
-					res[3] = new ComplexFan(magnitudeInterval,new AngleInterval(0,alfa2,'[',p2));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval,new AngleInterval(alfa1,90,p1,')'));
-					res[1] = new ComplexFan(c2);
-					res[2] = new ComplexFan(c3);
-					res[3] = new ComplexFan(c4);
-					res[4] = new ComplexFan(magnitudeInterval,new AngleInterval(0,alfa2,'[',p2));
-				}
-			}
-			else if (alfa2==alfa1){
-				if (p1=='[' && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval,new AngleInterval(alfa1,alfa1,'[',']'));
-				}
-			}
-			else{
-				if (alfa2==90 && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval,new AngleInterval(alfa1,90,p1,')'));
-					res[1] = new ComplexFan(magnitudeInterval,new AngleInterval(90,90,'[',']'));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval,new AngleInterval(alfa1,alfa2,p1,p2));
-				}
-			}
-		}
-		else if (alfa1<=180 && alfa2<=180 && alfa1>=90 && alfa2>=90){
-			if (alfa2<alfa1){
-				if (alfa1==180){
-					res[0] = new ComplexFan(magnitudeInterval,new AngleInterval(180,270,p1,')'));
-					res[1] = new ComplexFan(c4);
-					res[2] = new ComplexFan(c1);
-					res[3] = new ComplexFan(magnitudeInterval, new AngleInterval(90,alfa2,'[',p2));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 180, p1, ')'));
-					res[1] = new ComplexFan(c3);
-					res[2] = new ComplexFan(c4);
-					res[3] = new ComplexFan(c1);
-					res[4] = new ComplexFan(magnitudeInterval, new AngleInterval(90,alfa2,'[',p2));
-				 }
-			}
-			else if (alfa2==alfa1){
-				if (p1=='[' && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, alfa1, '[', ']'));
-				}
-			}
-			else{
-				if (alfa2==180 && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 180, p1, ')'));
-					res[1] = new ComplexFan(magnitudeInterval, new AngleInterval(180, 180, '[', ']'));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, alfa2, p1, p2));
-				}
-			}
-		}
-		else if (alfa1<=270 && alfa2<=270 && alfa1>=180 && alfa2>=180){
-			if (alfa2<alfa1){
-				if (alfa1==270){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(270, 360, p1, ']'));
-					res[1] = new ComplexFan(c1);
-					res[2] = new ComplexFan(c2);
-					res[3] = new ComplexFan(magnitudeInterval, new AngleInterval(180, alfa2, '[',p2));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 270, p1, ')'));
-					res[1] = new ComplexFan(c4);
-					res[2] = new ComplexFan(c1);
-					res[3] = new ComplexFan(c2);
-					res[4] = new ComplexFan(magnitudeInterval, new AngleInterval(180, alfa2, '[', p2));
-				}
-			} else if (alfa2==alfa1){
-				if (p1=='[' && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, alfa1, '[', ']'));
-				}
-			} else{
-				if (alfa2==270 && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 270, p1, ')'));
-					res[1] = new ComplexFan(magnitudeInterval, new AngleInterval(270, 270, '[', ']'));
-				} else{
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, alfa2, p1, p2));
-				}
-			}
+	public boolean contains(double re, double im){
+		double m = Math.sqrt(re*re+im*im);
+		double theta = VectorAngle.degrees(re, im);
+		return intersects(m, m, theta, theta, POINT, this);
+	}
+
+	/**
+	 * Función para verificar si el abanico complejo contiene a otro, sin crear ningún objeto.
+	La magnitud de cf debe estar en la magnitud de este abanico complejo y su ángulo en el
+	ángulo de éste, tomando en cuenta los intervalos que pasan por los 0 grados; si la
+	magnitud de cf es sólo el 0 el ángulo no importa. Un abanico complejo con un intervalo
+	vacı́o está contenido en cualquiera y sólo contiene a los vacı́os.
+	 * @param cf el abanico complejo contenido
+	 * @return si el abanico complejo contiene a cf
+	 */
+	public boolean contains(ComplexFan cf){
+		Interval mi = cf.magnitudeInterval;
+		AngleInterval ai = cf.angleInterval;
+		double c = mi.getFirstExtreme();
+		double d = mi.getSecondExtreme();
+		int f2 = ImmutableInterval.bounds(mi);
+		int g2 = ImmutableInterval.bounds(ai);
+		if (ImmutableInterval.isEmpty(c, d, f2) || ImmutableInterval.isEmpty(ai.getFirstExtreme(), ai.getSecondExtreme(), g2)){
+			return true;
 		}
-		else if(alfa1<=360 && alfa2<=360 && alfa1>=270 && alfa2>=270){
-			if (alfa2<alfa1){
-				if (alfa1==0){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(0, 90, p1, ')'));
-					res[1] = new ComplexFan(c2);
-					res[2] = new ComplexFan(c3);
-					res[3] = new ComplexFan(magnitudeInterval, new AngleInterval(270, alfa2, '[', p2));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 360, p1, ']'));
-					res[1] = new ComplexFan(c1);
-					res[2] = new ComplexFan(c2);
-					res[3] = new ComplexFan(c3);
-					res[4] = new ComplexFan(magnitudeInterval, new AngleInterval(270, alfa2, '[', p2));
-				}
-			}
-			else if(alfa2==alfa1){
-				if (p1=='[' && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, alfa1, '[', ']'));
-				}
-			}
-			else{
-				res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, alfa2, p1, p2));
-			}
+		double a = magnitudeInterval.getFirstExtreme();
+		double b = magnitudeInterval.getSecondExtreme();
+		int f1 = ImmutableInterval.bounds(magnitudeInterval);
+		int g1 = ImmutableInterval.bounds(angleInterval);
+		if (ImmutableInterval.isEmpty(a, b, f1) || ImmutableInterval.isEmpty(angleInterval.getFirstExtreme(), angleInterval.getSecondExtreme(), g1)){
+			return false;
 		}
-		else if (alfa1>=0 && alfa1<90){
-			if (alfa2>90 && alfa2<=180){
-				if (alfa2==180 && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 90, p1, ')'));
-					res[1] = new ComplexFan(c2);
-					res[2] = new ComplexFan(magnitudeInterval, new AngleInterval(180, 180, '[', ']'));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 90, p1, ')'));
-					res[1] = new ComplexFan(magnitudeInterval, new AngleInterval(90, alfa2, '[', p2));
-				}
-			}
-			else if (alfa2>180 && alfa2<=270){
-				if (alfa2==270 && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 90, p1, ')'));
-					res[1] = new ComplexFan(c2);
-					res[2] = new ComplexFan(c3);
-					res[3] = new ComplexFan(magnitudeInterval, new AngleInterval(270, 270, '[', ']'));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 90, p1, ')'));
-					res[1] = new ComplexFan(c2);
-					res[2] = new ComplexFan(magnitudeInterval, new AngleInterval(180, alfa2, '[', p2));
-				}
-			}
-			else if (alfa2>270 && alfa2<=360){
-				res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 90, p1, ')'));
-				res[1] = new ComplexFan(c2);
-				res[2] = new ComplexFan(c3);
-				res[3] = new ComplexFan(magnitudeInterval, new AngleInterval(270, alfa2, '[', p2));
-			}
+		if (!ImmutableInterval.contains(a, b, f1, c, d, f2)){
+			return false;
 		}
-		else if (alfa1>=90 && alfa1<180){
-			if (alfa2>180 && alfa2<=270){
-				if (alfa2==270 && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 180, p1, ')'));
-					res[1] = new ComplexFan(c3);
-					res[2] = new ComplexFan(magnitudeInterval, new AngleInterval(270, 270, '[', ']'));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 180, p1, ')'));
-					res[1] = new ComplexFan(magnitudeInterval, new AngleInterval(180, alfa2, '[', p2));
-				}
-			}
-			else if (alfa2>270 && alfa2<=360) {
-				res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 180, p1, ')'));
-				res[1] = new ComplexFan(c3);
-				res[2] = new ComplexFan(magnitudeInterval, new AngleInterval(270, alfa2, '[', p2));
-			}
-			else if (alfa2>0 && alfa2<90){
-				res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 180, p1, ')'));
-				res[1] = new ComplexFan(c3);
-				res[2] = new ComplexFan(c4);
-				res[3] = new ComplexFan(magnitudeInterval, new AngleInterval(0, alfa2, '[', p2));
-			}
-		}
-		else if (alfa1>=180 && alfa1<270){
-			if (alfa2>270 && alfa2<=360){
-				res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 270, p1, ')'));
-				res[1] = new ComplexFan(magnitudeInterval, new AngleInterval(270, alfa2, '[', p2));
-			}
-			else if (alfa2>0 && alfa2<=90){
-				if (alfa2==90 && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 270, p1, ')'));
-					res[1] = new ComplexFan(c4);
-					res[2] = new ComplexFan(c1);
-					res[3] = new ComplexFan(magnitudeInterval, new AngleInterval(90, 90, '[', ']'));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 270, p1, ')'));
-					res[1] = new ComplexFan(c4);
-					res[2] = new ComplexFan(magnitudeInterval, new AngleInterval(0, alfa2, '[', p2));
-				}
-			}
-			else if (alfa2>90 && alfa2<180){
-				res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 270, p1, ')'));
-				res[1] = new ComplexFan(c4);
-				res[2] = new ComplexFan(c1);
-				res[3] = new ComplexFan(magnitudeInterval, new AngleInterval(90, alfa2, '[', p2));
-			}
-		}
-		else if (alfa1>=270 && alfa1<360){
-			if (alfa2>0 && alfa2<=90){
-				if(alfa2==90 && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 360, p1, ']'));
-					res[1] = new ComplexFan(c1);
-					res[2] = new ComplexFan(magnitudeInterval, new AngleInterval(90, 90, '[', ']'));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 360, p1, ']'));
-					res[1] = new ComplexFan(magnitudeInterval, new AngleInterval(0, alfa2, '[', p2));
-				}
-			}
-			else if (alfa2>90 && alfa2<=180){
-				if (alfa2==180 && p2==']'){
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 360, p1, ']'));
-					res[1] = new ComplexFan(c1);
-					res[2] = new ComplexFan(c2);
-					res[3] = new ComplexFan(magnitudeInterval, new AngleInterval(180, 180, '[', ']'));
-				}else{
-					res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 360, p1, ']'));
-					res[1] = new ComplexFan(c1);
-					res[2] = new ComplexFan(magnitudeInterval, new AngleInterval(90, alfa2, '[', p2));
-				}
-			}
-			else if (alfa2>180 && alfa2<270){
-				res[0] = new ComplexFan(magnitudeInterval, new AngleInterval(alfa1, 360, p1, ']'));
-				res[1] = new ComplexFan(c1);
-				res[2] = new ComplexFan(c2);
-				res[3] = new ComplexFan(magnitudeInterval, new AngleInterval(180, alfa2, '[', p2));
-			}
+		return d==0.0 || AngleInterval.contains(angleInterval.getFirstExtreme(), angleInterval.getSecondExtreme(), g1, ai.getFirstExtreme(), ai.getSecondExtreme(), g2);
+	}
+
+	/**
+	 * Función para verificar si el abanico complejo tiene al menos un punto en común con
+	otro, sin crear ningún objeto. Depende de la función intersects sobre los extremos.
+	 * @param cf el otro abanico complejo
+	 * @return si los abanicos complejos se intersecan
+	 */
+	public boolean intersects(ComplexFan cf){
+		Interval mi = cf.magnitudeInterval;
+		AngleInterval ai = cf.angleInterval;
+		return intersects(mi.getFirstExtreme(), mi.getSecondExtreme(), ai.getFirstExtreme(), ai.getSecondExtreme(), ImmutableInterval.bounds(mi)|ImmutableInterval.bounds(ai)<<2, this);
+	}
+
+	/**
+	 * Función para verificar si un abanico complejo dado por sus extremos tiene al menos un
+	punto en común con otro.
+	 * @param a el primer extremo de magnitud
+	 * @param b el segundo extremo de magnitud
+	 * @param fe el primer extremo de ángulo
+	 * @param se el segundo extremo de ángulo
+	 * @param flags los lı́mites, empaquetados como en ComplexFanBatch
+	 * @param cf el otro abanico complejo
+	 * @return si los abanicos complejos se intersecan
+	 */
+	private static boolean intersects(double a, double b, double fe, double se, int flags, ComplexFan cf){
+		Interval mi = cf.magnitudeInterval;
+		AngleInterval ai = cf.angleInterval;
+		return intersects(a, b, fe, se, flags, mi.getFirstExtreme(), mi.getSecondExtreme(), ai.getFirstExtreme(), ai.getSecondExtreme(), ImmutableInterval.bounds(mi)|ImmutableInterval.bounds(ai)<<2);
+	}
+
+	/**
+	 * Función para verificar si dos abanicos complejos normalizados dados por sus extremos
+	tienen al menos un punto en común, sin crear ningún objeto. Las magnitudes se comparan con
+	ImmutableInterval.intersectionIsEmpty; si ambas incluyen al 0 los abanicos complejos se
+	tocan en el origen y si no los ángulos se comparan con AngleInterval.intersects. Un
+	abanico complejo con un intervalo vacı́o no se interseca con ninguno.
+	 * @param a el primer extremo de magnitud del primer abanico complejo
+	 * @param b el segundo extremo de magnitud del primer abanico complejo
+	 * @param fe el primer extremo de ángulo del primer abanico complejo
+	 * @param se el segundo extremo de ángulo del primer abanico complejo
+	 * @param flags los lı́mites del primer abanico complejo, empaquetados como en ComplexFanBatch
+	 * @param c el primer extremo de magnitud del segundo abanico complejo
+	 * @param d el segundo extremo de magnitud del segundo abanico complejo
+	 * @param fe2 el primer extremo de ángulo del segundo abanico complejo
+	 * @param se2 el segundo extremo de ángulo del segundo abanico complejo
+	 * @param flags2 los lı́mites del segundo abanico complejo, empaquetados como en ComplexFanBatch
+	 * @return si los abanicos complejos se intersecan
+	 */
+	public static boolean intersects(double a, double b, double fe, double se, int flags, double c, double d, double fe2, double se2, int flags2){
+		int f1 = flags&ImmutableInterval.CLOSED;
+		int f2 = flags2&ImmutableInterval.CLOSED;
+		int g1 = flags>>2&ImmutableInterval.CLOSED;
+		int g2 = flags2>>2&ImmutableInterval.CLOSED;
+		if (ImmutableInterval.isEmpty(a, b, f1) || ImmutableInterval.isEmpty(c, d, f2)
+				|| ImmutableInterval.isEmpty(fe, se, g1) || ImmutableInterval.isEmpty(fe2, se2, g2)
+				|| ImmutableInterval.intersectionIsEmpty(a, b, f1, c, d, f2)){
+			return false;
 		}
-		int counter=0;
-		ComplexFan partes[];
-		for (int i=0; i<5; i++){
-			if (!res[i].isEmpty())
-				counter++;
+		if (!ImmutableInterval.intersectionIsEmpty(0.0d, 0.0d, ImmutableInterval.CLOSED, a, b, f1)
+				&& !ImmutableInterval.intersectionIsEmpty(0.0d, 0.0d, ImmutableInterval.CLOSED, c, d, f2)){
+			return true;
 		}
-		if (counter==0)
+		return AngleInterval.intersects(fe, se, g1, fe2, se2, g2);
+	}
+
+	/**
+	 * Esta función parte un abanico complejo de acuerdo a su intersección con el plano
+cartesiano. Depende de la clase QuadrantMask.
+	 * @return el arreglo de abanicos complejos (partes) que componen el abanico complejo,
+	null si el intervalo de ángulo no tiene partes
+	 */
+	public ComplexFan[] part(){
+		int code = QuadrantMask.encode(angleInterval);
+		if (code==QuadrantMask.EMPTY)
 			return null;
-		else{
-			partes = new ComplexFan[counter];
-			System.arraycopy(res, 0, partes, 0, counter);
-			return partes;
+		ComplexFan []partes = new ComplexFan[QuadrantMask.count(code)];
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.fragments[partes.length].increment();
+		}
+		for (int k=0; k<partes.length; k++){
+			partes[k] = new ComplexFan(magnitudeInterval, QuadrantMask.part(code, k, angleInterval));
 		}
+		return partes;
 	}
 
 	/**
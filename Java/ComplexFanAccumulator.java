@@ -0,0 +1,100 @@
+/**
+ * Esta clase acumula la suma de abanicos complejos que llegan uno por uno, por ejemplo de un
+Stream, con el mismo resultado que sumarlos de izquierda a derecha con ComplexFan.addition. Entre
+una suma y la siguiente la suma acumulada se guarda descompuesta en cuadrantes (AdditionPart):
+rotada por su primer extremo y partida en partes, cada una rotada a su propio primer extremo.
+accumulate sólo copia, rota y parte al nuevo operando y lo suma con las partes guardadas; el
+resultado de la suma ya sale simplificado, ası́ que se parte sin volver a copiar ni a simplificar
+su intervalo de magnitud. result construye una copia de la suma acumulada sólo cuando se pide.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanAccumulator {
+	private final double tolerance;	// la tolerancia de simplificación en grados, 0 para no simplificar
+	private ComplexFan total;		// la suma acumulada, null si no se ha acumulado nada
+	private AdditionPart prepared;	// la suma acumulada descompuesta en cuadrantes, null si aún no se descompone
+	private long count;				// el número de abanicos complejos acumulados
+
+	/**
+	 * Constructor que inicializa un acumulador vacı́o que no simplifica los ángulos.
+	 */
+	public ComplexFanAccumulator(){
+		this(0.0);
+	}
+
+	/**
+	 * Constructor que inicializa un acumulador vacı́o que suma con
+	ComplexFan.addition(cf1, cf2, tolerance).
+	 * @param tolerance la tolerancia de simplificación en grados, 0 para no simplificar
+	 */
+	public ComplexFanAccumulator(double tolerance){
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Función para sumar un abanico complejo a la suma acumulada. Si la suma acumulada y el
+	nuevo operando son casi puntuales se suman con pointAddition, igual que en
+	ComplexFan.addition; en otro caso el nuevo operando se suma con la suma acumulada ya
+	descompuesta y el resultado se descompone para la siguiente suma. En ComplexFanStats cada
+	llamada, salvo la primera, cuenta como una suma de dos abanicos complejos.
+	 * @param cf el abanico complejo a sumar
+	 */
+	public void accumulate(ComplexFan cf){
+		count++;
+		if (total==null){
+			total = new ComplexFan(cf);
+			return;
+		}
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.additions.increment();
+		}
+		if (prepared==null){
+			if (ComplexFan.isNearPoint(total) && ComplexFan.isNearPoint(cf)){
+				total = ComplexFan.sumOf(total, cf, tolerance);
+				return;
+			}
+			prepared = AdditionPart.first(total, tolerance);
+		}
+		total = ComplexFan.addition(prepared, AdditionPart.second(cf, prepared));
+		prepared = ComplexFan.isNearPoint(total) ? null : AdditionPart.running(total, tolerance);
+	}
+
+	/**
+	 * Función para sumar a la suma acumulada todos los abanicos complejos de un arreglo, de
+	izquierda a derecha.
+	 * @param acf el arreglo de abanicos complejos
+	 */
+	public void accumulateAll(ComplexFan []acf){
+		for (ComplexFan cf : acf){
+			accumulate(cf);
+		}
+	}
+
+	/**
+	 * Función para obtener la suma acumulada.
+	 * @return una copia de la suma acumulada, [0, 0]∠ [0, 0] si no se ha acumulado nada
+	 */
+	public ComplexFan result(){
+		if (total==null){
+			return new ComplexFan(new Interval(0, 0, '[', ']'), new AngleInterval(0, 0, '[', ']'));
+		}
+		return new ComplexFan(total);
+	}
+
+	/**
+	 * Función para obtener el número de abanicos complejos acumulados.
+	 * @return el número de abanicos complejos acumulados
+	 */
+	public long getCount(){
+		return count;
+	}
+
+	/**
+	 * Función para vaciar el acumulador.
+	 */
+	public void reset(){
+		total = null;
+		prepared = null;
+		count = 0;
+	}
+}
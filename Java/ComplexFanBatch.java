@@ -0,0 +1,460 @@
+/**
+ * Esta clase modela un lote de abanicos complejos almacenado por columnas, es decir, los
+extremos de los intervalos de magnitud y de ángulo se guardan en arreglos de tipo double y los
+lı́mites de los cuatro extremos se empaquetan en un arreglo de bytes. Implementa las operaciones
+de la aritmética de abanicos complejos sobre columnas completas, dando los mismos resultados que
+las funciones de la clase ComplexFan. La negación, el producto y la división usan la Vector API
+(ComplexFanBatchVector) cuando está compilada y el módulo jdk.incubator.vector está cargado, y
+los ciclos escalares en otro caso; ambos dan los mismos resultados bit a bit. La suma y la
+resta recorren las columnas con AdditionKernel, que usa los mismos algoritmos de los casos que
+ComplexFan.addition sobre los extremos y un espacio de trabajo reservado una vez por llamada,
+ası́ que no crean objetos por posición.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanBatch {
+	public static final byte MAGNITUDE_FE_CLOSED = 1;	// el primer extremo de magnitud es ‘[’
+	public static final byte MAGNITUDE_SE_CLOSED = 2;	// el segundo extremo de magnitud es ‘]’
+	public static final byte ANGLE_FE_CLOSED = 4;		// el primer extremo de ángulo es ‘[’
+	public static final byte ANGLE_SE_CLOSED = 8;		// el segundo extremo de ángulo es ‘]’
+
+	private static final ComplexFanBatchKernels VECTOR_KERNELS = loadVectorKernels();	// las operaciones con la Vector API, null si no está disponible
+	static boolean vectorKernels = true;	// si negation, product y division usan la Vector API cuando está disponible
+
+	private final int size;						// el número de abanicos complejos del lote
+	final double []magnitudeFE;				// los primeros extremos de magnitud
+	final double []magnitudeSE;				// los segundos extremos de magnitud
+	final double []angleFE;					// los primeros extremos de ángulo
+	final double []angleSE;					// los segundos extremos de ángulo
+	final byte []flags;						// los lı́mites de los cuatro extremos
+
+	/**
+	 * Constructor que inicializa un lote con el número de abanicos complejos recibido, todos
+	ellos vacı́os, es decir, (0, 0)∠ (0, 0).
+	 * @param size el número de abanicos complejos del lote
+	 */
+	public ComplexFanBatch(int size){
+		this.size = size;
+		magnitudeFE = new double[size];
+		magnitudeSE = new double[size];
+		angleFE = new double[size];
+		angleSE = new double[size];
+		flags = new byte[size];
+	}
+
+	/**
+	 * Constructor que inicializa un lote a partir de un arreglo de abanicos complejos.
+	 * @param acf el arreglo de abanicos complejos a copiar
+	 */
+	public ComplexFanBatch(ComplexFan []acf){
+		this(acf.length);
+		for (int i=0; i<acf.length; i++){
+			set(i, acf[i]);
+		}
+	}
+
+	/**
+	 * Función para obtener el número de abanicos complejos del lote.
+	 * @return el número de abanicos complejos
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Función para asignar un abanico complejo en una posición del lote.
+	 * @param i la posición en el lote
+	 * @param cf el abanico complejo a copiar
+	 */
+	public void set(int i, ComplexFan cf){
+		Interval mi = cf.getMagnitudeInterval();
+		AngleInterval ai = cf.getAngleInterval();
+		set(i, mi.getFEincluded(), mi.getFirstExtreme(), mi.getSecondExtreme(), mi.getSEincluded(), ai.getFEincluded(), ai.getFirstExtreme(), ai.getSecondExtreme(), ai.getSEincluded());
+	}
+
+	/**
+	 * Función para asignar los valores de un abanico complejo en una posición del lote, sin
+	crear objetos intermedios. Los valores se guardan tal cual, sin normalizar.
+	 * @param i la posición en el lote
+	 * @param mfei el lı́mite del primer extremo de magnitud
+	 * @param mfe el primer extremo de magnitud
+	 * @param mse el segundo extremo de magnitud
+	 * @param msei el lı́mite del segundo extremo de magnitud
+	 * @param afei el lı́mite del primer extremo de ángulo
+	 * @param afe el primer extremo de ángulo
+	 * @param ase el segundo extremo de ángulo
+	 * @param asei el lı́mite del segundo extremo de ángulo
+	 */
+	public void set(int i, char mfei, double mfe, double mse, char msei, char afei, double afe, double ase, char asei){
+		magnitudeFE[i] = mfe;
+		magnitudeSE[i] = mse;
+		angleFE[i] = afe;
+		angleSE[i] = ase;
+		flags[i] = encodeFlags(mfei, msei, afei, asei);
+	}
+
+	/**
+	 * Función para obtener el abanico complejo de una posición del lote.
+	 * @param i la posición en el lote
+	 * @return un nuevo abanico complejo con los valores de la posición
+	 */
+	public ComplexFan get(int i){
+		ComplexFan cf = new ComplexFan();
+		cf.getMagnitudeInterval().setFirstExtreme(magnitudeFE[i]);
+		cf.getMagnitudeInterval().setSecondExtreme(magnitudeSE[i]);
+		cf.getMagnitudeInterval().setFEincluded(getMagnitudeFEincluded(i));
+		cf.getMagnitudeInterval().setSEincluded(getMagnitudeSEincluded(i));
+		cf.getAngleInterval().setFirstExtreme(angleFE[i]);
+		cf.getAngleInterval().setSecondExtreme(angleSE[i]);
+		cf.getAngleInterval().setFEincluded(getAngleFEincluded(i));
+		cf.getAngleInterval().setSEincluded(getAngleSEincluded(i));
+		return cf;
+	}
+
+	/**
+	 * Función para obtener el primer extremo de magnitud de una posición.
+	 * @param i la posición en el lote
+	 * @return el primer extremo de magnitud
+	 */
+	public double getMagnitudeFirstExtreme(int i){
+		return magnitudeFE[i];
+	}
+
+	/**
+	 * Función para obtener el segundo extremo de magnitud de una posición.
+	 * @param i la posición en el lote
+	 * @return el segundo extremo de magnitud
+	 */
+	public double getMagnitudeSecondExtreme(int i){
+		return magnitudeSE[i];
+	}
+
+	/**
+	 * Función para obtener el primer extremo de ángulo de una posición.
+	 * @param i la posición en el lote
+	 * @return el primer extremo de ángulo
+	 */
+	public double getAngleFirstExtreme(int i){
+		return angleFE[i];
+	}
+
+	/**
+	 * Función para obtener el segundo extremo de ángulo de una posición.
+	 * @param i la posición en el lote
+	 * @return el segundo extremo de ángulo
+	 */
+	public double getAngleSecondExtreme(int i){
+		return angleSE[i];
+	}
+
+	/**
+	 * Función para obtener los lı́mites empaquetados de una posición.
+	 * @param i la posición en el lote
+	 * @return los lı́mites de los cuatro extremos
+	 */
+	public byte getFlags(int i){
+		return flags[i];
+	}
+
+	/**
+	 * Función para obtener el lı́mite del primer extremo de magnitud de una posición.
+	 * @param i la posición en el lote
+	 * @return ‘(’ o ‘[’
+	 */
+	public char getMagnitudeFEincluded(int i){
+		return (flags[i]&MAGNITUDE_FE_CLOSED)!=0?'[':'(';
+	}
+
+	/**
+	 * Función para obtener el lı́mite del segundo extremo de magnitud de una posición.
+	 * @param i la posición en el lote
+	 * @return ‘)’ o ‘]’
+	 */
+	public char getMagnitudeSEincluded(int i){
+		return (flags[i]&MAGNITUDE_SE_CLOSED)!=0?']':')';
+	}
+
+	/**
+	 * Función para obtener el lı́mite del primer extremo de ángulo de una posición.
+	 * @param i la posición en el lote
+	 * @return ‘(’ o ‘[’
+	 */
+	public char getAngleFEincluded(int i){
+		return (flags[i]&ANGLE_FE_CLOSED)!=0?'[':'(';
+	}
+
+	/**
+	 * Función para obtener el lı́mite del segundo extremo de ángulo de una posición.
+	 * @param i la posición en el lote
+	 * @return ‘)’ o ‘]’
+	 */
+	public char getAngleSEincluded(int i){
+		return (flags[i]&ANGLE_SE_CLOSED)!=0?']':')';
+	}
+
+	/**
+	 * Función para empaquetar los cuatro lı́mites de un abanico complejo en un byte.
+	 * @param mfei el lı́mite del primer extremo de magnitud
+	 * @param msei el lı́mite del segundo extremo de magnitud
+	 * @param afei el lı́mite del primer extremo de ángulo
+	 * @param asei el lı́mite del segundo extremo de ángulo
+	 * @return los lı́mites empaquetados
+	 */
+	public static byte encodeFlags(char mfei, char msei, char afei, char asei){
+		int f = 0;
+		if (mfei=='[') f |= MAGNITUDE_FE_CLOSED;
+		if (msei==']') f |= MAGNITUDE_SE_CLOSED;
+		if (afei=='[') f |= ANGLE_FE_CLOSED;
+		if (asei==']') f |= ANGLE_SE_CLOSED;
+		return (byte)f;
+	}
+
+	/**
+	 * Función para calcular la negación de cada abanico complejo de un lote. Equivale a
+	ComplexFan.negation aplicada posición por posición.
+	 * @param b el lote a negar
+	 * @param res el lote donde se guarda el resultado, puede ser el mismo que b
+	 */
+	public static void negation(ComplexFanBatch b, ComplexFanBatch res){
+		checkSizes(b, b, res);
+		if (vectorKernels&&VECTOR_KERNELS!=null){
+			VECTOR_KERNELS.negation(b, res);
+			return;
+		}
+		for (int i=0; i<b.size; i++){
+			int f = b.flags[i];
+			res.setNormalized(i, b.magnitudeFE[i], b.magnitudeSE[i], b.angleFE[i]+180.0d, b.angleSE[i]+180.0d, f);
+		}
+	}
+
+	/**
+	 * Función para calcular el producto posición por posición de dos lotes. Equivale a
+	ComplexFan.product aplicada a cada par de abanicos complejos.
+	 * @param b1 el lote del primer operando
+	 * @param b2 el lote del segundo operando
+	 * @param res el lote donde se guarda el resultado, puede ser el mismo que b1 o b2
+	 */
+	public static void product(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res){
+		checkSizes(b1, b2, res);
+		if (vectorKernels&&VECTOR_KERNELS!=null){
+			VECTOR_KERNELS.product(b1, b2, res);
+			return;
+		}
+		for (int i=0; i<b1.size; i++){
+			int f = b1.flags[i]&b2.flags[i];
+			res.setNormalized(i, b1.magnitudeFE[i]*b2.magnitudeFE[i], b1.magnitudeSE[i]*b2.magnitudeSE[i], b1.angleFE[i]+b2.angleFE[i], b1.angleSE[i]+b2.angleSE[i], f);
+		}
+	}
+
+	/**
+	 * Función para calcular la división posición por posición de dos lotes. Equivale a
+	ComplexFan.division aplicada a cada par de abanicos complejos.
+	 * @param b1 el lote de los dividendos
+	 * @param b2 el lote de los divisores
+	 * @param res el lote donde se guarda el resultado, puede ser el mismo que b1 o b2
+	 * @throws ArithmeticException si algún divisor tiene un extremo de magnitud igual a cero;
+	en ese caso res no se modifica
+	 */
+	public static void division(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res){
+		checkSizes(b1, b2, res);
+		if (vectorKernels&&VECTOR_KERNELS!=null){
+			VECTOR_KERNELS.division(b1, b2, res);
+			return;
+		}
+		checkDivisors(b2);
+		for (int i=0; i<b1.size; i++){
+			int f1 = b1.flags[i];
+			int f2 = b2.flags[i];
+			// los lı́mites se cruzan igual que en Interval.subtraction
+			int f = 0;
+			if ((f1&MAGNITUDE_FE_CLOSED)!=0 && (f2&MAGNITUDE_SE_CLOSED)!=0) f |= MAGNITUDE_FE_CLOSED;
+			if ((f1&MAGNITUDE_SE_CLOSED)!=0 && (f2&MAGNITUDE_FE_CLOSED)!=0) f |= MAGNITUDE_SE_CLOSED;
+			if ((f1&ANGLE_FE_CLOSED)!=0 && (f2&ANGLE_SE_CLOSED)!=0) f |= ANGLE_FE_CLOSED;
+			if ((f1&ANGLE_SE_CLOSED)!=0 && (f2&ANGLE_FE_CLOSED)!=0) f |= ANGLE_SE_CLOSED;
+			double mfe = b1.magnitudeFE[i]/b2.magnitudeSE[i];
+			double mse = b1.magnitudeSE[i]/b2.magnitudeFE[i];
+			res.setNormalized(i, mfe, mse, b1.angleFE[i]-b2.angleSE[i], b1.angleSE[i]-b2.angleFE[i], f);
+		}
+	}
+
+	/**
+	 * Función para calcular la suma posición por posición de dos lotes. Equivale a
+	ComplexFan.addition aplicada a cada par de abanicos complejos.
+	 * @param b1 el lote del primer operando
+	 * @param b2 el lote del segundo operando
+	 * @param res el lote donde se guarda el resultado, puede ser el mismo que b1 o b2
+	 * @throws IllegalArgumentException si algún par no se puede sumar porque un intervalo de
+	ángulo no tiene partes; en ese caso res no se modifica
+	 */
+	public static void addition(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res){
+		checkSizes(b1, b2, res);
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.additions.add(b1.size);
+		}
+		sum(b1, b2, res, false);
+	}
+
+	/**
+	 * Función para calcular la resta posición por posición de dos lotes. Equivale a
+	ComplexFan.subtraction aplicada a cada par de abanicos complejos.
+	 * @param b1 el lote del primer operando
+	 * @param b2 el lote del segundo operando
+	 * @param res el lote donde se guarda el resultado, puede ser el mismo que b1 o b2
+	 * @throws IllegalArgumentException si algún par no se puede restar porque un intervalo de
+	ángulo no tiene partes; en ese caso res no se modifica
+	 */
+	public static void subtraction(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res){
+		checkSizes(b1, b2, res);
+		if (ComplexFanStats.ENABLED){
+			ComplexFanStats.subtractions.add(b1.size);
+		}
+		sum(b1, b2, res, true);
+	}
+
+	/**
+	 * Función para sumar o restar dos lotes sobre sus columnas con AdditionKernel. Primero se
+	verifica que todos los pares se puedan operar y después se calcula cada posición; cada
+	posición se lee antes de escribir su resultado, ası́ que res puede ser b1 o b2.
+	 * @param b1 el lote del primer operando
+	 * @param b2 el lote del segundo operando
+	 * @param res el lote donde se guarda el resultado
+	 * @param subtract si se resta en lugar de sumar
+	 * @throws IllegalArgumentException si algún par no se puede operar
+	 */
+	private static void sum(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res, boolean subtract){
+		AdditionKernel k = new AdditionKernel();
+		for (int i=0; i<b1.size; i++){
+			int f1 = b1.flags[i];
+			int f2 = b2.flags[i];
+			boolean valid = subtract
+				? k.subtractable(b1.magnitudeFE[i], b1.magnitudeSE[i], f1&3, b1.angleFE[i], b1.angleSE[i], f1>>2&3, b2.magnitudeFE[i], b2.magnitudeSE[i], f2&3, b2.angleFE[i], b2.angleSE[i], f2>>2&3)
+				: k.addable(b1.magnitudeFE[i], b1.magnitudeSE[i], f1&3, b1.angleFE[i], b1.angleSE[i], f1>>2&3, b2.magnitudeFE[i], b2.magnitudeSE[i], f2&3, b2.angleFE[i], b2.angleSE[i], f2>>2&3);
+			if (!valid){
+				throw new IllegalArgumentException("No se puede realizar la suma, ComplexFan no válido en la posición "+i);
+			}
+		}
+		for (int i=0; i<b1.size; i++){
+			int f1 = b1.flags[i];
+			int f2 = b2.flags[i];
+			if (subtract){
+				k.subtract(b1.magnitudeFE[i], b1.magnitudeSE[i], f1&3, b1.angleFE[i], b1.angleSE[i], f1>>2&3, b2.magnitudeFE[i], b2.magnitudeSE[i], f2&3, b2.angleFE[i], b2.angleSE[i], f2>>2&3);
+			}else{
+				k.add(b1.magnitudeFE[i], b1.magnitudeSE[i], f1&3, b1.angleFE[i], b1.angleSE[i], f1>>2&3, b2.magnitudeFE[i], b2.magnitudeSE[i], f2&3, b2.angleFE[i], b2.angleSE[i], f2>>2&3);
+			}
+			res.magnitudeFE[i] = k.mfe;
+			res.magnitudeSE[i] = k.mse;
+			res.angleFE[i] = k.afe;
+			res.angleSE[i] = k.ase;
+			res.flags[i] = (byte)k.flags;
+		}
+	}
+
+	/**
+	 * Función para guardar un resultado aplicando la misma normalización que el construc-
+	tor de ComplexFan, es decir, Interval.normalize para la magnitud y AngleInterval.normalize
+	para el ángulo.
+	 * @param i la posición en el lote
+	 * @param mfe el primer extremo de magnitud
+	 * @param mse el segundo extremo de magnitud
+	 * @param afe el primer extremo de ángulo
+	 * @param ase el segundo extremo de ángulo
+	 * @param f los lı́mites empaquetados
+	 */
+	private void setNormalized(int i, double mfe, double mse, double afe, double ase, int f){
+		if (mfe>mse){
+			double aux = mfe;
+			mfe = mse;
+			mse = aux;
+			int mf = 0;
+			if ((f&MAGNITUDE_SE_CLOSED)!=0) mf |= MAGNITUDE_FE_CLOSED;
+			if ((f&MAGNITUDE_FE_CLOSED)!=0) mf |= MAGNITUDE_SE_CLOSED;
+			f = (f&~(MAGNITUDE_FE_CLOSED|MAGNITUDE_SE_CLOSED))|mf;
+		}
+		if (afe>360.0||afe<0.0){
+			afe = AngleInterval.modulo360(afe);
+		}
+		if (ase>360.0||ase<0.0){
+			ase = AngleInterval.modulo360(ase);
+		}
+		if (afe==360.0&&ase!=360.0){
+			afe = 0.0d;
+		}
+		if (ase==0.0&&afe!=0.0){
+			ase = 360.0d;
+		}
+		magnitudeFE[i] = mfe;
+		magnitudeSE[i] = mse;
+		angleFE[i] = afe;
+		angleSE[i] = ase;
+		flags[i] = (byte)f;
+	}
+
+	/**
+	 * Función para cargar las operaciones con la Vector API. La clase ComplexFanBatchVector
+	se compila aparte con --add-modules jdk.incubator.vector; si no se compiló o el módulo no
+	está en la JVM se usan los ciclos escalares.
+	 * @return las operaciones, o null si no están disponibles
+	 */
+	private static ComplexFanBatchKernels loadVectorKernels(){
+		if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()){
+			return null;
+		}
+		try {
+			return (ComplexFanBatchKernels)Class.forName("ComplexFanBatchVector").getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e){
+			return null;
+		}
+	}
+
+	/**
+	 * Función para saber si están cargadas las operaciones con la Vector API.
+	 * @return verdadero si negation, product y division pueden usar la Vector API
+	 */
+	static boolean hasVectorKernels(){
+		return VECTOR_KERNELS!=null;
+	}
+
+	/**
+	 * Función para verificar que los lotes de una operación tengan el mismo tamaño.
+	 * @param b1 el lote del primer operando
+	 * @param b2 el lote del segundo operando
+	 * @param res el lote del resultado
+	 * @throws IllegalArgumentException si los lotes no tienen el mismo tamaño
+	 */
+	private static void checkSizes(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res){
+		if (b1.size!=b2.size || b1.size!=res.size){
+			throw new IllegalArgumentException("Los lotes deben tener el mismo tamaño: "+b1.size+", "+b2.size+", "+res.size);
+		}
+	}
+
+	/**
+	 * Función para verificar, antes de escribir el resultado, que ningún divisor tenga un
+	extremo de magnitud igual a cero.
+	 * @param b2 el lote de los divisores
+	 * @throws ArithmeticException si algún divisor tiene magnitud cero
+	 */
+	private static void checkDivisors(ComplexFanBatch b2){
+		for (int i=0; i<b2.size; i++){
+			if (b2.magnitudeSE[i]==0.0||b2.magnitudeFE[i]==0.0){
+				throw new ArithmeticException("División por cero en la posición "+i);
+			}
+		}
+	}
+
+	/**
+	 * Función que regresa la representación de un lote en cadena de caracteres, un abanico
+	complejo por renglón.
+	 * @return la cadena de caracteres que representa el lote
+	 */
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i<size; i++){
+			sb.append(getMagnitudeFEincluded(i)).append(magnitudeFE[i]).append(',').append(magnitudeSE[i]).append(getMagnitudeSEincluded(i));
+			sb.append("\u2220 ");
+			sb.append(getAngleFEincluded(i)).append(angleFE[i]).append(',').append(angleSE[i]).append(getAngleSEincluded(i));
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+}
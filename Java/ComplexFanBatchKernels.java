@@ -0,0 +1,32 @@
+/**
+ * Interfaz de las operaciones de ComplexFanBatch que tienen una implementación alterna, como
+la de ComplexFanBatchVector con la Vector API. Los lotes ya llegan con el mismo tamaño y cada
+implementación debe dar exactamente los mismos resultados que los ciclos escalares.
+ * @author Manuel Cipriano
+ */
+
+interface ComplexFanBatchKernels {
+	/**
+	 * Función para calcular la negación de cada abanico complejo de un lote.
+	 * @param b el lote a negar
+	 * @param res el lote donde se guarda el resultado, puede ser el mismo que b
+	 */
+	void negation(ComplexFanBatch b, ComplexFanBatch res);
+
+	/**
+	 * Función para calcular el producto posición por posición de dos lotes.
+	 * @param b1 el lote del primer operando
+	 * @param b2 el lote del segundo operando
+	 * @param res el lote donde se guarda el resultado, puede ser el mismo que b1 o b2
+	 */
+	void product(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res);
+
+	/**
+	 * Función para calcular la división posición por posición de dos lotes.
+	 * @param b1 el lote de los dividendos
+	 * @param b2 el lote de los divisores
+	 * @param res el lote donde se guarda el resultado, puede ser el mismo que b1 o b2
+	 * @throws ArithmeticException si algún divisor tiene magnitud cero, antes de escribir res
+	 */
+	void division(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res);
+}
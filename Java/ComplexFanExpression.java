@@ -0,0 +1,123 @@
+/**
+ * Esta clase modela un nodo de una expresión sobre abanicos complejos: una constante, una
+variable o una operación (suma, resta, producto, división o negación) sobre otros nodos. Los
+nodos se crean con ComplexFanGraph, que reutiliza un nodo existente cuando se pide una
+subexpresión idéntica, de modo que una fórmula es un grafo dirigido acı́clico en el que cada
+subexpresión aparece una sola vez.
+ * @author Manuel Cipriano
+ */
+
+public final class ComplexFanExpression {
+	public static final char CONSTANT = 'c';
+	public static final char VARIABLE = 'v';
+	public static final char ADDITION = '+';
+	public static final char SUBTRACTION = '-';
+	public static final char PRODUCT = '*';
+	public static final char DIVISION = '/';
+	public static final char NEGATION = 'n';
+
+	private final int id;						// la posición del nodo en su grafo
+	private final char operation;				// el tipo de nodo
+	private final ComplexFanExpression left;	// el primer operando, null en las hojas
+	private final ComplexFanExpression right;	// el segundo operando, null salvo en operaciones binarias
+	private final ComplexFan value;				// el valor de una constante
+	private final String name;					// el nombre de una variable
+	private final int level;					// la longitud del camino más largo hasta una hoja
+
+	/**
+	 * Constructor que inicializa un nodo, sólo lo usa ComplexFanGraph.
+	 * @param id la posición del nodo en su grafo
+	 * @param operation el tipo de nodo
+	 * @param left el primer operando
+	 * @param right el segundo operando
+	 * @param value el valor de una constante
+	 * @param name el nombre de una variable
+	 */
+	ComplexFanExpression(int id, char operation, ComplexFanExpression left, ComplexFanExpression right, ComplexFan value, String name){
+		this.id = id;
+		this.operation = operation;
+		this.left = left;
+		this.right = right;
+		this.value = value;
+		this.name = name;
+		int l = left==null ? -1 : left.level;
+		int r = right==null ? -1 : right.level;
+		this.level = Math.max(l, r)+1;
+	}
+
+	/**
+	 * Función para obtener la posición del nodo en su grafo.
+	 * @return la posición del nodo
+	 */
+	public int getId(){
+		return id;
+	}
+
+	/**
+	 * Función para obtener el tipo de nodo.
+	 * @return CONSTANT, VARIABLE, ADDITION, SUBTRACTION, PRODUCT, DIVISION o NEGATION
+	 */
+	public char getOperation(){
+		return operation;
+	}
+
+	/**
+	 * Función para obtener el primer operando.
+	 * @return el primer operando, null si el nodo es una hoja
+	 */
+	public ComplexFanExpression getLeft(){
+		return left;
+	}
+
+	/**
+	 * Función para obtener el segundo operando.
+	 * @return el segundo operando, null si el nodo no es una operación binaria
+	 */
+	public ComplexFanExpression getRight(){
+		return right;
+	}
+
+	/**
+	 * Función para obtener el valor de una constante.
+	 * @return el valor, null si el nodo no es una constante
+	 */
+	public ComplexFan getValue(){
+		return value;
+	}
+
+	/**
+	 * Función para obtener el nombre de una variable.
+	 * @return el nombre, null si el nodo no es una variable
+	 */
+	public String getName(){
+		return name;
+	}
+
+	/**
+	 * Función para obtener el nivel del nodo: 0 en las hojas y uno más que el mayor nivel
+	de sus operandos en las operaciones. Los nodos de un mismo nivel no dependen entre sı́.
+	 * @return el nivel del nodo
+	 */
+	public int getLevel(){
+		return level;
+	}
+
+	/**
+	 * Esto calcula la cadena de caracteres que representa al nodo, con sus operandos
+	referidos por su posición para no repetir las subexpresiones compartidas.
+	 * @return la cadena de caracteres que representa al nodo
+	 */
+	@Override
+	public String toString(){
+		switch (operation) {
+			case CONSTANT:
+				return "n"+id+" = "+value;
+			case VARIABLE:
+				return "n"+id+" = "+name;
+			case NEGATION:
+				return "n"+id+" = -n"+left.id;
+			default:
+				return "n"+id+" = n"+left.id+" "+operation+" n"+right.id;
+		}
+	}
+}
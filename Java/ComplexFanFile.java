@@ -0,0 +1,197 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Esta clase modela un archivo binario de abanicos complejos mapeado en memoria. El archivo
+tiene un encabezado de 16 bytes (la firma "CFAN", la versión y el número de abanicos) seguido
+de un registro de ancho fijo por abanico complejo: los cuatro extremos como double (primer y
+segundo extremo de magnitud, primer y segundo extremo de ángulo) y un byte con los cuatro
+lı́mites empaquetados igual que en ComplexFanBatch, 33 bytes en total, todo en little endian.
+
+El archivo se mapea con FileChannel.map en bloques de a lo más 2^25 registros, porque un
+MappedByteBuffer no puede pasar de 2 GB; ningún registro queda partido entre dos bloques. Un
+archivo es un ComplexFanStore cuyos bloques están en el disco: los registros se leen y escriben
+directamente en el archivo mapeado, uno por uno por posición o por lotes completos de
+ComplexFanBatch, sin crear objetos por registro, y las operaciones aritméticas de
+ComplexFanStore trabajan sobre él. Los valores se guardan tal cual, sin normalizar.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanFile extends ComplexFanStore implements AutoCloseable {
+	public static final int MAGIC = 0x4346414E;		// la firma del archivo, "CFAN"
+	public static final int VERSION = 1;				// la versión del formato
+	public static final int HEADER_SIZE = 16;			// el tamaño del encabezado en bytes
+
+	private final Path path;						// la ruta del archivo
+	private final FileChannel channel;				// el canal del archivo
+	private final MappedByteBuffer header;			// el encabezado mapeado
+
+	/**
+	 * Constructor que mapea un archivo ya abierto.
+	 * @param path la ruta del archivo
+	 * @param channel el canal del archivo
+	 * @param size el número de abanicos complejos
+	 * @param writable si el archivo se puede modificar
+	 */
+	private ComplexFanFile(Path path, FileChannel channel, long size, boolean writable) throws IOException {
+		super(map(channel, size, writable), null, 0, size);
+		this.path = path;
+		this.channel = channel;
+		header = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+		header.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Función para mapear los bloques de registros de un archivo.
+	 * @param channel el canal del archivo
+	 * @param size el número de abanicos complejos
+	 * @param writable si el archivo se puede modificar
+	 * @return los bloques mapeados, en little endian
+	 */
+	private static MappedByteBuffer[] map(FileChannel channel, long size, boolean writable) throws IOException {
+		FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+		MappedByteBuffer []chunks = new MappedByteBuffer[(int)((size+CHUNK_MASK)>>>CHUNK_SHIFT)];
+		for (int c=0; c<chunks.length; c++){
+			long records = Math.min(CHUNK_MASK+1, size-((long)c<<CHUNK_SHIFT));
+			chunks[c] = channel.map(mode, HEADER_SIZE+((long)c<<CHUNK_SHIFT)*RECORD_SIZE, records*RECORD_SIZE);
+			chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+		}
+		return chunks;
+	}
+
+	/**
+	 * Función para crear un archivo nuevo con espacio para un número dado de abanicos
+	complejos, todos ellos vacı́os, es decir, (0, 0)∠ (0, 0). Si el archivo ya existe se
+	reemplaza.
+	 * @param path la ruta del archivo
+	 * @param size el número de abanicos complejos
+	 * @return el archivo mapeado para lectura y escritura
+	 * @throws UncheckedIOException si no se puede crear o mapear el archivo
+	 * @throws IllegalArgumentException si el número de abanicos complejos es negativo
+	 */
+	public static ComplexFanFile create(Path path, long size){
+		if (size<0){
+			throw new IllegalArgumentException("El número de abanicos complejos no puede ser negativo: "+size);
+		}
+		FileChannel channel = null;
+		ComplexFanFile f = null;
+		try {
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			f = new ComplexFanFile(path, channel, size, true);
+			f.header.putInt(0, MAGIC);
+			f.header.putInt(4, VERSION);
+			f.header.putLong(8, size);
+			return f;
+		} catch (IOException e){
+			throw ioError(path, e);
+		} finally {
+			if (f==null){
+				closeQuietly(channel);
+			}
+		}
+	}
+
+	/**
+	 * Función para abrir un archivo existente.
+	 * @param path la ruta del archivo
+	 * @param writable si el archivo se puede modificar
+	 * @return el archivo mapeado
+	 * @throws UncheckedIOException si no se puede abrir o mapear el archivo
+	 * @throws IllegalArgumentException si el archivo no tiene el formato de abanicos complejos
+	 */
+	public static ComplexFanFile open(Path path, boolean writable){
+		FileChannel channel = null;
+		ComplexFanFile f = null;
+		try {
+			channel = writable ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE) : FileChannel.open(path, StandardOpenOption.READ);
+			long length = channel.size();
+			if (length<HEADER_SIZE){
+				throw formatError(path, "el archivo es más corto que el encabezado");
+			}
+			MappedByteBuffer h = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			h.order(ByteOrder.LITTLE_ENDIAN);
+			if (h.getInt(0)!=MAGIC){
+				throw formatError(path, "la firma no es CFAN");
+			}
+			if (h.getInt(4)!=VERSION){
+				throw formatError(path, "versión "+h.getInt(4)+" no soportada");
+			}
+			long size = h.getLong(8);
+			if (size<0 || length!=HEADER_SIZE+size*RECORD_SIZE){
+				throw formatError(path, "el tamaño del archivo no corresponde a "+size+" registros");
+			}
+			f = new ComplexFanFile(path, channel, size, writable);
+			return f;
+		} catch (IOException e){
+			throw ioError(path, e);
+		} finally {
+			if (f==null){
+				closeQuietly(channel);
+			}
+		}
+	}
+
+	/**
+	 * Función para escribir en el disco los cambios hechos al archivo mapeado.
+	 */
+	public void force(){
+		header.force();
+		for (ByteBuffer c : chunks){
+			((MappedByteBuffer)c).force();
+		}
+	}
+
+	/**
+	 * Función para cerrar el archivo. Los cambios ya hechos quedan en el archivo aunque no se
+	llame a force, pero force asegura que estén en el disco.
+	 * @throws UncheckedIOException si no se puede cerrar el archivo
+	 */
+	@Override
+	public void close(){
+		try {
+			channel.close();
+		} catch (IOException e){
+			throw ioError(path, e);
+		}
+	}
+
+	/**
+	 * Función para cerrar un canal que no se pudo usar, sin reportar errores al cerrarlo.
+	 * @param channel el canal, puede ser null
+	 */
+	private static void closeQuietly(FileChannel channel){
+		if (channel!=null){
+			try {
+				channel.close();
+			} catch (IOException e){
+				// el error original es el que se reporta
+			}
+		}
+	}
+
+	/**
+	 * Función que crea la excepción para un error de entrada y salida.
+	 * @param path la ruta del archivo
+	 * @param e el error
+	 * @return la excepción
+	 */
+	private static UncheckedIOException ioError(Path path, IOException e){
+		return new UncheckedIOException("No se pudo usar el archivo "+path+": "+e.getMessage(), e);
+	}
+
+	/**
+	 * Función que crea la excepción para un archivo que no tiene el formato esperado.
+	 * @param path la ruta del archivo
+	 * @param reason la razón
+	 * @return la excepción
+	 */
+	private static IllegalArgumentException formatError(Path path, String reason){
+		return new IllegalArgumentException("El archivo "+path+" no es un archivo de abanicos complejos: "+reason);
+	}
+}
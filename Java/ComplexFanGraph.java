@@ -0,0 +1,309 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Esta clase construye y evalúa fórmulas sobre abanicos complejos como grafos dirigidos
+acı́clicos. Cada nodo se crea una sola vez: si se pide una constante con el mismo valor, una
+variable con el mismo nombre o la misma operación sobre los mismos operandos se regresa el
+nodo existente, ası́ que las subexpresiones repetidas se evalúan una sola vez. Los operandos
+no se reordenan, el resultado es el mismo que llamar a las funciones de ComplexFan en el orden
+en que se escribió la fórmula. La construcción del grafo no es segura entre hilos.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanGraph {
+	private static final int MAX_NODES = 1<<28;	// el número máximo de nodos, las posiciones se empaquetan en 28 bits
+
+	private final ArrayList<ComplexFanExpression> nodes = new ArrayList<>();			// los nodos en orden de creación
+	private final HashMap<Long, ComplexFanExpression> operations = new HashMap<>();		// las operaciones por tipo y operandos
+	private final HashMap<String, ComplexFanExpression> constants = new HashMap<>();	// las constantes por valor
+	private final HashMap<String, ComplexFanExpression> variables = new HashMap<>();	// las variables por nombre
+
+	/**
+	 * Función para obtener el número de nodos distintos del grafo.
+	 * @return el número de nodos
+	 */
+	public int size(){
+		return nodes.size();
+	}
+
+	/**
+	 * Función para obtener un nodo por su posición.
+	 * @param id la posición del nodo
+	 * @return el nodo
+	 */
+	public ComplexFanExpression getNode(int id){
+		return nodes.get(id);
+	}
+
+	/**
+	 * Función para obtener el nodo de una constante.
+	 * @param cf el valor de la constante
+	 * @return el nodo de la constante
+	 */
+	public ComplexFanExpression constant(ComplexFan cf){
+		String key = cf.toString();
+		ComplexFanExpression e = constants.get(key);
+		if (e==null){
+			e = add(ComplexFanExpression.CONSTANT, null, null, new ComplexFan(cf), null);
+			constants.put(key, e);
+		}
+		return e;
+	}
+
+	/**
+	 * Función para obtener el nodo de una variable, su valor se da al evaluar.
+	 * @param name el nombre de la variable
+	 * @return el nodo de la variable
+	 */
+	public ComplexFanExpression variable(String name){
+		ComplexFanExpression e = variables.get(name);
+		if (e==null){
+			e = add(ComplexFanExpression.VARIABLE, null, null, null, name);
+			variables.put(name, e);
+		}
+		return e;
+	}
+
+	/**
+	 * Función para obtener el nodo de la suma de dos nodos.
+	 * @param e1 el primer operando de la suma
+	 * @param e2 el segundo operando de la suma
+	 * @return el nodo de la suma
+	 */
+	public ComplexFanExpression addition(ComplexFanExpression e1, ComplexFanExpression e2){
+		return operation(ComplexFanExpression.ADDITION, e1, e2);
+	}
+
+	/**
+	 * Función para obtener el nodo de la resta de dos nodos.
+	 * @param e1 el primer operando de la resta
+	 * @param e2 el segundo operando de la resta
+	 * @return el nodo de la resta
+	 */
+	public ComplexFanExpression subtraction(ComplexFanExpression e1, ComplexFanExpression e2){
+		return operation(ComplexFanExpression.SUBTRACTION, e1, e2);
+	}
+
+	/**
+	 * Función para obtener el nodo del producto de dos nodos.
+	 * @param e1 el primer operando del producto
+	 * @param e2 el segundo operando del producto
+	 * @return el nodo del producto
+	 */
+	public ComplexFanExpression product(ComplexFanExpression e1, ComplexFanExpression e2){
+		return operation(ComplexFanExpression.PRODUCT, e1, e2);
+	}
+
+	/**
+	 * Función para obtener el nodo de la división de dos nodos.
+	 * @param e1 el primer operando de la división
+	 * @param e2 el segundo operando de la división
+	 * @return el nodo de la división
+	 */
+	public ComplexFanExpression division(ComplexFanExpression e1, ComplexFanExpression e2){
+		return operation(ComplexFanExpression.DIVISION, e1, e2);
+	}
+
+	/**
+	 * Función para obtener el nodo de la negación de un nodo.
+	 * @param e el operando de la negación
+	 * @return el nodo de la negación
+	 */
+	public ComplexFanExpression negation(ComplexFanExpression e){
+		return operation(ComplexFanExpression.NEGATION, e, null);
+	}
+
+	/**
+	 * Función para obtener el nodo de una operación, creándolo sólo si no existe.
+	 * @param op el tipo de operación
+	 * @param e1 el primer operando
+	 * @param e2 el segundo operando, null en la negación
+	 * @return el nodo de la operación
+	 */
+	private ComplexFanExpression operation(char op, ComplexFanExpression e1, ComplexFanExpression e2){
+		check(e1);
+		if (e2!=null){
+			check(e2);
+		}
+		long key = (long)op<<56 | (long)e1.getId()<<28 | (e2==null ? 0 : e2.getId());
+		ComplexFanExpression e = operations.get(key);
+		if (e==null){
+			e = add(op, e1, e2, null, null);
+			operations.put(key, e);
+		}
+		return e;
+	}
+
+	/**
+	 * Función para crear un nodo nuevo al final del grafo.
+	 * @param op el tipo de nodo
+	 * @param e1 el primer operando
+	 * @param e2 el segundo operando
+	 * @param value el valor de una constante
+	 * @param name el nombre de una variable
+	 * @return el nodo nuevo
+	 * @throws IllegalStateException si el grafo ya tiene MAX_NODES nodos
+	 */
+	private ComplexFanExpression add(char op, ComplexFanExpression e1, ComplexFanExpression e2, ComplexFan value, String name){
+		if (nodes.size()==MAX_NODES){
+			throw new IllegalStateException("No se pueden crear más de "+MAX_NODES+" nodos en un ComplexFanGraph");
+		}
+		ComplexFanExpression e = new ComplexFanExpression(nodes.size(), op, e1, e2, value, name);
+		nodes.add(e);
+		return e;
+	}
+
+	/**
+	 * Función para verificar que un nodo pertenece a este grafo.
+	 * @param e el nodo
+	 * @throws IllegalArgumentException si el nodo es de otro grafo
+	 */
+	private void check(ComplexFanExpression e){
+		if (e.getId()>=nodes.size() || nodes.get(e.getId())!=e){
+			throw new IllegalArgumentException("El nodo no pertenece a este ComplexFanGraph: "+e);
+		}
+	}
+
+	/**
+	 * Función para evaluar un nodo sin variables.
+	 * @param root el nodo a evaluar
+	 * @return el valor del nodo
+	 */
+	public ComplexFan evaluate(ComplexFanExpression root){
+		return evaluate(root, new HashMap<>());
+	}
+
+	/**
+	 * Función para evaluar un nodo en un solo hilo. Cada subexpresión de la que depende el
+	nodo se evalúa una sola vez, en orden de creación.
+	 * @param root el nodo a evaluar
+	 * @param bindings los valores de las variables
+	 * @return el valor del nodo
+	 * @throws IllegalArgumentException si el nodo es de otro grafo o falta el valor de una variable
+	 */
+	public ComplexFan evaluate(ComplexFanExpression root, Map<String, ComplexFan> bindings){
+		check(root);
+		boolean []reach = reachable(root);
+		ComplexFan []values = new ComplexFan[root.getId()+1];
+		for (int id=0; id<=root.getId(); id++){
+			if (reach[id]){
+				values[id] = apply(nodes.get(id), values, bindings);
+			}
+		}
+		return values[root.getId()];
+	}
+
+	/**
+	 * Función para evaluar un nodo en paralelo sobre el ForkJoinPool común.
+	 * @param root el nodo a evaluar
+	 * @param bindings los valores de las variables
+	 * @return el valor del nodo
+	 */
+	public ComplexFan evaluateParallel(ComplexFanExpression root, Map<String, ComplexFan> bindings){
+		return evaluateParallel(root, bindings, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Función para evaluar un nodo en paralelo. Los nodos se agrupan por nivel; los de un
+	mismo nivel no dependen entre sı́ y se evalúan en paralelo en el pool, un nivel después de
+	otro. Cada subexpresión se evalúa una sola vez y el resultado es el mismo que el de
+	evaluate. Si el pool tiene un solo hilo se usa evaluate.
+	 * @param root el nodo a evaluar
+	 * @param bindings los valores de las variables
+	 * @param pool el pool donde se evalúan los niveles
+	 * @return el valor del nodo
+	 * @throws IllegalArgumentException si el nodo es de otro grafo o falta el valor de una variable
+	 */
+	public ComplexFan evaluateParallel(ComplexFanExpression root, Map<String, ComplexFan> bindings, ForkJoinPool pool){
+		if (pool.getParallelism()<2){
+			return evaluate(root, bindings);
+		}
+		check(root);
+		boolean []reach = reachable(root);
+		int levels = root.getLevel()+1;
+		int []start = new int[levels+1];
+		for (int id=0; id<=root.getId(); id++){
+			if (reach[id]){
+				start[nodes.get(id).getLevel()+1]++;
+			}
+		}
+		for (int l=0; l<levels; l++){
+			start[l+1] += start[l];
+		}
+		ComplexFanExpression []byLevel = new ComplexFanExpression[start[levels]];
+		int []next = start.clone();
+		for (int id=0; id<=root.getId(); id++){
+			if (reach[id]){
+				ComplexFanExpression e = nodes.get(id);
+				byLevel[next[e.getLevel()]++] = e;
+			}
+		}
+		ComplexFan []values = new ComplexFan[root.getId()+1];
+		for (int l=0; l<levels; l++){
+			if (start[l+1]-start[l]>1){
+				pool.invoke(new ComplexFanGraphTask(byLevel, start[l], start[l+1], values, bindings));
+			}else{
+				for (int i=start[l]; i<start[l+1]; i++){
+					values[byLevel[i].getId()] = apply(byLevel[i], values, bindings);
+				}
+			}
+		}
+		return values[root.getId()];
+	}
+
+	/**
+	 * Función para marcar los nodos de los que depende un nodo.
+	 * @param root el nodo
+	 * @return un arreglo indexado por posición, verdadero en los nodos alcanzables
+	 */
+	private boolean[] reachable(ComplexFanExpression root){
+		boolean []reach = new boolean[root.getId()+1];
+		reach[root.getId()] = true;
+		for (int id=root.getId(); id>=0; id--){
+			if (reach[id]){
+				ComplexFanExpression e = nodes.get(id);
+				if (e.getLeft()!=null){
+					reach[e.getLeft().getId()] = true;
+				}
+				if (e.getRight()!=null){
+					reach[e.getRight().getId()] = true;
+				}
+			}
+		}
+		return reach;
+	}
+
+	/**
+	 * Función para calcular el valor de un nodo a partir de los valores de sus operandos.
+	 * @param e el nodo
+	 * @param values los valores ya calculados, indexados por posición
+	 * @param bindings los valores de las variables
+	 * @return el valor del nodo
+	 * @throws IllegalArgumentException si falta el valor de una variable
+	 */
+	static ComplexFan apply(ComplexFanExpression e, ComplexFan []values, Map<String, ComplexFan> bindings){
+		switch (e.getOperation()) {
+			case ComplexFanExpression.CONSTANT:
+				return e.getValue();
+			case ComplexFanExpression.VARIABLE:
+				ComplexFan cf = bindings.get(e.getName());
+				if (cf==null){
+					throw new IllegalArgumentException("No se puede evaluar la expresión, falta el valor de la variable: "+e.getName());
+				}
+				return cf;
+			case ComplexFanExpression.ADDITION:
+				return ComplexFan.addition(values[e.getLeft().getId()], values[e.getRight().getId()]);
+			case ComplexFanExpression.SUBTRACTION:
+				return ComplexFan.subtraction(values[e.getLeft().getId()], values[e.getRight().getId()]);
+			case ComplexFanExpression.PRODUCT:
+				return ComplexFan.product(values[e.getLeft().getId()], values[e.getRight().getId()]);
+			case ComplexFanExpression.DIVISION:
+				return ComplexFan.division(values[e.getLeft().getId()], values[e.getRight().getId()]);
+			default:
+				return ComplexFan.negation(values[e.getLeft().getId()]);
+		}
+	}
+}
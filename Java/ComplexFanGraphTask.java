@@ -0,0 +1,47 @@
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tarea para evaluar en paralelo los nodos de un mismo nivel de un ComplexFanGraph sobre un
+ForkJoinPool. La parte se divide a la mitad hasta tener un solo nodo; como los nodos de un
+nivel no dependen entre sı́, cada uno escribe su propio valor sin sincronización.
+ * @author Manuel Cipriano
+ */
+
+class ComplexFanGraphTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	private final ComplexFanExpression []level;		// los nodos del nivel
+	private final int from;							// la primera posición de la parte (incluida)
+	private final int to;							// la última posición de la parte (excluida)
+	private final ComplexFan []values;				// los valores calculados, indexados por nodo
+	private final Map<String, ComplexFan> bindings;	// los valores de las variables
+
+	/**
+	 * Constructor que inicializa la tarea para evaluar una parte de un nivel.
+	 * @param level los nodos del nivel
+	 * @param from la primera posición de la parte (incluida)
+	 * @param to la última posición de la parte (excluida)
+	 * @param values los valores calculados, indexados por nodo
+	 * @param bindings los valores de las variables
+	 */
+	ComplexFanGraphTask(ComplexFanExpression []level, int from, int to, ComplexFan []values, Map<String, ComplexFan> bindings){
+		this.level = level;
+		this.from = from;
+		this.to = to;
+		this.values = values;
+		this.bindings = bindings;
+	}
+
+	/**
+	 * Función que evalúa los nodos de la parte.
+	 */
+	@Override
+	protected void compute(){
+		if (to-from==1){
+			values[level[from].getId()] = ComplexFanGraph.apply(level[from], values, bindings);
+			return;
+		}
+		int mid = (from+to)>>>1;
+		invokeAll(new ComplexFanGraphTask(level, from, mid, values, bindings), new ComplexFanGraphTask(level, mid, to, values, bindings));
+	}
+}
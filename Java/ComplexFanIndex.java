@@ -0,0 +1,492 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Esta clase modela un ı́ndice espacial de abanicos complejos sobre una rejilla polar: la
+magnitud se divide en anillos de igual ancho entre 0 y la mayor magnitud finita guardada y el
+ángulo en sectores de igual ancho. Cada abanico complejo se registra en las celdas que toca su
+sector de anillo; si el ángulo pasa por los 0 grados se registra en los sectores del final y del
+principio, y si toca más de la mitad de los sectores (por ejemplo [0, 360]) se registra sólo en
+una lista por anillo que se revisa en todas las consultas de ese anillo. Los abanicos complejos
+se guardan por columnas en un ComplexFanBatch y las celdas en un solo arreglo de posiciones
+(cada celda es un tramo del arreglo), ası́ que el ı́ndice se construye de una vez, contando
+primero cuántos abanicos complejos tiene cada celda, y no se modifica después.
+
+Las consultas regresan las posiciones, en orden creciente, de los abanicos complejos que
+contienen a un punto o que se intersecan con un abanico complejo dado, respetando los lı́mites
+abiertos y cerrados; un punto es el abanico complejo [m, m]∠ [θ, θ]. Dos abanicos complejos
+que contienen al origen se intersecan sin importar el ángulo, ası́ que una consulta que contiene
+al origen revisa todos los sectores del primer anillo. Cada abanico complejo se prueba una sola
+vez por consulta aunque esté en varias celdas, con una marca por hilo. Las consultas por lotes
+se reparten en un ForkJoinPool.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanIndex {
+	public static final int DEFAULT_LEAF_QUERIES = 256;	// el número de consultas por hoja en paralelo
+	private static final int FANS_PER_CELL = 4;			// el número promedio de abanicos complejos por celda
+	private static final int MAX_SECTORS = 1024;		// el número máximo de sectores
+	private static final int MAX_RINGS = 4096;			// el número máximo de anillos
+	private static final int POINT = ImmutableInterval.CLOSED|ImmutableInterval.CLOSED<<2;	// los lı́mites de un punto
+
+	private final ComplexFanBatch fans;		// los abanicos complejos, por columnas
+	private final int rings;				// el número de anillos
+	private final int sectors;				// el número de sectores
+	private final double ringWidth;			// el ancho de un anillo
+	private final double sectorWidth;		// el ancho de un sector en grados
+	private final int []cellStart;			// el inicio de cada celda en ids; las listas de los anillos van al final
+	private final int []ids;				// las posiciones de los abanicos complejos de cada celda
+	private final ThreadLocal<int[]> marks;	// la última consulta que probó (o encontró, con signo menos) a cada abanico complejo, una por hilo
+	private final ThreadLocal<int[]> stamps;	// el número de la última consulta de cada hilo
+
+	/**
+	 * Constructor que construye el ı́ndice de un arreglo de abanicos complejos, con un número
+	de celdas proporcional al número de abanicos complejos.
+	 * @param acf los abanicos complejos, se copian
+	 */
+	public ComplexFanIndex(ComplexFan []acf){
+		this(new ComplexFanBatch(acf));
+	}
+
+	/**
+	 * Constructor que construye el ı́ndice de un lote de abanicos complejos normalizados, con
+	un número de celdas proporcional al número de abanicos complejos.
+	 * @param batch el lote, no se debe modificar mientras se use el ı́ndice
+	 */
+	public ComplexFanIndex(ComplexFanBatch batch){
+		this(batch, defaultRings(batch.size()), defaultSectors(batch.size()));
+	}
+
+	/**
+	 * Constructor que construye el ı́ndice de un lote de abanicos complejos normalizados con
+	una rejilla dada.
+	 * @param batch el lote, no se debe modificar mientras se use el ı́ndice
+	 * @param rings el número de anillos, al menos 1
+	 * @param sectors el número de sectores, al menos 1
+	 * @throws IllegalArgumentException si rings o sectors es menor que uno
+	 */
+	public ComplexFanIndex(ComplexFanBatch batch, int rings, int sectors){
+		if (rings<1 || sectors<1){
+			throw new IllegalArgumentException("La rejilla debe tener al menos un anillo y un sector: "+rings+"x"+sectors);
+		}
+		int n = batch.size();
+		double rMax = 0.0d;
+		for (int i=0; i<n; i++){
+			double b = batch.magnitudeSE[i];
+			if (b>rMax && b<Double.POSITIVE_INFINITY){
+				rMax = b;
+			}
+		}
+		this.fans = batch;
+		this.rings = rings;
+		this.sectors = sectors;
+		ringWidth = rMax>0 ? rMax/rings : 1.0d;
+		sectorWidth = 360.0d/sectors;
+		int cells = rings*sectors+rings;
+		int []cursor = new int[cells];
+		for (int i=0; i<n; i++){
+			place(i, cursor, null);
+		}
+		cellStart = new int[cells+1];
+		for (int c=0; c<cells; c++){
+			cellStart[c+1] = cellStart[c]+cursor[c];
+		}
+		System.arraycopy(cellStart, 0, cursor, 0, cells);
+		ids = new int[cellStart[cells]];
+		for (int i=0; i<n; i++){
+			place(i, cursor, ids);
+		}
+		marks = ThreadLocal.withInitial(() -> new int[n]);
+		stamps = ThreadLocal.withInitial(() -> new int[1]);
+	}
+
+	/**
+	 * Función para registrar un abanico complejo guardado en sus celdas. Los abanicos
+	complejos vacı́os no se registran.
+	 * @param i la posición del abanico complejo
+	 * @param cursor el número de abanicos complejos de cada celda si target es null, o la
+	siguiente posición libre de cada celda en target
+	 * @param target el arreglo de posiciones, o null si sólo se cuenta
+	 */
+	private void place(int i, int []cursor, int []target){
+		double a = fans.magnitudeFE[i];
+		double b = fans.magnitudeSE[i];
+		double fe = fans.angleFE[i];
+		double se = fans.angleSE[i];
+		int f = fans.flags[i];
+		if (ImmutableInterval.isEmpty(a, b, f&ImmutableInterval.CLOSED) || ImmutableInterval.isEmpty(fe, se, f>>2&ImmutableInterval.CLOSED)){
+			return;
+		}
+		int s0 = firstSector(fe);
+		int span = span(fe, se);
+		for (int r=ring(a); r<=ring(b); r++){
+			if (span>sectors/2){
+				add(rings*sectors+r, i, cursor, target);
+			}else{
+				for (int k=0; k<span; k++){
+					add(r*sectors+(s0+k)%sectors, i, cursor, target);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Función para contar o guardar un abanico complejo en una celda.
+	 * @param cell la celda
+	 * @param i la posición del abanico complejo
+	 * @param cursor el contador o la siguiente posición libre de cada celda
+	 * @param target el arreglo de posiciones, o null si sólo se cuenta
+	 */
+	private static void add(int cell, int i, int []cursor, int []target){
+		if (target==null){
+			cursor[cell]++;
+		}else{
+			target[cursor[cell]++] = i;
+		}
+	}
+
+	/**
+	 * Función para obtener el número de anillos por omisión.
+	 * @param n el número de abanicos complejos
+	 * @return el número de anillos
+	 */
+	private static int defaultRings(int n){
+		int cells = Math.max(1, n/FANS_PER_CELL);
+		return Math.max(1, Math.min(MAX_RINGS, cells/defaultSectors(n)));
+	}
+
+	/**
+	 * Función para obtener el número de sectores por omisión, una potencia de 2 cercana a la
+	raı́z cuadrada del número de celdas.
+	 * @param n el número de abanicos complejos
+	 * @return el número de sectores
+	 */
+	private static int defaultSectors(int n){
+		int cells = Math.max(1, n/FANS_PER_CELL);
+		return Math.max(8, Math.min(MAX_SECTORS, Integer.highestOneBit((int)Math.sqrt(cells))));
+	}
+
+	/**
+	 * Función para obtener el anillo de una magnitud; las magnitudes mayores que la mayor
+	magnitud finita guardada quedan en el último anillo.
+	 * @param m la magnitud
+	 * @return el anillo
+	 */
+	private int ring(double m){
+		return m>=ringWidth*rings ? rings-1 : Math.max(0, (int)(m/ringWidth));
+	}
+
+	/**
+	 * Función para obtener el sector del primer extremo de un ángulo normalizado.
+	 * @param fe el primer extremo
+	 * @return el sector, 360 queda en el sector de 0
+	 */
+	private int firstSector(double fe){
+		return Math.min((int)(fe/sectorWidth), sectors)%sectors;
+	}
+
+	/**
+	 * Función para obtener el número de sectores que toca un ángulo normalizado, contados
+	desde el sector del primer extremo; un ángulo que pasa por los 0 grados sigue en el sector
+	de 0.
+	 * @param fe el primer extremo
+	 * @param se el segundo extremo
+	 * @return el número de sectores, a lo más sectors
+	 */
+	private int span(double fe, double se){
+		int s0 = Math.min((int)(fe/sectorWidth), sectors);
+		int s1 = Math.min((int)(se/sectorWidth), sectors);
+		if (fe>se){
+			s1 += sectors;
+		}
+		return Math.min(s1-s0+1, sectors);
+	}
+
+	/**
+	 * Función para obtener el número de abanicos complejos del ı́ndice.
+	 * @return el número de abanicos complejos
+	 */
+	public int size(){
+		return fans.size();
+	}
+
+	/**
+	 * Función para obtener el número de anillos de la rejilla.
+	 * @return el número de anillos
+	 */
+	public int getRings(){
+		return rings;
+	}
+
+	/**
+	 * Función para obtener el número de sectores de la rejilla.
+	 * @return el número de sectores
+	 */
+	public int getSectors(){
+		return sectors;
+	}
+
+	/**
+	 * Función para obtener un abanico complejo del ı́ndice.
+	 * @param i la posición del abanico complejo
+	 * @return una copia del abanico complejo
+	 */
+	public ComplexFan get(int i){
+		return fans.get(i);
+	}
+
+	/**
+	 * Función para obtener los abanicos complejos que contienen a un punto.
+	 * @param re la parte real del punto
+	 * @param im la parte imaginaria del punto
+	 * @return las posiciones de los abanicos complejos, en orden creciente
+	 */
+	public int[] containing(double re, double im){
+		double m = Math.sqrt(re*re+im*im);
+		double theta = VectorAngle.degrees(re, im);
+		return query(m, m, theta, theta, POINT);
+	}
+
+	/**
+	 * Función para obtener los abanicos complejos que se intersecan con un abanico complejo.
+	 * @param cf el abanico complejo, normalizado
+	 * @return las posiciones de los abanicos complejos, en orden creciente
+	 */
+	public int[] overlapping(ComplexFan cf){
+		Interval mi = cf.getMagnitudeInterval();
+		AngleInterval ai = cf.getAngleInterval();
+		return query(mi.getFirstExtreme(), mi.getSecondExtreme(), ai.getFirstExtreme(), ai.getSecondExtreme(), ImmutableInterval.bounds(mi)|ImmutableInterval.bounds(ai)<<2);
+	}
+
+	/**
+	 * Función para obtener los abanicos complejos que se intersecan con un abanico complejo
+	dado por sus valores. El primer recorrido de las celdas prueba cada abanico complejo una
+	vez y cuenta los que se intersecan; el segundo los copia al resultado.
+	 * @param a el primer extremo de magnitud
+	 * @param b el segundo extremo de magnitud
+	 * @param fe el primer extremo de ángulo
+	 * @param se el segundo extremo de ángulo
+	 * @param flags los lı́mites, los de magnitud en los bits 0 y 1 y los de ángulo en los bits 2 y 3
+	 * @return las posiciones de los abanicos complejos, en orden creciente
+	 */
+	private int[] query(double a, double b, double fe, double se, int flags){
+		if (ImmutableInterval.isEmpty(a, b, flags&ImmutableInterval.CLOSED) || ImmutableInterval.isEmpty(fe, se, flags>>2&ImmutableInterval.CLOSED)){
+			return new int[0];
+		}
+		int []seen = marks.get();
+		int stamp = nextStamp();
+		boolean origin = a==0 && (flags&ImmutableInterval.FE_CLOSED)!=0;
+		int r0 = ring(a);
+		int r1 = ring(b);
+		int s0 = firstSector(fe);
+		int span = span(fe, se);
+		int count = 0;
+		for (int pass=0; pass<2; pass++){
+			int []res = pass==0 ? null : new int[count];
+			count = 0;
+			for (int r=r0; r<=r1; r++){
+				boolean all = origin && r==r0;
+				for (int k=0; k<(all ? sectors : span); k++){
+					count = visit(r*sectors+(all ? k : (s0+k)%sectors), a, b, fe, se, flags, seen, stamp, res, count);
+				}
+				count = visit(rings*sectors+r, a, b, fe, se, flags, seen, stamp, res, count);
+			}
+			if (pass==1){
+				Arrays.sort(res);
+				return res;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Función para recorrer una celda en una consulta. En el primer recorrido (res es null)
+	prueba cada abanico complejo que la consulta no ha visto y marca con -stamp los que se
+	intersecan; en el segundo copia los marcados con -stamp y les quita la marca para no
+	copiarlos dos veces.
+	 * @param cell la celda
+	 * @param a el primer extremo de magnitud de la consulta
+	 * @param b el segundo extremo de magnitud de la consulta
+	 * @param fe el primer extremo de ángulo de la consulta
+	 * @param se el segundo extremo de ángulo de la consulta
+	 * @param flags los lı́mites de la consulta
+	 * @param seen las marcas del hilo
+	 * @param stamp el número de la consulta
+	 * @param res el arreglo de resultados, o null en el primer recorrido
+	 * @param count el número de resultados hasta ahora
+	 * @return el nuevo número de resultados
+	 */
+	private int visit(int cell, double a, double b, double fe, double se, int flags, int []seen, int stamp, int []res, int count){
+		for (int k=cellStart[cell]; k<cellStart[cell+1]; k++){
+			int i = ids[k];
+			if (res==null){
+				if (seen[i]!=stamp && seen[i]!=-stamp){
+					boolean hit = intersects(i, a, b, fe, se, flags);
+					seen[i] = hit ? -stamp : stamp;
+					if (hit){
+						count++;
+					}
+				}
+			}else if (seen[i]==-stamp){
+				seen[i] = stamp;
+				res[count++] = i;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Función para obtener el número de la siguiente consulta del hilo; cuando se acaban los
+	números se borran las marcas.
+	 * @return el número de consulta, positivo
+	 */
+	private int nextStamp(){
+		int []s = stamps.get();
+		if (++s[0]==Integer.MAX_VALUE){
+			Arrays.fill(marks.get(), 0);
+			s[0] = 1;
+		}
+		return s[0];
+	}
+
+	/**
+	 * Función para saber si un abanico complejo guardado se interseca con un abanico
+	complejo dado por sus valores. Depende de la función ComplexFan.intersects.
+	 * @param i la posición del abanico complejo guardado
+	 * @param a el primer extremo de magnitud
+	 * @param b el segundo extremo de magnitud
+	 * @param fe el primer extremo de ángulo
+	 * @param se el segundo extremo de ángulo
+	 * @param flags los lı́mites, los de magnitud en los bits 0 y 1 y los de ángulo en los bits 2 y 3
+	 * @return true si tienen al menos un punto en común
+	 */
+	private boolean intersects(int i, double a, double b, double fe, double se, int flags){
+		return ComplexFan.intersects(a, b, fe, se, flags, fans.magnitudeFE[i], fans.magnitudeSE[i], fans.angleFE[i], fans.angleSE[i], fans.flags[i]);
+	}
+
+	/**
+	 * Función para obtener los abanicos complejos que contienen a cada punto de un lote, en
+	paralelo sobre el ForkJoinPool común.
+	 * @param re las partes reales de los puntos
+	 * @param im las partes imaginarias de los puntos
+	 * @return las posiciones de los abanicos complejos que contienen a cada punto
+	 */
+	public int[][] containing(double []re, double []im){
+		return containing(re, im, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Función para obtener los abanicos complejos que contienen a cada punto de un lote. Las
+	consultas se dividen en hojas de a lo más DEFAULT_LEAF_QUERIES; si el pool tiene un solo
+	hilo se resuelven en el hilo que llama.
+	 * @param re las partes reales de los puntos
+	 * @param im las partes imaginarias de los puntos
+	 * @param pool el pool donde se resuelven las consultas
+	 * @return las posiciones de los abanicos complejos que contienen a cada punto
+	 */
+	public int[][] containing(double []re, double []im, ForkJoinPool pool){
+		int [][]res = new int[re.length][];
+		if (pool.getParallelism()<2 || re.length<=DEFAULT_LEAF_QUERIES){
+			resolve(re, im, null, res, 0, re.length);
+		}else{
+			pool.invoke(new ComplexFanIndexTask(this, re, im, null, res, 0, re.length, DEFAULT_LEAF_QUERIES));
+		}
+		return res;
+	}
+
+	/**
+	 * Función para obtener los abanicos complejos que se intersecan con cada abanico complejo
+	de un lote, en paralelo sobre el ForkJoinPool común.
+	 * @param queries los abanicos complejos de las consultas
+	 * @return las posiciones de los abanicos complejos que se intersecan con cada consulta
+	 */
+	public int[][] overlapping(ComplexFan []queries){
+		return overlapping(queries, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Función para obtener los abanicos complejos que se intersecan con cada abanico complejo
+	de un lote. Las consultas se dividen en hojas de a lo más DEFAULT_LEAF_QUERIES; si el pool
+	tiene un solo hilo se resuelven en el hilo que llama.
+	 * @param queries los abanicos complejos de las consultas
+	 * @param pool el pool donde se resuelven las consultas
+	 * @return las posiciones de los abanicos complejos que se intersecan con cada consulta
+	 */
+	public int[][] overlapping(ComplexFan []queries, ForkJoinPool pool){
+		int [][]res = new int[queries.length][];
+		if (pool.getParallelism()<2 || queries.length<=DEFAULT_LEAF_QUERIES){
+			resolve(null, null, queries, res, 0, queries.length);
+		}else{
+			pool.invoke(new ComplexFanIndexTask(this, null, null, queries, res, 0, queries.length, DEFAULT_LEAF_QUERIES));
+		}
+		return res;
+	}
+
+	/**
+	 * Función para resolver una parte de un lote de consultas, de puntos o de abanicos
+	complejos.
+	 * @param re las partes reales de los puntos, null si las consultas son abanicos complejos
+	 * @param im las partes imaginarias de los puntos
+	 * @param queries los abanicos complejos de las consultas, null si son puntos
+	 * @param res el arreglo donde se guardan los resultados
+	 * @param from la primera consulta (incluida)
+	 * @param to la última consulta (excluida)
+	 */
+	void resolve(double []re, double []im, ComplexFan []queries, int [][]res, int from, int to){
+		for (int q=from; q<to; q++){
+			res[q] = queries==null ? containing(re[q], im[q]) : overlapping(queries[q]);
+		}
+	}
+
+	/**
+	 * Función para obtener, recorriendo todos los abanicos complejos, los que contienen a un
+	punto. Da el mismo resultado que containing y sirve para compararlo.
+	 * @param re la parte real del punto
+	 * @param im la parte imaginaria del punto
+	 * @return las posiciones de los abanicos complejos, en orden creciente
+	 */
+	public int[] scanContaining(double re, double im){
+		double m = Math.sqrt(re*re+im*im);
+		double theta = VectorAngle.degrees(re, im);
+		return scan(m, m, theta, theta, POINT);
+	}
+
+	/**
+	 * Función para obtener, recorriendo todos los abanicos complejos, los que se intersecan
+	con un abanico complejo. Da el mismo resultado que overlapping y sirve para compararlo.
+	 * @param cf el abanico complejo, normalizado
+	 * @return las posiciones de los abanicos complejos, en orden creciente
+	 */
+	public int[] scanOverlapping(ComplexFan cf){
+		Interval mi = cf.getMagnitudeInterval();
+		AngleInterval ai = cf.getAngleInterval();
+		return scan(mi.getFirstExtreme(), mi.getSecondExtreme(), ai.getFirstExtreme(), ai.getSecondExtreme(), ImmutableInterval.bounds(mi)|ImmutableInterval.bounds(ai)<<2);
+	}
+
+	/**
+	 * Función para probar todos los abanicos complejos contra un abanico complejo dado por
+	sus valores.
+	 * @param a el primer extremo de magnitud
+	 * @param b el segundo extremo de magnitud
+	 * @param fe el primer extremo de ángulo
+	 * @param se el segundo extremo de ángulo
+	 * @param flags los lı́mites, los de magnitud en los bits 0 y 1 y los de ángulo en los bits 2 y 3
+	 * @return las posiciones de los abanicos complejos, en orden creciente
+	 */
+	private int[] scan(double a, double b, double fe, double se, int flags){
+		if (ImmutableInterval.isEmpty(a, b, flags&ImmutableInterval.CLOSED) || ImmutableInterval.isEmpty(fe, se, flags>>2&ImmutableInterval.CLOSED)){
+			return new int[0];
+		}
+		int []res = new int[16];
+		int count = 0;
+		for (int i=0; i<fans.size(); i++){
+			if (intersects(i, a, b, fe, se, flags)){
+				if (count==res.length){
+					res = Arrays.copyOf(res, 2*count);
+				}
+				res[count++] = i;
+			}
+		}
+		return Arrays.copyOf(res, count);
+	}
+}
@@ -0,0 +1,56 @@
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tarea para resolver una parte de un lote de consultas de un ComplexFanIndex sobre un
+ForkJoinPool. La parte se divide a la mitad hasta tener a lo más leafQueries consultas; el
+ı́ndice no se modifica y cada hilo usa sus propias marcas, ası́ que las hojas no se
+sincronizan.
+ * @author Manuel Cipriano
+ */
+
+class ComplexFanIndexTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	private final ComplexFanIndex index;	// el ı́ndice
+	private final double []re;				// las partes reales de los puntos, null si las consultas son abanicos complejos
+	private final double []im;				// las partes imaginarias de los puntos
+	private final ComplexFan []queries;		// los abanicos complejos de las consultas, null si son puntos
+	private final int [][]res;				// el arreglo donde se guardan los resultados
+	private final int from;					// la primera consulta de la parte (incluida)
+	private final int to;					// la última consulta de la parte (excluida)
+	private final int leafQueries;			// el tamaño máximo de una hoja
+
+	/**
+	 * Constructor que inicializa la tarea para resolver una parte de las consultas.
+	 * @param index el ı́ndice
+	 * @param re las partes reales de los puntos, null si las consultas son abanicos complejos
+	 * @param im las partes imaginarias de los puntos
+	 * @param queries los abanicos complejos de las consultas, null si son puntos
+	 * @param res el arreglo donde se guardan los resultados
+	 * @param from la primera consulta de la parte (incluida)
+	 * @param to la última consulta de la parte (excluida)
+	 * @param leafQueries el tamaño máximo de una hoja, al menos 1
+	 */
+	ComplexFanIndexTask(ComplexFanIndex index, double []re, double []im, ComplexFan []queries, int [][]res, int from, int to, int leafQueries){
+		this.index = index;
+		this.re = re;
+		this.im = im;
+		this.queries = queries;
+		this.res = res;
+		this.from = from;
+		this.to = to;
+		this.leafQueries = Math.max(1, leafQueries);
+	}
+
+	/**
+	 * Función que resuelve las consultas de la parte.
+	 */
+	@Override
+	protected void compute(){
+		if (to-from<=leafQueries){
+			index.resolve(re, im, queries, res, from, to);
+			return;
+		}
+		int mid = (from+to)>>>1;
+		invokeAll(new ComplexFanIndexTask(index, re, im, queries, res, from, mid, leafQueries), new ComplexFanIndexTask(index, re, im, queries, res, mid, to, leafQueries));
+	}
+}
@@ -0,0 +1,310 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Esta clase modela una matriz densa de abanicos complejos, guardada por renglones en un
+solo arreglo, con el producto por un vector y por otra matriz. Cada entrada del resultado es un
+producto punto, a0 b0 + a1 b1 + ... + an bn, que se acumula de izquierda a derecha con
+ComplexFan.product y ComplexFan.addition; el producto de cada término se guarda en un abanico
+complejo de trabajo que se reutiliza, uno por hilo, igual que en ComplexFanPolynomial.
+
+El producto de matrices transpone primero la segunda matriz (sólo las referencias) para que
+cada producto punto recorra dos arreglos contiguos, y recorre el resultado por bloques de
+BLOCK_SIZE renglones, columnas y términos para que los operandos de un bloque sigan en el
+caché mientras se usan. Cada entrada acumula sus términos en el mismo orden que sin bloques,
+ası́ que el resultado no depende del tamaño de bloque. Los renglones del resultado se reparten
+en paralelo sobre un ForkJoinPool.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanMatrix {
+	public static final int BLOCK_SIZE = 64;			// el tamaño de bloque de renglones, columnas y términos
+	public static final int DEFAULT_LEAF_ROWS = 16;		// el número de renglones por hoja en el producto en paralelo
+	private static final ThreadLocal<ComplexFan> SCRATCH = ThreadLocal.withInitial(ComplexFan::new);	// el abanico complejo de trabajo de cada hilo
+
+	private final int rows;						// el número de renglones
+	private final int columns;					// el número de columnas
+	private final ComplexFan []entries;			// las entradas, la (i, j) en la posición i*columns+j
+
+	/**
+	 * Constructor que inicializa una matriz con todas sus entradas iguales a [0, 0]∠ [0, 0].
+	 * @param rows el número de renglones, al menos 1
+	 * @param columns el número de columnas, al menos 1
+	 */
+	public ComplexFanMatrix(int rows, int columns){
+		this(rows, columns, new ComplexFan[checkDimensions(rows, columns)]);
+		for (int i=0; i<entries.length; i++){
+			entries[i] = new ComplexFan(new Interval(0, 0, '[', ']'), new AngleInterval(0, 0, '[', ']'));
+		}
+	}
+
+	/**
+	 * Constructor que inicializa una matriz a partir de sus renglones. Todos los renglones
+	deben tener el mismo número de entradas.
+	 * @param entries las entradas, la (i, j) en entries[i][j]
+	 * @throws IllegalArgumentException si la matriz está vacı́a o los renglones no tienen el mismo tamaño
+	 */
+	public ComplexFanMatrix(ComplexFan [][]entries){
+		this(entries.length, entries.length>0?entries[0].length:0, new ComplexFan[checkDimensions(entries.length, entries.length>0?entries[0].length:0)]);
+		for (int i=0; i<rows; i++){
+			if (entries[i].length!=columns){
+				throw new IllegalArgumentException("El renglón "+i+" tiene "+entries[i].length+" entradas y no "+columns);
+			}
+			for (int j=0; j<columns; j++){
+				this.entries[i*columns+j] = new ComplexFan(entries[i][j]);
+			}
+		}
+	}
+
+	/**
+	 * Constructor que inicializa una matriz con un arreglo de entradas ya creado.
+	 * @param rows el número de renglones
+	 * @param columns el número de columnas
+	 * @param entries las entradas, la (i, j) en la posición i*columns+j
+	 */
+	private ComplexFanMatrix(int rows, int columns, ComplexFan []entries){
+		this.rows = rows;
+		this.columns = columns;
+		this.entries = entries;
+	}
+
+	/**
+	 * Función para verificar las dimensiones de una matriz.
+	 * @param rows el número de renglones
+	 * @param columns el número de columnas
+	 * @return el número de entradas
+	 * @throws IllegalArgumentException si las dimensiones no son válidas
+	 */
+	private static int checkDimensions(int rows, int columns){
+		if (rows<1 || columns<1 || (long)rows*columns>Integer.MAX_VALUE-8){
+			throw new IllegalArgumentException("Dimensiones no válidas para una matriz: "+rows+" x "+columns);
+		}
+		return rows*columns;
+	}
+
+	/**
+	 * Función para obtener el número de renglones.
+	 * @return el número de renglones
+	 */
+	public int getRows(){
+		return rows;
+	}
+
+	/**
+	 * Función para obtener el número de columnas.
+	 * @return el número de columnas
+	 */
+	public int getColumns(){
+		return columns;
+	}
+
+	/**
+	 * Función para obtener una entrada de la matriz.
+	 * @param i el renglón
+	 * @param j la columna
+	 * @return una copia de la entrada (i, j)
+	 */
+	public ComplexFan get(int i, int j){
+		return new ComplexFan(entries[index(i, j)]);
+	}
+
+	/**
+	 * Función para modificar una entrada de la matriz.
+	 * @param i el renglón
+	 * @param j la columna
+	 * @param cf el nuevo valor de la entrada (i, j), se guarda una copia
+	 */
+	public void set(int i, int j, ComplexFan cf){
+		entries[index(i, j)] = new ComplexFan(cf);
+	}
+
+	/**
+	 * Función para obtener la posición de una entrada en el arreglo de entradas.
+	 * @param i el renglón
+	 * @param j la columna
+	 * @return la posición de la entrada (i, j)
+	 * @throws IndexOutOfBoundsException si la entrada está fuera de la matriz
+	 */
+	private int index(int i, int j){
+		if (i<0 || i>=rows || j<0 || j>=columns){
+			throw new IndexOutOfBoundsException("La entrada ("+i+", "+j+") está fuera de una matriz de "+rows+" x "+columns);
+		}
+		return i*columns+j;
+	}
+
+	/**
+	 * Función para calcular el producto punto de dos vectores de abanicos complejos,
+	x0 y0 + x1 y1 + ... + xn yn, de izquierda a derecha. El producto punto de dos vectores vacı́os
+	es [0, 0]∠ [0, 0].
+	 * @param x el primer vector
+	 * @param y el segundo vector, del mismo tamaño que x
+	 * @return el producto punto
+	 * @throws IllegalArgumentException si los vectores no tienen el mismo tamaño
+	 */
+	public static ComplexFan dot(ComplexFan []x, ComplexFan []y){
+		if (x.length!=y.length){
+			throw new IllegalArgumentException("No se puede calcular el producto punto de vectores de tamaños "+x.length+" y "+y.length);
+		}
+		if (x.length==0){
+			return new ComplexFan(new Interval(0, 0, '[', ']'), new AngleInterval(0, 0, '[', ']'));
+		}
+		return dot(x, 0, y, 0, x.length, null, SCRATCH.get());
+	}
+
+	/**
+	 * Función para calcular el producto de la matriz por un vector en paralelo sobre el
+	ForkJoinPool común.
+	 * @param v el vector, con tantas entradas como columnas tiene la matriz
+	 * @return el vector resultado, con tantas entradas como renglones tiene la matriz
+	 */
+	public ComplexFan[] multiply(ComplexFan []v){
+		return multiply(v, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Función para calcular el producto de la matriz por un vector. Cada entrada del
+	resultado es el producto punto de un renglón por el vector; los renglones se reparten en
+	paralelo sobre el pool.
+	 * @param v el vector, con tantas entradas como columnas tiene la matriz
+	 * @param pool el pool donde se calculan los renglones
+	 * @return el vector resultado, con tantas entradas como renglones tiene la matriz
+	 * @throws IllegalArgumentException si el vector no tiene tantas entradas como columnas
+	 */
+	public ComplexFan[] multiply(ComplexFan []v, ForkJoinPool pool){
+		if (v.length!=columns){
+			throw new IllegalArgumentException("No se puede multiplicar una matriz de "+rows+" x "+columns+" por un vector de "+v.length+" entradas");
+		}
+		ComplexFan []res = new ComplexFan[rows];
+		multiply(v, res, 1, pool);
+		return res;
+	}
+
+	/**
+	 * Función para calcular el producto de la matriz por otra matriz en paralelo sobre el
+	ForkJoinPool común.
+	 * @param b la segunda matriz, con tantos renglones como columnas tiene esta
+	 * @return la matriz resultado
+	 */
+	public ComplexFanMatrix multiply(ComplexFanMatrix b){
+		return multiply(b, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Función para calcular el producto de la matriz por otra matriz. La segunda matriz se
+	transpone y el resultado se calcula por bloques; los renglones se reparten en paralelo sobre
+	el pool.
+	 * @param b la segunda matriz, con tantos renglones como columnas tiene esta
+	 * @param pool el pool donde se calculan los renglones
+	 * @return la matriz resultado
+	 * @throws IllegalArgumentException si las dimensiones no permiten el producto
+	 */
+	public ComplexFanMatrix multiply(ComplexFanMatrix b, ForkJoinPool pool){
+		if (b.rows!=columns){
+			throw new IllegalArgumentException("No se puede multiplicar una matriz de "+rows+" x "+columns+" por una de "+b.rows+" x "+b.columns);
+		}
+		ComplexFan []bt = new ComplexFan[b.entries.length];
+		for (int k=0; k<b.rows; k++){
+			for (int j=0; j<b.columns; j++){
+				bt[j*b.rows+k] = b.entries[k*b.columns+j];
+			}
+		}
+		ComplexFan []res = new ComplexFan[checkDimensions(rows, b.columns)];
+		multiply(bt, res, b.columns, pool);
+		return new ComplexFanMatrix(rows, b.columns, res);
+	}
+
+	/**
+	 * Función para calcular el producto de la matriz por una matriz transpuesta, repartiendo
+	los renglones sobre un pool. Si el pool tiene un solo hilo se calcula en el hilo que llama.
+	 * @param bt la segunda matriz transpuesta, la entrada (k, j) en la posición j*columns+k
+	 * @param res el arreglo donde se guarda el resultado por renglones
+	 * @param m el número de columnas del resultado
+	 * @param pool el pool donde se calculan los renglones
+	 */
+	private void multiply(ComplexFan []bt, ComplexFan []res, int m, ForkJoinPool pool){
+		if (pool.getParallelism()<2 || rows<=DEFAULT_LEAF_ROWS){
+			multiplyRows(entries, bt, res, columns, m, 0, rows);
+		}else{
+			pool.invoke(new ComplexFanMatrixTask(entries, bt, res, columns, m, 0, rows, DEFAULT_LEAF_ROWS));
+		}
+	}
+
+	/**
+	 * Función para calcular por bloques algunos renglones del producto de una matriz por una
+	matriz transpuesta. Dentro de cada bloque de renglones y columnas los términos se recorren
+	por bloques en orden creciente, ası́ que cada entrada suma sus términos de izquierda a
+	derecha.
+	 * @param a las entradas de la primera matriz por renglones
+	 * @param bt las entradas de la segunda matriz por columnas
+	 * @param res el arreglo donde se guarda el resultado por renglones
+	 * @param n el número de columnas de a, que es el número de términos de cada entrada
+	 * @param m el número de columnas del resultado
+	 * @param from el primer renglón (incluido)
+	 * @param to el último renglón (excluido)
+	 */
+	static void multiplyRows(ComplexFan []a, ComplexFan []bt, ComplexFan []res, int n, int m, int from, int to){
+		ComplexFan scratch = SCRATCH.get();
+		for (int i=from; i<to; i++){
+			for (int j=0; j<m; j++){
+				res[i*m+j] = null;
+			}
+		}
+		for (int i0=from; i0<to; i0+=BLOCK_SIZE){
+			int i1 = Math.min(i0+BLOCK_SIZE, to);
+			for (int j0=0; j0<m; j0+=BLOCK_SIZE){
+				int j1 = Math.min(j0+BLOCK_SIZE, m);
+				for (int k0=0; k0<n; k0+=BLOCK_SIZE){
+					int len = Math.min(BLOCK_SIZE, n-k0);
+					for (int i=i0; i<i1; i++){
+						for (int j=j0; j<j1; j++){
+							res[i*m+j] = dot(a, i*n+k0, bt, j*n+k0, len, res[i*m+j], scratch);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Función para acumular un producto punto de partes de dos arreglos. Si no hay un
+	acumulado el primer término es el producto sin sumar.
+	 * @param x el primer arreglo
+	 * @param xFrom la posición del primer término en x
+	 * @param y el segundo arreglo
+	 * @param yFrom la posición del primer término en y
+	 * @param len el número de términos, al menos 1
+	 * @param acc el acumulado de los términos anteriores, o null si no hay
+	 * @param scratch el abanico complejo de trabajo para los productos
+	 * @return el acumulado con los nuevos términos
+	 */
+	static ComplexFan dot(ComplexFan []x, int xFrom, ComplexFan []y, int yFrom, int len, ComplexFan acc, ComplexFan scratch){
+		int k = 0;
+		if (acc==null){
+			acc = ComplexFan.product(x[xFrom], y[yFrom]);
+			k = 1;
+		}
+		for (; k<len; k++){
+			ComplexFan.product(x[xFrom+k], y[yFrom+k], scratch);
+			acc = ComplexFan.addition(acc, scratch);
+		}
+		return acc;
+	}
+
+	/**
+	 * Esto calcula la cadena de caracteres que representa a la matriz, un renglón por lı́nea.
+	 * @return la cadena de caracteres que representa a la matriz
+	 */
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i<rows; i++){
+			for (int j=0; j<columns; j++){
+				if (j>0){
+					sb.append("  ");
+				}
+				sb.append(entries[i*columns+j]);
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,57 @@
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tarea para calcular algunos renglones del producto de una matriz de ComplexFanMatrix por
+una matriz transpuesta (o un vector, que es una matriz de una columna) sobre un ForkJoinPool.
+Los renglones se dividen a la mitad hasta tener a lo más leafRows; cada hoja se calcula por
+bloques con el abanico complejo de trabajo del hilo que la ejecuta y cada renglón escribe sus
+propias entradas sin sincronización.
+ * @author Manuel Cipriano
+ */
+
+class ComplexFanMatrixTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	private final ComplexFan []a;		// las entradas de la primera matriz por renglones
+	private final ComplexFan []bt;		// las entradas de la segunda matriz por columnas
+	private final ComplexFan []res;		// las entradas del resultado por renglones
+	private final int n;				// el número de términos de cada entrada
+	private final int m;				// el número de columnas del resultado
+	private final int from;				// el primer renglón (incluido)
+	private final int to;				// el último renglón (excluido)
+	private final int leafRows;			// el número máximo de renglones de una hoja
+
+	/**
+	 * Constructor que inicializa la tarea para calcular algunos renglones del producto.
+	 * @param a las entradas de la primera matriz por renglones
+	 * @param bt las entradas de la segunda matriz por columnas
+	 * @param res el arreglo donde se guarda el resultado por renglones
+	 * @param n el número de columnas de a, que es el número de términos de cada entrada
+	 * @param m el número de columnas del resultado
+	 * @param from el primer renglón (incluido)
+	 * @param to el último renglón (excluido)
+	 * @param leafRows el número máximo de renglones de una hoja, al menos 1
+	 */
+	ComplexFanMatrixTask(ComplexFan []a, ComplexFan []bt, ComplexFan []res, int n, int m, int from, int to, int leafRows){
+		this.a = a;
+		this.bt = bt;
+		this.res = res;
+		this.n = n;
+		this.m = m;
+		this.from = from;
+		this.to = to;
+		this.leafRows = Math.max(1, leafRows);
+	}
+
+	/**
+	 * Función que calcula los renglones de la tarea.
+	 */
+	@Override
+	protected void compute(){
+		if (to-from<=leafRows){
+			ComplexFanMatrix.multiplyRows(a, bt, res, n, m, from, to);
+			return;
+		}
+		int mid = (from+to)>>>1;
+		invokeAll(new ComplexFanMatrixTask(a, bt, res, n, m, from, mid, leafRows), new ComplexFanMatrixTask(a, bt, res, n, m, mid, to, leafRows));
+	}
+}
@@ -0,0 +1,198 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Esta clase modela un polinomio con coeficientes abanicos complejos,
+ p(z) = a0 + a1 z + ... + an z^n, y lo evalúa en abanicos complejos con el método de Horner,
+ p(z) = a0 + z(a1 + z(a2 + ... + z an)). El resultado es el mismo que encadenar ComplexFan.product
+y ComplexFan.addition en ese orden, pero el producto de cada paso se guarda en un abanico
+complejo de trabajo que se reutiliza, uno por hilo, en lugar de crear objetos nuevos. También
+evalúa la derivada, p'(z) = a1 + 2 a2 z + ... + n an z^(n-1), y evalúa muchos puntos en paralelo
+sobre un ForkJoinPool.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanPolynomial {
+	public static final int DEFAULT_LEAF_SIZE = 64;		// el número de puntos por hoja en la evaluación en paralelo
+	private static final ThreadLocal<ComplexFan> SCRATCH = ThreadLocal.withInitial(ComplexFan::new);	// el abanico complejo de trabajo de cada hilo
+
+	private final ComplexFan []coefficients;	// los coeficientes, el de z^k en la posición k
+	private ComplexFanPolynomial derivative;	// la derivada, se calcula la primera vez que se usa
+
+	/**
+	 * Constructor que inicializa un polinomio a partir de sus coeficientes.
+	 * @param coefficients los coeficientes, el de z^k en la posición k; al menos uno
+	 * @throws IllegalArgumentException si no hay coeficientes
+	 */
+	public ComplexFanPolynomial(ComplexFan ...coefficients){
+		if (coefficients.length==0){
+			throw new IllegalArgumentException("Un polinomio debe tener al menos un coeficiente");
+		}
+		this.coefficients = new ComplexFan[coefficients.length];
+		for (int k=0; k<coefficients.length; k++){
+			this.coefficients[k] = new ComplexFan(coefficients[k]);
+		}
+	}
+
+	/**
+	 * Función para obtener el grado del polinomio.
+	 * @return el grado, el número de coeficientes menos uno
+	 */
+	public int degree(){
+		return coefficients.length-1;
+	}
+
+	/**
+	 * Función para obtener un coeficiente del polinomio.
+	 * @param k la potencia de z
+	 * @return una copia del coeficiente de z^k
+	 */
+	public ComplexFan getCoefficient(int k){
+		return new ComplexFan(coefficients[k]);
+	}
+
+	/**
+	 * Función para obtener la derivada del polinomio. El coeficiente de z^(k-1) es k ak, el
+	producto de ak por el punto [k, k]∠ [0, 0], que sólo escala la magnitud; la derivada de una
+	constante es [0, 0]∠ [0, 0].
+	 * @return la derivada
+	 */
+	public ComplexFanPolynomial derivative(){
+		if (derivative==null){
+			if (coefficients.length==1){
+				derivative = new ComplexFanPolynomial(new ComplexFan(new Interval(0, 0, '[', ']'), new AngleInterval(0, 0, '[', ']')));
+			}else{
+				ComplexFan []d = new ComplexFan[coefficients.length-1];
+				for (int k=1; k<coefficients.length; k++){
+					d[k-1] = ComplexFan.product(coefficients[k], new ComplexFan(new Interval(k, k, '[', ']'), new AngleInterval(0, 0, '[', ']')));
+				}
+				derivative = new ComplexFanPolynomial(d);
+			}
+		}
+		return derivative;
+	}
+
+	/**
+	 * Función para evaluar el polinomio en un abanico complejo con el método de Horner.
+	 * @param z el punto donde se evalúa
+	 * @return el valor del polinomio
+	 */
+	public ComplexFan evaluate(ComplexFan z){
+		return horner(coefficients, z);
+	}
+
+	/**
+	 * Función para evaluar la derivada del polinomio en un abanico complejo.
+	 * @param z el punto donde se evalúa
+	 * @return el valor de la derivada
+	 */
+	public ComplexFan evaluateDerivative(ComplexFan z){
+		return derivative().evaluate(z);
+	}
+
+	/**
+	 * Función para evaluar el polinomio en muchos puntos en paralelo sobre el ForkJoinPool
+	común.
+	 * @param points los puntos donde se evalúa
+	 * @return los valores del polinomio, en el mismo orden que los puntos
+	 */
+	public ComplexFan[] evaluate(ComplexFan []points){
+		return evaluate(points, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Función para evaluar el polinomio en muchos puntos en paralelo. Los puntos se dividen
+	en hojas de a lo más DEFAULT_LEAF_SIZE puntos y cada hoja se evalúa en un hilo del pool con
+	el abanico complejo de trabajo de ese hilo. Cada valor es el mismo que el de evaluate. Si el
+	pool tiene un solo hilo los puntos se evalúan en el hilo que llama.
+	 * @param points los puntos donde se evalúa
+	 * @param pool el pool donde se evalúan los puntos
+	 * @return los valores del polinomio, en el mismo orden que los puntos
+	 */
+	public ComplexFan[] evaluate(ComplexFan []points, ForkJoinPool pool){
+		ComplexFan []values = new ComplexFan[points.length];
+		if (pool.getParallelism()<2 || points.length<=DEFAULT_LEAF_SIZE){
+			evaluate(coefficients, points, values, 0, points.length);
+		}else{
+			pool.invoke(new ComplexFanPolynomialTask(coefficients, points, values, 0, points.length, DEFAULT_LEAF_SIZE));
+		}
+		return values;
+	}
+
+	/**
+	 * Función para evaluar la derivada del polinomio en muchos puntos en paralelo sobre el
+	ForkJoinPool común.
+	 * @param points los puntos donde se evalúa
+	 * @return los valores de la derivada, en el mismo orden que los puntos
+	 */
+	public ComplexFan[] evaluateDerivative(ComplexFan []points){
+		return derivative().evaluate(points);
+	}
+
+	/**
+	 * Función para evaluar la derivada del polinomio en muchos puntos en paralelo.
+	 * @param points los puntos donde se evalúa
+	 * @param pool el pool donde se evalúan los puntos
+	 * @return los valores de la derivada, en el mismo orden que los puntos
+	 */
+	public ComplexFan[] evaluateDerivative(ComplexFan []points, ForkJoinPool pool){
+		return derivative().evaluate(points, pool);
+	}
+
+	/**
+	 * Función para evaluar un polinomio en una parte de un arreglo de puntos.
+	 * @param coefficients los coeficientes del polinomio
+	 * @param points los puntos
+	 * @param values el arreglo donde se guardan los valores
+	 * @param from la primera posición de la parte (incluida)
+	 * @param to la última posición de la parte (excluida)
+	 */
+	static void evaluate(ComplexFan []coefficients, ComplexFan []points, ComplexFan []values, int from, int to){
+		for (int i=from; i<to; i++){
+			values[i] = horner(coefficients, points[i]);
+		}
+	}
+
+	/**
+	 * Función para evaluar un polinomio con el método de Horner. Cada producto se guarda en
+	el abanico complejo de trabajo del hilo; ComplexFan.addition no conserva referencias a sus
+	operandos, ası́ que se puede reutilizar en el siguiente paso.
+	 * @param coefficients los coeficientes del polinomio
+	 * @param z el punto donde se evalúa
+	 * @return el valor del polinomio
+	 */
+	static ComplexFan horner(ComplexFan []coefficients, ComplexFan z){
+		int n = coefficients.length-1;
+		if (n==0){
+			return new ComplexFan(coefficients[0]);
+		}
+		ComplexFan scratch = SCRATCH.get();
+		ComplexFan acc = coefficients[n];
+		for (int k=n-1; k>=0; k--){
+			ComplexFan.product(acc, z, scratch);
+			acc = ComplexFan.addition(scratch, coefficients[k]);
+		}
+		return acc;
+	}
+
+	/**
+	 * Esto calcula la cadena de caracteres que representa al polinomio, un término por
+	coeficiente en orden de potencias crecientes.
+	 * @return la cadena de caracteres que representa al polinomio
+	 */
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		for (int k=0; k<coefficients.length; k++){
+			if (k>0){
+				sb.append(" + ");
+			}
+			sb.append(coefficients[k]);
+			if (k==1){
+				sb.append(" z");
+			}else if (k>1){
+				sb.append(" z^").append(k);
+			}
+		}
+		return sb.toString();
+	}
+}
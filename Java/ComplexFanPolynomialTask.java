@@ -0,0 +1,50 @@
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tarea para evaluar un polinomio de ComplexFanPolynomial en una parte de un arreglo de
+puntos sobre un ForkJoinPool. La parte se divide a la mitad hasta tener a lo más leafSize
+puntos; cada hoja se evalúa con el abanico complejo de trabajo del hilo que la ejecuta y cada
+punto escribe su propio valor sin sincronización.
+ * @author Manuel Cipriano
+ */
+
+class ComplexFanPolynomialTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	private final ComplexFan []coefficients;	// los coeficientes del polinomio
+	private final ComplexFan []points;			// los puntos donde se evalúa
+	private final ComplexFan []values;			// los valores calculados, indexados como los puntos
+	private final int from;						// la primera posición de la parte (incluida)
+	private final int to;						// la última posición de la parte (excluida)
+	private final int leafSize;					// el tamaño máximo de una hoja
+
+	/**
+	 * Constructor que inicializa la tarea para evaluar una parte de los puntos.
+	 * @param coefficients los coeficientes del polinomio
+	 * @param points los puntos donde se evalúa
+	 * @param values el arreglo donde se guardan los valores
+	 * @param from la primera posición de la parte (incluida)
+	 * @param to la última posición de la parte (excluida)
+	 * @param leafSize el tamaño máximo de una hoja, al menos 1
+	 */
+	ComplexFanPolynomialTask(ComplexFan []coefficients, ComplexFan []points, ComplexFan []values, int from, int to, int leafSize){
+		this.coefficients = coefficients;
+		this.points = points;
+		this.values = values;
+		this.from = from;
+		this.to = to;
+		this.leafSize = Math.max(1, leafSize);
+	}
+
+	/**
+	 * Función que evalúa los puntos de la parte.
+	 */
+	@Override
+	protected void compute(){
+		if (to-from<=leafSize){
+			ComplexFanPolynomial.evaluate(coefficients, points, values, from, to);
+			return;
+		}
+		int mid = (from+to)>>>1;
+		invokeAll(new ComplexFanPolynomialTask(coefficients, points, values, from, mid, leafSize), new ComplexFanPolynomialTask(coefficients, points, values, mid, to, leafSize));
+	}
+}
@@ -0,0 +1,403 @@
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import javax.imageio.ImageIO;
+
+/**
+ * Esta clase dibuja abanicos complejos en una imagen, como CFPlot y CFOperationPlot del paquete
+de Mathematica. La imagen es un arreglo de pixeles ARGB que cubre un rectángulo del plano
+complejo con la misma escala en los dos ejes. Cada abanico complejo es un sector de anillo: se
+puede rellenar o dibujar sólo su borde (los dos arcos y los dos segmentos, como CFBeforePlot),
+con un color con transparencia que se mezcla con lo que ya está dibujado, de modo que los
+operandos y el resultado de una operación se pueden superponer.
+
+Cada capa se dibuja en paralelo por bandas de renglones sobre un ForkJoinPool: cada banda
+recorre los abanicos complejos cuyo rectángulo envolvente la toca y, en cada renglón, los tramos
+de columnas que caen en el anillo; el ángulo se prueba con productos cruz, sin funciones
+trigonométricas por pixel. Cada pixel lo escribe una sola banda, ası́ que no hay
+sincronización. La imagen se guarda en PNG con ImageIO.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanRaster {
+	public static final int WHITE = 0xFFFFFFFF;		// el fondo de CFPlot
+	public static final int GRAY = 0xFF808080;		// el color de los ejes
+	public static final int BLUE = 0xFF0000FF;		// el primer operando en CFOperationPlot
+	public static final int GREEN = 0xFF00FF00;		// el segundo operando en CFOperationPlot
+	public static final int RED = 0xFFFF0000;		// el resultado en CFOperationPlot
+	public static final int DEFAULT_LEAF_ROWS = 16;	// el número de renglones por banda en paralelo
+	private static final double LINE_WIDTH = 0.75;	// la mitad del grosor de un borde en pixeles
+	private static final int GEOMETRY = 7;			// los valores que se guardan de cada abanico complejo
+
+	private final int width;			// el ancho de la imagen en pixeles
+	private final int height;			// el alto de la imagen en pixeles
+	private final double xMin;			// la parte real del borde izquierdo
+	private final double yMax;			// la parte imaginaria del borde superior
+	private final double scale;			// los pixeles por unidad
+	private final int []pixels;			// los pixeles ARGB, renglón por renglón desde arriba
+
+	/**
+	 * Constructor que inicializa una imagen en blanco centrada en un punto del plano.
+	 * @param width el ancho en pixeles
+	 * @param height el alto en pixeles
+	 * @param centerX la parte real del centro de la imagen
+	 * @param centerY la parte imaginaria del centro de la imagen
+	 * @param scale los pixeles por unidad, positivo
+	 * @throws IllegalArgumentException si las dimensiones o la escala no son válidas
+	 */
+	public ComplexFanRaster(int width, int height, double centerX, double centerY, double scale){
+		if (width<1 || height<1 || !(scale>0) || scale==Double.POSITIVE_INFINITY){
+			throw new IllegalArgumentException("Dimensiones no válidas para la imagen: "+width+"x"+height+", escala "+scale);
+		}
+		this.width = width;
+		this.height = height;
+		this.scale = scale;
+		xMin = centerX-width/(2*scale);
+		yMax = centerY+height/(2*scale);
+		pixels = new int[width*height];
+		Arrays.fill(pixels, WHITE);
+	}
+
+	/**
+	 * Función para crear una imagen en blanco donde caben unos abanicos complejos y el origen,
+	con un margen del 5%.
+	 * @param width el ancho en pixeles
+	 * @param height el alto en pixeles
+	 * @param fans los abanicos complejos
+	 * @return la imagen
+	 */
+	public static ComplexFanRaster fitting(int width, int height, ComplexFan ...fans){
+		double []box = {0, 0, 0, 0};
+		for (ComplexFan cf : fans){
+			bounds(cf, box);
+		}
+		double w = Math.max(box[1]-box[0], 1e-300);
+		double h = Math.max(box[3]-box[2], 1e-300);
+		double scale = Math.min(width/w, height/h)/1.1;
+		if (scale==Double.POSITIVE_INFINITY){
+			scale = Double.MAX_VALUE;
+		}
+		return new ComplexFanRaster(width, height, (box[0]+box[1])/2, (box[2]+box[3])/2, scale);
+	}
+
+	/**
+	 * Función para crear la imagen de una operación como CFOperationPlot: el primer operando
+	en azul, el segundo en verde y el resultado en rojo, sobre los ejes.
+	 * @param cf1 el primer operando
+	 * @param cf2 el segundo operando
+	 * @param res el resultado
+	 * @param width el ancho en pixeles
+	 * @param height el alto en pixeles
+	 * @return la imagen
+	 */
+	public static ComplexFanRaster operationPlot(ComplexFan cf1, ComplexFan cf2, ComplexFan res, int width, int height){
+		ComplexFanRaster r = fitting(width, height, cf1, cf2, res);
+		r.axes(GRAY);
+		r.fill(new ComplexFan[]{res}, (RED&0x00FFFFFF)|0x30000000);
+		r.outline(new ComplexFan[]{cf1}, BLUE);
+		r.outline(new ComplexFan[]{cf2}, GREEN);
+		r.outline(new ComplexFan[]{res}, RED);
+		return r;
+	}
+
+	/**
+	 * Función para rellenar abanicos complejos en paralelo sobre el ForkJoinPool común.
+	 * @param fans los abanicos complejos
+	 * @param argb el color, con transparencia
+	 */
+	public void fill(ComplexFan []fans, int argb){
+		paint(fans, argb, false, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Función para dibujar el borde de abanicos complejos en paralelo sobre el ForkJoinPool
+	común. Un abanico complejo puntual queda como un punto.
+	 * @param fans los abanicos complejos
+	 * @param argb el color, con transparencia
+	 */
+	public void outline(ComplexFan []fans, int argb){
+		paint(fans, argb, true, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Función para dibujar una capa de abanicos complejos. Cada pixel se pinta una vez por
+	cada abanico complejo que lo cubre, en el orden del arreglo. Si el pool tiene un solo hilo
+	la capa se dibuja en el hilo que llama.
+	 * @param fans los abanicos complejos
+	 * @param argb el color, con transparencia
+	 * @param outline si se dibuja sólo el borde o se rellena
+	 * @param pool el pool donde se dibuja
+	 */
+	public void paint(ComplexFan []fans, int argb, boolean outline, ForkJoinPool pool){
+		int n = fans.length;
+		double []geometry = new double[GEOMETRY*n];
+		int []boxes = new int[4*n];
+		double []box = new double[4];
+		double pad = outline ? LINE_WIDTH : 0.0d;
+		for (int i=0; i<n; i++){
+			Interval mi = fans[i].getMagnitudeInterval();
+			AngleInterval ai = fans[i].getAngleInterval();
+			double fe = ai.getFirstExtreme();
+			double se = ai.getSecondExtreme();
+			int g = GEOMETRY*i;
+			geometry[g] = mi.getFirstExtreme();
+			geometry[g+1] = mi.getSecondExtreme();
+			geometry[g+2] = Math.cos(Math.toRadians(fe));
+			geometry[g+3] = Math.sin(Math.toRadians(fe));
+			geometry[g+4] = Math.cos(Math.toRadians(se));
+			geometry[g+5] = Math.sin(Math.toRadians(se));
+			geometry[g+6] = ai.VerifyCase0to360() ? 360.0d : fe<=se ? se-fe : se-fe+360.0d;
+			box[0] = box[1] = box[2] = box[3] = Double.NaN;
+			bounds(fans[i], box);
+			boxes[4*i] = (int)Math.max(0, Math.floor((box[0]-xMin)*scale-pad));
+			boxes[4*i+1] = (int)Math.min(width-1, Math.ceil((box[1]-xMin)*scale+pad));
+			boxes[4*i+2] = (int)Math.max(0, Math.floor((yMax-box[3])*scale-pad));
+			boxes[4*i+3] = (int)Math.min(height-1, Math.ceil((yMax-box[2])*scale+pad));
+		}
+		if (pool.getParallelism()<2 || height<=DEFAULT_LEAF_ROWS){
+			paintRows(geometry, boxes, argb, outline, 0, height);
+		}else{
+			pool.invoke(new ComplexFanRasterTask(this, geometry, boxes, argb, outline, 0, height, DEFAULT_LEAF_ROWS));
+		}
+	}
+
+	/**
+	 * Función para dibujar una capa en una banda de renglones. En cada renglón el anillo
+	agrandado deja a lo más dos tramos de columnas, que se calculan con la raı́z cuadrada; sólo
+	los pixeles de esos tramos se prueban contra el ángulo.
+	 * @param geometry la magnitud mı́nima y máxima, el coseno y el seno de los dos extremos de
+	ángulo y el ancho del ángulo de cada abanico complejo
+	 * @param boxes la primera y la última columna y el primer y el último renglón de cada
+	abanico complejo
+	 * @param argb el color, con transparencia
+	 * @param outline si se dibuja sólo el borde o se rellena
+	 * @param from el primer renglón de la banda (incluido)
+	 * @param to el último renglón de la banda (excluido)
+	 */
+	void paintRows(double []geometry, int []boxes, int argb, boolean outline, int from, int to){
+		double t = outline ? LINE_WIDTH/scale : 0.0d;
+		for (int i=0; i<boxes.length/4; i++){
+			int r0 = Math.max(from, boxes[4*i+2]);
+			int r1 = Math.min(to-1, boxes[4*i+3]);
+			int c0 = boxes[4*i];
+			int c1 = boxes[4*i+1];
+			int g = GEOMETRY*i;
+			double hi = geometry[g+1]+t;
+			double lo = geometry[g]-t;
+			for (int row=r0; row<=r1; row++){
+				double y = yMax-(row+0.5d)/scale;
+				if (Math.abs(y)>hi){
+					continue;
+				}
+				double xo = Math.sqrt(hi*hi-y*y);
+				double xi = lo>0 && Math.abs(y)<lo ? Math.sqrt(lo*lo-y*y) : -1.0d;
+				if (xi<0){
+					paintSpan(geometry, g, argb, outline, t, row, y, -xo, xo, c0, c1);
+				}else{
+					paintSpan(geometry, g, argb, outline, t, row, y, -xo, -xi, c0, c1);
+					paintSpan(geometry, g, argb, outline, t, row, y, xi, xo, c0, c1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Función para dibujar los pixeles de un tramo de un renglón que cumplen con el ángulo.
+	 * @param geometry los valores de los abanicos complejos, como en paintRows
+	 * @param g la posición del abanico complejo en geometry
+	 * @param argb el color, con transparencia
+	 * @param outline si se dibuja sólo el borde o se rellena
+	 * @param t la mitad del grosor del borde en unidades, 0 si se rellena
+	 * @param row el renglón
+	 * @param y la parte imaginaria del centro de los pixeles del renglón
+	 * @param x0 la parte real del inicio del tramo
+	 * @param x1 la parte real del fin del tramo
+	 * @param c0 la primera columna del rectángulo envolvente
+	 * @param c1 la última columna del rectángulo envolvente
+	 */
+	private void paintSpan(double []geometry, int g, int argb, boolean outline, double t, int row, double y, double x0, double x1, int c0, int c1){
+		int from = (int)Math.max(c0, Math.ceil((x0-xMin)*scale-0.5d));
+		int to = (int)Math.min(c1, Math.floor((x1-xMin)*scale-0.5d));
+		for (int col=from; col<=to; col++){
+			double x = xMin+(col+0.5d)/scale;
+			if (outline ? covers(geometry, g, x, y, t) && !covers(geometry, g, x, y, -t) : covers(geometry, g, x, y, 0.0d)){
+				int p = row*width+col;
+				pixels[p] = blend(pixels[p], argb);
+			}
+		}
+	}
+
+	/**
+	 * Función para saber si un punto está en un sector de anillo agrandado (o reducido, si la
+	distancia es negativa) una distancia dada hacia afuera. La magnitud se compara al cuadrado;
+	el ángulo con los productos cruz contra las direcciones de los dos extremos: un ángulo de
+	menos de 180 grados es la intersección de dos semiplanos y uno de más de 180 grados el
+	complemento de la intersección de los otros dos.
+	 * @param geometry los valores de los abanicos complejos, como en paintRows
+	 * @param g la posición del abanico complejo en geometry
+	 * @param x la parte real del punto
+	 * @param y la parte imaginaria del punto
+	 * @param t la distancia
+	 * @return true si el punto está en el sector agrandado
+	 */
+	private static boolean covers(double []geometry, int g, double x, double y, double t){
+		double rr = x*x+y*y;
+		double lo = geometry[g]-t;
+		double hi = geometry[g+1]+t;
+		if (hi<0 || rr>hi*hi || (lo>0 && rr<lo*lo)){
+			return false;
+		}
+		double w = geometry[g+6];
+		if (w>=360.0d){
+			return true;
+		}
+		double c1 = geometry[g+2], s1 = geometry[g+3];
+		double c2 = geometry[g+4], s2 = geometry[g+5];
+		double cross1 = c1*y-s1*x;		// a la izquierda del primer extremo
+		double cross2 = x*s2-y*c2;		// a la derecha del segundo extremo
+		if (w<=180.0d){
+			return cross1>=-t && cross2>=-t && x*(c1+c2)+y*(s1+s2)>=-t;
+		}
+		return !(cross1<-t && cross2<-t);
+	}
+
+	/**
+	 * Función para mezclar un color con transparencia sobre un pixel opaco.
+	 * @param dst el pixel
+	 * @param src el color
+	 * @return el pixel mezclado, opaco
+	 */
+	private static int blend(int dst, int src){
+		int alpha = src>>>24;
+		if (alpha==255){
+			return src;
+		}
+		int r = ((src>>16&0xFF)*alpha+(dst>>16&0xFF)*(255-alpha))/255;
+		int g = ((src>>8&0xFF)*alpha+(dst>>8&0xFF)*(255-alpha))/255;
+		int b = ((src&0xFF)*alpha+(dst&0xFF)*(255-alpha))/255;
+		return 0xFF000000|r<<16|g<<8|b;
+	}
+
+	/**
+	 * Función para agrandar un rectángulo para que contenga a un abanico complejo: las cuatro
+	esquinas y los puntos de magnitud máxima sobre los ejes que el ángulo cruza.
+	 * @param cf el abanico complejo
+	 * @param box el rectángulo, xmin, xmax, ymin, ymax; NaN si está vacı́o
+	 */
+	private static void bounds(ComplexFan cf, double []box){
+		Interval mi = cf.getMagnitudeInterval();
+		AngleInterval ai = cf.getAngleInterval();
+		double a = mi.getFirstExtreme();
+		double b = mi.getSecondExtreme();
+		double fe = ai.getFirstExtreme();
+		double se = ai.getSecondExtreme();
+		double w = ai.VerifyCase0to360() ? 360.0d : fe<=se ? se-fe : se-fe+360.0d;
+		double c1 = Math.cos(Math.toRadians(fe)), s1 = Math.sin(Math.toRadians(fe));
+		double c2 = Math.cos(Math.toRadians(se)), s2 = Math.sin(Math.toRadians(se));
+		include(box, a*c1, a*s1);
+		include(box, b*c1, b*s1);
+		include(box, a*c2, a*s2);
+		include(box, b*c2, b*s2);
+		for (int k=0; k<4; k++){
+			double offset = 90.0d*k-fe;
+			if (offset<0){
+				offset += 360.0d;
+			}
+			if (offset<=w){
+				include(box, k==0 ? b : k==2 ? -b : 0, k==1 ? b : k==3 ? -b : 0);
+			}
+		}
+	}
+
+	/**
+	 * Función para agrandar un rectángulo para que contenga a un punto.
+	 * @param box el rectángulo, xmin, xmax, ymin, ymax; NaN si está vacı́o
+	 * @param x la parte real del punto
+	 * @param y la parte imaginaria del punto
+	 */
+	private static void include(double []box, double x, double y){
+		box[0] = box[0]<=x ? box[0] : x;
+		box[1] = box[1]>=x ? box[1] : x;
+		box[2] = box[2]<=y ? box[2] : y;
+		box[3] = box[3]>=y ? box[3] : y;
+	}
+
+	/**
+	 * Función para dibujar los ejes real e imaginario que pasan por el origen.
+	 * @param argb el color, con transparencia
+	 */
+	public void axes(int argb){
+		int col = (int)Math.floor(-xMin*scale);
+		int row = (int)Math.floor(yMax*scale);
+		if (row>=0 && row<height){
+			for (int c=0; c<width; c++){
+				pixels[row*width+c] = blend(pixels[row*width+c], argb);
+			}
+		}
+		if (col>=0 && col<width){
+			for (int r=0; r<height; r++){
+				if (r!=row){
+					pixels[r*width+col] = blend(pixels[r*width+col], argb);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Función para obtener un pixel.
+	 * @param col la columna
+	 * @param row el renglón, desde arriba
+	 * @return el color ARGB del pixel
+	 */
+	public int getPixel(int col, int row){
+		return pixels[row*width+col];
+	}
+
+	/**
+	 * Función para obtener el ancho de la imagen.
+	 * @return el ancho en pixeles
+	 */
+	public int getWidth(){
+		return width;
+	}
+
+	/**
+	 * Función para obtener el alto de la imagen.
+	 * @return el alto en pixeles
+	 */
+	public int getHeight(){
+		return height;
+	}
+
+	/**
+	 * Función para copiar la imagen a un BufferedImage.
+	 * @return la imagen
+	 */
+	public BufferedImage toImage(){
+		BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		img.setRGB(0, 0, width, height, pixels, 0, width);
+		return img;
+	}
+
+	/**
+	 * Función para guardar la imagen en un archivo PNG.
+	 * @param path la ruta del archivo
+	 * @throws UncheckedIOException si no se puede escribir la imagen o no hay un escritor de PNG
+	 */
+	public void writePng(Path path){
+		boolean written;
+		try (OutputStream out = Files.newOutputStream(path)){
+			written = ImageIO.write(toImage(), "png", out);
+		} catch (IOException e){
+			throw new UncheckedIOException("No se pudo escribir la imagen "+path+": "+e.getMessage(), e);
+		}
+		if (!written){
+			throw new UncheckedIOException(new IOException("No hay un escritor de PNG para el archivo "+path));
+		}
+	}
+}
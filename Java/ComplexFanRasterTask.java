@@ -0,0 +1,57 @@
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tarea para dibujar una capa de abanicos complejos en una banda de renglones de un
+ComplexFanRaster sobre un ForkJoinPool. La banda se divide a la mitad hasta tener a lo más
+leafRows renglones; cada hoja escribe sólo los pixeles de sus renglones, sin sincronización.
+ * @author Manuel Cipriano
+ */
+
+class ComplexFanRasterTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	private final ComplexFanRaster raster;	// la imagen
+	private final double []geometry;		// las magnitudes y los ángulos de los abanicos complejos
+	private final int []boxes;				// los rectángulos envolventes en pixeles
+	private final int argb;					// el color, con transparencia
+	private final boolean outline;			// si se dibuja sólo el borde
+	private final int from;					// el primer renglón de la banda (incluido)
+	private final int to;					// el último renglón de la banda (excluido)
+	private final int leafRows;				// el tamaño máximo de una hoja
+
+	/**
+	 * Constructor que inicializa la tarea para dibujar una banda de renglones.
+	 * @param raster la imagen
+	 * @param geometry la magnitud mı́nima y máxima, el coseno y el seno de los dos extremos de
+	ángulo y el ancho del ángulo de cada abanico complejo
+	 * @param boxes la primera y la última columna y el primer y el último renglón de cada
+	abanico complejo
+	 * @param argb el color, con transparencia
+	 * @param outline si se dibuja sólo el borde o se rellena
+	 * @param from el primer renglón de la banda (incluido)
+	 * @param to el último renglón de la banda (excluido)
+	 * @param leafRows el tamaño máximo de una hoja, al menos 1
+	 */
+	ComplexFanRasterTask(ComplexFanRaster raster, double []geometry, int []boxes, int argb, boolean outline, int from, int to, int leafRows){
+		this.raster = raster;
+		this.geometry = geometry;
+		this.boxes = boxes;
+		this.argb = argb;
+		this.outline = outline;
+		this.from = from;
+		this.to = to;
+		this.leafRows = Math.max(1, leafRows);
+	}
+
+	/**
+	 * Función que dibuja la banda de renglones.
+	 */
+	@Override
+	protected void compute(){
+		if (to-from<=leafRows){
+			raster.paintRows(geometry, boxes, argb, outline, from, to);
+			return;
+		}
+		int mid = (from+to)>>>1;
+		invokeAll(new ComplexFanRasterTask(raster, geometry, boxes, argb, outline, from, mid, leafRows), new ComplexFanRasterTask(raster, geometry, boxes, argb, outline, mid, to, leafRows));
+	}
+}
@@ -0,0 +1,190 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Esta clase guarda los contadores de las operaciones de ComplexFan: las llamadas a cada
+operación, los casos de verifyCase, el número de partes de cada descomposición en cuadrantes,
+las uniones de resultados parciales y las sumas que terminan en el cı́rculo completo. Los
+contadores son LongAdder, ası́ que varios hilos pueden incrementarlos sin competir por el mismo
+valor. Los contadores de operaciones cuentan las llamadas que hace quien usa ComplexFan: una
+resta cuenta sólo como resta y una suma de arreglo sólo como suma de arreglo, sin las sumas y
+negaciones que hacen por dentro.
+
+Los contadores sólo se activan si la máquina virtual arranca con -Dcomplexfan.stats=true; en
+ese caso se publican en el servidor MBean de la plataforma con el nombre OBJECT_NAME y se
+pueden ver con jconsole o cualquier cliente JMX. Si no se pueden publicar se avisa en la salida
+de errores y los contadores siguen funcionando, sólo que sin JMX. ENABLED es una constante, ası́ que cuando está
+desactivada el compilador JIT elimina los incrementos y los contadores no cuestan nada.
+ * @author Manuel Cipriano
+ */
+
+public final class ComplexFanStats implements ComplexFanStatsMBean {
+	public static final String OBJECT_NAME = "ComplexFan:type=Stats";	// el nombre del MBean
+	static final boolean ENABLED = Boolean.getBoolean("complexfan.stats");	// si se cuentan las operaciones
+
+	static final LongAdder negations = new LongAdder();		// las negaciones
+	static final LongAdder products = new LongAdder();		// los productos
+	static final LongAdder divisions = new LongAdder();		// las divisiones
+	static final LongAdder additions = new LongAdder();		// las sumas de dos abanicos complejos
+	static final LongAdder subtractions = new LongAdder();	// las restas
+	static final LongAdder sums = new LongAdder();			// las sumas de arreglos
+	static final LongAdder []verifyCases = adders(4);		// los casos de verifyCase, el caso k en la posición k-1
+	static final LongAdder []fragments = adders(6);			// las descomposiciones con k partes, en la posición k
+	static final LongAdder unionOfAIsCalls = new LongAdder();	// las uniones de varios intervalos de ángulo
+	static final LongAdder unionOfAIsMerges = new LongAdder();	// los intervalos de ángulo unidos a otro
+	static final LongAdder unionOfMIsCalls = new LongAdder();	// las uniones de varios intervalos de magnitud
+	static final LongAdder unionOfMIsMerges = new LongAdder();	// los intervalos de magnitud unidos a otro
+	static final LongAdder fullCircleResults = new LongAdder();	// las sumas con ángulo [0, 360]
+	static final LongAdder fullCircleAdditions = new LongAdder();	// las sumas que omitieron el ángulo de algún par de partes
+	static final LongAdder fullCircleSkippedPairs = new LongAdder();	// los pares de partes en los que se omitió el ángulo
+
+	static {
+		if (ENABLED){
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(new ComplexFanStats(), new ObjectName(OBJECT_NAME));
+			} catch (JMException | SecurityException e){
+				System.err.println("No se pudieron publicar los contadores de ComplexFan: "+e.getMessage());
+			}
+		}
+	}
+
+	private ComplexFanStats(){
+	}
+
+	/**
+	 * Función para crear un arreglo de contadores.
+	 * @param n el número de contadores
+	 * @return el arreglo de contadores en cero
+	 */
+	private static LongAdder[] adders(int n){
+		LongAdder []a = new LongAdder[n];
+		for (int i=0; i<n; i++){
+			a[i] = new LongAdder();
+		}
+		return a;
+	}
+
+	/**
+	 * Función para obtener las sumas de un arreglo de contadores.
+	 * @param a el arreglo de contadores
+	 * @return las sumas, en el mismo orden
+	 */
+	private static long[] sums(LongAdder []a){
+		long []s = new long[a.length];
+		for (int i=0; i<a.length; i++){
+			s[i] = a[i].sum();
+		}
+		return s;
+	}
+
+	@Override
+	public boolean isEnabled(){
+		return ENABLED;
+	}
+
+	@Override
+	public long getNegations(){
+		return negations.sum();
+	}
+
+	@Override
+	public long getProducts(){
+		return products.sum();
+	}
+
+	@Override
+	public long getDivisions(){
+		return divisions.sum();
+	}
+
+	@Override
+	public long getAdditions(){
+		return additions.sum();
+	}
+
+	@Override
+	public long getSubtractions(){
+		return subtractions.sum();
+	}
+
+	@Override
+	public long getSums(){
+		return sums.sum();
+	}
+
+	@Override
+	public long[] getVerifyCases(){
+		return sums(verifyCases);
+	}
+
+	@Override
+	public long[] getFragments(){
+		return getFragmentCounts();
+	}
+
+	/**
+	 * Función para obtener el número de descomposiciones en cuadrantes con k partes sin pasar
+	por JMX.
+	 * @return el número de descomposiciones con k partes, en la posición k
+	 */
+	static long[] getFragmentCounts(){
+		return sums(fragments);
+	}
+
+	@Override
+	public long getUnionOfAIsCalls(){
+		return unionOfAIsCalls.sum();
+	}
+
+	@Override
+	public long getUnionOfAIsMerges(){
+		return unionOfAIsMerges.sum();
+	}
+
+	@Override
+	public long getUnionOfMIsCalls(){
+		return unionOfMIsCalls.sum();
+	}
+
+	@Override
+	public long getUnionOfMIsMerges(){
+		return unionOfMIsMerges.sum();
+	}
+
+	@Override
+	public long getFullCircleResults(){
+		return fullCircleResults.sum();
+	}
+
+	@Override
+	public long getFullCircleAdditions(){
+		return fullCircleAdditions.sum();
+	}
+
+	@Override
+	public long getFullCircleSkippedPairs(){
+		return fullCircleSkippedPairs.sum();
+	}
+
+	@Override
+	public void reset(){
+		resetAll();
+	}
+
+	/**
+	 * Función para poner todos los contadores en cero sin pasar por JMX.
+	 */
+	static void resetAll(){
+		for (LongAdder a : new LongAdder[]{negations, products, divisions, additions, subtractions, sums, unionOfAIsCalls, unionOfAIsMerges, unionOfMIsCalls, unionOfMIsMerges, fullCircleResults, fullCircleAdditions, fullCircleSkippedPairs}){
+			a.reset();
+		}
+		for (LongAdder a : verifyCases){
+			a.reset();
+		}
+		for (LongAdder a : fragments){
+			a.reset();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * Interfaz de administración (JMX) de los contadores de ComplexFanStats. Cada atributo es la
+suma de un contador desde que se cargó la clase o desde el último reset.
+ * @author Manuel Cipriano
+ */
+
+public interface ComplexFanStatsMBean {
+	/**
+	 * Función para saber si se están contando las operaciones.
+	 * @return si los contadores están activos
+	 */
+	boolean isEnabled();
+
+	/**
+	 * @return el número de negaciones
+	 */
+	long getNegations();
+
+	/**
+	 * @return el número de productos
+	 */
+	long getProducts();
+
+	/**
+	 * @return el número de divisiones
+	 */
+	long getDivisions();
+
+	/**
+	 * @return el número de sumas de dos abanicos complejos
+	 */
+	long getAdditions();
+
+	/**
+	 * @return el número de restas
+	 */
+	long getSubtractions();
+
+	/**
+	 * @return el número de sumas de arreglos (sum y summing)
+	 */
+	long getSums();
+
+	/**
+	 * @return el número de veces que verifyCase regresó cada caso, del 1 al 4
+	 */
+	long[] getVerifyCases();
+
+	/**
+	 * @return el número de descomposiciones en cuadrantes con k partes, en la posición k
+	 */
+	long[] getFragments();
+
+	/**
+	 * @return el número de uniones de intervalos de ángulo de varios resultados parciales
+	 */
+	long getUnionOfAIsCalls();
+
+	/**
+	 * @return el número de intervalos de ángulo que se unieron a otro en esas uniones
+	 */
+	long getUnionOfAIsMerges();
+
+	/**
+	 * @return el número de uniones de intervalos de magnitud de varios resultados parciales
+	 */
+	long getUnionOfMIsCalls();
+
+	/**
+	 * @return el número de intervalos de magnitud que se unieron a otro en esas uniones
+	 */
+	long getUnionOfMIsMerges();
+
+	/**
+	 * @return el número de sumas cuyo resultado tiene ángulo [0, 360]
+	 */
+	long getFullCircleResults();
+
+	/**
+	 * @return el número de sumas que omitieron el ángulo de algún par de partes
+	 */
+	long getFullCircleAdditions();
+
+	/**
+	 * @return el número de pares de partes en los que se omitió el ángulo
+	 */
+	long getFullCircleSkippedPairs();
+
+	/**
+	 * Función para poner todos los contadores en cero.
+	 */
+	void reset();
+}
@@ -0,0 +1,558 @@
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Esta clase modela un almacén de abanicos complejos fuera del heap. Cada abanico complejo
+ocupa un registro de 33 bytes con los campos de sus dos intervalos: el primer y el segundo
+extremo de magnitud, el primer y el segundo extremo de ángulo, como double, y un byte con los
+cuatro lı́mites empaquetados igual que en ComplexFanBatch, en little endian; es el mismo registro
+que el de ComplexFanFile, ası́ que un archivo es un almacén y copiar entre ambos es copiar bytes.
+Un ComplexFan en el heap ocupa alrededor de 100 bytes repartidos en tres objetos.
+
+Los registros viven en bloques de a lo más 2^25 registros cada uno, porque un ByteBuffer no
+puede pasar de 2 GB; ningún registro queda partido entre dos bloques. Un almacén puede ser una
+vista de otro (slice), que comparte los mismos bytes. Las operaciones aritméticas leen y
+escriben los registros directamente, sin crear objetos por registro, salvo la suma y la resta,
+que pasan por ComplexFan.addition igual que en ComplexFanBatch, y dan los mismos resultados que
+las de ComplexFanBatch.
+
+Los bloques cuentan contra -XX:MaxDirectMemorySize, que por omisión es el tamaño máximo del
+heap, ası́ que un almacén más grande que el heap necesita subir ese lı́mite. Son segmentos
+nativos de jdk.incubator.foreign (ComplexFanStoreForeign) cuando está compilada y el módulo
+está cargado; close los libera de inmediato y usar el almacén o sus vistas después lanza
+IllegalStateException. En otro caso son ByteBuffer directos, que el recolector de basura libera
+cuando descarta el último almacén que los usa; ahı́ close no libera nada.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanStore implements AutoCloseable {
+	public static final int RECORD_SIZE = 33;			// el tamaño de un registro en bytes
+	static final int CHUNK_SHIFT = 25;					// el logaritmo del número de registros por bloque
+	static final long CHUNK_MASK = (1L<<CHUNK_SHIFT)-1;
+
+	private static final Constructor<? extends ComplexFanStoreMemory> FOREIGN_MEMORY = loadForeignMemory();	// la memoria con jdk.incubator.foreign, null si no está disponible
+
+	final ByteBuffer []chunks;		// los bloques de registros
+	private final ComplexFanStoreMemory memory;	// la memoria de los bloques, null si no es del almacén
+	private final long start;		// la posición del primer registro en los bloques
+	private final long size;		// el número de abanicos complejos del almacén
+
+	/**
+	 * Constructor que inicializa un almacén sobre bloques ya creados.
+	 * @param chunks los bloques de registros, en little endian
+	 * @param memory la memoria de los bloques, null si la maneja otra clase
+	 * @param start la posición del primer registro en los bloques
+	 * @param size el número de abanicos complejos
+	 */
+	ComplexFanStore(ByteBuffer []chunks, ComplexFanStoreMemory memory, long start, long size){
+		this.chunks = chunks;
+		this.memory = memory;
+		this.start = start;
+		this.size = size;
+	}
+
+	/**
+	 * Función para crear un almacén fuera del heap con un número dado de abanicos
+	complejos, todos ellos vacı́os, es decir, (0, 0)∠ (0, 0).
+	 * @param size el número de abanicos complejos
+	 * @return el almacén
+	 * @throws IllegalArgumentException si el número de abanicos complejos es negativo
+	 */
+	public static ComplexFanStore allocate(long size){
+		if (size<0){
+			throw new IllegalArgumentException("El número de abanicos complejos no puede ser negativo: "+size);
+		}
+		ComplexFanStoreMemory memory = newMemory();
+		ByteBuffer []chunks = new ByteBuffer[(int)((size+CHUNK_MASK)>>>CHUNK_SHIFT)];
+		try {
+			for (int c=0; c<chunks.length; c++){
+				long records = Math.min(CHUNK_MASK+1, size-((long)c<<CHUNK_SHIFT));
+				chunks[c] = memory.allocate((int)(records*RECORD_SIZE));
+			}
+		} catch (RuntimeException | OutOfMemoryError e){
+			memory.close();
+			throw e;
+		}
+		return new ComplexFanStore(chunks, memory, 0, size);
+	}
+
+	/**
+	 * Función para cargar la memoria con jdk.incubator.foreign. La clase
+	ComplexFanStoreForeign se compila aparte con --add-modules jdk.incubator.foreign; si no se
+	compiló o el módulo no está en la JVM se usan ByteBuffer directos.
+	 * @return el constructor de la memoria, o null si no está disponible
+	 */
+	private static Constructor<? extends ComplexFanStoreMemory> loadForeignMemory(){
+		if (!ModuleLayer.boot().findModule("jdk.incubator.foreign").isPresent()){
+			return null;
+		}
+		try {
+			return Class.forName("ComplexFanStoreForeign").asSubclass(ComplexFanStoreMemory.class).getDeclaredConstructor();
+		} catch (ReflectiveOperationException | LinkageError | ClassCastException e){
+			return null;
+		}
+	}
+
+	/**
+	 * Función para crear la memoria de un almacén nuevo.
+	 * @return la memoria con jdk.incubator.foreign si está disponible, si no con ByteBuffer directos
+	 */
+	private static ComplexFanStoreMemory newMemory(){
+		if (FOREIGN_MEMORY!=null){
+			try {
+				return FOREIGN_MEMORY.newInstance();
+			} catch (ReflectiveOperationException e){
+				// se usan ByteBuffer directos
+			}
+		}
+		return new DirectMemory();
+	}
+
+	/**
+	 * Función para saber si los almacenes usan la memoria de jdk.incubator.foreign.
+	 * @return verdadero si close libera la memoria de inmediato
+	 */
+	static boolean hasForeignMemory(){
+		return FOREIGN_MEMORY!=null;
+	}
+
+	/**
+	 * Función para liberar la memoria del almacén, que es la misma de todas sus vistas y del
+	almacén del que es vista. Con jdk.incubator.foreign se libera de inmediato; con ByteBuffer
+	directos se libera cuando el recolector de basura descarta el último almacén que la usa.
+	Cerrar un almacén más de una vez no hace nada.
+	 */
+	@Override
+	public void close(){
+		if (memory!=null){
+			memory.close();
+		}
+	}
+
+	/**
+	 * Función para crear un almacén fuera del heap con una copia de un lote.
+	 * @param b el lote a copiar
+	 * @return el almacén
+	 */
+	public static ComplexFanStore of(ComplexFanBatch b){
+		ComplexFanStore s = allocate(b.size());
+		s.write(0, b);
+		return s;
+	}
+
+	/**
+	 * Función para obtener el número de abanicos complejos del almacén.
+	 * @return el número de abanicos complejos
+	 */
+	public long size(){
+		return size;
+	}
+
+	/**
+	 * Función para obtener una vista de una parte del almacén. La vista comparte los
+	registros con el almacén, lo que se escribe en una se ve en el otro.
+	 * @param from la posición del primer registro de la vista
+	 * @param n el número de registros de la vista
+	 * @return la vista
+	 * @throws IndexOutOfBoundsException si la vista no queda dentro del almacén
+	 */
+	public ComplexFanStore slice(long from, long n){
+		if (n<0 || from<0 || from>size-n){
+			throw new IndexOutOfBoundsException("Rango fuera del almacén: "+from+".."+(from+n)+" de "+size);
+		}
+		return new ComplexFanStore(chunks, memory, start+from, n);
+	}
+
+	/**
+	 * Función para obtener el bloque que contiene un registro.
+	 * @param i la posición del registro en el almacén
+	 * @return el bloque
+	 */
+	private ByteBuffer chunk(long i){
+		if (i<0 || i>=size){
+			throw new IndexOutOfBoundsException("Posición fuera del almacén: "+i+" de "+size);
+		}
+		return chunks[(int)((start+i)>>>CHUNK_SHIFT)];
+	}
+
+	/**
+	 * Función para obtener el desplazamiento de un registro dentro de su bloque.
+	 * @param i la posición del registro en el almacén
+	 * @return el desplazamiento en bytes
+	 */
+	private int offset(long i){
+		return (int)((start+i)&CHUNK_MASK)*RECORD_SIZE;
+	}
+
+	/**
+	 * Función para obtener el primer extremo de magnitud de un registro.
+	 * @param i la posición del registro
+	 * @return el primer extremo de magnitud
+	 */
+	public double getMagnitudeFirstExtreme(long i){
+		return chunk(i).getDouble(offset(i));
+	}
+
+	/**
+	 * Función para obtener el segundo extremo de magnitud de un registro.
+	 * @param i la posición del registro
+	 * @return el segundo extremo de magnitud
+	 */
+	public double getMagnitudeSecondExtreme(long i){
+		return chunk(i).getDouble(offset(i)+8);
+	}
+
+	/**
+	 * Función para obtener el primer extremo de ángulo de un registro.
+	 * @param i la posición del registro
+	 * @return el primer extremo de ángulo
+	 */
+	public double getAngleFirstExtreme(long i){
+		return chunk(i).getDouble(offset(i)+16);
+	}
+
+	/**
+	 * Función para obtener el segundo extremo de ángulo de un registro.
+	 * @param i la posición del registro
+	 * @return el segundo extremo de ángulo
+	 */
+	public double getAngleSecondExtreme(long i){
+		return chunk(i).getDouble(offset(i)+24);
+	}
+
+	/**
+	 * Función para obtener los lı́mites empaquetados de un registro.
+	 * @param i la posición del registro
+	 * @return los lı́mites de los cuatro extremos, como en ComplexFanBatch
+	 */
+	public byte getFlags(long i){
+		return chunk(i).get(offset(i)+32);
+	}
+
+	/**
+	 * Función para obtener el abanico complejo de un registro.
+	 * @param i la posición del registro
+	 * @return un nuevo abanico complejo con los valores del registro
+	 */
+	public ComplexFan get(long i){
+		ComplexFanBatch b = new ComplexFanBatch(1);
+		read(i, b, 0, 1);
+		return b.get(0);
+	}
+
+	/**
+	 * Función para asignar los valores de un abanico complejo en un registro. Los valores se
+	guardan tal cual, sin normalizar.
+	 * @param i la posición del registro
+	 * @param mfe el primer extremo de magnitud
+	 * @param mse el segundo extremo de magnitud
+	 * @param afe el primer extremo de ángulo
+	 * @param ase el segundo extremo de ángulo
+	 * @param flags los lı́mites empaquetados, como en ComplexFanBatch
+	 */
+	public void set(long i, double mfe, double mse, double afe, double ase, byte flags){
+		ByteBuffer c = chunk(i);
+		int o = offset(i);
+		c.putDouble(o, mfe);
+		c.putDouble(o+8, mse);
+		c.putDouble(o+16, afe);
+		c.putDouble(o+24, ase);
+		c.put(o+32, flags);
+	}
+
+	/**
+	 * Función para asignar un abanico complejo en un registro.
+	 * @param i la posición del registro
+	 * @param cf el abanico complejo a guardar
+	 */
+	public void set(long i, ComplexFan cf){
+		Interval mi = cf.getMagnitudeInterval();
+		AngleInterval ai = cf.getAngleInterval();
+		byte flags = ComplexFanBatch.encodeFlags(mi.getFEincluded(), mi.getSEincluded(), ai.getFEincluded(), ai.getSEincluded());
+		set(i, mi.getFirstExtreme(), mi.getSecondExtreme(), ai.getFirstExtreme(), ai.getSecondExtreme(), flags);
+	}
+
+	/**
+	 * Función para leer registros consecutivos a un lote.
+	 * @param from la posición del primer registro a leer
+	 * @param b el lote donde se guardan los abanicos complejos
+	 * @param to la primera posición del lote a llenar
+	 * @param n el número de registros a leer
+	 */
+	public void read(long from, ComplexFanBatch b, int to, int n){
+		checkRange(from, b, to, n);
+		for (int k=0; k<n; k++){
+			long i = start+from+k;
+			ByteBuffer c = chunks[(int)(i>>>CHUNK_SHIFT)];
+			int o = (int)(i&CHUNK_MASK)*RECORD_SIZE;
+			b.magnitudeFE[to+k] = c.getDouble(o);
+			b.magnitudeSE[to+k] = c.getDouble(o+8);
+			b.angleFE[to+k] = c.getDouble(o+16);
+			b.angleSE[to+k] = c.getDouble(o+24);
+			b.flags[to+k] = c.get(o+32);
+		}
+	}
+
+	/**
+	 * Función para leer a un lote tantos registros consecutivos como quepan en él.
+	 * @param from la posición del primer registro a leer
+	 * @param b el lote donde se guardan los abanicos complejos
+	 */
+	public void read(long from, ComplexFanBatch b){
+		read(from, b, 0, b.size());
+	}
+
+	/**
+	 * Función para escribir abanicos complejos de un lote en registros consecutivos.
+	 * @param to la posición del primer registro a escribir
+	 * @param b el lote con los abanicos complejos
+	 * @param from la primera posición del lote a escribir
+	 * @param n el número de registros a escribir
+	 */
+	public void write(long to, ComplexFanBatch b, int from, int n){
+		checkRange(to, b, from, n);
+		for (int k=0; k<n; k++){
+			long i = start+to+k;
+			ByteBuffer c = chunks[(int)(i>>>CHUNK_SHIFT)];
+			int o = (int)(i&CHUNK_MASK)*RECORD_SIZE;
+			c.putDouble(o, b.magnitudeFE[from+k]);
+			c.putDouble(o+8, b.magnitudeSE[from+k]);
+			c.putDouble(o+16, b.angleFE[from+k]);
+			c.putDouble(o+24, b.angleSE[from+k]);
+			c.put(o+32, b.flags[from+k]);
+		}
+	}
+
+	/**
+	 * Función para escribir un lote completo en registros consecutivos.
+	 * @param to la posición del primer registro a escribir
+	 * @param b el lote con los abanicos complejos
+	 */
+	public void write(long to, ComplexFanBatch b){
+		write(to, b, 0, b.size());
+	}
+
+	/**
+	 * Función para copiar todos los registros de un almacén a otro del mismo tamaño, por
+	ejemplo de un ComplexFanFile a un almacén en memoria. Se copian bytes, bloque por bloque.
+	 * @param src el almacén de origen
+	 * @param dst el almacén de destino
+	 */
+	public static void copy(ComplexFanStore src, ComplexFanStore dst){
+		checkSizes(src, src, dst);
+		long i = 0;
+		while (i<src.size){
+			long si = src.start+i, di = dst.start+i;
+			long n = Math.min(src.size-i, Math.min(CHUNK_MASK+1-(si&CHUNK_MASK), CHUNK_MASK+1-(di&CHUNK_MASK)));
+			ByteBuffer s = src.chunks[(int)(si>>>CHUNK_SHIFT)].duplicate();
+			ByteBuffer d = dst.chunks[(int)(di>>>CHUNK_SHIFT)].duplicate();
+			int so = (int)(si&CHUNK_MASK)*RECORD_SIZE;
+			int dO = (int)(di&CHUNK_MASK)*RECORD_SIZE;
+			s.limit(so+(int)n*RECORD_SIZE).position(so);
+			d.position(dO);
+			d.put(s);
+			i += n;
+		}
+	}
+
+	/**
+	 * Función para calcular la negación de cada abanico complejo de un almacén. Equivale a
+	ComplexFan.negation aplicada posición por posición.
+	 * @param s el almacén a negar
+	 * @param res el almacén donde se guarda el resultado, puede ser el mismo que s
+	 */
+	public static void negation(ComplexFanStore s, ComplexFanStore res){
+		checkSizes(s, s, res);
+		for (long i=0; i<s.size; i++){
+			long p = s.start+i;
+			ByteBuffer c = s.chunks[(int)(p>>>CHUNK_SHIFT)];
+			int o = (int)(p&CHUNK_MASK)*RECORD_SIZE;
+			res.setNormalized(i, c.getDouble(o), c.getDouble(o+8), c.getDouble(o+16)+180.0d, c.getDouble(o+24)+180.0d, c.get(o+32));
+		}
+	}
+
+	/**
+	 * Función para calcular el producto posición por posición de dos almacenes. Equivale a
+	ComplexFan.product aplicada a cada par de abanicos complejos.
+	 * @param s1 el almacén del primer operando
+	 * @param s2 el almacén del segundo operando
+	 * @param res el almacén donde se guarda el resultado, puede ser el mismo que s1 o s2
+	 */
+	public static void product(ComplexFanStore s1, ComplexFanStore s2, ComplexFanStore res){
+		checkSizes(s1, s2, res);
+		for (long i=0; i<s1.size; i++){
+			long p1 = s1.start+i, p2 = s2.start+i;
+			ByteBuffer c1 = s1.chunks[(int)(p1>>>CHUNK_SHIFT)];
+			ByteBuffer c2 = s2.chunks[(int)(p2>>>CHUNK_SHIFT)];
+			int o1 = (int)(p1&CHUNK_MASK)*RECORD_SIZE;
+			int o2 = (int)(p2&CHUNK_MASK)*RECORD_SIZE;
+			int f = c1.get(o1+32)&c2.get(o2+32);
+			res.setNormalized(i, c1.getDouble(o1)*c2.getDouble(o2), c1.getDouble(o1+8)*c2.getDouble(o2+8), c1.getDouble(o1+16)+c2.getDouble(o2+16), c1.getDouble(o1+24)+c2.getDouble(o2+24), f);
+		}
+	}
+
+	/**
+	 * Función para calcular la división posición por posición de dos almacenes. Equivale a
+	ComplexFan.division aplicada a cada par de abanicos complejos.
+	 * @param s1 el almacén de los dividendos
+	 * @param s2 el almacén de los divisores
+	 * @param res el almacén donde se guarda el resultado, puede ser el mismo que s1 o s2
+	 * @throws ArithmeticException si algún divisor tiene un extremo de magnitud igual a cero;
+	en ese caso res no se modifica
+	 */
+	public static void division(ComplexFanStore s1, ComplexFanStore s2, ComplexFanStore res){
+		checkSizes(s1, s2, res);
+		checkDivisors(s2);
+		for (long i=0; i<s1.size; i++){
+			long p1 = s1.start+i, p2 = s2.start+i;
+			ByteBuffer c1 = s1.chunks[(int)(p1>>>CHUNK_SHIFT)];
+			ByteBuffer c2 = s2.chunks[(int)(p2>>>CHUNK_SHIFT)];
+			int o1 = (int)(p1&CHUNK_MASK)*RECORD_SIZE;
+			int o2 = (int)(p2&CHUNK_MASK)*RECORD_SIZE;
+			double dfe = c2.getDouble(o2);
+			double dse = c2.getDouble(o2+8);
+			int f1 = c1.get(o1+32);
+			int f2 = c2.get(o2+32);
+			// los lı́mites se cruzan igual que en Interval.subtraction
+			int f = 0;
+			if ((f1&ComplexFanBatch.MAGNITUDE_FE_CLOSED)!=0 && (f2&ComplexFanBatch.MAGNITUDE_SE_CLOSED)!=0) f |= ComplexFanBatch.MAGNITUDE_FE_CLOSED;
+			if ((f1&ComplexFanBatch.MAGNITUDE_SE_CLOSED)!=0 && (f2&ComplexFanBatch.MAGNITUDE_FE_CLOSED)!=0) f |= ComplexFanBatch.MAGNITUDE_SE_CLOSED;
+			if ((f1&ComplexFanBatch.ANGLE_FE_CLOSED)!=0 && (f2&ComplexFanBatch.ANGLE_SE_CLOSED)!=0) f |= ComplexFanBatch.ANGLE_FE_CLOSED;
+			if ((f1&ComplexFanBatch.ANGLE_SE_CLOSED)!=0 && (f2&ComplexFanBatch.ANGLE_FE_CLOSED)!=0) f |= ComplexFanBatch.ANGLE_SE_CLOSED;
+			double afe = c1.getDouble(o1+16)-c2.getDouble(o2+24);
+			double ase = c1.getDouble(o1+24)-c2.getDouble(o2+16);
+			res.setNormalized(i, c1.getDouble(o1)/dse, c1.getDouble(o1+8)/dfe, afe, ase, f);
+		}
+	}
+
+	/**
+	 * Función para calcular la suma posición por posición de dos almacenes. A diferencia de
+	las otras operaciones no trabaja sobre los registros: lee cada par como ComplexFan, llama a
+	ComplexFan.addition y escribe el resultado, ası́ que crea objetos por registro.
+	 * @param s1 el almacén del primer operando
+	 * @param s2 el almacén del segundo operando
+	 * @param res el almacén donde se guarda el resultado, puede ser el mismo que s1 o s2
+	 */
+	public static void addition(ComplexFanStore s1, ComplexFanStore s2, ComplexFanStore res){
+		checkSizes(s1, s2, res);
+		for (long i=0; i<s1.size; i++){
+			res.set(i, ComplexFan.addition(s1.get(i), s2.get(i)));
+		}
+	}
+
+	/**
+	 * Función para calcular la resta posición por posición de dos almacenes. A diferencia de
+	las otras operaciones no trabaja sobre los registros: lee cada par como ComplexFan, llama a
+	ComplexFan.subtraction y escribe el resultado, ası́ que crea objetos por registro.
+	 * @param s1 el almacén del primer operando
+	 * @param s2 el almacén del segundo operando
+	 * @param res el almacén donde se guarda el resultado, puede ser el mismo que s1 o s2
+	 */
+	public static void subtraction(ComplexFanStore s1, ComplexFanStore s2, ComplexFanStore res){
+		checkSizes(s1, s2, res);
+		for (long i=0; i<s1.size; i++){
+			res.set(i, ComplexFan.subtraction(s1.get(i), s2.get(i)));
+		}
+	}
+
+	/**
+	 * Función para guardar un resultado aplicando la misma normalización que el construc-
+	tor de ComplexFan, igual que ComplexFanBatch.
+	 * @param i la posición del registro
+	 * @param mfe el primer extremo de magnitud
+	 * @param mse el segundo extremo de magnitud
+	 * @param afe el primer extremo de ángulo
+	 * @param ase el segundo extremo de ángulo
+	 * @param f los lı́mites empaquetados
+	 */
+	private void setNormalized(long i, double mfe, double mse, double afe, double ase, int f){
+		if (mfe>mse){
+			double aux = mfe;
+			mfe = mse;
+			mse = aux;
+			int mf = 0;
+			if ((f&ComplexFanBatch.MAGNITUDE_SE_CLOSED)!=0) mf |= ComplexFanBatch.MAGNITUDE_FE_CLOSED;
+			if ((f&ComplexFanBatch.MAGNITUDE_FE_CLOSED)!=0) mf |= ComplexFanBatch.MAGNITUDE_SE_CLOSED;
+			f = (f&~(ComplexFanBatch.MAGNITUDE_FE_CLOSED|ComplexFanBatch.MAGNITUDE_SE_CLOSED))|mf;
+		}
+		if (afe>360.0||afe<0.0){
+			afe = AngleInterval.modulo360(afe);
+		}
+		if (ase>360.0||ase<0.0){
+			ase = AngleInterval.modulo360(ase);
+		}
+		if (afe==360.0&&ase!=360.0){
+			afe = 0.0d;
+		}
+		if (ase==0.0&&afe!=0.0){
+			ase = 360.0d;
+		}
+		long p = start+i;
+		ByteBuffer c = chunks[(int)(p>>>CHUNK_SHIFT)];
+		int o = (int)(p&CHUNK_MASK)*RECORD_SIZE;
+		c.putDouble(o, mfe);
+		c.putDouble(o+8, mse);
+		c.putDouble(o+16, afe);
+		c.putDouble(o+24, ase);
+		c.put(o+32, (byte)f);
+	}
+
+	/**
+	 * Función para verificar que una lectura o escritura quede dentro del almacén y del lote.
+	 * @param i la posición del primer registro
+	 * @param b el lote
+	 * @param k la primera posición del lote
+	 * @param n el número de registros
+	 */
+	private void checkRange(long i, ComplexFanBatch b, int k, int n){
+		if (n<0 || i<0 || i>size-n || k<0 || k>b.size()-n){
+			throw new IndexOutOfBoundsException("Rango fuera del almacén o del lote: registros "+i+".."+(i+n)+" de "+size+", lote "+k+".."+(k+n)+" de "+b.size());
+		}
+	}
+
+	/**
+	 * Función para verificar que los almacenes de una operación tengan el mismo tamaño.
+	 * @param s1 el almacén del primer operando
+	 * @param s2 el almacén del segundo operando
+	 * @param res el almacén del resultado
+	 */
+	private static void checkSizes(ComplexFanStore s1, ComplexFanStore s2, ComplexFanStore res){
+		if (s1.size!=s2.size || s1.size!=res.size){
+			throw new IllegalArgumentException("Los almacenes deben tener el mismo tamaño: "+s1.size+", "+s2.size+", "+res.size);
+		}
+	}
+
+	/**
+	 * Función para verificar, antes de escribir el resultado, que ningún divisor tenga un
+	extremo de magnitud igual a cero; ası́ una división que falla no deja un archivo a medias.
+	 * @param s2 el almacén de los divisores
+	 * @throws ArithmeticException si algún divisor tiene magnitud cero
+	 */
+	private static void checkDivisors(ComplexFanStore s2){
+		for (long i=0; i<s2.size; i++){
+			long p = s2.start+i;
+			ByteBuffer c = s2.chunks[(int)(p>>>CHUNK_SHIFT)];
+			int o = (int)(p&CHUNK_MASK)*RECORD_SIZE;
+			if (c.getDouble(o)==0.0||c.getDouble(o+8)==0.0){
+				throw new ArithmeticException("División por cero en la posición "+i);
+			}
+		}
+	}
+
+	/**
+	 * Memoria de ByteBuffer directos, que se usa cuando jdk.incubator.foreign no está
+	disponible. Los bloques no se pueden liberar a pedido, ası́ que close no hace nada y el
+	recolector de basura los libera.
+	 */
+	private static final class DirectMemory implements ComplexFanStoreMemory {
+		@Override
+		public ByteBuffer allocate(int bytes){
+			return ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		@Override
+		public void close(){
+		}
+	}
+}
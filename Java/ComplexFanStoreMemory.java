@@ -0,0 +1,25 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Interfaz de la memoria fuera del heap de un ComplexFanStore. Cada almacén creado con
+ComplexFanStore.allocate tiene su propia memoria, que comparte con sus vistas; la
+implementación con jdk.incubator.foreign (ComplexFanStoreForeign) la libera al cerrarla y la
+de ByteBuffer.allocateDirect la deja al recolector de basura.
+ * @author Manuel Cipriano
+ */
+
+interface ComplexFanStoreMemory extends AutoCloseable {
+	/**
+	 * Función para reservar un bloque de memoria fuera del heap.
+	 * @param bytes el tamaño del bloque en bytes
+	 * @return el bloque, en little endian y con ceros
+	 */
+	ByteBuffer allocate(int bytes);
+
+	/**
+	 * Función para liberar todos los bloques reservados. Después de cerrarla, leer o escribir
+	un bloque lanza IllegalStateException si la implementación libera la memoria de inmediato.
+	 */
+	@Override
+	void close();
+}
@@ -0,0 +1,64 @@
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Tarea para sumar un arreglo de abanicos complejos con una reducción en árbol sobre un
+ForkJoinPool. El arreglo se divide a la mitad hasta que cada parte tiene a lo más leafSize
+abanicos complejos; cada hoja se suma de izquierda a derecha con ComplexFan.addition y los
+resultados parciales se suman de dos en dos.
+ * @author Manuel Cipriano
+ */
+
+class ComplexFanSumTask extends RecursiveTask<ComplexFan> {
+	private static final long serialVersionUID = 1L;
+	private final ComplexFan []acf;		// el arreglo de abanicos complejos
+	private final int from;				// la primera posición de la parte (incluida)
+	private final int to;				// la última posición de la parte (excluida)
+	private final int leafSize;			// el tamaño máximo de una hoja
+
+	/**
+	 * Constructor que inicializa la tarea para sumar una parte de un arreglo.
+	 * @param acf el arreglo de abanicos complejos
+	 * @param from la primera posición de la parte (incluida)
+	 * @param to la última posición de la parte (excluida)
+	 * @param leafSize el tamaño máximo de una hoja, al menos 1
+	 */
+	ComplexFanSumTask(ComplexFan []acf, int from, int to, int leafSize){
+		this.acf = acf;
+		this.from = from;
+		this.to = to;
+		this.leafSize = Math.max(1, leafSize);
+	}
+
+	/**
+	 * Función que calcula la suma de la parte del arreglo.
+	 * @return el resultado de la suma
+	 */
+	@Override
+	protected ComplexFan compute(){
+		if (to-from<=leafSize){
+			return sequentialSum(acf, from, to);
+		}
+		int mid = (from+to)>>>1;
+		ComplexFanSumTask left = new ComplexFanSumTask(acf, from, mid, leafSize);
+		ComplexFanSumTask right = new ComplexFanSumTask(acf, mid, to, leafSize);
+		left.fork();
+		ComplexFan r = right.compute();
+		ComplexFan l = left.join();
+		return ComplexFan.sumOf(l, r, 0.0);
+	}
+
+	/**
+	 * Función que suma de izquierda a derecha una parte de un arreglo.
+	 * @param acf el arreglo de abanicos complejos
+	 * @param from la primera posición de la parte (incluida)
+	 * @param to la última posición de la parte (excluida)
+	 * @return el resultado de la suma
+	 */
+	static ComplexFan sequentialSum(ComplexFan []acf, int from, int to){
+		ComplexFan total = new ComplexFan(acf[from]);
+		for (int i=from+1; i<to; i++){
+			total = ComplexFan.sumOf(total, acf[i], 0.0);
+		}
+		return total;
+	}
+}
@@ -0,0 +1,365 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Esta clase verifica con el método de Monte Carlo que las operaciones de ComplexFan encierren
+a todos los resultados verdaderos. Para cada par de operandos aleatorios calcula la suma, la
+resta, el producto y la división con ComplexFan, toma puntos dentro de los dos operandos
+(también sobre los extremos cerrados), calcula con ellos la operación en forma exacta, en
+cartesianas para la suma y la resta y en polares para el producto y la división, y cuenta
+como violación cada punto que queda fuera del resultado por más de la tolerancia. Los pares se
+reparten en un ForkJoinPool; el par i usa su propio generador, derivado de la semilla y de i,
+ası́ que el resultado no depende del número de hilos y la verificación sirve también como
+prueba de carga, con el número de puntos por segundo.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanVerifier {
+	public static final int ADDITION = 0;			// la suma
+	public static final int SUBTRACTION = 1;		// la resta
+	public static final int PRODUCT = 2;			// el producto
+	public static final int DIVISION = 3;			// la división
+	public static final String []OPERATIONS = {"addition", "subtraction", "product", "division"};	// los nombres de las operaciones
+	public static final double DEFAULT_TOLERANCE = 1e-9;	// la tolerancia relativa por omisión
+	public static final int DEFAULT_LEAF_PAIRS = 64;		// el número de pares por hoja en paralelo
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;	// separa las semillas de los pares
+	// pares de operandos que alguna vez dieron un resultado que no encierra a la suma
+	private static final ComplexFan [][]REGRESSIONS = {
+		{new ComplexFan(new Interval(0.0d, 4.42d, '[', ']'), new AngleInterval(208.92d, 340.20d, '(', ']')),
+			new ComplexFan(new Interval(0.0d, 0.0d, '[', ']'), new AngleInterval(13.29d, 13.29d, '[', ']'))},
+	};
+
+	private final int pairs;						// el número de pares de operandos
+	private final int samples;						// el número de puntos por par y operación
+	private final long seed;						// la semilla de los generadores
+	private double maxAngleWidth = 180.0d;			// el ancho máximo del ángulo de un operando
+	private double tolerance = DEFAULT_TOLERANCE;	// la tolerancia relativa de la verificación
+	private int maxExamples = 10;					// el número máximo de violaciones que se guardan
+
+	private final LongAdder []checked = new LongAdder[OPERATIONS.length];		// los puntos verificados por operación
+	private final LongAdder []violations = new LongAdder[OPERATIONS.length];	// las violaciones por operación
+	private final ConcurrentLinkedQueue<String> examples = new ConcurrentLinkedQueue<>();	// algunas violaciones
+	private final AtomicInteger examplesLeft = new AtomicInteger();			// cuántas violaciones más se guardan
+	private long elapsed;							// el tiempo de la última verificación en nanosegundos
+
+	/**
+	 * Constructor que inicializa una verificación.
+	 * @param pairs el número de pares de operandos
+	 * @param samples el número de puntos por par y operación
+	 * @param seed la semilla de los generadores
+	 * @throws IllegalArgumentException si pairs es negativo o samples es menor que uno
+	 */
+	public ComplexFanVerifier(int pairs, int samples, long seed){
+		if (pairs<0 || samples<1){
+			throw new IllegalArgumentException("Se necesitan al menos cero pares y un punto por par: "+pairs+", "+samples);
+		}
+		this.pairs = pairs;
+		this.samples = samples;
+		this.seed = seed;
+		for (int op=0; op<OPERATIONS.length; op++){
+			checked[op] = new LongAdder();
+			violations[op] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Función para cambiar el ancho máximo del ángulo de los operandos. Con 180 grados o menos
+	la suma de los anchos de los dos operandos no pasa de una vuelta.
+	 * @param maxAngleWidth el ancho máximo en grados, entre 0 y 360
+	 */
+	public void setMaxAngleWidth(double maxAngleWidth){
+		this.maxAngleWidth = Math.max(0.0d, Math.min(360.0d, maxAngleWidth));
+	}
+
+	/**
+	 * Función para cambiar la tolerancia. Un punto es una violación si su magnitud queda fuera
+	del intervalo de magnitud por más de tolerance por la escala del resultado, o si su ángulo
+	queda fuera del intervalo de ángulo por más de la distancia equivalente en el cı́rculo de su
+	magnitud.
+	 * @param tolerance la tolerancia relativa
+	 */
+	public void setTolerance(double tolerance){
+		this.tolerance = Math.max(0.0d, tolerance);
+	}
+
+	/**
+	 * Función para cambiar el número máximo de violaciones que se guardan como ejemplo.
+	 * @param maxExamples el número máximo de ejemplos
+	 */
+	public void setMaxExamples(int maxExamples){
+		this.maxExamples = Math.max(0, maxExamples);
+	}
+
+	/**
+	 * Función para verificar en el ForkJoinPool común.
+	 */
+	public void run(){
+		run(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Función para verificar todos los pares. Borra los contadores de una verificación
+	anterior. Antes de los pares aleatorios verifica, en el hilo que llama, los pares de
+	REGRESSIONS. Si el pool tiene un solo hilo los pares se verifican en el hilo que llama.
+	 * @param pool el pool donde se verifican los pares
+	 */
+	public void run(ForkJoinPool pool){
+		for (int op=0; op<OPERATIONS.length; op++){
+			checked[op].reset();
+			violations[op].reset();
+		}
+		examples.clear();
+		examplesLeft.set(maxExamples);
+		long t0 = System.nanoTime();
+		double []z = new double[4];
+		for (int k=0; k<REGRESSIONS.length; k++){
+			verifyPair(new SplittableRandom(seed-GOLDEN_GAMMA*(k+1)), REGRESSIONS[k][0], REGRESSIONS[k][1], z);
+		}
+		if (pool.getParallelism()<2 || pairs<=DEFAULT_LEAF_PAIRS){
+			verifyPairs(0, pairs);
+		}else{
+			pool.invoke(new ComplexFanVerifierTask(this, 0, pairs, DEFAULT_LEAF_PAIRS));
+		}
+		elapsed = System.nanoTime()-t0;
+	}
+
+	/**
+	 * Función para verificar una parte de los pares.
+	 * @param from el primer par (incluido)
+	 * @param to el último par (excluido)
+	 */
+	void verifyPairs(int from, int to){
+		double []z = new double[4];
+		for (int i=from; i<to; i++){
+			SplittableRandom r = new SplittableRandom(seed+GOLDEN_GAMMA*i);
+			ComplexFan cf1 = randomFan(r, maxAngleWidth);
+			ComplexFan cf2 = randomFan(r, maxAngleWidth);
+			verifyPair(r, cf1, cf2, z);
+		}
+	}
+
+	/**
+	 * Función para verificar las cuatro operaciones con un par de operandos.
+	 * @param r el generador de los puntos
+	 * @param cf1 el primer operando
+	 * @param cf2 el segundo operando
+	 * @param z el arreglo donde se guardan los puntos
+	 */
+	private void verifyPair(SplittableRandom r, ComplexFan cf1, ComplexFan cf2, double []z){
+		ComplexFan []res = new ComplexFan[OPERATIONS.length];
+		res[ADDITION] = ComplexFan.addition(cf1, cf2);
+		res[SUBTRACTION] = ComplexFan.subtraction(cf1, cf2);
+		res[PRODUCT] = ComplexFan.product(cf1, cf2);
+		// la división no está definida si la magnitud del divisor llega a 0
+		res[DIVISION] = cf2.getMagnitudeInterval().getFirstExtreme()==0.0 ? null : ComplexFan.division(cf1, cf2);
+		for (int op=0; op<OPERATIONS.length; op++){
+			if (res[op]==null){
+				continue;
+			}
+			long bad = 0;
+			for (int k=0; k<samples; k++){
+				samplePoint(r, cf1, z, 0);
+				samplePoint(r, cf2, z, 2);
+				double mod, theta;
+				if (op==PRODUCT || op==DIVISION){
+					mod = op==PRODUCT ? z[0]*z[2] : z[0]/z[2];
+					theta = op==PRODUCT ? z[1]+z[3] : z[1]-z[3];
+				}else{
+					double sign = op==ADDITION ? 1 : -1;
+					double x = z[0]*Math.cos(Math.toRadians(z[1]))+sign*z[2]*Math.cos(Math.toRadians(z[3]));
+					double y = z[0]*Math.sin(Math.toRadians(z[1]))+sign*z[2]*Math.sin(Math.toRadians(z[3]));
+					mod = Math.hypot(x, y);
+					theta = Math.toDegrees(Math.atan2(y, x));
+				}
+				if (!encloses(res[op], mod, theta, tolerance)){
+					bad++;
+					if (examplesLeft.getAndDecrement()>0){
+						examples.add(OPERATIONS[op]+": "+cf1+" , "+cf2+" = "+res[op]+" no contiene a "+mod+"∠ "+AngleInterval.modulo360(theta));
+					}
+				}
+			}
+			checked[op].add(samples);
+			violations[op].add(bad);
+		}
+	}
+
+	/**
+	 * Función para generar un abanico complejo aleatorio. La magnitud está en [0, 10] y
+	a veces es un solo valor; una de cada ocho veces empieza en 0, ası́ que el abanico complejo
+	toca al origen (con el 0 incluido o no) o es el origen [0, 0]. El ángulo empieza en cualquier
+	lugar o sobre un eje y a veces es un solo valor; los lı́mites son abiertos o cerrados al azar,
+	salvo en los intervalos de un solo valor, que son cerrados.
+	 * @param r el generador
+	 * @param maxAngleWidth el ancho máximo del ángulo en grados
+	 * @return el abanico complejo
+	 */
+	static ComplexFan randomFan(SplittableRandom r, double maxAngleWidth){
+		double a = r.nextInt(8)==0 ? 0.0d : 0.01+r.nextDouble()*5;
+		double b = r.nextInt(4)==0 ? a : a+r.nextDouble()*5;
+		double fe = r.nextInt(3)==0 ? 90.0d*r.nextInt(4) : r.nextDouble()*360;
+		double w = r.nextInt(5)==0 ? 0.0d : r.nextDouble()*maxAngleWidth;
+		AngleInterval ai = new AngleInterval(fe, fe+w, w==0 ? '[' : bound(r, '['), w==0 ? ']' : bound(r, ']'));
+		ai.normalize();
+		return new ComplexFan(new Interval(a, b, a==b ? '[' : bound(r, '['), a==b ? ']' : bound(r, ']')), ai);
+	}
+
+	/**
+	 * Función para escoger al azar entre un lı́mite cerrado y uno abierto.
+	 * @param r el generador
+	 * @param closed el lı́mite cerrado, ‘[’ o ‘]’
+	 * @return el lı́mite cerrado o el abierto
+	 */
+	private static char bound(SplittableRandom r, char closed){
+		return r.nextBoolean() ? closed : closed=='[' ? '(' : ')';
+	}
+
+	/**
+	 * Función para tomar un punto dentro de un abanico complejo. Cada coordenada cae sobre un
+	extremo cerrado con probabilidad 1/4 y si no en cualquier lugar del intervalo.
+	 * @param r el generador
+	 * @param cf el abanico complejo
+	 * @param z el arreglo donde se guarda el punto
+	 * @param pos la posición de la magnitud en z, el ángulo en grados va en pos+1
+	 */
+	static void samplePoint(SplittableRandom r, ComplexFan cf, double []z, int pos){
+		Interval mi = cf.getMagnitudeInterval();
+		AngleInterval ai = cf.getAngleInterval();
+		double a = mi.getFirstExtreme();
+		double b = mi.getSecondExtreme();
+		z[pos] = a+sample(r, mi)*(b-a);
+		double fe = ai.getFirstExtreme();
+		double se = ai.getSecondExtreme();
+		z[pos+1] = fe+sample(r, ai)*(fe<=se ? se-fe : se-fe+360.0d);
+	}
+
+	/**
+	 * Función para tomar una posición relativa dentro de un intervalo.
+	 * @param r el generador
+	 * @param in el intervalo
+	 * @return 0 o 1 para un extremo cerrado, o un valor en (0, 1)
+	 */
+	private static double sample(SplittableRandom r, Interval in){
+		int k = r.nextInt(8);
+		if (k==0 && in.getFEincluded()=='['){
+			return 0.0d;
+		}
+		if (k==1 && in.getSEincluded()==']'){
+			return 1.0d;
+		}
+		double t = r.nextDouble();
+		return t==0.0d ? 0.5d : t;
+	}
+
+	/**
+	 * Función para saber si un abanico complejo contiene a un punto, con tolerancia. Los
+	lı́mites abiertos se tratan como cerrados, la tolerancia es mucho mayor que la diferencia.
+	 * @param cf el abanico complejo
+	 * @param mod la magnitud del punto
+	 * @param theta el ángulo del punto en grados, en cualquier vuelta
+	 * @param tolerance la tolerancia relativa
+	 * @return true si el punto está en el abanico complejo o a menos de la tolerancia
+	 */
+	static boolean encloses(ComplexFan cf, double mod, double theta, double tolerance){
+		Interval mi = cf.getMagnitudeInterval();
+		AngleInterval ai = cf.getAngleInterval();
+		double slack = tolerance*Math.max(1.0d, Math.max(mod, mi.getSecondExtreme()));
+		if (mod<mi.getFirstExtreme()-slack || mod>mi.getSecondExtreme()+slack){
+			return false;
+		}
+		if (mod<=slack || ai.VerifyCase0to360()){
+			return true;
+		}
+		double fe = ai.getFirstExtreme();
+		double se = ai.getSecondExtreme();
+		double width = fe<=se ? se-fe : se-fe+360.0d;
+		double angleSlack = Math.toDegrees(slack/mod)+tolerance;
+		double offset = AngleInterval.modulo360(theta-fe);
+		return offset<=width+angleSlack || offset>=360.0d-angleSlack;
+	}
+
+	/**
+	 * Función para obtener el número de puntos verificados de una operación.
+	 * @param op la operación, ADDITION, SUBTRACTION, PRODUCT o DIVISION
+	 * @return el número de puntos
+	 */
+	public long getChecked(int op){
+		return checked[op].sum();
+	}
+
+	/**
+	 * Función para obtener el número de violaciones de una operación.
+	 * @param op la operación, ADDITION, SUBTRACTION, PRODUCT o DIVISION
+	 * @return el número de puntos fuera del resultado
+	 */
+	public long getViolations(int op){
+		return violations[op].sum();
+	}
+
+	/**
+	 * Función para obtener el número total de violaciones.
+	 * @return el número de puntos fuera del resultado en todas las operaciones
+	 */
+	public long getViolations(){
+		long total = 0;
+		for (int op=0; op<OPERATIONS.length; op++){
+			total += getViolations(op);
+		}
+		return total;
+	}
+
+	/**
+	 * Función para obtener el número total de puntos verificados.
+	 * @return el número de puntos en todas las operaciones
+	 */
+	public long getSamples(){
+		long total = 0;
+		for (int op=0; op<OPERATIONS.length; op++){
+			total += getChecked(op);
+		}
+		return total;
+	}
+
+	/**
+	 * Función para obtener el tiempo de la última verificación.
+	 * @return el tiempo en nanosegundos
+	 */
+	public long getElapsedNanos(){
+		return elapsed;
+	}
+
+	/**
+	 * Función para obtener la velocidad de la última verificación.
+	 * @return el número de puntos verificados por segundo
+	 */
+	public double getSamplesPerSecond(){
+		return elapsed==0 ? 0.0d : getSamples()*1e9/elapsed;
+	}
+
+	/**
+	 * Función para obtener algunas de las violaciones, en el orden en que se encontraron.
+	 * @return la descripción de cada violación guardada
+	 */
+	public List<String> getExamples(){
+		return new ArrayList<>(examples);
+	}
+
+	/**
+	 * Esto calcula la cadena de caracteres con el resumen de la última verificación: los
+	puntos y las violaciones de cada operación y la velocidad.
+	 * @return el resumen
+	 */
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		for (int op=0; op<OPERATIONS.length; op++){
+			sb.append(String.format("%-12s %12d puntos %10d violaciones%n", OPERATIONS[op], getChecked(op), getViolations(op)));
+		}
+		sb.append(String.format("%d pares, %.3f s, %.0f puntos/s", pairs, elapsed/1e9, getSamplesPerSecond()));
+		return sb.toString();
+	}
+}
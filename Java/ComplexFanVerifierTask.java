@@ -0,0 +1,44 @@
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tarea para verificar una parte de los pares de operandos de un ComplexFanVerifier sobre un
+ForkJoinPool. La parte se divide a la mitad hasta tener a lo más leafPairs pares; cada par usa
+su propio generador y los contadores del verificador son LongAdder, ası́ que las hojas no se
+sincronizan.
+ * @author Manuel Cipriano
+ */
+
+class ComplexFanVerifierTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	private final ComplexFanVerifier verifier;	// el verificador
+	private final int from;						// el primer par de la parte (incluido)
+	private final int to;						// el último par de la parte (excluido)
+	private final int leafPairs;				// el tamaño máximo de una hoja
+
+	/**
+	 * Constructor que inicializa la tarea para verificar una parte de los pares.
+	 * @param verifier el verificador
+	 * @param from el primer par de la parte (incluido)
+	 * @param to el último par de la parte (excluido)
+	 * @param leafPairs el tamaño máximo de una hoja, al menos 1
+	 */
+	ComplexFanVerifierTask(ComplexFanVerifier verifier, int from, int to, int leafPairs){
+		this.verifier = verifier;
+		this.from = from;
+		this.to = to;
+		this.leafPairs = Math.max(1, leafPairs);
+	}
+
+	/**
+	 * Función que verifica los pares de la parte.
+	 */
+	@Override
+	protected void compute(){
+		if (to-from<=leafPairs){
+			verifier.verifyPairs(from, to);
+			return;
+		}
+		int mid = (from+to)>>>1;
+		invokeAll(new ComplexFanVerifierTask(verifier, from, mid, leafPairs), new ComplexFanVerifierTask(verifier, mid, to, leafPairs));
+	}
+}
@@ -0,0 +1,396 @@
+/**
+ * Esta clase modela un intervalo inmutable. A diferencia de Interval, los lı́mites de los
+dos extremos se guardan empaquetados en un solo campo de bits y ninguna función modifica al
+intervalo, por lo que no es necesario copiarlo antes de usarlo. Las operaciones son funciones
+estáticas; las que regresan un intervalo crean objetos pequeños que el compilador JIT puede
+eliminar, y las que sólo verifican si un resultado es vacı́o trabajan con los extremos y no
+crean ningún objeto.
+ * @author Manuel Cipriano
+ */
+
+public class ImmutableInterval {
+	public static final int FE_CLOSED = 1;		// el primer extremo es ‘[’
+	public static final int SE_CLOSED = 2;		// el segundo extremo es ‘]’
+	public static final int CLOSED = FE_CLOSED|SE_CLOSED;
+	public static final int OPEN = 0;
+
+	public static final ImmutableInterval EMPTY = new ImmutableInterval(0.0d, 0.0d, OPEN);
+
+	private final double firstExtreme;		// el primer extremo del intervalo
+	private final double secondExtreme;		// el segundo extremo del intervalo
+	private final byte bounds;				// los lı́mites de los dos extremos
+
+	/**
+	 * Constructor que inicializa un intervalo con los valores recibidos para sus atributos.
+	 * @param fe el valor del primer extremo
+	 * @param se el valor del segundo extremo
+	 * @param bounds los lı́mites empaquetados, combinación de FE_CLOSED y SE_CLOSED
+	 */
+	public ImmutableInterval(double fe, double se, int bounds){
+		firstExtreme = fe;
+		secondExtreme = se;
+		this.bounds = (byte)(bounds&CLOSED);
+	}
+
+	/**
+	 * Constructor que inicializa un intervalo con los valores recibidos para sus atributos,
+	con los lı́mites como caracteres.
+	 * @param fei el lı́mite del primer extremo
+	 * @param fe el valor del primer extremo
+	 * @param se el valor del segundo extremo
+	 * @param sei el lı́mite del segundo extremo
+	 */
+	public ImmutableInterval(char fei, double fe, double se, char sei){
+		this(fe, se, bounds(fei, sei));
+	}
+
+	/**
+	 * Constructor para inicializar un intervalo inmutable a partir de un intervalo.
+	 * @param in el intervalo a copiar
+	 */
+	public ImmutableInterval(Interval in){
+		this(in.getFirstExtreme(), in.getSecondExtreme(), bounds(in));
+	}
+
+	/**
+	 * Función para empaquetar los lı́mites de un intervalo.
+	 * @param fei el lı́mite del primer extremo
+	 * @param sei el lı́mite del segundo extremo
+	 * @return los lı́mites empaquetados
+	 */
+	public static int bounds(char fei, char sei){
+		return (fei=='['?FE_CLOSED:0)|(sei==']'?SE_CLOSED:0);
+	}
+
+	/**
+	 * Función para empaquetar los lı́mites de un intervalo.
+	 * @param in el intervalo
+	 * @return los lı́mites empaquetados
+	 */
+	public static int bounds(Interval in){
+		return bounds(in.getFEincluded(), in.getSEincluded());
+	}
+
+	/**
+	 * Función para obtener el valor del primer extremo.
+	 * @return el valor del primer extremo
+	 */
+	public double getFirstExtreme(){
+		return firstExtreme;
+	}
+
+	/**
+	 * Función para obtener el valor del segundo extremo.
+	 * @return el valor del segundo extremo
+	 */
+	public double getSecondExtreme(){
+		return secondExtreme;
+	}
+
+	/**
+	 * Función para obtener los lı́mites empaquetados.
+	 * @return los lı́mites empaquetados
+	 */
+	public int getBounds(){
+		return bounds;
+	}
+
+	/**
+	 * Función para obtener el lı́mite del primer extremo, es decir, regresa ‘(’ o ‘[’.
+	 * @return el lı́mite del primer extremo
+	 */
+	public char getFEincluded(){
+		return (bounds&FE_CLOSED)!=0?'[':'(';
+	}
+
+	/**
+	 * Función para obtener el lı́mite del segundo extremo, es decir, regresa ‘)’ o ‘]’.
+	 * @return el lı́mite del segundo extremo
+	 */
+	public char getSEincluded(){
+		return (bounds&SE_CLOSED)!=0?']':')';
+	}
+
+	/**
+	 * Función para obtener un Interval con los mismos valores.
+	 * @return un nuevo intervalo
+	 */
+	public Interval toInterval(){
+		return new Interval(firstExtreme, secondExtreme, getFEincluded(), getSEincluded());
+	}
+
+	/**
+	 * Función para verificar si un intervalo esta vacı́o.
+	 * @return si el intervalo es vacı́o
+	 */
+	public boolean isEmpty(){
+		return isEmpty(firstExtreme, secondExtreme, bounds);
+	}
+
+	/**
+	 * Función para verificar si un intervalo dado por sus extremos esta vacı́o, con el mismo
+	criterio que Interval.isEmpty.
+	 * @param fe el primer extremo
+	 * @param se el segundo extremo
+	 * @param bounds los lı́mites empaquetados
+	 * @return si el intervalo es vacı́o
+	 */
+	public static boolean isEmpty(double fe, double se, int bounds){
+		return fe==se && (bounds&CLOSED)!=CLOSED;
+	}
+
+	/**
+	 * Función para normalizar un intervalo, es decir, que el primer extremo sea menor o
+	igual que el segundo extremo.
+	 * @param in el intervalo a normalizar
+	 * @return el intervalo normalizado
+	 */
+	public static ImmutableInterval normalize(ImmutableInterval in){
+		if (in.firstExtreme>in.secondExtreme){
+			return new ImmutableInterval(in.secondExtreme, in.firstExtreme, swap(in.bounds));
+		}
+		return in;
+	}
+
+	/**
+	 * Función para multiplicar un intervalo por una constante, con el mismo criterio que
+	Interval.byConstant.
+	 * @param in el intervalo
+	 * @param k el factor constante
+	 * @return el resultado del producto
+	 */
+	public static ImmutableInterval byConstant(ImmutableInterval in, double k){
+		if (k<0){
+			return new ImmutableInterval(k*in.secondExtreme, k*in.firstExtreme, in.bounds);
+		}
+		return new ImmutableInterval(k*in.firstExtreme, k*in.secondExtreme, in.bounds);
+	}
+
+	/**
+	 * Función para calcular la negación de un intervalo.
+	 * @param in el intervalo a negar
+	 * @return el resultado de la negación
+	 */
+	public static ImmutableInterval negation(ImmutableInterval in){
+		return new ImmutableInterval(-in.secondExtreme, -in.firstExtreme, swap(in.bounds));
+	}
+
+	/**
+	 * Función para sumar dos intervalos.
+	 * @param in1 el primer intervalo de la suma
+	 * @param in2 el segundo intervalo de la suma
+	 * @return el resultado de la suma
+	 */
+	public static ImmutableInterval addition(ImmutableInterval in1, ImmutableInterval in2){
+		return new ImmutableInterval(in1.firstExtreme+in2.firstExtreme, in1.secondExtreme+in2.secondExtreme, in1.bounds&in2.bounds);
+	}
+
+	/**
+	 * Función para restar dos intervalos.
+	 * @param in1 el primer intervalo para la resta
+	 * @param in2 el segundo intervalo para la resta
+	 * @return el resultado de la resta
+	 */
+	public static ImmutableInterval subtraction(ImmutableInterval in1, ImmutableInterval in2){
+		return new ImmutableInterval(in1.firstExtreme-in2.secondExtreme, in1.secondExtreme-in2.firstExtreme, in1.bounds&swap(in2.bounds));
+	}
+
+	/**
+	 * Función para calcular la intersección de dos intervalos, con el mismo resultado que
+	Interval.intersection.
+	 * @param in1 el primer intervalo para la intersección
+	 * @param in2 el segundo intervalo para la intersección
+	 * @return el resultado de la intersección
+	 */
+	public static ImmutableInterval intersection(ImmutableInterval in1, ImmutableInterval in2){
+		double a = in1.firstExtreme;
+		double b = in1.secondExtreme;
+		double c = in2.firstExtreme;
+		double d = in2.secondExtreme;
+		int f1 = in1.bounds;
+		int f2 = in2.bounds;
+		if (a==c && b==d){
+			if (a==b){
+				return (f1&f2)==CLOSED?in1:EMPTY;
+			}else{
+				return new ImmutableInterval(a, b, f1&f2);
+			}
+		}else if (a<c && b<=c){
+			if (b==c && (f1&SE_CLOSED)!=0 && (f2&FE_CLOSED)!=0){
+				return new ImmutableInterval(b, b, CLOSED);
+			}else{
+				return EMPTY;
+			}
+		}else if (a<=c && b<d){
+			if (a==c){
+				return new ImmutableInterval(a, b, (f1&f2&FE_CLOSED)|(f1&SE_CLOSED));
+			}else{
+				return new ImmutableInterval(c, b, (f2&FE_CLOSED)|(f1&SE_CLOSED));
+			}
+		}else if (a<c && b==d){
+			return new ImmutableInterval(c, b, (f2&FE_CLOSED)|(f1&f2&SE_CLOSED));
+		}else if (a<=c && b>d){
+			if (a==c){
+				return new ImmutableInterval(a, d, (f1&f2&FE_CLOSED)|(f2&SE_CLOSED));
+			}else{
+				return in2;
+			}
+		}else if (a>c && b<=d){
+			if (b==d){
+				return new ImmutableInterval(a, b, (f1&FE_CLOSED)|(f1&f2&SE_CLOSED));
+			}else{
+				return in1;
+			}
+		}else if (a<=d && b>d){
+			if (a==d){
+				if ((f1&FE_CLOSED)!=0 && (f2&SE_CLOSED)!=0){
+					return new ImmutableInterval(a, a, CLOSED);
+				}else{
+					return EMPTY;
+				}
+			}else{
+				return new ImmutableInterval(a, d, (f1&FE_CLOSED)|(f2&SE_CLOSED));
+			}
+		}else{
+			return EMPTY;
+		}
+	}
+
+	/**
+	 * Función para verificar si la intersección de dos intervalos dados por sus extremos es
+	vacı́a, sin crear ningún objeto. Es equivalente a Interval.intersection(in1, in2).isEmpty().
+	 * @param a el primer extremo del primer intervalo
+	 * @param b el segundo extremo del primer intervalo
+	 * @param f1 los lı́mites empaquetados del primer intervalo
+	 * @param c el primer extremo del segundo intervalo
+	 * @param d el segundo extremo del segundo intervalo
+	 * @param f2 los lı́mites empaquetados del segundo intervalo
+	 * @return si la intersección es vacı́a
+	 */
+	public static boolean intersectionIsEmpty(double a, double b, int f1, double c, double d, int f2){
+		if (a==c && b==d){
+			return a==b && (f1&f2&CLOSED)!=CLOSED;
+		}else if (a<c && b<=c){
+			return !(b==c && (f1&SE_CLOSED)!=0 && (f2&FE_CLOSED)!=0);
+		}else if (a<=c && b<d){
+			if (a==c){
+				return isEmpty(a, b, (f1&f2&FE_CLOSED)|(f1&SE_CLOSED));
+			}else{
+				return isEmpty(c, b, (f2&FE_CLOSED)|(f1&SE_CLOSED));
+			}
+		}else if (a<c && b==d){
+			return isEmpty(c, b, (f2&FE_CLOSED)|(f1&f2&SE_CLOSED));
+		}else if (a<=c && b>d){
+			if (a==c){
+				return isEmpty(a, d, (f1&f2&FE_CLOSED)|(f2&SE_CLOSED));
+			}else{
+				return isEmpty(c, d, f2);
+			}
+		}else if (a>c && b<=d){
+			if (b==d){
+				return isEmpty(a, b, (f1&FE_CLOSED)|(f1&f2&SE_CLOSED));
+			}else{
+				return isEmpty(a, b, f1);
+			}
+		}else if (a<=d && b>d){
+			if (a==d){
+				return !((f1&FE_CLOSED)!=0 && (f2&SE_CLOSED)!=0);
+			}else{
+				return isEmpty(a, d, (f1&FE_CLOSED)|(f2&SE_CLOSED));
+			}
+		}else{
+			return true;
+		}
+	}
+
+	/**
+	 * Función para verificar si la intersección de dos intervalos es vacı́a, sin crear ningún
+	objeto.
+	 * @param in1 el primer intervalo
+	 * @param in2 el segundo intervalo
+	 * @return si la intersección es vacı́a
+	 */
+	public static boolean intersectionIsEmpty(Interval in1, Interval in2){
+		return intersectionIsEmpty(in1.getFirstExtreme(), in1.getSecondExtreme(), bounds(in1), in2.getFirstExtreme(), in2.getSecondExtreme(), bounds(in2));
+	}
+
+	/**
+	 * Función para verificar si un intervalo normalizado contiene a otro, dados por sus
+	extremos, sin crear ningún objeto. Un intervalo vacı́o está contenido en cualquiera.
+	 * @param a el primer extremo del contenedor
+	 * @param b el segundo extremo del contenedor
+	 * @param f1 los lı́mites empaquetados del contenedor
+	 * @param c el primer extremo del contenido
+	 * @param d el segundo extremo del contenido
+	 * @param f2 los lı́mites empaquetados del contenido
+	 * @return si el primer intervalo contiene al segundo
+	 */
+	public static boolean contains(double a, double b, int f1, double c, double d, int f2){
+		if (isEmpty(c, d, f2)){
+			return true;
+		}
+		return (c>a || (c==a && ((f1&FE_CLOSED)!=0 || (f2&FE_CLOSED)==0)))
+			&& (d<b || (d==b && ((f1&SE_CLOSED)!=0 || (f2&SE_CLOSED)==0)));
+	}
+
+	/**
+	 * Función para calcular la unión de dos intervalos, con el mismo resultado que
+	Interval.union, es decir, si no hay intersección regresa un intervalo vacı́o.
+	 * @param in1 el primer intervalo para la unión
+	 * @param in2 el segundo intervalo para la unión
+	 * @return el resultado de la unión de intervalos
+	 */
+	public static ImmutableInterval union(ImmutableInterval in1, ImmutableInterval in2){
+		double a = in1.firstExtreme;
+		double b = in1.secondExtreme;
+		double c = in2.firstExtreme;
+		double d = in2.secondExtreme;
+		if (intersectionIsEmpty(a, b, in1.bounds, c, d, in2.bounds))
+			return EMPTY;
+		double fe, se;
+		int fb, sb;
+		if (a<c){
+			fe = a;
+			fb = in1.bounds&FE_CLOSED;
+		}
+		else if (a>c){
+			fe = c;
+			fb = in2.bounds&FE_CLOSED;
+		}
+		else{
+			fe = a;
+			fb = in1.bounds&in2.bounds&FE_CLOSED;
+		}
+		if (d<b){
+			se = b;
+			sb = in1.bounds&SE_CLOSED;
+		}
+		else if (d>b){
+			se = d;
+			sb = in2.bounds&SE_CLOSED;
+		}
+		else{
+			se = b;
+			sb = in1.bounds&in2.bounds&SE_CLOSED;
+		}
+		return new ImmutableInterval(fe, se, fb|sb);
+	}
+
+	/**
+	 * Función para intercambiar los lı́mites de los dos extremos.
+	 * @param bounds los lı́mites empaquetados
+	 * @return los lı́mites intercambiados
+	 */
+	static int swap(int bounds){
+		return ((bounds&FE_CLOSED)<<1)|((bounds&SE_CLOSED)>>1);
+	}
+
+	/**
+	 * Función que regresa la representación de un intervalo en cadena de caracteres.
+	 * @return la cadena de caracteres que representa el intervalo
+	 */
+	@Override
+	public String toString(){
+		return ""+getFEincluded()+firstExtreme+","+secondExtreme+getSEincluded();
+	}
+}
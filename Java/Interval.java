@@ -1,3 +1,6 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
 /**
  * Esta clase se ha implementado para modelar un intervalo, implementa atributos, métodos
 y funciones para su manejo. Cabe mencionar que esta clase también sirve para modelar un
@@ -12,6 +15,15 @@ public class Interval {
 	private double secondExtreme;		// el segundo extremo del intervalo
 	private char feIncluded;			// el lı́mite para el primer extremo del intervalo
 	private char seIncluded;			// el lı́mite para el segundo extremo del intervalo
+
+	// orden de unionAll: por primer extremo y, en empate, primero el extremo incluido
+	private static final Comparator<Interval> UNION_ORDER = (in1, in2) -> {
+		int c = Double.compare(in1.firstExtreme, in2.firstExtreme);
+		if (c!=0){
+			return c;
+		}
+		return in1.feIncluded==in2.feIncluded?0:(in1.feIncluded=='['?-1:1);
+	};
     
 	/**
 	 * Constructor que inicializa un intervalo de magnitud vacı́o, es decir, (0, 0).
@@ -180,7 +192,7 @@ sea menor o igual que el segundo extremo.
 	 * @return el resultado de la unión de intervalos
 	 */
 	public static Interval union(Interval in1, Interval in2){
-		if (Interval.intersection(in1, in2).isEmpty())
+		if (ImmutableInterval.intersectionIsEmpty(in1, in2))
 			return new Interval();
 		double a = in1.getFirstExtreme();
 		double b = in1.getSecondExtreme();
@@ -219,6 +231,56 @@ sea menor o igual que el segundo extremo.
 		return new Interval(fe,se,fei,sei);
 	}
     
+	/**
+	 * Función para calcular la unión de un arreglo de intervalos. Ordena los intervalos por
+	su primer extremo y los recorre una sola vez, uniendo cada intervalo con el anterior si se
+	traslapan o si se tocan en un extremo incluido en alguno de los dos, por ejemplo [1,2) y
+	[2,3] se unen pero [1,2) y (2,3] no. Cuando dos intervalos tienen el mismo extremo, el
+	resultado incluye ese extremo si alguno de los dos lo incluye. Los intervalos vacı́os se
+	ignoran y los intervalos no normalizados se normalizan antes de unirlos.
+	 * @param ins el arreglo de intervalos a unir
+	 * @return los intervalos disjuntos que forman la unión, ordenados de menor a mayor; un
+	arreglo vacı́o si todos los intervalos son vacı́os
+	 */
+	public static Interval[] unionAll(Interval []ins){
+		Interval []sorted = new Interval[ins.length];
+		int n = 0;
+		for (Interval in : ins){
+			if (!in.isEmpty()){
+				if (in.firstExtreme>in.secondExtreme){
+					in = new Interval(in);
+					in.normalize();
+				}
+				sorted[n++] = in;
+			}
+		}
+		Arrays.sort(sorted, 0, n, UNION_ORDER);
+		Interval []res = new Interval[n];
+		int m = 0;
+		int i = 0;
+		while (i<n){
+			double fe = sorted[i].firstExtreme;
+			double se = sorted[i].secondExtreme;
+			char fei = sorted[i].feIncluded;
+			char sei = sorted[i].seIncluded;
+			for (i++; i<n; i++){
+				Interval in = sorted[i];
+				if (in.firstExtreme>se || (in.firstExtreme==se && sei!=']' && in.feIncluded!='[')){
+					break;
+				}
+				if (in.secondExtreme>se){
+					se = in.secondExtreme;
+					sei = in.seIncluded;
+				}
+				else if (in.secondExtreme==se && in.seIncluded==']'){
+					sei = ']';
+				}
+			}
+			res[m++] = new Interval(fe, se, fei, sei);
+		}
+		return m==n?res:Arrays.copyOf(res, m);
+	}
+
 	/**
 	 * Función para calcular la intersección de dos intervalos.
 	 * @param in1 el primer intervalo para la intersección
@@ -0,0 +1,209 @@
+/**
+ * Esta clase codifica en un entero la forma en que un intervalo de ángulo (normalizado) se
+parte en los cuadrantes del plano cartesiano: una máscara de 4 bits con los cuadrantes que
+toca, el cuadrante de la primera parte y el número de partes (de 1 a 5, cinco cuando el
+intervalo cruza los 0 grados y empieza y termina en el mismo cuadrante). Los extremos de cada
+parte se obtienen a partir del código y de los extremos del intervalo: la primera parte empieza
+en el primer extremo, la última termina en el segundo extremo y las demás son cuadrantes
+completos, de modo que partir un intervalo no crea ningún objeto.
+ * @author Manuel Cipriano
+ */
+
+public final class QuadrantMask {
+	public static final int EMPTY = 0;		// el código de un intervalo sin partes
+	public static final int FULL = 15;		// la máscara de los cuatro cuadrantes
+	private static final int MASK = 15;		// los bits de la máscara
+	private static final int FIRST_SHIFT = 4;	// la posición del cuadrante de la primera parte
+	private static final int COUNT_SHIFT = 6;	// la posición del número de partes
+
+	private QuadrantMask(){
+	}
+
+	/**
+	 * Función para codificar las partes de un intervalo de ángulo normalizado.
+	 * @param ai el intervalo de ángulo
+	 * @return el código de las partes, EMPTY si el intervalo no tiene partes
+	 */
+	public static int encode(AngleInterval ai){
+		return encode(ai.getFirstExtreme(), ai.getSecondExtreme(), ai.getFEincluded(), ai.getSEincluded());
+	}
+
+	/**
+	 * Función para codificar las partes de un intervalo de ángulo normalizado dado por sus
+	extremos. Un segundo extremo cerrado sobre el eje de un cuadrante agrega una parte puntual
+	en ese eje; uno abierto termina la última parte en el cuadrante anterior.
+	 * @param fe el primer extremo
+	 * @param se el segundo extremo
+	 * @param fei el lı́mite del primer extremo
+	 * @param sei el lı́mite del segundo extremo
+	 * @return el código de las partes, EMPTY si el intervalo no tiene partes
+	 */
+	public static int encode(double fe, double se, char fei, char sei){
+		if (fe==se){
+			if (fei=='[' && sei==']'){
+				int q = fe>=360.0 ? 3 : (int)(fe/90.0);
+				return code(q, 1);
+			}
+			return EMPTY;
+		}
+		int first = (int)(fe/90.0);
+		int last;
+		if (se>=360.0){
+			last = 3;
+		}else{
+			last = (int)(se/90.0);
+			if (sei==')' && se==last*90.0){
+				last = (last+3)&3;
+			}
+		}
+		int count;
+		if (fe<se){
+			count = last-first+1;
+		}else{
+			count = last==first ? 5 : ((last-first)&3)+1;
+		}
+		return code(first, count);
+	}
+
+	/**
+	 * Función para armar el código a partir del primer cuadrante y el número de partes.
+	 * @param first el cuadrante de la primera parte, de 0 a 3
+	 * @param count el número de partes, de 1 a 5
+	 * @return el código de las partes
+	 */
+	private static int code(int first, int count){
+		int mask = 0;
+		for (int k=0; k<count && k<4; k++){
+			mask |= 1<<((first+k)&3);
+		}
+		return mask | first<<FIRST_SHIFT | count<<COUNT_SHIFT;
+	}
+
+	/**
+	 * Función para obtener la máscara de los cuadrantes que toca el intervalo, el bit q
+	corresponde al cuadrante de q*90 a (q+1)*90 grados.
+	 * @param code el código de las partes
+	 * @return la máscara de 4 bits
+	 */
+	public static int mask(int code){
+		return code&MASK;
+	}
+
+	/**
+	 * Función para obtener el cuadrante de la primera parte.
+	 * @param code el código de las partes
+	 * @return el cuadrante, de 0 a 3
+	 */
+	public static int first(int code){
+		return (code>>FIRST_SHIFT)&3;
+	}
+
+	/**
+	 * Función para obtener el número de partes.
+	 * @param code el código de las partes
+	 * @return el número de partes, 0 si el código es EMPTY
+	 */
+	public static int count(int code){
+		return code>>COUNT_SHIFT;
+	}
+
+	/**
+	 * Función para obtener el cuadrante de una parte.
+	 * @param code el código de las partes
+	 * @param k el número de parte
+	 * @return el cuadrante, de 0 a 3
+	 */
+	public static int quadrant(int code, int k){
+		return (first(code)+k)&3;
+	}
+
+	/**
+	 * Función para obtener el primer extremo de una parte.
+	 * @param code el código de las partes
+	 * @param k el número de parte
+	 * @param fe el primer extremo del intervalo
+	 * @return el primer extremo de la parte
+	 */
+	public static double firstExtreme(int code, int k, double fe){
+		return k==0 ? fe : quadrant(code, k)*90.0;
+	}
+
+	/**
+	 * Función para obtener el segundo extremo de una parte.
+	 * @param code el código de las partes
+	 * @param k el número de parte
+	 * @param se el segundo extremo del intervalo
+	 * @return el segundo extremo de la parte
+	 */
+	public static double secondExtreme(int code, int k, double se){
+		return k==count(code)-1 ? se : (quadrant(code, k)+1)*90.0;
+	}
+
+	/**
+	 * Función para obtener el lı́mite del primer extremo de una parte.
+	 * @param code el código de las partes
+	 * @param k el número de parte
+	 * @param fei el lı́mite del primer extremo del intervalo
+	 * @return el lı́mite del primer extremo de la parte
+	 */
+	public static char feIncluded(int code, int k, char fei){
+		return k==0 ? fei : '[';
+	}
+
+	/**
+	 * Función para obtener el lı́mite del segundo extremo de una parte.
+	 * @param code el código de las partes
+	 * @param k el número de parte
+	 * @param sei el lı́mite del segundo extremo del intervalo
+	 * @return el lı́mite del segundo extremo de la parte
+	 */
+	public static char seIncluded(int code, int k, char sei){
+		if (k==count(code)-1){
+			return sei;
+		}
+		return quadrant(code, k)==3 ? ']' : ')';
+	}
+
+	/**
+	 * Función para obtener una parte como intervalo de ángulo.
+	 * @param code el código de las partes
+	 * @param k el número de parte
+	 * @param ai el intervalo de ángulo
+	 * @return un nuevo intervalo de ángulo con la parte
+	 */
+	public static AngleInterval part(int code, int k, AngleInterval ai){
+		return new AngleInterval(firstExtreme(code, k, ai.getFirstExtreme()), secondExtreme(code, k, ai.getSecondExtreme()), feIncluded(code, k, ai.getFEincluded()), seIncluded(code, k, ai.getSEincluded()));
+	}
+
+	/**
+	 * Función para calcular la máscara de los cuadrantes que un intervalo de ángulo
+	normalizado cubre por completo, es decir, que contiene a [q*90, (q+1)*90).
+	 * @param fe el primer extremo
+	 * @param se el segundo extremo
+	 * @param fei el lı́mite del primer extremo
+	 * @param sei el lı́mite del segundo extremo
+	 * @return la máscara de 4 bits de los cuadrantes cubiertos
+	 */
+	public static int coverage(double fe, double se, char fei, char sei){
+		int code = encode(fe, se, fei, sei);
+		int n = count(code);
+		int covered = 0;
+		for (int k=0; k<n; k++){
+			int q = quadrant(code, k);
+			if (firstExtreme(code, k, fe)==q*90.0 && feIncluded(code, k, fei)=='[' && secondExtreme(code, k, se)==(q+1)*90.0){
+				covered |= 1<<q;
+			}
+		}
+		return covered;
+	}
+
+	/**
+	 * Función para calcular la máscara de los cuadrantes que un intervalo de ángulo
+	normalizado cubre por completo.
+	 * @param ai el intervalo de ángulo
+	 * @return la máscara de 4 bits de los cuadrantes cubiertos
+	 */
+	public static int coverage(AngleInterval ai){
+		return coverage(ai.getFirstExtreme(), ai.getSecondExtreme(), ai.getFEincluded(), ai.getSEincluded());
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Esta clase calcula el ángulo en grados, en [0, 360), de un vector del plano, con las mismas
+convenciones que usan los algoritmos de la suma de abanicos complejos: sobre los ejes el ángulo
+es exacto (0, 90, 180 o 270) y el vector cero tiene ángulo 0. En lugar de Math.atan usa una
+tabla y un polinomio: el cociente t = min(|x|, |y|)/max(|x|, |y|), que está en [0, 1], se acerca al punto más cercano
+de la tabla, ck = k/32, y atan(t) = atan(ck) + atan(u) con u = (t-ck)/(1+t ck), |u| <= 1/64;
+atan(u) se calcula con su serie de Taylor hasta u^7, cuyo residuo es a lo más u^9/9 < 3e-18.
+
+Sumando el redondeo del cociente, de la tabla, de la conversión a grados y de la resta o suma
+del cuadrante, el error es menor que ERROR grados. Las funciones lower y upper restan y suman
+esa cota, fuera de los ejes, para que los extremos de un intervalo de ángulo queden hacia
+afuera, sin salir de [0, 360]: un vector justo arriba del eje x positivo tiene ángulo mayor que
+0, ası́ que 0 es una cota inferior, y uno justo abajo tiene ángulo menor que 360. Si la cota
+cruzara el corte, normalize la llevarı́a al otro lado del cı́rculo y el intervalo de ángulo
+darı́a casi toda la vuelta en lugar de ensancharse un poco.
+ * @author Manuel Cipriano
+ */
+
+final class VectorAngle {
+	static final double ERROR = 2e-13;				// la cota en grados del error de degrees
+	private static final int STEPS = 32;			// el número de pasos de la tabla en [0, 1]
+	private static final double RAD_TO_DEG = 180.0d/Math.PI;	// el factor de radianes a grados
+	private static final double []ATAN = new double[STEPS+1];	// atan(k/32) en radianes
+
+	static {
+		for (int k=0; k<=STEPS; k++){
+			ATAN[k] = StrictMath.atan((double)k/STEPS);
+		}
+	}
+
+	private VectorAngle(){
+	}
+
+	/**
+	 * Función para calcular el ángulo de un vector.
+	 * @param x la componente en x del vector
+	 * @param y la componente en y del vector
+	 * @return el ángulo en grados, en [0, 360), con error menor que ERROR; 0 si alguna
+	componente no es un número
+	 */
+	static double degrees(double x, double y){
+		if (y==0){
+			return x<0 ? 180 : 0;
+		}
+		if (x==0){
+			return y>0 ? 90 : 270;
+		}
+		if (x!=x || y!=y){
+			return 0;
+		}
+		double ax = Math.abs(x);
+		double ay = Math.abs(y);
+		double theta = ay<=ax ? atanDegrees(ay/ax) : 90-atanDegrees(ax/ay);
+		if (x>0){
+			return y>0 ? theta : 360-theta;
+		}
+		return y>0 ? 180-theta : 180+theta;
+	}
+
+	/**
+	 * Función para calcular una cota inferior del ángulo de un vector, para el primer extremo
+	de un intervalo de ángulo.
+	 * @param x la componente en x del vector
+	 * @param y la componente en y del vector
+	 * @return el ángulo en grados menos ERROR y a lo menos 0, o el ángulo exacto sobre los ejes
+	 */
+	static double lower(double x, double y){
+		double theta = degrees(x, y);
+		return x==0 || y==0 ? theta : Math.max(0.0d, theta-ERROR);
+	}
+
+	/**
+	 * Función para calcular una cota superior del ángulo de un vector, para el segundo
+	extremo de un intervalo de ángulo.
+	 * @param x la componente en x del vector
+	 * @param y la componente en y del vector
+	 * @return el ángulo en grados más ERROR y a lo más 360, o el ángulo exacto sobre los ejes
+	 */
+	static double upper(double x, double y){
+		double theta = degrees(x, y);
+		return x==0 || y==0 ? theta : Math.min(360.0d, theta+ERROR);
+	}
+
+	/**
+	 * Función para calcular el arco tangente en grados de un valor en [0, 1].
+	 * @param t el valor
+	 * @return el arco tangente en grados
+	 */
+	private static double atanDegrees(double t){
+		int k = (int)(t*STEPS+0.5d);
+		double ck = (double)k/STEPS;
+		double u = (t-ck)/(1+t*ck);
+		double uu = u*u;
+		double p = u-u*uu*(1.0d/3-uu*(1.0d/5-uu*(1.0d/7)));
+		return (ATAN[k]+p)*RAD_TO_DEG;
+	}
+}
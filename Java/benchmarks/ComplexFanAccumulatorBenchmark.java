@@ -0,0 +1,131 @@
+import java.util.Random;
+
+/**
+ * Programa que compara sumar un flujo de abanicos complejos uno por uno con
+ComplexFan.addition contra ComplexFanAccumulator. Para varios anchos de ángulo mide el tiempo y
+los bytes de heap reservados por abanico complejo sumado, y verifica que ambas formas den el
+mismo resultado después de cada suma, sin simplificar y con una tolerancia de simplificación.
+
+	java -cp out ComplexFanAccumulatorBenchmark [abanicos] [repeticiones]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanAccumulatorBenchmark {
+	private static volatile Object sink;		// evita que el JIT elimine los resultados
+
+	/**
+	 * Función para generar abanicos complejos aleatorios con un ancho de ángulo dado.
+	 * @param n el número de abanicos complejos
+	 * @param width el ancho máximo del intervalo de ángulo en grados
+	 * @param seed la semilla del generador
+	 * @return el arreglo de abanicos complejos
+	 */
+	static ComplexFan[] randomFans(int n, double width, long seed){
+		Random r = new Random(seed);
+		ComplexFan []acf = new ComplexFan[n];
+		for (int i=0; i<n; i++){
+			double m = 0.5+r.nextDouble();
+			double alfa = r.nextDouble()*360;
+			acf[i] = new ComplexFan(new Interval(m, m+0.1*r.nextDouble(), '[', ']'), new AngleInterval(alfa, alfa+width*r.nextDouble(), '[', ']'));
+			acf[i].getAngleInterval().normalize();
+		}
+		return acf;
+	}
+
+	/**
+	 * Función para obtener los bytes reservados en el heap por el hilo actual.
+	 * @return los bytes reservados, o -1 si la máquina virtual no los informa
+	 */
+	static long allocatedBytes(){
+		java.lang.management.ThreadMXBean mx = java.lang.management.ManagementFactory.getThreadMXBean();
+		if (mx instanceof com.sun.management.ThreadMXBean){
+			return ((com.sun.management.ThreadMXBean)mx).getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	}
+
+	/**
+	 * Función para sumar los abanicos complejos con ComplexFan.addition.
+	 * @param acf los abanicos complejos
+	 * @param streams el número de flujos en que se divide el arreglo
+	 * @return la suma de cada flujo
+	 */
+	static ComplexFan[] chained(ComplexFan []acf, int streams){
+		ComplexFan []res = new ComplexFan[streams];
+		int len = acf.length/streams;
+		for (int s=0; s<streams; s++){
+			ComplexFan total = new ComplexFan(acf[s*len]);
+			for (int i=s*len+1; i<(s+1)*len; i++){
+				total = ComplexFan.addition(total, acf[i]);
+			}
+			res[s] = total;
+		}
+		return res;
+	}
+
+	/**
+	 * Función para sumar los abanicos complejos con ComplexFanAccumulator.
+	 * @param acf los abanicos complejos
+	 * @param streams el número de flujos en que se divide el arreglo
+	 * @return la suma de cada flujo
+	 */
+	static ComplexFan[] accumulated(ComplexFan []acf, int streams){
+		ComplexFan []res = new ComplexFan[streams];
+		int len = acf.length/streams;
+		ComplexFanAccumulator acc = new ComplexFanAccumulator();
+		for (int s=0; s<streams; s++){
+			acc.reset();
+			for (int i=s*len; i<(s+1)*len; i++){
+				acc.accumulate(acf[i]);
+			}
+			res[s] = acc.result();
+		}
+		return res;
+	}
+
+	/**
+	 * Función para verificar que el acumulador dé el mismo resultado que ComplexFan.addition
+	después de cada suma.
+	 * @param acf los abanicos complejos
+	 * @param tolerance la tolerancia de simplificación en grados
+	 * @return si todos los resultados son iguales
+	 */
+	static boolean sameAfterEachStep(ComplexFan []acf, double tolerance){
+		ComplexFanAccumulator acc = new ComplexFanAccumulator(tolerance);
+		ComplexFan total = null;
+		boolean same = true;
+		for (int i=0; i<acf.length; i++){
+			total = i==0 ? new ComplexFan(acf[0]) : ComplexFan.addition(total, acf[i], tolerance);
+			acc.accumulate(acf[i]);
+			same &= total.toString().equals(acc.result().toString());
+		}
+		return same && acc.getCount()==acf.length;
+	}
+
+	public static void main(String []args){
+		int n = args.length>0?Integer.parseInt(args[0]):20000;
+		int reps = args.length>1?Integer.parseInt(args[1]):5;
+		int streams = n/10;
+		System.out.printf("%-8s %14s %14s %8s %16s %16s %s%n", "ancho", "addition (ns)", "acumulador (ns)", "acel.", "addition (B)", "acumulador (B)", "iguales");
+		for (double width : new double[]{0, 10, 45, 120, 300}){
+			ComplexFan []acf = randomFans(n, width, 1);
+			double tAdd = Double.MAX_VALUE, tAcc = Double.MAX_VALUE;
+			for (int k=0; k<reps; k++){
+				long t0 = System.nanoTime();
+				sink = chained(acf, streams);
+				tAdd = Math.min(tAdd, (double)(System.nanoTime()-t0)/n);
+				t0 = System.nanoTime();
+				sink = accumulated(acf, streams);
+				tAcc = Math.min(tAcc, (double)(System.nanoTime()-t0)/n);
+			}
+			long b0 = allocatedBytes();
+			sink = chained(acf, streams);
+			long b1 = allocatedBytes();
+			sink = accumulated(acf, streams);
+			long b2 = allocatedBytes();
+			boolean same = sameAfterEachStep(java.util.Arrays.copyOf(acf, Math.min(n, 2000)), 0.0);
+			same &= sameAfterEachStep(java.util.Arrays.copyOf(acf, Math.min(n, 2000)), 1e-3);
+			System.out.printf("%-8.0f %14.0f %14.0f %8.2f %16.0f %16.0f %s%n", width, tAdd, tAcc, tAdd/tAcc, (double)(b1-b0)/n, (double)(b2-b1)/n, same?"si":"NO");
+		}
+	}
+}
@@ -0,0 +1,144 @@
+import java.util.Random;
+
+/**
+ * Programa que verifica la suma y la resta de ComplexFanBatch y falla con AssertionError si
+algo no se cumple. Sobre abanicos complejos aleatorios (con magnitudes que tocan al origen, el
+origen, puntos, casi puntos, cı́rculos completos, lı́mites abiertos y ángulos sobre los ejes) y
+sobre los operandos de ComplexFanBenchmark compara cada posición, bit a bit, contra
+ComplexFan.addition y ComplexFan.subtraction; también verifica que el resultado pueda ser uno
+de los operandos y que un par no válido lance IllegalArgumentException sin modificar el
+resultado. Maven lo corre en la fase test:
+
+	java -cp out ComplexFanBatchCheck [abanicos]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanBatchCheck {
+	private static final char []FE_LIMITS = {'[', '('};	// los lı́mites posibles del primer extremo
+	private static final char []SE_LIMITS = {']', ')'};	// los lı́mites posibles del segundo extremo
+
+	/**
+	 * Función para generar un abanico complejo aleatorio de alguna de las formas que la suma
+	trata por separado.
+	 * @param r el generador
+	 * @return el abanico complejo, con sus intervalos normalizados y sin partes vacı́as
+	 */
+	static ComplexFan randomFan(Random r){
+		int kind = r.nextInt(12);
+		double m = kind==0||kind==4 ? 0 : r.nextDouble()*3;
+		double mw = kind==1||kind==2||kind==4 ? 0 : r.nextDouble()*2;
+		double w = kind==1 ? 0 : kind==2 ? 1e-12 : r.nextDouble()*(r.nextBoolean()?20:360);
+		double alfa = r.nextInt(8)==0 ? 90*r.nextInt(4) : r.nextDouble()*360;
+		Interval mi = new Interval(m, m+mw, FE_LIMITS[r.nextInt(2)], SE_LIMITS[r.nextInt(2)]);
+		AngleInterval ai = kind==3 ? new AngleInterval(0, 360, '[', ']') : new AngleInterval(alfa, alfa+w, r.nextInt(4)==0?'(':'[', r.nextInt(4)==0?')':']');
+		ai.normalize();
+		if (mi.getFirstExtreme()==mi.getSecondExtreme()){
+			mi.setFEincluded('[');
+			mi.setSEincluded(']');
+		}
+		if (ai.getFirstExtreme()==ai.getSecondExtreme()){
+			ai.setFEincluded('[');
+			ai.setSEincluded(']');
+		}
+		return new ComplexFan(mi, ai);
+	}
+
+	/**
+	 * Función para verificar que cada posición de un lote sea, bit a bit, el abanico complejo
+	esperado.
+	 * @param op el nombre de la operación, para el mensaje
+	 * @param res el lote calculado
+	 * @param expected los abanicos complejos esperados
+	 * @param x los primeros operandos, para el mensaje
+	 * @param y los segundos operandos, para el mensaje
+	 * @throws AssertionError si alguna posición es distinta
+	 */
+	static void checkSame(String op, ComplexFanBatch res, ComplexFan []expected, ComplexFan []x, ComplexFan []y){
+		ComplexFanBatch e = new ComplexFanBatch(expected);
+		for (int i=0; i<res.size(); i++){
+			boolean same = Double.doubleToRawLongBits(e.getMagnitudeFirstExtreme(i))==Double.doubleToRawLongBits(res.getMagnitudeFirstExtreme(i))
+				&& Double.doubleToRawLongBits(e.getMagnitudeSecondExtreme(i))==Double.doubleToRawLongBits(res.getMagnitudeSecondExtreme(i))
+				&& Double.doubleToRawLongBits(e.getAngleFirstExtreme(i))==Double.doubleToRawLongBits(res.getAngleFirstExtreme(i))
+				&& Double.doubleToRawLongBits(e.getAngleSecondExtreme(i))==Double.doubleToRawLongBits(res.getAngleSecondExtreme(i))
+				&& e.getFlags(i)==res.getFlags(i);
+			if (!same){
+				throw new AssertionError(op+" de "+x[i]+" y "+y[i]+": ComplexFan da "+expected[i]+" y ComplexFanBatch da "+res.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Función para verificar la suma y la resta de dos arreglos de operandos.
+	 * @param x los primeros operandos
+	 * @param y los segundos operandos
+	 * @throws AssertionError si algún resultado es distinto
+	 */
+	static void check(ComplexFan []x, ComplexFan []y){
+		int n = x.length;
+		ComplexFan []sum = new ComplexFan[n];
+		ComplexFan []difference = new ComplexFan[n];
+		for (int i=0; i<n; i++){
+			sum[i] = ComplexFan.addition(x[i], y[i]);
+			difference[i] = ComplexFan.subtraction(x[i], y[i]);
+		}
+		ComplexFanBatch bx = new ComplexFanBatch(x);
+		ComplexFanBatch by = new ComplexFanBatch(y);
+		ComplexFanBatch res = new ComplexFanBatch(n);
+		ComplexFanBatch.addition(bx, by, res);
+		checkSame("addition", res, sum, x, y);
+		ComplexFanBatch.subtraction(bx, by, res);
+		checkSame("subtraction", res, difference, x, y);
+		ComplexFanBatch.addition(bx, by, bx);
+		checkSame("addition sobre b1", bx, sum, x, y);
+		bx = new ComplexFanBatch(x);
+		ComplexFanBatch.subtraction(bx, by, by);
+		checkSame("subtraction sobre b2", by, difference, x, y);
+	}
+
+	/**
+	 * Función para verificar que un par no válido lance IllegalArgumentException antes de
+	escribir el resultado.
+	 * @throws AssertionError si no se lanza la excepción o si el resultado cambia
+	 */
+	static void checkInvalid(){
+		ComplexFan cf = new ComplexFan(new Interval(1, 2, '[', ']'), new AngleInterval(10, 40, '[', ']'));
+		ComplexFan empty = new ComplexFan(new Interval(1, 2, '[', ']'), new AngleInterval(30, 30, '(', ')'));
+		ComplexFanBatch b1 = new ComplexFanBatch(new ComplexFan[]{cf, cf});
+		ComplexFanBatch b2 = new ComplexFanBatch(new ComplexFan[]{cf, empty});
+		ComplexFanBatch res = new ComplexFanBatch(new ComplexFan[]{empty, empty});
+		String before = res.toString();
+		try {
+			ComplexFanBatch.addition(b1, b2, res);
+			throw new AssertionError("addition no rechazó un intervalo de ángulo vacı́o");
+		} catch (IllegalArgumentException e){
+			if (!res.toString().equals(before)){
+				throw new AssertionError("addition modificó el resultado antes de rechazar el par", e);
+			}
+		}
+	}
+
+	public static void main(String []args){
+		int n = args.length>0?Integer.parseInt(args[0]):100000;
+		Random r = new Random(1);
+		ComplexFan []x = new ComplexFan[n];
+		ComplexFan []y = new ComplexFan[n];
+		for (int i=0; i<n; i++){
+			x[i] = randomFan(r);
+			y[i] = r.nextInt(20)==0 ? new ComplexFan(x[i]) : randomFan(r);
+		}
+		check(x, y);
+		check(y, x);
+		ComplexFanBenchmark.FanSet []sets = ComplexFanBenchmark.fanSets();
+		ComplexFan []sx = new ComplexFan[2*sets.length];
+		ComplexFan []sy = new ComplexFan[2*sets.length];
+		for (int i=0; i<sets.length; i++){
+			sx[2*i] = sets[i].cf1;
+			sy[2*i] = sets[i].cf2;
+			sx[2*i+1] = sets[i].cf2;
+			sy[2*i+1] = sets[i].cf1;
+		}
+		check(sx, sy);
+		checkInvalid();
+		System.out.printf("ComplexFanBatch: %d sumas y %d restas iguales a ComplexFan%n", 2*n+sx.length, 2*n+sx.length);
+	}
+}
@@ -0,0 +1,151 @@
+import java.util.Random;
+
+/**
+ * Programa que compara las operaciones de ComplexFanBatch con la Vector API contra los ciclos
+escalares. Para cada tamaño de lote mide el tiempo por abanico complejo de la negación, el
+producto y la división en ambos modos, y verifica que los resultados sean idénticos bit a bit,
+incluyendo lotes sin normalizar (magnitudes invertidas y ángulos fuera de [0, 360]). Sin la
+Vector API sólo se miden los ciclos escalares.
+
+	javac -d out Java/*.java Java/benchmarks/*.java
+	javac --add-modules jdk.incubator.vector -cp out -d out Java/vector/ComplexFanBatchVector.java
+	java --add-modules jdk.incubator.vector -cp out ComplexFanBatchVectorBenchmark [repeticiones]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanBatchVectorBenchmark {
+	private static volatile Object sink;		// evita que el JIT elimine los resultados
+
+	/**
+	 * Interfaz de una operación sobre lotes.
+	 */
+	interface BatchOperation {
+		void apply(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res);
+	}
+
+	/**
+	 * Función para generar un lote de abanicos complejos aleatorios con lı́mites aleatorios.
+	 * @param n el número de abanicos complejos
+	 * @param normalized si los abanicos están normalizados; si no, hay magnitudes invertidas
+	 y ángulos de hasta ±1000 grados
+	 * @param seed la semilla del generador
+	 * @return el lote
+	 */
+	static ComplexFanBatch randomBatch(int n, boolean normalized, long seed){
+		Random r = new Random(seed);
+		ComplexFanBatch b = new ComplexFanBatch(n);
+		for (int i=0; i<n; i++){
+			double m1 = 0.5+r.nextDouble();
+			double m2 = m1+r.nextDouble();
+			double a1 = r.nextInt(8)==0 ? 90*r.nextInt(5) : r.nextDouble()*360;
+			double a2 = r.nextInt(8)==0 ? 90*r.nextInt(5) : r.nextDouble()*360;
+			if (!normalized){
+				if (r.nextBoolean()){
+					double aux = m1;
+					m1 = m2;
+					m2 = -aux;
+				}
+				a1 = (r.nextDouble()-0.5)*2000;
+			}
+			b.set(i, r.nextBoolean()?'[':'(', m1, m2, r.nextBoolean()?']':')', r.nextBoolean()?'[':'(', a1, a2, r.nextBoolean()?']':')');
+		}
+		return b;
+	}
+
+	/**
+	 * Función para saber si dos lotes son idénticos bit a bit.
+	 * @param b1 el primer lote
+	 * @param b2 el segundo lote
+	 * @return verdadero si todos los extremos y lı́mites son iguales
+	 */
+	static boolean same(ComplexFanBatch b1, ComplexFanBatch b2){
+		for (int i=0; i<b1.size(); i++){
+			if (Double.doubleToRawLongBits(b1.getMagnitudeFirstExtreme(i))!=Double.doubleToRawLongBits(b2.getMagnitudeFirstExtreme(i))
+					|| Double.doubleToRawLongBits(b1.getMagnitudeSecondExtreme(i))!=Double.doubleToRawLongBits(b2.getMagnitudeSecondExtreme(i))
+					|| Double.doubleToRawLongBits(b1.getAngleFirstExtreme(i))!=Double.doubleToRawLongBits(b2.getAngleFirstExtreme(i))
+					|| Double.doubleToRawLongBits(b1.getAngleSecondExtreme(i))!=Double.doubleToRawLongBits(b2.getAngleSecondExtreme(i))
+					|| b1.getFlags(i)!=b2.getFlags(i)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Función para verificar que una operación dé lo mismo en ambos modos.
+	 * @param op la operación
+	 * @param b1 el lote del primer operando
+	 * @param b2 el lote del segundo operando
+	 * @return verdadero si los resultados son idénticos
+	 */
+	static boolean check(BatchOperation op, ComplexFanBatch b1, ComplexFanBatch b2){
+		ComplexFanBatch scalar = new ComplexFanBatch(b1.size());
+		ComplexFanBatch vector = new ComplexFanBatch(b1.size());
+		ComplexFanBatch.vectorKernels = false;
+		op.apply(b1, b2, scalar);
+		ComplexFanBatch.vectorKernels = true;
+		op.apply(b1, b2, vector);
+		return same(scalar, vector);
+	}
+
+	/**
+	 * Función para medir el tiempo de la mejor de varias repeticiones de una operación.
+	 * @param op la operación
+	 * @param b1 el lote del primer operando
+	 * @param b2 el lote del segundo operando
+	 * @param res el lote del resultado
+	 * @param vector si se usa la Vector API
+	 * @param reps el número de repeticiones
+	 * @return el tiempo por abanico complejo en nanosegundos
+	 */
+	static double time(BatchOperation op, ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res, boolean vector, int reps){
+		ComplexFanBatch.vectorKernels = vector;
+		int calls = Math.max(1, (1<<22)/b1.size());
+		double best = Double.MAX_VALUE;
+		for (int k=0; k<reps; k++){
+			long t0 = System.nanoTime();
+			for (int c=0; c<calls; c++){
+				op.apply(b1, b2, res);
+			}
+			sink = res;
+			best = Math.min(best, (double)(System.nanoTime()-t0)/calls/b1.size());
+		}
+		return best;
+	}
+
+	public static void main(String []args){
+		int reps = args.length>0?Integer.parseInt(args[0]):10;
+		boolean vector = ComplexFanBatch.hasVectorKernels();
+		String []names = {"negation", "product", "division"};
+		BatchOperation []ops = {(b1, b2, res) -> ComplexFanBatch.negation(b1, res), ComplexFanBatch::product, ComplexFanBatch::division};
+		if (!vector){
+			System.out.println("Vector API no disponible, sólo se miden los ciclos escalares");
+		}else{
+			for (int k=0; k<ops.length; k++){
+				boolean ok = true;
+				for (int n : new int[]{1, 7, 1000, 4099}){
+					ok &= check(ops[k], randomBatch(n, true, 1), randomBatch(n, true, 2));
+					ok &= check(ops[k], randomBatch(n, false, 3), randomBatch(n, false, 4));
+				}
+				System.out.println(names[k]+": resultados "+(ok?"idénticos":"DISTINTOS"));
+			}
+		}
+		System.out.printf("%-10s %10s %14s %14s %8s%n", "operación", "abanicos", "escalar (ns)", "vector (ns)", "acel.");
+		for (int n : new int[]{64, 1024, 16384, 1<<20}){
+			ComplexFanBatch b1 = randomBatch(n, true, 5);
+			ComplexFanBatch b2 = randomBatch(n, true, 6);
+			ComplexFanBatch res = new ComplexFanBatch(n);
+			for (int k=0; k<ops.length; k++){
+				double scalar = Double.MAX_VALUE, vec = Double.NaN;
+				for (int r=0; r<3; r++){
+					scalar = Math.min(scalar, time(ops[k], b1, b2, res, false, reps));
+					if (vector){
+						vec = r==0 ? time(ops[k], b1, b2, res, true, reps) : Math.min(vec, time(ops[k], b1, b2, res, true, reps));
+					}
+				}
+				System.out.printf("%-10s %10d %14.3f %14.3f %8.2f%n", names[k], n, scalar, vec, scalar/vec);
+			}
+		}
+		ComplexFanBatch.vectorKernels = true;
+	}
+}
@@ -0,0 +1,270 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Catálogo de las operaciones de las clases Interval, AngleInterval y ComplexFan que se miden
+con JMH. Cada operación se registra con un conjunto de operandos: uno por cada resultado de
+verifyCase, ángulos que cruzan los 0 grados, intervalos puntuales y resultados que abarcan los
+360 grados. Las clases del paquete jmh (carpeta Java/jmh) toman de aquı́ cada operación con
+operation; JMH no acepta mediciones en el paquete por omisión, ası́ que no pueden llamar a
+estas clases directamente. El rendimiento y la tasa de asignación de memoria se obtienen con:
+
+	mvn -B -P jmh package
+	java -jar target/benchmarks.jar -prof gc [filtro]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanBenchmark {
+	private static final Map<String, Supplier<Object>> OPERATIONS = new LinkedHashMap<>();	// las operaciones por nombre y conjunto de operandos
+
+	/**
+	 * Clase que modela un conjunto de operandos para las operaciones de ComplexFan.
+	 */
+	static class FanSet {
+		final String name;
+		final ComplexFan cf1;
+		final ComplexFan cf2;
+
+		FanSet(String name, ComplexFan cf1, ComplexFan cf2){
+			this.name = name;
+			this.cf1 = cf1;
+			this.cf2 = cf2;
+		}
+	}
+
+	/**
+	 * Clase que modela un conjunto de operandos para las operaciones de Interval y
+	AngleInterval.
+	 */
+	static class IntervalSet {
+		final String name;
+		final Interval in1;
+		final Interval in2;
+
+		IntervalSet(String name, Interval in1, Interval in2){
+			this.name = name;
+			this.in1 = in1;
+			this.in2 = in2;
+		}
+	}
+
+	/**
+	 * Función para registrar una operación.
+	 * @param name el nombre de la operación
+	 * @param params el nombre del conjunto de operandos
+	 * @param op la operación a medir
+	 */
+	static void register(String name, String params, Supplier<Object> op){
+		OPERATIONS.put(name+" "+params, op);
+	}
+
+	/**
+	 * Función para obtener una operación del catálogo.
+	 * @param name el nombre de la operación, por ejemplo "ComplexFan.addition"
+	 * @param params el nombre del conjunto de operandos, por ejemplo "caso1"
+	 * @return la operación, lista para llamarse
+	 * @throws IllegalArgumentException si la operación no está registrada con esos operandos
+	 */
+	public static synchronized Supplier<Object> operation(String name, String params){
+		if (OPERATIONS.isEmpty()){
+			registerAll();
+		}
+		Supplier<Object> op = OPERATIONS.get(name+" "+params);
+		if (op==null){
+			throw new IllegalArgumentException("No hay una operación "+name+" con los operandos "+params);
+		}
+		return op;
+	}
+
+	/**
+	 * Función para construir un abanico complejo a partir de los valores de sus extremos.
+	 * @return el abanico complejo normalizado
+	 */
+	static ComplexFan fan(char mfei, double mfe, double mse, char msei, char afei, double afe, double ase, char asei){
+		return new ComplexFan(new Interval(mfei, mfe, mse, msei), new AngleInterval(afei, afe, ase, asei));
+	}
+
+	/**
+	 * Conjuntos de operandos para la suma: uno por cada resultado de verifyCase, ángulos que
+	cruzan los 0 grados, abanicos puntuales y casi puntuales y sumas cuyo resultado abarca los
+	360 grados.
+	 */
+	static FanSet[] fanSets(){
+		return new FanSet[]{
+			new FanSet("caso1", fan('[', 1, 2, ']', '[', 10, 40, ']'), fan('[', 0.5, 1.5, ']', '[', 20, 60, ']')),
+			new FanSet("caso2", fan('[', 1, 2, ']', '[', 10, 40, ']'), fan('[', 0.5, 1.5, ']', '[', 100, 150, ']')),
+			new FanSet("caso3", fan('[', 1, 2, ']', '[', 10, 40, ']'), fan('[', 0.5, 1, ']', '[', 200, 250, ']')),
+			new FanSet("caso4", fan('[', 1, 2, ']', '[', 10, 40, ']'), fan('[', 0.5, 1.5, ']', '[', 290, 340, ']')),
+			new FanSet("cruce0", fan('[', 1, 2, ']', '[', 300, 30, ']'), fan('[', 1, 1.5, ']', '[', 20, 70, ']')),
+			new FanSet("puntual", fan('[', 2, 2, ']', '[', 30, 30, ']'), fan('[', 1, 1, ']', '[', 120, 120, ']')),
+			new FanSet("casipuntual", fan('[', 2, 2+1e-12, ']', '[', 30, 30+1e-10, ']'), fan('[', 1, 1, ']', '[', 120, 120, ']')),
+			new FanSet("circulo", fan('[', 1, 2, ']', '[', 0, 90, ']'), fan('[', 1, 2, ']', '[', 180, 270, ']')),
+		};
+	}
+
+	/**
+	 * Conjuntos de operandos para las operaciones de intervalos.
+	 */
+	static IntervalSet[] intervalSets(){
+		return new IntervalSet[]{
+			new IntervalSet("traslape", new Interval('[', 1, 3, ']'), new Interval('(', 2, 5, ']')),
+			new IntervalSet("contiguo", new Interval('[', 1, 2, ']'), new Interval('[', 2, 4, ')')),
+			new IntervalSet("disjunto", new Interval('[', 1, 2, ')'), new Interval('(', 3, 4, ']')),
+			new IntervalSet("puntual", new Interval('[', 2, 2, ']'), new Interval('[', 2, 2, ']')),
+		};
+	}
+
+	/**
+	 * Conjuntos de operandos para las operaciones de intervalos de ángulo.
+	 */
+	static IntervalSet[] angleSets(){
+		return new IntervalSet[]{
+			new IntervalSet("traslape", new AngleInterval('[', 10, 80, ']'), new AngleInterval('(', 45, 120, ']')),
+			new IntervalSet("cruce0", new AngleInterval('[', 300, 30, ']'), new AngleInterval('[', 200, 340, ')')),
+			new IntervalSet("puntual", new AngleInterval('[', 45, 45, ']'), new AngleInterval('[', 135, 135, ']')),
+			new IntervalSet("circulo", new AngleInterval('[', 0, 270, ']'), new AngleInterval('[', 90, 360, ']')),
+		};
+	}
+
+	/**
+	 * Conjuntos de resultados parciales con ángulos traslapados, como los que produce la suma,
+	para unionOfMIs y unionOfAIs.
+	 */
+	static ComplexFan[][] partialSets(){
+		return new ComplexFan[][]{
+			{fan('[', 1, 2, ']', '[', 10, 60, ']'), fan('[', 1.5, 3, ']', '[', 50, 100, ']')},
+			{fan('[', 1, 2, ']', '[', 0, 80, ']'), fan('[', 1.5, 3, ']', '[', 70, 170, ']'), fan('[', 0.5, 1.2, ']', '[', 160, 200, ']')},
+			{fan('[', 1, 2, ']', '[', 0, 100, ']'), fan('[', 1.5, 3, ']', '[', 90, 190, ']'), fan('[', 0.5, 1.6, ']', '[', 180, 280, ']'), fan('[', 1, 4, ']', '[', 270, 10, ']')},
+			// ángulos contiguos y separados, antes la unión no terminaba con estos conjuntos
+			{fan('[', 1, 2, ']', '[', 350, 20, ')'), fan('[', 1.5, 3, ']', '[', 20, 60, ']'), fan('[', 0.5, 1.2, ']', '[', 80, 120, ']'), fan('[', 1, 2, ']', '[', 120, 200, ']'), fan('[', 1, 2, ']', '[', 250, 260, ']')},
+		};
+	}
+
+	/**
+	 * Conjuntos de partes contiguas, como las que produce part, para unionAIs y
+	verifyCase0to360ofList.
+	 */
+	static ComplexFan[][] partSets(){
+		return new ComplexFan[][]{
+			fan('[', 1, 2, ']', '[', 10, 150, ']').part(),
+			fan('[', 1, 2, ']', '[', 300, 100, ']').part(),
+			{fan('[', 1, 2, ']', '[', 0, 90, ')'), fan('[', 1, 2, ']', '[', 90, 180, ')'), fan('[', 1, 2, ']', '[', 180, 270, ')'), fan('[', 1, 2, ']', '[', 270, 360, ']')},
+		};
+	}
+
+	/**
+	 * Función para obtener los intervalos de ángulo de un arreglo de abanicos complejos.
+	 */
+	static AngleInterval[] angles(ComplexFan []acf){
+		AngleInterval []ais = new AngleInterval[acf.length];
+		for (int i=0; i<acf.length; i++){
+			ais[i] = acf[i].getAngleInterval();
+		}
+		return ais;
+	}
+
+	/**
+	 * Función que registra todas las operaciones.
+	 */
+	static void registerAll(){
+		for (IntervalSet s : intervalSets()){
+			Interval in1 = s.in1, in2 = s.in2;
+			register("Interval.intersection", s.name, () -> Interval.intersection(in1, in2));
+			register("Interval.union", s.name, () -> Interval.union(in1, in2));
+			register("Interval.addition", s.name, () -> Interval.addition(in1, in2));
+			register("Interval.subtraction", s.name, () -> Interval.subtraction(in1, in2));
+			register("Interval.product", s.name, () -> Interval.product(in1, in2));
+			register("Interval.division", s.name, () -> Interval.division(in1, in2));
+			register("Interval.negation", s.name, () -> Interval.negation(in1));
+			register("Interval.isEmpty", s.name, () -> Interval.intersection(in1, in2).isEmpty());
+			register("Interval.byConstant", s.name, () -> { Interval in = new Interval(in1); in.byConstant(-0.5); return in; });
+			ImmutableInterval im1 = new ImmutableInterval(in1), im2 = new ImmutableInterval(in2);
+			register("ImmutableInterval.intersection", s.name, () -> ImmutableInterval.intersection(im1, im2));
+			register("ImmutableInterval.union", s.name, () -> ImmutableInterval.union(im1, im2));
+			register("ImmutableInterval.addition", s.name, () -> ImmutableInterval.addition(im1, im2));
+			register("ImmutableInterval.subtraction", s.name, () -> ImmutableInterval.subtraction(im1, im2));
+			register("ImmutableInterval.intersectionIsEmpty", s.name, () -> ImmutableInterval.intersectionIsEmpty(im1.getFirstExtreme(), im1.getSecondExtreme(), im1.getBounds(), im2.getFirstExtreme(), im2.getSecondExtreme(), im2.getBounds()));
+		}
+		for (IntervalSet s : angleSets()){
+			AngleInterval ai1 = (AngleInterval)s.in1, ai2 = (AngleInterval)s.in2;
+			register("AngleInterval.addition", s.name, () -> AngleInterval.addition(ai1, ai2));
+			register("AngleInterval.subtraction", s.name, () -> AngleInterval.subtraction(ai1, ai2));
+			register("AngleInterval.add180toAI", s.name, () -> AngleInterval.add180toAI(ai1));
+			register("AngleInterval.normalize", s.name, () -> { AngleInterval ai = new AngleInterval(ai1.getFEincluded(), ai1.getFirstExtreme()+725, ai1.getSecondExtreme()-370, ai1.getSEincluded()); ai.normalize(); return ai; });
+			register("AngleInterval.modulo360", s.name, () -> AngleInterval.modulo360(ai1.getFirstExtreme()-1085));
+		}
+		for (ComplexFan []acf : partialSets()){
+			Interval []mis = new Interval[acf.length];
+			for (int i=0; i<acf.length; i++){
+				mis[i] = acf[i].getMagnitudeInterval();
+			}
+			String name = acf.length+"partes";
+			register("ComplexFan.unionOfMIs", name, () -> ComplexFan.unionOfMIs(mis));
+			register("ComplexFan.unionOfAIs", name, () -> ComplexFan.unionOfAIs(acf));
+		}
+		for (int n : new int[]{25, 1000}){
+			Interval []chain = new Interval[n];
+			for (int i=0; i<n; i++){
+				// intervalos encadenados en desorden, cada uno traslapa al siguiente
+				int k = (i*7919)%n;
+				chain[i] = new Interval('[', k, k+1.5, ']');
+			}
+			register("ComplexFan.unionOfMIs", n+"partes", () -> ComplexFan.unionOfMIs(chain));
+			register("Interval.unionAll", n+"partes", () -> Interval.unionAll(chain));
+		}
+		for (ComplexFan []acf : partSets()){
+			String name = acf.length+"partes";
+			AngleInterval []ais = angles(acf);
+			register("AngleInterval.unionAIs", name, () -> AngleInterval.unionAIs(ais));
+			register("AngleInterval.verifyCase0to360ofList", name, () -> AngleInterval.verifyCase0to360ofList(ais));
+		}
+		for (int n : new int[]{25, 1000}){
+			AngleInterval []arcs = new AngleInterval[n];
+			double w = 360.0/n;
+			for (int i=0; i<n; i++){
+				// arcos encadenados en desorden que cubren el cı́rculo y cruzan los 0 grados
+				int k = (i*7919)%n;
+				arcs[i] = new AngleInterval(k*w+w/2, (k+1)*w+w/2, '[', ']');
+			}
+			AngleInterval []gaps = new AngleInterval[n];
+			for (int i=0; i<n; i++){
+				int k = (i*7919)%n;
+				gaps[i] = new AngleInterval(k*w, k*w+w/2, '[', ']');
+			}
+			register("AngleInterval.unionAIs", n+"arcos", () -> AngleInterval.unionAIs(arcs));
+			register("AngleInterval.unionAIs", n+"huecos", () -> AngleInterval.unionAIs(gaps));
+			register("AngleInterval.verifyCase0to360ofList", n+"arcos", () -> AngleInterval.verifyCase0to360ofList(arcs));
+			register("AngleInterval.verifyCase0to360ofList", n+"huecos", () -> AngleInterval.verifyCase0to360ofList(gaps));
+		}
+		for (FanSet s : fanSets()){
+			ComplexFan cf1 = s.cf1, cf2 = s.cf2;
+			register("ComplexFan.addition", s.name, () -> ComplexFan.addition(cf1, cf2));
+			register("ComplexFan.subtraction", s.name, () -> ComplexFan.subtraction(cf1, cf2));
+			register("ComplexFan.product", s.name, () -> ComplexFan.product(cf1, cf2));
+			register("ComplexFan.division", s.name, () -> ComplexFan.division(cf1, cf2));
+			register("ComplexFan.negation", s.name, () -> ComplexFan.negation(cf1));
+			register("ComplexFan.part", s.name, () -> cf1.part());
+			AngleInterval ai2 = cf2.getAngleInterval();
+			register("QuadrantMask.encode", s.name, () -> QuadrantMask.encode(ai2));
+			register("QuadrantMask.coverage", s.name, () -> QuadrantMask.coverage(ai2));
+			register("ComplexFan.verifyCase", s.name, () -> cf1.verifyCase(cf2.getAngleInterval().getFirstExtreme(), cf2.getAngleInterval().getSecondExtreme()));
+		}
+		int n = 1024;
+		FanSet []sets = fanSets();
+		ComplexFan []x = new ComplexFan[n];
+		ComplexFan []y = new ComplexFan[n];
+		for (int i=0; i<n; i++){
+			x[i] = sets[i%sets.length].cf1;
+			y[i] = sets[i%sets.length].cf2;
+		}
+		ComplexFanBatch bx = new ComplexFanBatch(x);
+		ComplexFanBatch by = new ComplexFanBatch(y);
+		ComplexFanBatch bres = new ComplexFanBatch(n);
+		register("ComplexFanBatch.product", n+"abanicos", () -> { ComplexFanBatch.product(bx, by, bres); return bres; });
+		register("ComplexFanBatch.division", n+"abanicos", () -> { ComplexFanBatch.division(bx, by, bres); return bres; });
+		register("ComplexFanBatch.negation", n+"abanicos", () -> { ComplexFanBatch.negation(bx, bres); return bres; });
+		register("ComplexFanBatch.addition", n+"abanicos", () -> { ComplexFanBatch.addition(bx, by, bres); return bres; });
+		register("ComplexFanBatch.subtraction", n+"abanicos", () -> { ComplexFanBatch.subtraction(bx, by, bres); return bres; });
+	}
+}
@@ -0,0 +1,145 @@
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Programa que mide el formato binario de ComplexFanFile. Escribe un archivo repitiendo un
+lote de abanicos complejos aleatorios, lo vuelve a abrir y lo lee secuencialmente por lotes,
+calcula el producto de cada registro consigo mismo escribiéndolo en un segundo archivo sin crear
+objetos por registro, y lee registros en posiciones aleatorias. Reporta el tiempo por registro
+y los MB/s de la mejor repetición de cada paso, y verifica que lo leı́do sea igual a lo escrito
+y que el producto sea el de ComplexFan.product. Los archivos se crean en el directorio temporal
+y se borran al terminar.
+
+	java -cp out ComplexFanFileBenchmark [abanicos] [tamaño de lote] [repeticiones]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanFileBenchmark {
+	private static volatile double sink;		// evita que el JIT elimine las lecturas
+
+	/**
+	 * Función para llenar un lote con abanicos complejos aleatorios y lı́mites aleatorios.
+	 * @param b el lote
+	 * @param r el generador
+	 */
+	static void fill(ComplexFanBatch b, Random r){
+		for (int i=0; i<b.size(); i++){
+			double m = 0.5+r.nextDouble();
+			double alfa = r.nextDouble()*360;
+			b.set(i, r.nextBoolean()?'[':'(', m, m+r.nextDouble(), r.nextBoolean()?']':')', r.nextBoolean()?'[':'(', alfa, Math.min(360, alfa+r.nextDouble()*90), r.nextBoolean()?']':')');
+		}
+	}
+
+	/**
+	 * Función para imprimir un renglón de resultados.
+	 * @param step el nombre del paso
+	 * @param nanos el tiempo del paso en nanosegundos
+	 * @param records el número de registros procesados
+	 */
+	static void report(String step, long nanos, long records){
+		double mb = (double)records*ComplexFanFile.RECORD_SIZE/(1024*1024);
+		System.out.printf("%-22s %12.2f %12.1f%n", step, (double)nanos/records, mb/(nanos/1e9));
+	}
+
+	public static void main(String []args){
+		long n = args.length>0?Long.parseLong(args[0]):10000000L;
+		int batchSize = args.length>1?Integer.parseInt(args[1]):4096;
+		int reps = args.length>2?Integer.parseInt(args[2]):3;
+		Path in = new File(System.getProperty("java.io.tmpdir"), "cf-bench-in.cfan").toPath();
+		Path out = new File(System.getProperty("java.io.tmpdir"), "cf-bench-out.cfan").toPath();
+		ComplexFanBatch data = new ComplexFanBatch(batchSize);
+		fill(data, new Random(1));
+		ComplexFanBatch b = new ComplexFanBatch(batchSize);
+		ComplexFanBatch res = new ComplexFanBatch(batchSize);
+		boolean same = true;
+		System.out.printf("%-22s %12s %12s%n", "paso", "ns/registro", "MB/s");
+
+		long best = Long.MAX_VALUE;
+		for (int rep=0; rep<reps; rep++){
+			long t0 = System.nanoTime();
+			try (ComplexFanFile f = ComplexFanFile.create(in, n)){
+				for (long i=0; i<n; i+=batchSize){
+					f.write(i, data, 0, (int)Math.min(batchSize, n-i));
+				}
+				f.force();
+			}
+			best = Math.min(best, System.nanoTime()-t0);
+		}
+		report("escritura", best, n);
+
+		best = Long.MAX_VALUE;
+		for (int rep=0; rep<reps; rep++){
+			long t0 = System.nanoTime();
+			try (ComplexFanFile f = ComplexFanFile.open(in, false)){
+				double s = 0;
+				for (long i=0; i<n; i+=batchSize){
+					int k = (int)Math.min(batchSize, n-i);
+					f.read(i, b, 0, k);
+					for (int j=0; j<k; j++){
+						s += b.getMagnitudeSecondExtreme(j);
+					}
+				}
+				sink = s;
+			}
+			best = Math.min(best, System.nanoTime()-t0);
+		}
+		report("lectura secuencial", best, n);
+
+		try (ComplexFanFile f = ComplexFanFile.open(in, false)){
+			for (long i=0; i<n; i+=batchSize){
+				int k = (int)Math.min(batchSize, n-i);
+				f.read(i, b, 0, k);
+				for (int j=0; j<k; j++){
+					same &= b.getFlags(j)==data.getFlags(j)
+							&& Double.compare(b.getMagnitudeFirstExtreme(j), data.getMagnitudeFirstExtreme(j))==0
+							&& Double.compare(b.getMagnitudeSecondExtreme(j), data.getMagnitudeSecondExtreme(j))==0
+							&& Double.compare(b.getAngleFirstExtreme(j), data.getAngleFirstExtreme(j))==0
+							&& Double.compare(b.getAngleSecondExtreme(j), data.getAngleSecondExtreme(j))==0;
+				}
+			}
+		}
+
+		best = Long.MAX_VALUE;
+		for (int rep=0; rep<reps; rep++){
+			long t0 = System.nanoTime();
+			try (ComplexFanFile f = ComplexFanFile.open(in, false); ComplexFanFile g = ComplexFanFile.create(out, n)){
+				for (long i=0; i<n; i+=batchSize){
+					int k = (int)Math.min(batchSize, n-i);
+					ComplexFanBatch part = k==batchSize ? b : new ComplexFanBatch(k);
+					ComplexFanBatch partRes = k==batchSize ? res : new ComplexFanBatch(k);
+					f.read(i, part);
+					ComplexFanBatch.product(part, part, partRes);
+					g.write(i, partRes);
+				}
+				g.force();
+			}
+			best = Math.min(best, System.nanoTime()-t0);
+		}
+		report("producto archivo", best, n);
+
+		try (ComplexFanFile f = ComplexFanFile.open(in, false); ComplexFanFile g = ComplexFanFile.open(out, false)){
+			Random r = new Random(2);
+			for (int j=0; j<1000; j++){
+				long i = (long)(r.nextDouble()*n);
+				ComplexFan cf = f.get(i);
+				same &= ComplexFan.product(cf, cf).toString().equals(g.get(i).toString());
+			}
+			int reads = 1000000;
+			best = Long.MAX_VALUE;
+			for (int rep=0; rep<reps; rep++){
+				long t0 = System.nanoTime();
+				double s = 0;
+				for (int j=0; j<reads; j++){
+					s += f.getMagnitudeFirstExtreme((long)(r.nextDouble()*n));
+				}
+				sink = s;
+				best = Math.min(best, System.nanoTime()-t0);
+			}
+			report("lectura aleatoria", best, reads);
+		}
+		System.out.println("resultados "+(same?"iguales":"DISTINTOS"));
+		in.toFile().delete();
+		out.toFile().delete();
+	}
+}
@@ -0,0 +1,93 @@
+import java.util.Random;
+
+/**
+ * Programa que mide qué tan seguido ComplexFan.addition deja de calcular ángulos porque los
+resultados parciales ya cubren los 360 grados, y cuánto tiempo ahorra. Suma pares de abanicos
+complejos aleatorios con intervalos de ángulo de distintos anchos, con y sin el atajo, y
+reporta el porcentaje de sumas en que se activó, los pares de partes omitidos por suma y el
+tiempo por suma en cada modo. También verifica que ambos modos den el mismo resultado. Activa
+los contadores de ComplexFanStats, salvo que se desactiven con -Dcomplexfan.stats=false.
+
+	java -cp out ComplexFanFullCircle [pares] [repeticiones]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanFullCircle {
+	private static ComplexFan sink;		// el resultado de la última suma medida
+
+	/**
+	 * Función para generar abanicos complejos aleatorios con un ancho de ángulo dado.
+	 * @param n el número de abanicos complejos
+	 * @param width el ancho máximo del intervalo de ángulo en grados
+	 * @param seed la semilla del generador
+	 * @return el arreglo de abanicos complejos
+	 */
+	static ComplexFan[] randomFans(int n, double width, long seed){
+		Random r = new Random(seed);
+		ComplexFan []acf = new ComplexFan[n];
+		for (int i=0; i<n; i++){
+			double m = 0.5+r.nextDouble();
+			double alfa = r.nextDouble()*360;
+			double w = width*(0.5+0.5*r.nextDouble());
+			acf[i] = new ComplexFan(new Interval(m, m+r.nextDouble(), '[', ']'), new AngleInterval(alfa, alfa+w, '[', ']'));
+		}
+		return acf;
+	}
+
+	/**
+	 * Función para sumar dos abanicos complejos con o sin el atajo del cı́rculo completo.
+	 * @param cf1 el primer operando
+	 * @param cf2 el segundo operando
+	 * @param shortCircuit si se usa el atajo del cı́rculo completo
+	 * @return el resultado de la suma
+	 */
+	static ComplexFan addition(ComplexFan cf1, ComplexFan cf2, boolean shortCircuit){
+		AdditionPart p1 = AdditionPart.first(cf1, 0.0);
+		return ComplexFan.addition(p1, AdditionPart.second(cf2, p1), shortCircuit);
+	}
+
+	/**
+	 * Función para medir el tiempo de todas las sumas en un modo.
+	 * @param x los primeros operandos
+	 * @param y los segundos operandos
+	 * @param shortCircuit si se usa el atajo del cı́rculo completo
+	 * @return el tiempo por suma en nanosegundos
+	 */
+	static double time(ComplexFan []x, ComplexFan []y, boolean shortCircuit){
+		long t0 = System.nanoTime();
+		for (int i=0; i<x.length; i++){
+			sink = addition(x[i], y[i], shortCircuit);
+		}
+		return (double)(System.nanoTime()-t0)/x.length;
+	}
+
+	public static void main(String []args){
+		if (System.getProperty("complexfan.stats")==null){
+			System.setProperty("complexfan.stats", "true");
+		}
+		int n = args.length>0?Integer.parseInt(args[0]):20000;
+		int reps = args.length>1?Integer.parseInt(args[1]):5;
+		System.out.printf("%-8s %10s %14s %12s %12s %8s %s%n", "ancho", "activadas", "pares/suma", "con (ns)", "sin (ns)", "acel.", "iguales");
+		for (double width : new double[]{30, 90, 180, 270, 340}){
+			ComplexFan []x = randomFans(n, width, 1);
+			ComplexFan []y = randomFans(n, width, 2);
+			String []expected = new String[n];
+			for (int i=0; i<n; i++){
+				expected[i] = addition(x[i], y[i], false).toString();
+			}
+			double on = Double.MAX_VALUE, off = Double.MAX_VALUE;
+			for (int k=0; k<reps; k++){
+				off = Math.min(off, time(x, y, false));
+				on = Math.min(on, time(x, y, true));
+			}
+			ComplexFanStats.resetAll();
+			boolean same = true;
+			for (int i=0; i<n; i++){
+				same &= expected[i].equals(addition(x[i], y[i], true).toString());
+			}
+			long triggered = ComplexFanStats.fullCircleAdditions.sum();
+			long skipped = ComplexFanStats.fullCircleSkippedPairs.sum();
+			System.out.printf("%-8.0f %9.1f%% %14.2f %12.0f %12.0f %8.2f %s%n", width, 100.0*triggered/n, triggered==0?0.0:(double)skipped/triggered, on, off, off/on, same?"si":"NO");
+		}
+	}
+}
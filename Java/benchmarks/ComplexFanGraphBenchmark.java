@@ -0,0 +1,108 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Programa que mide la evaluación de fórmulas con subexpresiones repetidas usando
+ComplexFanGraph. La fórmula es la suma de varias redes en escalera independientes,
+Z(k) = R + X*Z(k-1)/(X+Z(k-1)), donde cada Z(k-1) aparece dos veces. Se compara la evaluación
+del árbol tal como está escrito (cada aparición se vuelve a calcular), la evaluación del grafo
+en un hilo y la evaluación del grafo en paralelo, y se verifica que den el mismo resultado.
+
+	java -cp out ComplexFanGraphBenchmark [redes] [peldaños] [repeticiones]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanGraphBenchmark {
+	private static ComplexFan sink;		// el resultado de la última evaluación medida
+	private static long treeNodes;		// los nodos evaluados por la última evaluación del árbol
+
+	/**
+	 * Función que evalúa un nodo como árbol, sin reutilizar las subexpresiones compartidas.
+	 * @param e el nodo
+	 * @param bindings los valores de las variables
+	 * @return el valor del nodo
+	 */
+	static ComplexFan evaluateTree(ComplexFanExpression e, Map<String, ComplexFan> bindings){
+		treeNodes++;
+		switch (e.getOperation()) {
+			case ComplexFanExpression.CONSTANT:
+				return e.getValue();
+			case ComplexFanExpression.VARIABLE:
+				return bindings.get(e.getName());
+			case ComplexFanExpression.ADDITION:
+				return ComplexFan.addition(evaluateTree(e.getLeft(), bindings), evaluateTree(e.getRight(), bindings));
+			case ComplexFanExpression.SUBTRACTION:
+				return ComplexFan.subtraction(evaluateTree(e.getLeft(), bindings), evaluateTree(e.getRight(), bindings));
+			case ComplexFanExpression.PRODUCT:
+				return ComplexFan.product(evaluateTree(e.getLeft(), bindings), evaluateTree(e.getRight(), bindings));
+			case ComplexFanExpression.DIVISION:
+				return ComplexFan.division(evaluateTree(e.getLeft(), bindings), evaluateTree(e.getRight(), bindings));
+			default:
+				return ComplexFan.negation(evaluateTree(e.getLeft(), bindings));
+		}
+	}
+
+	/**
+	 * Función que construye la suma de varias redes en escalera.
+	 * @param g el grafo
+	 * @param networks el número de redes
+	 * @param rungs el número de peldaños de cada red
+	 * @return el nodo de la suma
+	 */
+	static ComplexFanExpression ladders(ComplexFanGraph g, int networks, int rungs){
+		ComplexFanExpression x = g.variable("X");
+		ComplexFanExpression total = null;
+		for (int k=0; k<networks; k++){
+			ComplexFanExpression r = g.variable("R"+k);
+			ComplexFanExpression z = r;
+			for (int i=0; i<rungs; i++){
+				z = g.addition(r, g.division(g.product(x, z), g.addition(x, z)));
+			}
+			total = total==null ? z : g.addition(total, z);
+		}
+		return total;
+	}
+
+	/**
+	 * Función para medir el tiempo de la mejor de varias repeticiones.
+	 * @param op la evaluación a medir
+	 * @param reps el número de repeticiones
+	 * @return el tiempo en milisegundos
+	 */
+	static double time(java.util.function.Supplier<ComplexFan> op, int reps){
+		double best = Double.MAX_VALUE;
+		for (int k=0; k<reps; k++){
+			long t0 = System.nanoTime();
+			sink = op.get();
+			best = Math.min(best, (System.nanoTime()-t0)/1e6);
+		}
+		return best;
+	}
+
+	public static void main(String []args){
+		int networks = args.length>0?Integer.parseInt(args[0]):8;
+		int rungs = args.length>1?Integer.parseInt(args[1]):8;
+		int reps = args.length>2?Integer.parseInt(args[2]):5;
+		ComplexFanGraph g = new ComplexFanGraph();
+		ComplexFanExpression root = ladders(g, networks, rungs);
+		Map<String, ComplexFan> bindings = new HashMap<>();
+		bindings.put("X", new ComplexFan(new Interval(2, 2.01, '[', ']'), new AngleInterval(80, 81, '[', ']')));
+		for (int k=0; k<networks; k++){
+			bindings.put("R"+k, new ComplexFan(new Interval(1+0.1*k, 1.01+0.1*k, '[', ']'), new AngleInterval(0, 1, '[', ']')));
+		}
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		treeNodes = 0;
+		String tree = evaluateTree(root, bindings).toString();
+		long perTree = treeNodes;
+		boolean same = tree.equals(g.evaluate(root, bindings).toString()) && tree.equals(g.evaluateParallel(root, bindings, pool).toString());
+		System.out.println("redes="+networks+" peldaños="+rungs+" nodos del grafo="+g.size()+" nodos del árbol="+perTree+" niveles="+(root.getLevel()+1)+" hilos="+pool.getParallelism());
+		System.out.println("resultado="+tree+" iguales="+(same?"si":"NO"));
+		double t1 = time(() -> evaluateTree(root, bindings), reps);
+		double t2 = time(() -> g.evaluate(root, bindings), reps);
+		double t3 = time(() -> g.evaluateParallel(root, bindings, pool), reps);
+		System.out.printf("%-22s %10.3f ms%n", "árbol", t1);
+		System.out.printf("%-22s %10.3f ms %8.1fx%n", "grafo, un hilo", t2, t1/t2);
+		System.out.printf("%-22s %10.3f ms %8.1fx%n", "grafo, en paralelo", t3, t1/t3);
+	}
+}
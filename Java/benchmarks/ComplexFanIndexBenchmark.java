@@ -0,0 +1,126 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Programa que mide ComplexFanIndex. Construye el ı́ndice de abanicos complejos aleatorios,
+casi todos pequeños y algunos anchos, de magnitud desde 0 o no acotada, o que pasan por los
+0 grados; compara las consultas de puntos y de abanicos complejos con el recorrido de todos
+los abanicos complejos en una parte de las consultas y reporta el tiempo de cada una. Después
+resuelve el lote completo de consultas con un ForkJoinPool de p hilos, para p desde 1 hasta
+el número de procesadores disponibles, y reporta las consultas por segundo y la aceleración
+respecto a un hilo. El programa termina con código 1 si algún resultado es distinto.
+
+	java -cp out ComplexFanIndexBenchmark [abanicos] [consultas] [comparadas] [semilla]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanIndexBenchmark {
+
+	/**
+	 * Función para generar un abanico complejo aleatorio. Uno de cada 100 es como los de
+	ComplexFanVerifier, con ángulo de hasta 360 grados; uno de cada 200 empieza en 0, uno de
+	cada 500 no tiene cota de magnitud y el resto son pequeños.
+	 * @param r el generador
+	 * @param scale la magnitud máxima de los pequeños
+	 * @return el abanico complejo
+	 */
+	static ComplexFan randomFan(SplittableRandom r, double scale){
+		int kind = r.nextInt(1000);
+		if (kind<10){
+			return ComplexFanVerifier.randomFan(r, 360);
+		}
+		double m = r.nextDouble()*scale;
+		double alfa = r.nextDouble()*360;
+		double dm = kind<15 ? 0.0d : 0.02*scale*r.nextDouble();
+		Interval mi = kind<15 ? new Interval(0, m, r.nextBoolean() ? '[' : '(', ']')
+			: kind<17 ? new Interval(m, Double.POSITIVE_INFINITY, '[', ')') : new Interval(m, m+dm, '[', r.nextBoolean() ? ']' : ')');
+		AngleInterval ai = new AngleInterval(alfa, alfa+r.nextDouble()*4, r.nextBoolean() ? '[' : '(', ']');
+		ai.normalize();
+		return new ComplexFan(mi, ai);
+	}
+
+	public static void main(String []args){
+		int n = args.length>0?Integer.parseInt(args[0]):1000000;
+		int q = args.length>1?Integer.parseInt(args[1]):200000;
+		int checked = args.length>2?Integer.parseInt(args[2]):200;
+		long seed = args.length>3?Long.parseLong(args[3]):1;
+		double scale = 100;
+
+		SplittableRandom r = new SplittableRandom(seed);
+		ComplexFan []acf = new ComplexFan[n];
+		for (int i=0; i<n; i++){
+			acf[i] = randomFan(r, scale);
+		}
+		double []re = new double[q];
+		double []im = new double[q];
+		ComplexFan []queries = new ComplexFan[q];
+		for (int i=0; i<q; i++){
+			double m = i%50==0 ? 0.0d : r.nextDouble()*scale*1.1;
+			double t = i%7==0 ? 90.0d*r.nextInt(4) : r.nextDouble()*360;
+			re[i] = m*Math.cos(Math.toRadians(t));
+			im[i] = m*Math.sin(Math.toRadians(t));
+			queries[i] = randomFan(r, scale);
+		}
+
+		long t0 = System.nanoTime();
+		ComplexFanIndex index = new ComplexFanIndex(acf);
+		long t1 = System.nanoTime();
+		System.out.printf("ı́ndice de %d abanicos complejos, %dx%d celdas: %.1f ms%n", n, index.getRings(), index.getSectors(), (t1-t0)/1e6);
+
+		int errors = 0;
+		long hits = 0;
+		long tIndex = 0, tScan = 0;
+		for (int i=0; i<Math.min(checked, q); i++){
+			t0 = System.nanoTime();
+			int []a = index.containing(re[i], im[i]);
+			int []b = index.overlapping(queries[i]);
+			t1 = System.nanoTime();
+			int []c = index.scanContaining(re[i], im[i]);
+			int []d = index.scanOverlapping(queries[i]);
+			long t2 = System.nanoTime();
+			tIndex += t1-t0;
+			tScan += t2-t1;
+			hits += a.length+b.length;
+			if (!Arrays.equals(a, c)){
+				errors++;
+				System.out.println("punto "+re[i]+" "+im[i]+": "+a.length+" en el ı́ndice, "+c.length+" recorriendo");
+			}
+			if (!Arrays.equals(b, d)){
+				errors++;
+				System.out.println("abanico "+queries[i]+": "+b.length+" en el ı́ndice, "+d.length+" recorriendo");
+			}
+		}
+		System.out.printf("%d consultas comparadas, %d resultados: ı́ndice %.3f ms, recorrido %.3f ms%n", 2*Math.min(checked, q), hits, tIndex/1e6, tScan/1e6);
+
+		index.containing(re, im, new ForkJoinPool(1));		// calentamiento
+		index.overlapping(queries, new ForkJoinPool(1));
+		int cores = Runtime.getRuntime().availableProcessors();
+		double base = 0;
+		System.out.printf("%6s %14s %14s %10s%n", "hilos", "puntos/s", "abanicos/s", "acel.");
+		for (int p=1; p<=cores; p++){
+			ForkJoinPool pool = new ForkJoinPool(p);
+			t0 = System.nanoTime();
+			int [][]pr = index.containing(re, im, pool);
+			t1 = System.nanoTime();
+			int [][]fr = index.overlapping(queries, pool);
+			long t2 = System.nanoTime();
+			pool.shutdown();
+			for (int i=0; i<Math.min(checked, q); i++){
+				if (!Arrays.equals(pr[i], index.containing(re[i], im[i])) || !Arrays.equals(fr[i], index.overlapping(queries[i]))){
+					errors++;
+				}
+			}
+			double points = q/((t1-t0)/1e9);
+			double fans = q/((t2-t1)/1e9);
+			if (p==1){
+				base = points+fans;
+			}
+			System.out.printf("%6d %14.0f %14.0f %10.2f%n", p, points, fans, (points+fans)/base);
+		}
+		if (errors>0){
+			System.out.println(errors+" resultados distintos");
+			System.exit(1);
+		}
+	}
+}
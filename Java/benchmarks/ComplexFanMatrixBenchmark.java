@@ -0,0 +1,118 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Programa que compara el producto de matrices de abanicos complejos con ciclos triples
+sobre ComplexFan.product y ComplexFan.addition contra ComplexFanMatrix, en un hilo y en
+paralelo, y el producto de una matriz por un vector. Mide el tiempo por término (un producto y
+una suma) y verifica que todas las formas den los mismos resultados.
+
+	java -cp out ComplexFanMatrixBenchmark [tamaño matriz-matriz] [tamaño matriz-vector]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanMatrixBenchmark {
+	private static volatile Object sink;		// evita que el JIT elimine los resultados
+
+	/**
+	 * Función para generar una matriz de abanicos complejos aleatorios.
+	 * @param rows el número de renglones
+	 * @param columns el número de columnas
+	 * @param seed la semilla del generador
+	 * @return las entradas de la matriz
+	 */
+	static ComplexFan[][] randomEntries(int rows, int columns, long seed){
+		Random r = new Random(seed);
+		ComplexFan [][]e = new ComplexFan[rows][columns];
+		for (int i=0; i<rows; i++){
+			for (int j=0; j<columns; j++){
+				double m = 0.5+r.nextDouble()*0.5;
+				double alfa = r.nextDouble()*360;
+				e[i][j] = new ComplexFan(new Interval(m, m+r.nextDouble()*0.01, '[', ']'), new AngleInterval(alfa, alfa+r.nextDouble(), '[', ']'));
+			}
+		}
+		return e;
+	}
+
+	/**
+	 * Función para multiplicar dos matrices con un ciclo triple sobre la API de ComplexFan.
+	 * @param a las entradas de la primera matriz
+	 * @param b las entradas de la segunda matriz
+	 * @return las entradas del resultado
+	 */
+	static ComplexFan[][] tripleLoop(ComplexFan [][]a, ComplexFan [][]b){
+		int n = a.length, p = b.length, m = b[0].length;
+		ComplexFan [][]c = new ComplexFan[n][m];
+		for (int i=0; i<n; i++){
+			for (int j=0; j<m; j++){
+				ComplexFan acc = ComplexFan.product(a[i][0], b[0][j]);
+				for (int k=1; k<p; k++){
+					acc = ComplexFan.addition(acc, ComplexFan.product(a[i][k], b[k][j]));
+				}
+				c[i][j] = acc;
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * Función para medir el tiempo de una operación.
+	 * @param op la operación
+	 * @param terms el número de términos que calcula la operación
+	 * @return el tiempo por término en nanosegundos
+	 */
+	static double time(Runnable op, long terms){
+		long t0 = System.nanoTime();
+		op.run();
+		return (double)(System.nanoTime()-t0)/terms;
+	}
+
+	public static void main(String []args){
+		int n = args.length>0?Integer.parseInt(args[0]):96;
+		int nv = args.length>1?Integer.parseInt(args[1]):1000;
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		ForkJoinPool single = new ForkJoinPool(1);
+		System.out.println("paralelismo "+pool.getParallelism()+", bloque "+ComplexFanMatrix.BLOCK_SIZE);
+
+		ComplexFan [][]ea = randomEntries(n, n, 1);
+		ComplexFan [][]eb = randomEntries(n, n, 2);
+		ComplexFanMatrix a = new ComplexFanMatrix(ea);
+		ComplexFanMatrix b = new ComplexFanMatrix(eb);
+		long terms = (long)n*n*n;
+		ComplexFan [][]ew = randomEntries(24, 24, 5);
+		ComplexFanMatrix w = new ComplexFanMatrix(ew);
+		for (int k=0; k<20; k++){
+			sink = tripleLoop(ew, ew);
+			sink = w.multiply(w, single);
+			sink = w.multiply(w, pool);
+		}
+		ComplexFan [][][]c = new ComplexFan[1][][];
+		ComplexFanMatrix []cm = new ComplexFanMatrix[2];
+		System.out.printf("%-28s %12s%n", "producto "+n+" x "+n, "ns/término");
+		System.out.printf("%-28s %12.1f%n", "ciclo triple", time(() -> c[0] = tripleLoop(ea, eb), terms));
+		System.out.printf("%-28s %12.1f%n", "multiply 1 hilo", time(() -> cm[0] = a.multiply(b, single), terms));
+		System.out.printf("%-28s %12.1f%n", "multiply en paralelo", time(() -> cm[1] = a.multiply(b, pool), terms));
+		boolean same = true;
+		for (int i=0; i<n; i++){
+			for (int j=0; j<n; j++){
+				String expected = c[0][i][j].toString();
+				same &= expected.equals(cm[0].get(i, j).toString()) && expected.equals(cm[1].get(i, j).toString());
+			}
+		}
+
+		ComplexFan [][]ev = randomEntries(nv, nv, 3);
+		ComplexFanMatrix v = new ComplexFanMatrix(ev);
+		ComplexFan []x = randomEntries(1, nv, 4)[0];
+		ComplexFan [][]y = new ComplexFan[2][];
+		terms = (long)nv*nv;
+		System.out.printf("%-28s %12s%n", "matriz-vector "+nv+" x "+nv, "ns/término");
+		System.out.printf("%-28s %12.1f%n", "multiply 1 hilo", time(() -> y[0] = v.multiply(x, single), terms));
+		System.out.printf("%-28s %12.1f%n", "multiply en paralelo", time(() -> y[1] = v.multiply(x, pool), terms));
+		for (int i=0; i<nv; i+=Math.max(1, nv/50)){
+			String expected = ComplexFanMatrix.dot(ev[i], x).toString();
+			same &= expected.equals(y[0][i].toString()) && expected.equals(y[1][i].toString());
+		}
+		sink = y;
+		System.out.println("resultados "+(same?"iguales":"DISTINTOS"));
+	}
+}
@@ -0,0 +1,144 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Programa que compara la evaluación de un polinomio con coeficientes abanicos complejos
+encadenando ComplexFan.product y ComplexFan.addition a mano con ComplexFanPolynomial, en un
+punto a la vez y por lotes en paralelo. Mide el tiempo y los bytes de heap reservados por
+punto evaluado y verifica que todas las formas den los mismos resultados, también para la
+derivada.
+
+	java -cp out ComplexFanPolynomialBenchmark [puntos] [grado] [repeticiones]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanPolynomialBenchmark {
+	private static volatile Object sink;		// evita que el JIT elimine los resultados
+
+	/**
+	 * Función para generar abanicos complejos aleatorios.
+	 * @param n el número de abanicos complejos
+	 * @param seed la semilla del generador
+	 * @return el arreglo de abanicos complejos
+	 */
+	static ComplexFan[] randomFans(int n, long seed){
+		Random r = new Random(seed);
+		ComplexFan []acf = new ComplexFan[n];
+		for (int i=0; i<n; i++){
+			double m = 0.5+r.nextDouble()*0.5;
+			double alfa = r.nextDouble()*360;
+			acf[i] = new ComplexFan(new Interval(m, m+r.nextDouble()*0.1, r.nextBoolean()?'[':'(', r.nextBoolean()?']':')'), new AngleInterval(alfa, alfa+r.nextDouble()*10, r.nextBoolean()?'[':'(', r.nextBoolean()?']':')'));
+		}
+		return acf;
+	}
+
+	/**
+	 * Función para evaluar un polinomio encadenando a mano el producto y la suma de
+	ComplexFan, sin el método de Horner de ComplexFanPolynomial.
+	 * @param a los coeficientes, el de z^k en la posición k
+	 * @param z el punto donde se evalúa
+	 * @return el valor del polinomio
+	 */
+	static ComplexFan chained(ComplexFan []a, ComplexFan z){
+		ComplexFan acc = a[a.length-1];
+		for (int k=a.length-2; k>=0; k--){
+			acc = ComplexFan.addition(ComplexFan.product(acc, z), a[k]);
+		}
+		return acc;
+	}
+
+	/**
+	 * Función para obtener los bytes reservados en el heap por el hilo actual.
+	 * @return los bytes reservados, o -1 si la máquina virtual no los informa
+	 */
+	static long allocatedBytes(){
+		java.lang.management.ThreadMXBean mx = java.lang.management.ManagementFactory.getThreadMXBean();
+		if (mx instanceof com.sun.management.ThreadMXBean){
+			return ((com.sun.management.ThreadMXBean)mx).getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	}
+
+	/**
+	 * Función para medir el tiempo de la mejor de varias repeticiones de una operación.
+	 * @param op la operación
+	 * @param n el número de puntos que evalúa la operación
+	 * @param reps el número de repeticiones
+	 * @return el tiempo por punto en nanosegundos
+	 */
+	static double time(Runnable op, int n, int reps){
+		double best = Double.MAX_VALUE;
+		for (int k=0; k<reps; k++){
+			long t0 = System.nanoTime();
+			op.run();
+			best = Math.min(best, (double)(System.nanoTime()-t0)/n);
+		}
+		return best;
+	}
+
+	/**
+	 * Función para medir los bytes de heap reservados por punto en una ejecución de una
+	operación hecha en el hilo actual.
+	 * @param op la operación
+	 * @param n el número de puntos que evalúa la operación
+	 * @return los bytes por punto
+	 */
+	static double allocation(Runnable op, int n){
+		long b0 = allocatedBytes();
+		op.run();
+		return (double)(allocatedBytes()-b0)/n;
+	}
+
+	public static void main(String []args){
+		int n = args.length>0?Integer.parseInt(args[0]):200000;
+		int degree = args.length>1?Integer.parseInt(args[1]):8;
+		int reps = args.length>2?Integer.parseInt(args[2]):5;
+
+		ComplexFan []a = randomFans(degree+1, 1);
+		ComplexFan []z = randomFans(n, 2);
+		ComplexFanPolynomial p = new ComplexFanPolynomial(a);
+		ComplexFan []res = new ComplexFan[n];
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		System.out.println("grado "+degree+", "+n+" puntos, paralelismo "+pool.getParallelism());
+
+		Runnable hand = () -> {
+			for (int i=0; i<n; i++){
+				res[i] = chained(a, z[i]);
+			}
+			sink = res;
+		};
+		Runnable horner = () -> {
+			for (int i=0; i<n; i++){
+				res[i] = p.evaluate(z[i]);
+			}
+			sink = res;
+		};
+		Runnable batch = () -> sink = p.evaluate(z, pool);
+		Runnable sequential = () -> sink = p.evaluate(z, new ForkJoinPool(1));
+		System.out.printf("%-22s %12s %16s%n", "evaluación", "ns/punto", "bytes/punto");
+		System.out.printf("%-22s %12.1f %16.1f%n", "product + addition", time(hand, n, reps), allocation(hand, n));
+		System.out.printf("%-22s %12.1f %16.1f%n", "evaluate", time(horner, n, reps), allocation(horner, n));
+		System.out.printf("%-22s %12.1f %16s%n", "evaluate(puntos)", time(batch, n, reps), "-");
+		System.out.printf("%-22s %12.1f %16.1f%n", "evaluate(puntos) 1 hilo", time(sequential, n, reps), allocation(sequential, n));
+
+		boolean same = true;
+		ComplexFan []values = p.evaluate(z, pool);
+		ComplexFan []derivatives = p.evaluateDerivative(z, pool);
+		ComplexFanPolynomial d = p.derivative();
+		ComplexFan []da = new ComplexFan[Math.max(1, degree)];
+		for (int k=1; k<=degree; k++){
+			da[k-1] = ComplexFan.product(a[k], new ComplexFan(new Interval(k, k, '[', ']'), new AngleInterval(0, 0, '[', ']')));
+		}
+		if (degree==0){
+			da[0] = new ComplexFan(new Interval(0, 0, '[', ']'), new AngleInterval(0, 0, '[', ']'));
+		}
+		for (int i=0; i<n; i++){
+			String expected = chained(a, z[i]).toString();
+			same &= expected.equals(p.evaluate(z[i]).toString()) && expected.equals(values[i].toString());
+			String dexpected = chained(da, z[i]).toString();
+			same &= dexpected.equals(p.evaluateDerivative(z[i]).toString()) && dexpected.equals(derivatives[i].toString());
+		}
+		same &= d.degree()==Math.max(0, degree-1);
+		System.out.println("resultados "+(same?"iguales":"DISTINTOS"));
+	}
+}
@@ -0,0 +1,90 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Programa que mide ComplexFanRaster de 1 a N núcleos. Calcula las sumas de pares de abanicos
+complejos aleatorios, dibuja los resultados rellenos y sus bordes con un ForkJoinPool de p
+hilos, para p desde 1 hasta el número de procesadores disponibles, y reporta el tiempo, los
+abanicos por segundo y la aceleración respecto a un hilo; verifica que todas las imágenes sean
+iguales. Guarda la última imagen y la de una suma como CFOperationPlot en el directorio dado.
+
+	java -cp out ComplexFanRasterBenchmark [abanicos] [lado en pixeles] [directorio]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanRasterBenchmark {
+
+	/**
+	 * Función para generar abanicos complejos aleatorios pequeños.
+	 * @param n el número de abanicos complejos
+	 * @param r el generador
+	 * @return el arreglo de abanicos complejos
+	 */
+	static ComplexFan[] randomFans(int n, Random r){
+		ComplexFan []acf = new ComplexFan[n];
+		for (int i=0; i<n; i++){
+			double m = 0.5+r.nextDouble();
+			double alfa = r.nextDouble()*360;
+			acf[i] = new ComplexFan(new Interval(m, m+0.05*r.nextDouble(), '[', ']'), new AngleInterval(alfa, alfa+r.nextDouble()*5, '[', ']'));
+		}
+		return acf;
+	}
+
+	/**
+	 * Función para dibujar los resultados en una imagen nueva.
+	 * @param fans los abanicos complejos
+	 * @param side el lado de la imagen en pixeles
+	 * @param pool el pool donde se dibuja
+	 * @return la imagen
+	 */
+	static ComplexFanRaster render(ComplexFan []fans, int side, ForkJoinPool pool){
+		ComplexFanRaster img = new ComplexFanRaster(side, side, 0, 0, side/7.0);
+		img.axes(ComplexFanRaster.GRAY);
+		img.paint(fans, 0x10FF0000, false, pool);
+		img.paint(fans, 0x40000000, true, pool);
+		return img;
+	}
+
+	public static void main(String []args){
+		int n = args.length>0?Integer.parseInt(args[0]):100000;
+		int side = args.length>1?Integer.parseInt(args[1]):1024;
+		Path dir = Paths.get(args.length>2?args[2]:".");
+
+		Random r = new Random(1);
+		ComplexFan []x = randomFans(n, r);
+		ComplexFan []y = randomFans(n, r);
+		ComplexFan []sums = new ComplexFan[n];
+		for (int i=0; i<n; i++){
+			sums[i] = ComplexFan.addition(x[i], y[i]);
+		}
+		render(sums, side, new ForkJoinPool(1));		// calentamiento
+		int cores = Runtime.getRuntime().availableProcessors();
+		double base = 0;
+		ComplexFanRaster first = null, img = null;
+		boolean same = true;
+		System.out.printf("%6s %10s %14s %10s%n", "hilos", "ms", "abanicos/s", "acel.");
+		for (int p=1; p<=cores; p++){
+			ForkJoinPool pool = new ForkJoinPool(p);
+			long t0 = System.nanoTime();
+			img = render(sums, side, pool);
+			double ms = (System.nanoTime()-t0)/1e6;
+			pool.shutdown();
+			if (p==1){
+				base = ms;
+				first = img;
+			}
+			for (int row=0; row<side; row++){
+				for (int col=0; col<side; col++){
+					same &= img.getPixel(col, row)==first.getPixel(col, row);
+				}
+			}
+			System.out.printf("%6d %10.1f %14.0f %10.2f%n", p, ms, n/(ms/1000), base/ms);
+		}
+		System.out.println("imágenes "+(same?"iguales":"DISTINTAS"));
+		img.writePng(dir.resolve("sums.png"));
+		ComplexFanRaster.operationPlot(x[0], y[0], sums[0], 600, 600).writePng(dir.resolve("addition.png"));
+		System.out.println("imágenes guardadas en "+dir.toAbsolutePath());
+	}
+}
@@ -0,0 +1,144 @@
+import java.util.Random;
+
+/**
+ * Programa que mide el efecto de la tolerancia de ComplexFan.addition en sumas encadenadas. Suma
+de izquierda a derecha cadenas de abanicos complejos aleatorios, unos con extremos de ángulo
+cualesquiera y otros con extremos y anchos a una fracción de grado de los ejes, con varias
+tolerancias. Para cada tolerancia reporta el tiempo por suma, las partes por descomposición en
+cuadrantes, los intervalos unidos por suma (de ComplexFanStats), el ancho medio del ángulo y de
+la magnitud de los resultados y cuánto más anchos son que sin simplificar, y el porcentaje de
+resultados que contienen al resultado sin simplificar.
+
+	java -cp out ComplexFanSimplification [cadenas] [largo] [repeticiones]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanSimplification {
+	private static final double []TOLERANCES = {0, 1e-9, 1e-6, 1e-3};	// las tolerancias en grados
+
+	/**
+	 * Función para generar cadenas de abanicos complejos aleatorios.
+	 * @param n el número de cadenas
+	 * @param length el número de abanicos complejos por cadena
+	 * @param nearAxes si los extremos y los anchos de los ángulos quedan cerca de los ejes
+	 * @param seed la semilla del generador
+	 * @return las cadenas
+	 */
+	static ComplexFan[][] randomChains(int n, int length, boolean nearAxes, long seed){
+		Random r = new Random(seed);
+		ComplexFan [][]chains = new ComplexFan[n][length];
+		for (int i=0; i<n; i++){
+			for (int j=0; j<length; j++){
+				double m = 0.5+r.nextDouble();
+				double alfa, w;
+				if (nearAxes){
+					alfa = 90*r.nextInt(4)+(r.nextDouble()-0.5)*1e-4;
+					w = 90*(1+r.nextInt(2))+(r.nextDouble()-0.5)*1e-4;
+				}else{
+					alfa = r.nextDouble()*360;
+					w = r.nextDouble()*60;
+				}
+				chains[i][j] = new ComplexFan(new Interval(m, m+0.1*r.nextDouble(), '[', ']'), new AngleInterval(alfa, alfa+w, '[', ']'));
+				chains[i][j].getAngleInterval().normalize();
+			}
+		}
+		return chains;
+	}
+
+	/**
+	 * Función para sumar las cadenas de izquierda a derecha.
+	 * @param chains las cadenas
+	 * @param tolerance la tolerancia de simplificación en grados
+	 * @return la suma de cada cadena
+	 */
+	static ComplexFan[] sumChains(ComplexFan [][]chains, double tolerance){
+		ComplexFan []res = new ComplexFan[chains.length];
+		for (int i=0; i<chains.length; i++){
+			ComplexFan total = chains[i][0];
+			for (int j=1; j<chains[i].length; j++){
+				total = ComplexFan.addition(total, chains[i][j], tolerance);
+			}
+			res[i] = total;
+		}
+		return res;
+	}
+
+	/**
+	 * Función para calcular el ancho en grados de un intervalo de ángulo normalizado.
+	 * @param ai el intervalo de ángulo
+	 * @return el ancho, 360 para [0, 360]
+	 */
+	static double angleWidth(AngleInterval ai){
+		double fe = ai.getFirstExtreme();
+		double se = ai.getSecondExtreme();
+		return fe<=se ? se-fe : se-fe+360;
+	}
+
+	/**
+	 * Función para verificar si un arco contiene a otro, sin tomar en cuenta los lı́mites.
+	 * @param outer el arco que contiene
+	 * @param inner el arco contenido
+	 * @return si outer contiene a inner
+	 */
+	static boolean containsArc(AngleInterval outer, AngleInterval inner){
+		double w = angleWidth(outer);
+		if (w>=360){
+			return true;
+		}
+		double start = inner.getFirstExtreme()-outer.getFirstExtreme();
+		if (start<0){
+			start += 360;
+		}
+		return start+angleWidth(inner)<=w;
+	}
+
+	public static void main(String []args){
+		if (System.getProperty("complexfan.stats")==null){
+			System.setProperty("complexfan.stats", "true");
+		}
+		int n = args.length>0?Integer.parseInt(args[0]):2000;
+		int length = args.length>1?Integer.parseInt(args[1]):6;
+		int reps = args.length>2?Integer.parseInt(args[2]):3;
+		for (boolean nearAxes : new boolean[]{false, true}){
+			ComplexFan [][]chains = randomChains(n, length, nearAxes, 1);
+			System.out.println(nearAxes ? "extremos y anchos cerca de los ejes" : "extremos y anchos aleatorios");
+			System.out.printf("%-9s %10s %8s %10s %12s %12s %12s %10s%n", "tol.", "ns/suma", "partes", "uniones", "ángulo", "+ángulo", "magnitud", "contiene");
+			ComplexFan []base = null;
+			for (double tol : TOLERANCES){
+				ComplexFan []res = null;
+				double best = Double.MAX_VALUE;
+				for (int k=0; k<reps; k++){
+					long t0 = System.nanoTime();
+					res = sumChains(chains, tol);
+					best = Math.min(best, (double)(System.nanoTime()-t0)/(n*(length-1)));
+				}
+				ComplexFanStats.resetAll();
+				res = sumChains(chains, tol);
+				long decompositions = 0, parts = 0;
+				long []fragments = ComplexFanStats.getFragmentCounts();
+				for (int k=0; k<fragments.length; k++){
+					decompositions += fragments[k];
+					parts += k*fragments[k];
+				}
+				double merges = (double)(ComplexFanStats.unionOfAIsMerges.sum()+ComplexFanStats.unionOfMIsMerges.sum())/(n*(length-1));
+				if (base==null){
+					base = res;
+				}
+				double angle = 0, extra = 0, magnitude = 0;
+				int contained = 0;
+				for (int i=0; i<n; i++){
+					double w = angleWidth(res[i].getAngleInterval());
+					angle += w;
+					extra += w-angleWidth(base[i].getAngleInterval());
+					Interval mi = res[i].getMagnitudeInterval();
+					Interval bmi = base[i].getMagnitudeInterval();
+					magnitude += mi.getSecondExtreme()-mi.getFirstExtreme();
+					if (containsArc(res[i].getAngleInterval(), base[i].getAngleInterval()) && mi.getFirstExtreme()<=bmi.getFirstExtreme() && mi.getSecondExtreme()>=bmi.getSecondExtreme()){
+						contained++;
+					}
+				}
+				System.out.printf("%-9.0e %10.0f %8.3f %10.2f %12.6f %12.3e %12.6f %9.1f%%%n", tol, best, (double)parts/decompositions, merges, angle/n, extra/n, magnitude/n, 100.0*contained/n);
+			}
+		}
+	}
+}
@@ -0,0 +1,134 @@
+import java.util.Random;
+
+/**
+ * Programa que compara un arreglo de ComplexFan en el heap con un ComplexFanStore fuera del
+heap. Mide los bytes de heap por abanico complejo de cada representación y el tiempo por
+abanico del producto y la negación con ComplexFan, con ComplexFanBatch y con ComplexFanStore,
+y verifica que los tres den los mismos resultados, también sobre una vista (slice) del almacén.
+
+	java -cp out ComplexFanStoreBenchmark [abanicos] [repeticiones]
+	java --add-modules jdk.incubator.foreign -cp out ComplexFanStoreBenchmark [abanicos] [repeticiones]
+
+La segunda forma usa la memoria de ComplexFanStoreForeign si está compilada.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanStoreBenchmark {
+	private static volatile Object sink;		// evita que el JIT elimine los resultados
+
+	/**
+	 * Función para generar abanicos complejos aleatorios.
+	 * @param n el número de abanicos complejos
+	 * @param seed la semilla del generador
+	 * @return el arreglo de abanicos complejos
+	 */
+	static ComplexFan[] randomFans(int n, long seed){
+		Random r = new Random(seed);
+		ComplexFan []acf = new ComplexFan[n];
+		for (int i=0; i<n; i++){
+			double m = 0.5+r.nextDouble();
+			double alfa = r.nextDouble()*360;
+			acf[i] = new ComplexFan(new Interval(m, m+r.nextDouble(), r.nextBoolean()?'[':'(', r.nextBoolean()?']':')'), new AngleInterval(alfa, alfa+r.nextDouble()*90, r.nextBoolean()?'[':'(', r.nextBoolean()?']':')'));
+		}
+		return acf;
+	}
+
+	/**
+	 * Función para obtener la memoria usada del heap después de recolectar la basura.
+	 * @return los bytes usados
+	 */
+	static long usedHeap(){
+		Runtime rt = Runtime.getRuntime();
+		for (int i=0; i<3; i++){
+			System.gc();
+		}
+		return rt.totalMemory()-rt.freeMemory();
+	}
+
+	/**
+	 * Función para medir el tiempo de la mejor de varias repeticiones de una operación.
+	 * @param op la operación
+	 * @param n el número de abanicos complejos que procesa la operación
+	 * @param reps el número de repeticiones
+	 * @return el tiempo por abanico complejo en nanosegundos
+	 */
+	static double time(Runnable op, int n, int reps){
+		double best = Double.MAX_VALUE;
+		for (int k=0; k<reps; k++){
+			long t0 = System.nanoTime();
+			op.run();
+			best = Math.min(best, (double)(System.nanoTime()-t0)/n);
+		}
+		return best;
+	}
+
+	public static void main(String []args){
+		int n = args.length>0?Integer.parseInt(args[0]):2000000;
+		int reps = args.length>1?Integer.parseInt(args[1]):5;
+
+		long before = usedHeap();
+		ComplexFan []x = randomFans(n, 1);
+		long heapFans = usedHeap()-before;
+		ComplexFan []y = randomFans(n, 2);
+		before = usedHeap();
+		ComplexFanStore sx = ComplexFanStore.allocate(n);
+		long heapStore = usedHeap()-before;
+		for (int i=0; i<n; i++){
+			sx.set(i, x[i]);
+		}
+		ComplexFanStore sy = ComplexFanStore.allocate(n);
+		for (int i=0; i<n; i++){
+			sy.set(i, y[i]);
+		}
+		ComplexFanBatch bx = new ComplexFanBatch(x);
+		ComplexFanBatch by = new ComplexFanBatch(y);
+		System.out.printf("heap por abanico: ComplexFan[] %.1f bytes, ComplexFanStore %.3f bytes (%d bytes fuera del heap)%n", (double)heapFans/n, (double)heapStore/n, ComplexFanStore.RECORD_SIZE);
+
+		ComplexFan []res = new ComplexFan[n];
+		ComplexFanBatch bres = new ComplexFanBatch(n);
+		ComplexFanStore sres = ComplexFanStore.allocate(n);
+		boolean same = true;
+		System.out.printf("%-10s %16s %16s %16s%n", "operación", "ComplexFan (ns)", "Batch (ns)", "Store (ns)");
+		for (String op : new String[]{"product", "negation"}){
+			boolean product = op.equals("product");
+			double tFans = time(() -> {
+				for (int i=0; i<n; i++){
+					res[i] = product ? ComplexFan.product(x[i], y[i]) : ComplexFan.negation(x[i]);
+				}
+				sink = res;
+			}, n, reps);
+			double tBatch = time(() -> {
+				if (product){
+					ComplexFanBatch.product(bx, by, bres);
+				}else{
+					ComplexFanBatch.negation(bx, bres);
+				}
+				sink = bres;
+			}, n, reps);
+			double tStore = time(() -> {
+				if (product){
+					ComplexFanStore.product(sx, sy, sres);
+				}else{
+					ComplexFanStore.negation(sx, sres);
+				}
+				sink = sres;
+			}, n, reps);
+			for (int i=0; i<n; i+=97){
+				same &= res[i].toString().equals(sres.get(i).toString()) && res[i].toString().equals(bres.get(i).toString());
+			}
+			System.out.printf("%-10s %16.2f %16.2f %16.2f%n", op, tFans, tBatch, tStore);
+		}
+		int from = n/3, len = n/3;
+		ComplexFanStore view = ComplexFanStore.allocate(len);
+		ComplexFanStore.product(sx.slice(from, len), sy.slice(from, len), view);
+		ComplexFanStore.negation(view, sres.slice(from, len));
+		for (int i=0; i<len; i+=101){
+			same &= ComplexFan.product(x[from+i], y[from+i]).toString().equals(view.get(i).toString());
+			same &= ComplexFan.negation(ComplexFan.product(x[from+i], y[from+i])).toString().equals(sres.get(from+i).toString());
+		}
+		System.out.println("resultados "+(same?"iguales":"DISTINTOS"));
+		for (ComplexFanStore s : new ComplexFanStore[]{sx, sy, sres, view}){
+			s.close();
+		}
+	}
+}
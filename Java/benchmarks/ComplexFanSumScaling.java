@@ -0,0 +1,72 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Programa que mide la escalabilidad de ComplexFan.sum de 1 a N núcleos. Suma un arreglo de
+abanicos complejos aleatorios con un ForkJoinPool de p hilos, para p desde 1 hasta el número de
+procesadores disponibles, y reporta el tiempo, la aceleración respecto a un hilo y la
+aceleración respecto a la suma secuencial con addition.
+
+	java -cp out ComplexFanSumScaling [abanicos] [tamaño de hoja] [repeticiones]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanSumScaling {
+	private static ComplexFan result;		// el resultado de la última suma medida
+
+	/**
+	 * Función para generar abanicos complejos aleatorios en el primer cuadrante.
+	 * @param n el número de abanicos complejos
+	 * @param seed la semilla del generador
+	 * @return el arreglo de abanicos complejos
+	 */
+	static ComplexFan[] randomFans(int n, long seed){
+		Random r = new Random(seed);
+		ComplexFan []acf = new ComplexFan[n];
+		for (int i=0; i<n; i++){
+			double m = 0.5+r.nextDouble();
+			double alfa = 5+r.nextDouble()*50;
+			acf[i] = new ComplexFan(new Interval(m, m+0.1*r.nextDouble(), '[', ']'), new AngleInterval(alfa, alfa+r.nextDouble()*20, '[', ']'));
+		}
+		return acf;
+	}
+
+	/**
+	 * Función para medir el tiempo de la mejor de varias repeticiones de una suma.
+	 * @param sum la suma a medir
+	 * @param reps el número de repeticiones
+	 * @return el tiempo en milisegundos
+	 */
+	static double time(Supplier<ComplexFan> sum, int reps){
+		double best = Double.MAX_VALUE;
+		for (int k=0; k<reps; k++){
+			long t0 = System.nanoTime();
+			result = sum.get();
+			best = Math.min(best, (System.nanoTime()-t0)/1e6);
+		}
+		return best;
+	}
+
+	public static void main(String []args){
+		int n = args.length>0?Integer.parseInt(args[0]):100000;
+		int leafSize = args.length>1?Integer.parseInt(args[1]):ComplexFan.DEFAULT_LEAF_SIZE;
+		int reps = args.length>2?Integer.parseInt(args[2]):5;
+		int cores = Runtime.getRuntime().availableProcessors();
+		ComplexFan []acf = randomFans(n, 42);
+		System.out.println("abanicos="+n+" hoja="+leafSize+" procesadores="+cores);
+		double serial = time(() -> ComplexFanSumTask.sequentialSum(acf, 0, acf.length), reps);
+		System.out.printf("%-10s %10.1f ms %10s %10s   %s%n", "secuencial", serial, "", "", result);
+		System.out.printf("%-10s %13s %10s %10s%n", "hilos", "", "vs 1 hilo", "vs sec.");
+		double one = 0;
+		for (int p=1; p<=cores; p++){
+			ForkJoinPool pool = new ForkJoinPool(p);
+			double t = time(() -> pool.invoke(new ComplexFanSumTask(acf, 0, acf.length, leafSize)), reps);
+			pool.shutdown();
+			if (p==1){
+				one = t;
+			}
+			System.out.printf("%-10d %10.1f ms %10.2f %10.2f   %s%n", p, t, one/t, serial/t, result);
+		}
+	}
+}
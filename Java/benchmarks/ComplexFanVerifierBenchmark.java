@@ -0,0 +1,47 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Programa que verifica las operaciones de ComplexFan con ComplexFanVerifier y mide su
+velocidad de 1 a N núcleos, para usarlo como prueba de carga. Para cada número de hilos p,
+desde 1 hasta el número de procesadores disponibles, verifica los mismos pares con un
+ForkJoinPool de p hilos y reporta los puntos por segundo y la aceleración respecto a un hilo;
+al final imprime las violaciones de cada operación y algunos ejemplos. El programa termina con
+código 1 si encontró violaciones.
+
+	java -cp out ComplexFanVerifierBenchmark [pares] [puntos por par] [semilla] [ancho máximo]
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanVerifierBenchmark {
+
+	public static void main(String []args){
+		int pairs = args.length>0?Integer.parseInt(args[0]):20000;
+		int samples = args.length>1?Integer.parseInt(args[1]):100;
+		long seed = args.length>2?Long.parseLong(args[2]):1;
+		double width = args.length>3?Double.parseDouble(args[3]):180;
+
+		ComplexFanVerifier v = new ComplexFanVerifier(pairs, samples, seed);
+		v.setMaxAngleWidth(width);
+		v.run(new ForkJoinPool(1));		// calentamiento
+		int cores = Runtime.getRuntime().availableProcessors();
+		double base = 0;
+		System.out.printf("%6s %14s %10s%n", "hilos", "puntos/s", "acel.");
+		for (int p=1; p<=cores; p++){
+			ForkJoinPool pool = new ForkJoinPool(p);
+			v.run(pool);
+			pool.shutdown();
+			double rate = v.getSamplesPerSecond();
+			if (p==1){
+				base = rate;
+			}
+			System.out.printf("%6d %14.0f %10.2f%n", p, rate, rate/base);
+		}
+		System.out.println(v);
+		for (String e : v.getExamples()){
+			System.out.println(e);
+		}
+		if (v.getViolations()>0){
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+import java.math.BigDecimal;
+
+/**
+ * Programa que mide la exactitud y el tiempo de VectorAngle.degrees, el ángulo de un vector
+que usan los casos 2 y 3 de la suma. La exactitud se mide contra StrictMath.atan2 convertido a
+grados con BigDecimal, sobre los vectores de VectorAngleCheck, que además verifica la cota de
+error y [lower, upper] vector por vector y falla si no se cumplen. El tiempo se compara con el
+cálculo con Math.atan por cuadrante.
+
+	java -cp out VectorAngleBenchmark [vectores] [repeticiones]
+ * @author Manuel Cipriano
+ */
+
+public class VectorAngleBenchmark {
+	private static volatile double sink;		// evita que el JIT elimine los resultados
+
+	/**
+	 * Función para calcular el ángulo de un vector con Math.atan por cuadrante.
+	 * @param x la componente en x del vector
+	 * @param y la componente en y del vector
+	 * @return el ángulo en grados, en [0, 360)
+	 */
+	static double atanDegrees(double x, double y){
+		if (x>=0&&y>0){
+			return x==0 ? 90 : Math.toDegrees(Math.atan(y/x));
+		}
+		else if (x>=0&&y==0){
+			return 0;
+		}
+		else if (x>=0&&y<0){
+			return x==0 ? 270 : 360-Math.toDegrees(Math.atan(Math.abs(y)/x));
+		}
+		else if (x<0&&y>0){
+			return 180-Math.toDegrees(Math.atan(y/Math.abs(x)));
+		}
+		else if (x<0&&y==0){
+			return 180;
+		}
+		else if (x<0&&y<0){
+			return 180+Math.toDegrees(Math.atan(Math.abs(y)/Math.abs(x)));
+		}
+		return 0;
+	}
+
+	/**
+	 * Función para medir el tiempo de la mejor de varias repeticiones.
+	 * @param v los vectores
+	 * @param reps el número de repeticiones
+	 * @param fast si se usa VectorAngle.degrees o el cálculo con Math.atan
+	 * @return el tiempo por vector en nanosegundos
+	 */
+	static double time(double []v, int reps, boolean fast){
+		double best = Double.MAX_VALUE;
+		int n = v.length/2;
+		for (int k=0; k<reps; k++){
+			double s = 0;
+			long t0 = System.nanoTime();
+			if (fast){
+				for (int i=0; i<n; i++){
+					s += VectorAngle.degrees(v[2*i], v[2*i+1]);
+				}
+			}else{
+				for (int i=0; i<n; i++){
+					s += atanDegrees(v[2*i], v[2*i+1]);
+				}
+			}
+			best = Math.min(best, (double)(System.nanoTime()-t0)/n);
+			sink = s;
+		}
+		return best;
+	}
+
+	public static void main(String []args){
+		int n = args.length>0?Integer.parseInt(args[0]):1000000;
+		int reps = args.length>1?Integer.parseInt(args[1]):10;
+
+		double []v = VectorAngleCheck.vectors(n, 1);
+		double maxFast = VectorAngleCheck.check(v), maxAtan = 0;
+		for (int i=0; i<n; i++){
+			BigDecimal ref = VectorAngleCheck.reference(v[2*i], v[2*i+1]);
+			maxAtan = Math.max(maxAtan, VectorAngleCheck.distance(atanDegrees(v[2*i], v[2*i+1]), ref));
+		}
+		System.out.printf("error máximo: VectorAngle %.3e grados, Math.atan %.3e grados, cota %.1e%n", maxFast, maxAtan, VectorAngle.ERROR);
+
+		double fast = 0, atan = 0;
+		for (int w=0; w<3; w++){
+			fast = time(v, reps, true);
+			atan = time(v, reps, false);
+		}
+		System.out.printf("tiempo por vector: VectorAngle %.2f ns, Math.atan %.2f ns, %.2fx%n", fast, atan, atan/fast);
+	}
+}
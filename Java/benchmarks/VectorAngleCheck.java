@@ -0,0 +1,138 @@
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+/**
+ * Programa que verifica VectorAngle y falla con AssertionError si algo no se cumple. Compara
+VectorAngle.degrees contra StrictMath.atan2 convertido a grados con BigDecimal, sobre vectores
+aleatorios en todo el plano, cerca de los ejes, cerca de las diagonales y en los bordes de la
+tabla, y sobre vectores justo arriba y justo abajo de cada eje. Para cada vector verifica que
+el error quede por debajo de VectorAngle.ERROR y que lower y upper estén en [0, 360], en ese
+orden y con el ángulo de referencia entre ellos. Maven lo corre en la fase test:
+
+	java -cp out VectorAngleCheck [vectores]
+ * @author Manuel Cipriano
+ */
+
+public class VectorAngleCheck {
+	private static final MathContext MC = MathContext.DECIMAL128;	// la precisión de la referencia
+	private static final BigDecimal RAD_TO_DEG = new BigDecimal("57.29577951308232087679815481410517033240547246656432154916");	// 180/π
+	private static final BigDecimal FULL_TURN = BigDecimal.valueOf(360);
+
+	/**
+	 * Función para calcular el ángulo de referencia de un vector, con StrictMath.atan2 (error
+	menor que 2 ulp) y la conversión a grados y el paso a [0, 360) con BigDecimal.
+	 * @param x la componente en x del vector
+	 * @param y la componente en y del vector
+	 * @return el ángulo de referencia en grados
+	 */
+	static BigDecimal reference(double x, double y){
+		BigDecimal deg = new BigDecimal(StrictMath.atan2(y, x)).multiply(RAD_TO_DEG, MC);
+		return deg.signum()<0 ? deg.add(FULL_TURN) : deg;
+	}
+
+	/**
+	 * Función para calcular la distancia entre un ángulo y el ángulo de referencia, por el
+	lado más corto, porque cerca de 0 grados pueden quedar de lados distintos del corte.
+	 * @param theta el ángulo en grados
+	 * @param ref el ángulo de referencia en grados
+	 * @return la distancia en grados
+	 */
+	static double distance(double theta, BigDecimal ref){
+		double e = new BigDecimal(theta).subtract(ref).abs().doubleValue();
+		return e>180 ? 360-e : e;
+	}
+
+	/**
+	 * Función para generar vectores de prueba.
+	 * @param n el número de vectores
+	 * @param seed la semilla del generador
+	 * @return las componentes, x en las posiciones pares y y en las impares
+	 */
+	static double[] vectors(int n, long seed){
+		Random r = new Random(seed);
+		double []v = new double[2*n];
+		for (int i=0; i<n; i++){
+			double theta, m = Math.exp((r.nextDouble()-0.5)*20);
+			switch (i%4){
+				case 0:		// todo el plano
+					theta = r.nextDouble()*2*Math.PI;
+					break;
+				case 1:		// cerca de un eje
+					theta = r.nextInt(4)*Math.PI/2+(r.nextDouble()-0.5)*Math.pow(10, -r.nextInt(15));
+					break;
+				case 2:		// cerca de una diagonal
+					theta = (2*r.nextInt(4)+1)*Math.PI/4+(r.nextDouble()-0.5)*1e-6;
+					break;
+				default:	// cerca de un punto de la tabla, t = k/32 ± 1/64
+					theta = Math.atan((r.nextInt(33)+(r.nextDouble()-0.5))/32)+r.nextInt(4)*Math.PI/2;
+			}
+			v[2*i] = m*Math.cos(theta);
+			v[2*i+1] = m*Math.sin(theta);
+		}
+		return v;
+	}
+
+	/**
+	 * Función para generar vectores justo arriba y justo abajo de cada eje, donde lower y
+	upper quedarı́an fuera de [0, 360] sin acotarse, y sobre los ejes.
+	 * @return las componentes, x en las posiciones pares y y en las impares
+	 */
+	static double[] edges(){
+		double []offsets = {Double.MIN_VALUE, 1e-300, 1e-20, 1e-16, 1e-15, 1e-14, 1e-13, 1e-12, 0.0};
+		double []v = new double[offsets.length*16];
+		int k = 0;
+		for (double o : offsets){
+			for (double s : new double[]{o, -o}){
+				for (double m : new double[]{1.0, -1.0}){
+					v[k++] = m;		// junto al eje x
+					v[k++] = s;
+					v[k++] = s;		// junto al eje y
+					v[k++] = m;
+				}
+			}
+		}
+		return v;
+	}
+
+	/**
+	 * Función para verificar VectorAngle sobre un conjunto de vectores.
+	 * @param v las componentes, x en las posiciones pares y y en las impares
+	 * @return el error máximo de VectorAngle.degrees en grados
+	 * @throws AssertionError si algún vector no cumple con la cota o con el orden de lower y upper
+	 */
+	static double check(double []v){
+		double max = 0;
+		for (int i=0; i<v.length/2; i++){
+			double x = v[2*i], y = v[2*i+1];
+			double theta = VectorAngle.degrees(x, y);
+			double lo = VectorAngle.lower(x, y);
+			double hi = VectorAngle.upper(x, y);
+			String where = "("+x+", "+y+"): degrees "+theta+", lower "+lo+", upper "+hi;
+			if (!(0<=theta && theta<=360 && 0<=lo && lo<=theta && theta<=hi && hi<=360)){
+				throw new AssertionError("Ángulo fuera de orden o de [0, 360] en "+where);
+			}
+			if (x==0 && y==0){
+				continue;
+			}
+			BigDecimal ref = reference(x, y);
+			double e = distance(theta, ref);
+			if (e>VectorAngle.ERROR){
+				throw new AssertionError("Error de "+e+" grados, mayor que "+VectorAngle.ERROR+", en "+where);
+			}
+			max = Math.max(max, e);
+			// sobre los ejes el ángulo es exacto y la referencia tiene el error de π en double
+			boolean axis = x==0 || y==0;
+			if (!axis && (new BigDecimal(lo).compareTo(ref)>0 || new BigDecimal(hi).compareTo(ref)<0)){
+				throw new AssertionError("[lower, upper] no contiene al ángulo "+ref+" en "+where);
+			}
+		}
+		return max;
+	}
+
+	public static void main(String []args){
+		int n = args.length>0?Integer.parseInt(args[0]):200000;
+		double max = Math.max(check(vectors(n, 1)), check(edges()));
+		System.out.printf("VectorAngle: error máximo %.3e grados, cota %.1e, %d vectores verificados%n", max, VectorAngle.ERROR, n+edges().length/2);
+	}
+}
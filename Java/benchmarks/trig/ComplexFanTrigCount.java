@@ -0,0 +1,32 @@
+/**
+ * Programa que cuenta las llamadas a funciones trascendentes (toRadians, toDegrees, sin, cos,
+atan y asin) que hace una ComplexFan.addition sobre cada conjunto de operandos de
+ComplexFanBenchmark. Las cuenta el Math de esta carpeta, que tapa a java.lang.Math, ası́ que
+se compila aparte de las demás mediciones:
+
+	javac -encoding UTF-8 -d out-trig Java/*.java Java/benchmarks/ComplexFanBenchmark.java Java/benchmarks/trig/*.java
+	java -cp out-trig ComplexFanTrigCount
+
+Para comparar con otra versión de la suma se compila igual con los archivos de la carpeta
+Java de esa versión, por ejemplo los de un git worktree del commit anterior.
+ * @author Manuel Cipriano
+ */
+
+public class ComplexFanTrigCount {
+	public static void main(String []args){
+		StringBuilder header = new StringBuilder(String.format("%-12s %6s", "operandos", "total"));
+		for (String name : Math.NAMES){
+			header.append(String.format(" %9s", name));
+		}
+		System.out.println(header);
+		for (ComplexFanBenchmark.FanSet s : ComplexFanBenchmark.fanSets()){
+			Math.reset();
+			ComplexFan.addition(s.cf1, s.cf2);
+			StringBuilder line = new StringBuilder(String.format("%-12s %6d", s.name, Math.total()));
+			for (long c : Math.CALLS){
+				line.append(String.format(" %9d", c));
+			}
+			System.out.println(line);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/**
+ * Sustituto de java.lang.Math que cuenta las llamadas a las funciones trascendentes
+(toRadians, toDegrees, sin, cos, atan y asin) y delega todo en java.lang.Math. Como está en el
+paquete por omisión, al compilarlo junto con las clases de la carpeta Java tapa a
+java.lang.Math en todas ellas sin cambiar su código; por eso vive en su propia carpeta y sólo
+se compila para ComplexFanTrigCount.
+ * @author Manuel Cipriano
+ */
+
+public final class Math {
+	public static final double PI = java.lang.Math.PI;
+
+	static final String []NAMES = {"toRadians", "toDegrees", "sin", "cos", "atan", "asin"};
+	static final long []CALLS = new long[NAMES.length];	// las llamadas a cada función de NAMES
+
+	private Math(){
+	}
+
+	/**
+	 * Función para poner en cero los contadores.
+	 */
+	static void reset(){
+		java.util.Arrays.fill(CALLS, 0);
+	}
+
+	/**
+	 * Función para obtener el total de llamadas a funciones trascendentes.
+	 * @return la suma de los contadores
+	 */
+	static long total(){
+		long t = 0;
+		for (long c : CALLS){
+			t += c;
+		}
+		return t;
+	}
+
+	public static double toRadians(double a){ CALLS[0]++; return java.lang.Math.toRadians(a); }
+	public static double toDegrees(double a){ CALLS[1]++; return java.lang.Math.toDegrees(a); }
+	public static double sin(double a){ CALLS[2]++; return java.lang.Math.sin(a); }
+	public static double cos(double a){ CALLS[3]++; return java.lang.Math.cos(a); }
+	public static double atan(double a){ CALLS[4]++; return java.lang.Math.atan(a); }
+	public static double asin(double a){ CALLS[5]++; return java.lang.Math.asin(a); }
+
+	public static double atan2(double y, double x){ return java.lang.Math.atan2(y, x); }
+	public static double hypot(double x, double y){ return java.lang.Math.hypot(x, y); }
+	public static double sqrt(double a){ return java.lang.Math.sqrt(a); }
+	public static double pow(double a, double b){ return java.lang.Math.pow(a, b); }
+	public static double floor(double a){ return java.lang.Math.floor(a); }
+	public static double ceil(double a){ return java.lang.Math.ceil(a); }
+	public static double nextUp(double a){ return java.lang.Math.nextUp(a); }
+	public static double nextDown(double a){ return java.lang.Math.nextDown(a); }
+	public static int abs(int a){ return java.lang.Math.abs(a); }
+	public static long abs(long a){ return java.lang.Math.abs(a); }
+	public static double abs(double a){ return java.lang.Math.abs(a); }
+	public static int max(int a, int b){ return java.lang.Math.max(a, b); }
+	public static long max(long a, long b){ return java.lang.Math.max(a, b); }
+	public static double max(double a, double b){ return java.lang.Math.max(a, b); }
+	public static int min(int a, int b){ return java.lang.Math.min(a, b); }
+	public static long min(long a, long b){ return java.lang.Math.min(a, b); }
+	public static double min(double a, double b){ return java.lang.Math.min(a, b); }
+}
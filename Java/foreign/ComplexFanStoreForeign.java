@@ -0,0 +1,41 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+/**
+ * Esta clase implementa la memoria de ComplexFanStore con jdk.incubator.foreign. Los bloques
+son segmentos nativos de un mismo ResourceScope compartido; igual que los ByteBuffer directos
+cuentan contra -XX:MaxDirectMemorySize, pero se liberan todos al cerrar el almacén, sin esperar
+al recolector de basura, y los ByteBuffer que se obtienen de ellos lanzan IllegalStateException
+si se usan después.
+ComplexFanStore la carga por reflexión, ası́ que se compila y se ejecuta aparte:
+
+	javac --add-modules jdk.incubator.foreign -cp out -d out foreign/ComplexFanStoreForeign.java
+	java --add-modules jdk.incubator.foreign -cp out ComplexFanStoreBenchmark
+ * @author Manuel Cipriano
+ */
+
+class ComplexFanStoreForeign implements ComplexFanStoreMemory {
+	private final ResourceScope scope = ResourceScope.newSharedScope();	// el alcance de todos los bloques
+
+	/**
+	 * Función para reservar un bloque nativo en el alcance del almacén.
+	 * @param bytes el tamaño del bloque en bytes
+	 * @return el bloque, en little endian y con ceros
+	 */
+	@Override
+	public ByteBuffer allocate(int bytes){
+		return MemorySegment.allocateNative(bytes, 8, scope).asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Función para liberar todos los bloques del almacén; cerrarla otra vez no hace nada.
+	 */
+	@Override
+	public void close(){
+		if (scope.isAlive()){
+			scope.close();
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mediciones de las operaciones de AngleInterval con ángulos que se traslapan, que cruzan los 0
+grados, puntuales y cuya suma abarca los 360 grados.
+ * @author Manuel Cipriano
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AngleIntervalJmh {
+	@Param({"traslape", "cruce0", "puntual", "circulo"})
+	public String operands;		// el conjunto de operandos de ComplexFanBenchmark
+
+	private Supplier<?> addition;
+	private Supplier<?> subtraction;
+	private Supplier<?> add180toAI;
+	private Supplier<?> normalize;
+	private Supplier<?> modulo360;
+
+	@Setup
+	public void setup(){
+		addition = Operations.get("AngleInterval.addition", operands);
+		subtraction = Operations.get("AngleInterval.subtraction", operands);
+		add180toAI = Operations.get("AngleInterval.add180toAI", operands);
+		normalize = Operations.get("AngleInterval.normalize", operands);
+		modulo360 = Operations.get("AngleInterval.modulo360", operands);
+	}
+
+	@Benchmark
+	public Object addition(){
+		return addition.get();
+	}
+
+	@Benchmark
+	public Object subtraction(){
+		return subtraction.get();
+	}
+
+	@Benchmark
+	public Object add180toAI(){
+		return add180toAI.get();
+	}
+
+	@Benchmark
+	public Object normalize(){
+		return normalize.get();
+	}
+
+	@Benchmark
+	public Object modulo360(){
+		return modulo360.get();
+	}
+}
@@ -0,0 +1,51 @@
+package jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mediciones de la unión de intervalos de ángulo: las partes contiguas que produce part y
+muchos arcos en desorden que cubren el cı́rculo o dejan huecos.
+ * @author Manuel Cipriano
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArcJmh {
+	@Param({"2partes", "3partes", "4partes", "25arcos", "1000arcos", "25huecos", "1000huecos"})
+	public String operands;		// el conjunto de operandos de ComplexFanBenchmark
+
+	private Supplier<?> unionAIs;
+	private Supplier<?> verifyCase0to360ofList;
+
+	@Setup
+	public void setup(){
+		unionAIs = Operations.get("AngleInterval.unionAIs", operands);
+		verifyCase0to360ofList = Operations.get("AngleInterval.verifyCase0to360ofList", operands);
+	}
+
+	@Benchmark
+	public Object unionAIs(){
+		return unionAIs.get();
+	}
+
+	@Benchmark
+	public Object verifyCase0to360ofList(){
+		return verifyCase0to360ofList.get();
+	}
+}
@@ -0,0 +1,73 @@
+package jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mediciones de las operaciones de ComplexFanBatch que trabajan sobre las columnas. Con -prof gc,
+gc.alloc.rate.norm de la suma y la resta muestra que sólo se reserva el espacio de trabajo de
+AdditionKernel, una vez por lote y no por posición.
+ * @author Manuel Cipriano
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchJmh {
+	@Param({"1024abanicos"})
+	public String operands;		// el conjunto de operandos de ComplexFanBenchmark
+
+	private Supplier<?> product;
+	private Supplier<?> division;
+	private Supplier<?> negation;
+	private Supplier<?> addition;
+	private Supplier<?> subtraction;
+
+	@Setup
+	public void setup(){
+		product = Operations.get("ComplexFanBatch.product", operands);
+		division = Operations.get("ComplexFanBatch.division", operands);
+		negation = Operations.get("ComplexFanBatch.negation", operands);
+		addition = Operations.get("ComplexFanBatch.addition", operands);
+		subtraction = Operations.get("ComplexFanBatch.subtraction", operands);
+	}
+
+	@Benchmark
+	public Object product(){
+		return product.get();
+	}
+
+	@Benchmark
+	public Object division(){
+		return division.get();
+	}
+
+	@Benchmark
+	public Object negation(){
+		return negation.get();
+	}
+
+	@Benchmark
+	public Object addition(){
+		return addition.get();
+	}
+
+	@Benchmark
+	public Object subtraction(){
+		return subtraction.get();
+	}
+}
@@ -0,0 +1,51 @@
+package jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mediciones de la unión de muchos intervalos de magnitud encadenados en desorden, con
+unionOfMIs y con Interval.unionAll.
+ * @author Manuel Cipriano
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChainJmh {
+	@Param({"25partes", "1000partes"})
+	public String operands;		// el conjunto de operandos de ComplexFanBenchmark
+
+	private Supplier<?> unionOfMIs;
+	private Supplier<?> unionAll;
+
+	@Setup
+	public void setup(){
+		unionOfMIs = Operations.get("ComplexFan.unionOfMIs", operands);
+		unionAll = Operations.get("Interval.unionAll", operands);
+	}
+
+	@Benchmark
+	public Object unionOfMIs(){
+		return unionOfMIs.get();
+	}
+
+	@Benchmark
+	public Object unionAll(){
+		return unionAll.get();
+	}
+}
@@ -0,0 +1,101 @@
+package jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mediciones de las operaciones de ComplexFan con un conjunto de operandos por cada resultado de
+verifyCase (casos 1 a 4), ángulos que cruzan los 0 grados, abanicos puntuales y casi puntuales
+y sumas cuyo resultado abarca los 360 grados.
+ * @author Manuel Cipriano
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplexFanJmh {
+	@Param({"caso1", "caso2", "caso3", "caso4", "cruce0", "puntual", "casipuntual", "circulo"})
+	public String operands;		// el conjunto de operandos de ComplexFanBenchmark
+
+	private Supplier<?> addition;
+	private Supplier<?> subtraction;
+	private Supplier<?> product;
+	private Supplier<?> division;
+	private Supplier<?> negation;
+	private Supplier<?> part;
+	private Supplier<?> verifyCase;
+	private Supplier<?> encode;
+	private Supplier<?> coverage;
+
+	@Setup
+	public void setup(){
+		addition = Operations.get("ComplexFan.addition", operands);
+		subtraction = Operations.get("ComplexFan.subtraction", operands);
+		product = Operations.get("ComplexFan.product", operands);
+		division = Operations.get("ComplexFan.division", operands);
+		negation = Operations.get("ComplexFan.negation", operands);
+		part = Operations.get("ComplexFan.part", operands);
+		verifyCase = Operations.get("ComplexFan.verifyCase", operands);
+		encode = Operations.get("QuadrantMask.encode", operands);
+		coverage = Operations.get("QuadrantMask.coverage", operands);
+	}
+
+	@Benchmark
+	public Object addition(){
+		return addition.get();
+	}
+
+	@Benchmark
+	public Object subtraction(){
+		return subtraction.get();
+	}
+
+	@Benchmark
+	public Object product(){
+		return product.get();
+	}
+
+	@Benchmark
+	public Object division(){
+		return division.get();
+	}
+
+	@Benchmark
+	public Object negation(){
+		return negation.get();
+	}
+
+	@Benchmark
+	public Object part(){
+		return part.get();
+	}
+
+	@Benchmark
+	public Object verifyCase(){
+		return verifyCase.get();
+	}
+
+	@Benchmark
+	public Object encode(){
+		return encode.get();
+	}
+
+	@Benchmark
+	public Object coverage(){
+		return coverage.get();
+	}
+}
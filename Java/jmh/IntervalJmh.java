@@ -0,0 +1,135 @@
+package jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mediciones de las operaciones de Interval e ImmutableInterval con intervalos que se traslapan,
+contiguos, disjuntos y puntuales.
+ * @author Manuel Cipriano
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntervalJmh {
+	@Param({"traslape", "contiguo", "disjunto", "puntual"})
+	public String operands;		// el conjunto de operandos de ComplexFanBenchmark
+
+	private Supplier<?> intersection;
+	private Supplier<?> union;
+	private Supplier<?> addition;
+	private Supplier<?> subtraction;
+	private Supplier<?> product;
+	private Supplier<?> division;
+	private Supplier<?> negation;
+	private Supplier<?> isEmpty;
+	private Supplier<?> byConstant;
+	private Supplier<?> immutableIntersection;
+	private Supplier<?> immutableUnion;
+	private Supplier<?> immutableAddition;
+	private Supplier<?> immutableSubtraction;
+	private Supplier<?> immutableIntersectionIsEmpty;
+
+	@Setup
+	public void setup(){
+		intersection = Operations.get("Interval.intersection", operands);
+		union = Operations.get("Interval.union", operands);
+		addition = Operations.get("Interval.addition", operands);
+		subtraction = Operations.get("Interval.subtraction", operands);
+		product = Operations.get("Interval.product", operands);
+		division = Operations.get("Interval.division", operands);
+		negation = Operations.get("Interval.negation", operands);
+		isEmpty = Operations.get("Interval.isEmpty", operands);
+		byConstant = Operations.get("Interval.byConstant", operands);
+		immutableIntersection = Operations.get("ImmutableInterval.intersection", operands);
+		immutableUnion = Operations.get("ImmutableInterval.union", operands);
+		immutableAddition = Operations.get("ImmutableInterval.addition", operands);
+		immutableSubtraction = Operations.get("ImmutableInterval.subtraction", operands);
+		immutableIntersectionIsEmpty = Operations.get("ImmutableInterval.intersectionIsEmpty", operands);
+	}
+
+	@Benchmark
+	public Object intersection(){
+		return intersection.get();
+	}
+
+	@Benchmark
+	public Object union(){
+		return union.get();
+	}
+
+	@Benchmark
+	public Object addition(){
+		return addition.get();
+	}
+
+	@Benchmark
+	public Object subtraction(){
+		return subtraction.get();
+	}
+
+	@Benchmark
+	public Object product(){
+		return product.get();
+	}
+
+	@Benchmark
+	public Object division(){
+		return division.get();
+	}
+
+	@Benchmark
+	public Object negation(){
+		return negation.get();
+	}
+
+	@Benchmark
+	public Object isEmpty(){
+		return isEmpty.get();
+	}
+
+	@Benchmark
+	public Object byConstant(){
+		return byConstant.get();
+	}
+
+	@Benchmark
+	public Object immutableIntersection(){
+		return immutableIntersection.get();
+	}
+
+	@Benchmark
+	public Object immutableUnion(){
+		return immutableUnion.get();
+	}
+
+	@Benchmark
+	public Object immutableAddition(){
+		return immutableAddition.get();
+	}
+
+	@Benchmark
+	public Object immutableSubtraction(){
+		return immutableSubtraction.get();
+	}
+
+	@Benchmark
+	public Object immutableIntersectionIsEmpty(){
+		return immutableIntersectionIsEmpty.get();
+	}
+}
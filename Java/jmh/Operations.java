@@ -0,0 +1,51 @@
+package jmh;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * Puente entre las mediciones de JMH y el catálogo ComplexFanBenchmark. JMH exige que las
+mediciones estén en un paquete con nombre y desde un paquete con nombre no se pueden usar las
+clases del paquete por omisión, ası́ que cada operación se obtiene por reflexión una sola vez,
+en el @Setup de la medición; lo que se mide es sólo la llamada a la operación.
+ * @author Manuel Cipriano
+ */
+
+final class Operations {
+	private static final Method OPERATION = lookup();	// ComplexFanBenchmark.operation
+
+	private Operations(){
+	}
+
+	/**
+	 * Función para encontrar la función operation del catálogo.
+	 * @return la función
+	 */
+	private static Method lookup(){
+		try {
+			return Class.forName("ComplexFanBenchmark").getMethod("operation", String.class, String.class);
+		} catch (ReflectiveOperationException e){
+			throw new IllegalStateException("No se encontró el catálogo ComplexFanBenchmark", e);
+		}
+	}
+
+	/**
+	 * Función para obtener una operación del catálogo.
+	 * @param name el nombre de la operación, por ejemplo "ComplexFan.addition"
+	 * @param params el nombre del conjunto de operandos, por ejemplo "caso1"
+	 * @return la operación
+	 */
+	static Supplier<?> get(String name, String params){
+		try {
+			return (Supplier<?>)OPERATION.invoke(null, name, params);
+		} catch (InvocationTargetException e){
+			if (e.getCause() instanceof RuntimeException){
+				throw (RuntimeException)e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (IllegalAccessException e){
+			throw new IllegalStateException(e);
+		}
+	}
+}
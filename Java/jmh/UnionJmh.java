@@ -0,0 +1,51 @@
+package jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mediciones de unionOfMIs y unionOfAIs con resultados parciales de la suma cuyos ángulos se
+traslapan, son contiguos o están separados.
+ * @author Manuel Cipriano
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnionJmh {
+	@Param({"2partes", "3partes", "4partes", "5partes"})
+	public String operands;		// el conjunto de operandos de ComplexFanBenchmark
+
+	private Supplier<?> unionOfMIs;
+	private Supplier<?> unionOfAIs;
+
+	@Setup
+	public void setup(){
+		unionOfMIs = Operations.get("ComplexFan.unionOfMIs", operands);
+		unionOfAIs = Operations.get("ComplexFan.unionOfAIs", operands);
+	}
+
+	@Benchmark
+	public Object unionOfMIs(){
+		return unionOfMIs.get();
+	}
+
+	@Benchmark
+	public Object unionOfAIs(){
+		return unionOfAIs.get();
+	}
+}
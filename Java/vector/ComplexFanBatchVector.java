@@ -0,0 +1,339 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Esta clase implementa la negación, el producto y la división de ComplexFanBatch con la
+Vector API (jdk.incubator.vector), procesando tantas posiciones por instrucción como quepan
+en los registros de la máquina. Los resultados son idénticos bit a bit a los de los ciclos
+escalares: se hacen las mismas operaciones de punto flotante, sólo que las decisiones de
+Interval.normalize y AngleInterval.normalize se toman con máscaras en lugar de saltos. Para
+ángulos en [-360, 720], que es lo que da operar ángulos normalizados, AngleInterval.modulo360
+hace a lo más una resta o una suma de 360, ası́ que se calculan ambas y se escoge con máscaras;
+si algún ángulo de un vector cae fuera de ese rango, ese vector se corrige posición por
+posición con AngleInterval.modulo360. Cada operación tiene su propio ciclo completo para que el
+JIT no pase vectores entre funciones, lo que lo obligarı́a a guardarlos en objetos.
+ComplexFanBatch la carga por reflexión, ası́ que se compila y se ejecuta aparte:
+
+	javac --add-modules jdk.incubator.vector -cp out -d out vector/ComplexFanBatchVector.java
+	java --add-modules jdk.incubator.vector -cp out ...
+ * @author Manuel Cipriano
+ */
+
+class ComplexFanBatchVector implements ComplexFanBatchKernels {
+	private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;	// la forma de los vectores de extremos
+	private static final VectorSpecies<Byte> B = ByteVector.SPECIES_PREFERRED;		// la forma de los vectores de lı́mites
+	private static final byte MAGNITUDE_FLAGS = ComplexFanBatch.MAGNITUDE_FE_CLOSED|ComplexFanBatch.MAGNITUDE_SE_CLOSED;
+	private static final byte FE_FLAGS = ComplexFanBatch.MAGNITUDE_FE_CLOSED|ComplexFanBatch.ANGLE_FE_CLOSED;
+
+	/**
+	 * Función para calcular la negación de cada abanico complejo de un lote.
+	 * @param b el lote a negar
+	 * @param res el lote donde se guarda el resultado, puede ser el mismo que b
+	 */
+	@Override
+	public void negation(ComplexFanBatch b, ComplexFanBatch res){
+		int n = b.size();
+		if (res!=b){
+			System.arraycopy(b.flags, 0, res.flags, 0, n);
+		}
+		int i = 0;
+		for (; i<D.loopBound(n); i+=D.length()){
+			DoubleVector mfe = DoubleVector.fromArray(D, b.magnitudeFE, i);
+			DoubleVector mse = DoubleVector.fromArray(D, b.magnitudeSE, i);
+			DoubleVector afe = DoubleVector.fromArray(D, b.angleFE, i).add(180.0d);
+			DoubleVector ase = DoubleVector.fromArray(D, b.angleSE, i).add(180.0d);
+			VectorMask<Double> swap = mfe.compare(VectorOperators.GT, mse);
+			mfe.blend(mse, swap).intoArray(res.magnitudeFE, i);
+			mse.blend(mfe, swap).intoArray(res.magnitudeSE, i);
+			if (swap.anyTrue()){
+				swapMagnitudeFlags(res.flags, i, swap.toLong());
+			}
+			if (!afe.max(ase).compare(VectorOperators.LE, 720.0d).and(afe.min(ase).compare(VectorOperators.GE, -360.0d)).allTrue()){
+				afe.intoArray(res.angleFE, i);
+				ase.intoArray(res.angleSE, i);
+				normalizeAngles(res, i, i+D.length());
+				continue;
+			}
+			afe = afe.blend(afe.sub(360.0d), afe.compare(VectorOperators.GT, 360.0d));
+			afe = afe.blend(afe.add(360.0d), afe.compare(VectorOperators.LT, 0.0d));
+			ase = ase.blend(ase.sub(360.0d), ase.compare(VectorOperators.GT, 360.0d));
+			ase = ase.blend(ase.add(360.0d), ase.compare(VectorOperators.LT, 0.0d));
+			afe = afe.blend(0.0d, afe.eq(360.0d).and(ase.compare(VectorOperators.NE, 360.0d)));
+			ase = ase.blend(360.0d, ase.eq(0.0d).and(afe.compare(VectorOperators.NE, 0.0d)));
+			afe.intoArray(res.angleFE, i);
+			ase.intoArray(res.angleSE, i);
+		}
+		for (; i<n; i++){
+			store(res, i, b.magnitudeFE[i], b.magnitudeSE[i], b.angleFE[i]+180.0d, b.angleSE[i]+180.0d);
+		}
+	}
+
+	/**
+	 * Función para calcular el producto posición por posición de dos lotes.
+	 * @param b1 el lote del primer operando
+	 * @param b2 el lote del segundo operando
+	 * @param res el lote donde se guarda el resultado, puede ser el mismo que b1 o b2
+	 */
+	@Override
+	public void product(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res){
+		productFlags(b1, b2, res);
+		int n = b1.size();
+		int i = 0;
+		for (; i<D.loopBound(n); i+=D.length()){
+			DoubleVector mfe = DoubleVector.fromArray(D, b1.magnitudeFE, i).mul(DoubleVector.fromArray(D, b2.magnitudeFE, i));
+			DoubleVector mse = DoubleVector.fromArray(D, b1.magnitudeSE, i).mul(DoubleVector.fromArray(D, b2.magnitudeSE, i));
+			DoubleVector afe = DoubleVector.fromArray(D, b1.angleFE, i).add(DoubleVector.fromArray(D, b2.angleFE, i));
+			DoubleVector ase = DoubleVector.fromArray(D, b1.angleSE, i).add(DoubleVector.fromArray(D, b2.angleSE, i));
+			VectorMask<Double> swap = mfe.compare(VectorOperators.GT, mse);
+			mfe.blend(mse, swap).intoArray(res.magnitudeFE, i);
+			mse.blend(mfe, swap).intoArray(res.magnitudeSE, i);
+			if (swap.anyTrue()){
+				swapMagnitudeFlags(res.flags, i, swap.toLong());
+			}
+			if (!afe.max(ase).compare(VectorOperators.LE, 720.0d).and(afe.min(ase).compare(VectorOperators.GE, -360.0d)).allTrue()){
+				afe.intoArray(res.angleFE, i);
+				ase.intoArray(res.angleSE, i);
+				normalizeAngles(res, i, i+D.length());
+				continue;
+			}
+			afe = afe.blend(afe.sub(360.0d), afe.compare(VectorOperators.GT, 360.0d));
+			afe = afe.blend(afe.add(360.0d), afe.compare(VectorOperators.LT, 0.0d));
+			ase = ase.blend(ase.sub(360.0d), ase.compare(VectorOperators.GT, 360.0d));
+			ase = ase.blend(ase.add(360.0d), ase.compare(VectorOperators.LT, 0.0d));
+			afe = afe.blend(0.0d, afe.eq(360.0d).and(ase.compare(VectorOperators.NE, 360.0d)));
+			ase = ase.blend(360.0d, ase.eq(0.0d).and(afe.compare(VectorOperators.NE, 0.0d)));
+			afe.intoArray(res.angleFE, i);
+			ase.intoArray(res.angleSE, i);
+		}
+		for (; i<n; i++){
+			store(res, i, b1.magnitudeFE[i]*b2.magnitudeFE[i], b1.magnitudeSE[i]*b2.magnitudeSE[i], b1.angleFE[i]+b2.angleFE[i], b1.angleSE[i]+b2.angleSE[i]);
+		}
+	}
+
+	/**
+	 * Función para calcular la división posición por posición de dos lotes.
+	 * @param b1 el lote de los dividendos
+	 * @param b2 el lote de los divisores
+	 * @param res el lote donde se guarda el resultado, puede ser el mismo que b1 o b2
+	 */
+	@Override
+	public void division(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res){
+		checkDivisors(b2);
+		divisionFlags(b1, b2, res);
+		int n = b1.size();
+		int i = 0;
+		for (; i<D.loopBound(n); i+=D.length()){
+			DoubleVector mfe = DoubleVector.fromArray(D, b1.magnitudeFE, i).div(DoubleVector.fromArray(D, b2.magnitudeSE, i));
+			DoubleVector mse = DoubleVector.fromArray(D, b1.magnitudeSE, i).div(DoubleVector.fromArray(D, b2.magnitudeFE, i));
+			DoubleVector afe = DoubleVector.fromArray(D, b1.angleFE, i).sub(DoubleVector.fromArray(D, b2.angleSE, i));
+			DoubleVector ase = DoubleVector.fromArray(D, b1.angleSE, i).sub(DoubleVector.fromArray(D, b2.angleFE, i));
+			VectorMask<Double> swap = mfe.compare(VectorOperators.GT, mse);
+			mfe.blend(mse, swap).intoArray(res.magnitudeFE, i);
+			mse.blend(mfe, swap).intoArray(res.magnitudeSE, i);
+			if (swap.anyTrue()){
+				swapMagnitudeFlags(res.flags, i, swap.toLong());
+			}
+			if (!afe.max(ase).compare(VectorOperators.LE, 720.0d).and(afe.min(ase).compare(VectorOperators.GE, -360.0d)).allTrue()){
+				afe.intoArray(res.angleFE, i);
+				ase.intoArray(res.angleSE, i);
+				normalizeAngles(res, i, i+D.length());
+				continue;
+			}
+			afe = afe.blend(afe.sub(360.0d), afe.compare(VectorOperators.GT, 360.0d));
+			afe = afe.blend(afe.add(360.0d), afe.compare(VectorOperators.LT, 0.0d));
+			ase = ase.blend(ase.sub(360.0d), ase.compare(VectorOperators.GT, 360.0d));
+			ase = ase.blend(ase.add(360.0d), ase.compare(VectorOperators.LT, 0.0d));
+			afe = afe.blend(0.0d, afe.eq(360.0d).and(ase.compare(VectorOperators.NE, 360.0d)));
+			ase = ase.blend(360.0d, ase.eq(0.0d).and(afe.compare(VectorOperators.NE, 0.0d)));
+			afe.intoArray(res.angleFE, i);
+			ase.intoArray(res.angleSE, i);
+		}
+		for (; i<n; i++){
+			store(res, i, b1.magnitudeFE[i]/b2.magnitudeSE[i], b1.magnitudeSE[i]/b2.magnitudeFE[i], b1.angleFE[i]-b2.angleSE[i], b1.angleSE[i]-b2.angleFE[i]);
+		}
+	}
+
+	/**
+	 * Función para calcular los lı́mites del producto: cada extremo es cerrado si lo es en
+	ambos operandos.
+	 * @param b1 el lote del primer operando
+	 * @param b2 el lote del segundo operando
+	 * @param res el lote del resultado
+	 */
+	private static void productFlags(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res){
+		int n = b1.size();
+		int i = 0;
+		for (; i<B.loopBound(n); i+=B.length()){
+			ByteVector f1 = ByteVector.fromArray(B, b1.flags, i);
+			ByteVector f2 = ByteVector.fromArray(B, b2.flags, i);
+			f1.and(f2).intoArray(res.flags, i);
+		}
+		for (; i<n; i++){
+			res.flags[i] = (byte)(b1.flags[i]&b2.flags[i]);
+		}
+	}
+
+	/**
+	 * Función para calcular los lı́mites de la división. Se cruzan igual que en
+	Interval.subtraction: los del primer extremo del dividendo con los del segundo extremo del
+	divisor y viceversa.
+	 * @param b1 el lote de los dividendos
+	 * @param b2 el lote de los divisores
+	 * @param res el lote del resultado
+	 */
+	private static void divisionFlags(ComplexFanBatch b1, ComplexFanBatch b2, ComplexFanBatch res){
+		int n = b1.size();
+		int i = 0;
+		for (; i<B.loopBound(n); i+=B.length()){
+			ByteVector f1 = ByteVector.fromArray(B, b1.flags, i);
+			ByteVector f2 = ByteVector.fromArray(B, b2.flags, i);
+			ByteVector crossed = f2.and(FE_FLAGS).lanewise(VectorOperators.LSHL, 1).or(f2.lanewise(VectorOperators.LSHR, 1).and(FE_FLAGS));
+			f1.and(crossed).intoArray(res.flags, i);
+		}
+		for (; i<n; i++){
+			res.flags[i] = (byte)(b1.flags[i]&cross(b2.flags[i]));
+		}
+	}
+
+	/**
+	 * Función para verificar que ningún divisor tenga un extremo de magnitud igual a cero.
+	 * @param b2 el lote de los divisores
+	 * @throws ArithmeticException si algún divisor tiene magnitud cero
+	 */
+	private static void checkDivisors(ComplexFanBatch b2){
+		int n = b2.size();
+		int i = 0;
+		for (; i<D.loopBound(n); i+=D.length()){
+			DoubleVector dfe = DoubleVector.fromArray(D, b2.magnitudeFE, i);
+			DoubleVector dse = DoubleVector.fromArray(D, b2.magnitudeSE, i);
+			VectorMask<Double> zero = dfe.eq(0.0d).or(dse.eq(0.0d));
+			if (zero.anyTrue()){
+				throw divisionByZero(i+zero.firstTrue());
+			}
+		}
+		for (; i<n; i++){
+			if (b2.magnitudeFE[i]==0.0d||b2.magnitudeSE[i]==0.0d){
+				throw divisionByZero(i);
+			}
+		}
+	}
+
+	/**
+	 * Función para normalizar los intervalos de ángulo de un vector ya guardado, posición
+	por posición igual que ComplexFanBatch.setNormalized. Se usa cuando algún ángulo cae fuera
+	de [-360, 720] (o es NaN) y una sola resta o suma de 360 no basta.
+	 * @param res el lote
+	 * @param from la primera posición (incluida)
+	 * @param to la última posición (excluida)
+	 */
+	private static void normalizeAngles(ComplexFanBatch res, int from, int to){
+		for (int i=from; i<to; i++){
+			normalizeAngle(res, i);
+		}
+	}
+
+	/**
+	 * Función para normalizar el intervalo de ángulo de una posición ya guardada, igual que
+	ComplexFanBatch.setNormalized.
+	 * @param res el lote
+	 * @param i la posición en el lote
+	 */
+	private static void normalizeAngle(ComplexFanBatch res, int i){
+		double afe = res.angleFE[i], ase = res.angleSE[i];
+		if (afe>360.0||afe<0.0){
+			afe = AngleInterval.modulo360(afe);
+		}
+		if (ase>360.0||ase<0.0){
+			ase = AngleInterval.modulo360(ase);
+		}
+		if (afe==360.0&&ase!=360.0){
+			afe = 0.0d;
+		}
+		if (ase==0.0&&afe!=0.0){
+			ase = 360.0d;
+		}
+		res.angleFE[i] = afe;
+		res.angleSE[i] = ase;
+	}
+
+	/**
+	 * Función para guardar los extremos de una sola posición, para las posiciones que no
+	completan un vector.
+	 * @param res el lote del resultado
+	 * @param i la posición en el lote
+	 * @param mfe el primer extremo de magnitud
+	 * @param mse el segundo extremo de magnitud
+	 * @param afe el primer extremo de ángulo
+	 * @param ase el segundo extremo de ángulo
+	 */
+	private static void store(ComplexFanBatch res, int i, double mfe, double mse, double afe, double ase){
+		if (mfe>mse){
+			double aux = mfe;
+			mfe = mse;
+			mse = aux;
+			res.flags[i] = swapMagnitudeFlags(res.flags[i]);
+		}
+		if (afe>360.0||afe<0.0){
+			afe = AngleInterval.modulo360(afe);
+		}
+		if (ase>360.0||ase<0.0){
+			ase = AngleInterval.modulo360(ase);
+		}
+		if (afe==360.0&&ase!=360.0){
+			afe = 0.0d;
+		}
+		if (ase==0.0&&afe!=0.0){
+			ase = 360.0d;
+		}
+		res.magnitudeFE[i] = mfe;
+		res.magnitudeSE[i] = mse;
+		res.angleFE[i] = afe;
+		res.angleSE[i] = ase;
+	}
+
+	/**
+	 * Función para intercambiar los lı́mites de magnitud en las posiciones de un vector
+	donde se intercambiaron los extremos.
+	 * @param flags los lı́mites del lote
+	 * @param i la primera posición del vector
+	 * @param bits la máscara de las posiciones, un bit por posición
+	 */
+	private static void swapMagnitudeFlags(byte []flags, int i, long bits){
+		for (; bits!=0; bits &= bits-1){
+			int k = i+Long.numberOfTrailingZeros(bits);
+			flags[k] = swapMagnitudeFlags(flags[k]);
+		}
+	}
+
+	/**
+	 * Función para intercambiar los lı́mites de los dos extremos de magnitud.
+	 * @param f los lı́mites empaquetados
+	 * @return los lı́mites con los de magnitud intercambiados
+	 */
+	private static byte swapMagnitudeFlags(byte f){
+		int m = f&MAGNITUDE_FLAGS;
+		return (byte)((f&~MAGNITUDE_FLAGS)|((m<<1)&MAGNITUDE_FLAGS)|(m>>1));
+	}
+
+	/**
+	 * Función para intercambiar los lı́mites de primer y segundo extremo, tanto de magnitud
+	como de ángulo.
+	 * @param f los lı́mites empaquetados
+	 * @return los lı́mites cruzados
+	 */
+	private static int cross(byte f){
+		return ((f&FE_FLAGS)<<1)|((f>>1)&FE_FLAGS);
+	}
+
+	/**
+	 * Función que crea el error de dividir entre un abanico con magnitud cero.
+	 * @param i la posición del primer divisor con magnitud cero
+	 * @return el error, igual al de los ciclos escalares
+	 */
+	private static ArithmeticException divisionByZero(int i){
+		return new ArithmeticException("División por cero en la posición "+i);
+	}
+}